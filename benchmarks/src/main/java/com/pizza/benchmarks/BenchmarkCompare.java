@@ -0,0 +1,127 @@
+package com.pizza.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+/**
+ * Compares two JSON result files of {@link BenchmarkMain}, benchmark by benchmark:
+ * <pre>
+ * java -cp target/benchmarks.jar com.pizza.benchmarks.BenchmarkCompare results/old.json results/new.json
+ * </pre>
+ * A change is only called faster or slower when the scores are further apart than their errors
+ * (99.9% confidence intervals) added up; otherwise it is within error.
+ */
+public final class BenchmarkCompare {
+
+    private static final String PACKAGE = BenchmarkCompare.class.getPackageName() + ".";
+
+    private BenchmarkCompare() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchmarkCompare <baseline.json> <current.json>");
+            System.exit(2);
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        compare(read(objectMapper, Path.of(args[0])), read(objectMapper, Path.of(args[1])))
+                .forEach(System.out::println);
+    }
+
+    /**
+     * Scores of a JMH JSON result file by benchmark and parameters, in the order of the file
+     */
+    static Map<String, Score> read(ObjectMapper objectMapper, Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : objectMapper.readTree(file.toFile())) {
+            JsonNode metric = result.path("primaryMetric");
+            scores.put(key(result), new Score(result.path("mode").asText(), metric.path("score").asDouble(),
+                    metric.path("scoreError").asDouble(Double.NaN), metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    private static String key(JsonNode result) {
+        String benchmark = result.path("benchmark").asText();
+        if (benchmark.startsWith(PACKAGE)) {
+            benchmark = benchmark.substring(PACKAGE.length());
+        }
+        Map<String, String> params = new TreeMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = result.path("params").fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> param = it.next();
+            params.put(param.getKey(), param.getValue().asText());
+        }
+        if (params.isEmpty()) {
+            return benchmark;
+        }
+        StringJoiner key = new StringJoiner(",", benchmark + " [", "]");
+        params.forEach((name, value) -> key.add(name + "=" + value));
+        return key.toString();
+    }
+
+    /**
+     * One line per benchmark of either run
+     */
+    static List<String> compare(Map<String, Score> baseline, Map<String, Score> current) {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%-72s %14s %14s %-8s %8s  %s", "Benchmark", "Baseline", "Current", "Unit",
+                "Change", "Verdict"));
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null || !before.unit.equals(after.unit) || !before.mode.equals(after.mode)) {
+                lines.add(String.format("%-72s %14s %14.3f %-8s %8s  %s", entry.getKey(), "-", after.score,
+                        after.unit, "-", "new"));
+                continue;
+            }
+            double change = (after.score - before.score) / before.score * 100;
+            lines.add(String.format("%-72s %14.3f %14.3f %-8s %+7.1f%%  %s", entry.getKey(), before.score,
+                    after.score, after.unit, change, verdict(before, after)));
+        }
+        for (Map.Entry<String, Score> entry : baseline.entrySet()) {
+            if (!current.containsKey(entry.getKey())) {
+                lines.add(String.format("%-72s %14.3f %14s %-8s %8s  %s", entry.getKey(), entry.getValue().score,
+                        "-", entry.getValue().unit, "-", "removed"));
+            }
+        }
+        return lines;
+    }
+
+    private static String verdict(Score before, Score after) {
+        double error = before.error + after.error;
+        if (Double.isNaN(error) || Math.abs(after.score - before.score) <= error) {
+            return "within error";
+        }
+        // Throughput modes score operations per time, the others time per operation
+        boolean higherIsBetter = "thrpt".equals(after.mode);
+        return (after.score > before.score) == higherIsBetter ? "faster" : "slower";
+    }
+
+    /**
+     * Primary result of a benchmark
+     */
+    static final class Score {
+
+        final String mode;
+        final double score;
+        final double error;
+        final String unit;
+
+        Score(String mode, double score, double error, String unit) {
+            this.mode = mode;
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.pizza.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Main class of {@code benchmarks.jar}. Takes the JMH command line options and, unless
+ * {@code -rf} or {@code -rff} say otherwise, writes the results as JSON to
+ * {@code results/<yyyyMMdd-HHmmss>.json}, so every run leaves a file {@link BenchmarkCompare}
+ * can compare with earlier ones.
+ */
+public final class BenchmarkMain {
+
+    static final Path RESULTS = Path.of("results");
+    private static final DateTimeFormatter FILE_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = withJsonResults(args, LocalDateTime.now());
+        int file = options.indexOf("-rff");
+        if (file >= 0 && file + 1 < options.size()) {
+            Path directory = Path.of(options.get(file + 1)).toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+        }
+        Main.main(options.toArray(String[]::new));
+    }
+
+    /**
+     * The options with the JSON result format and a result file of the given time added, where
+     * they are not set
+     */
+    static List<String> withJsonResults(String[] args, LocalDateTime now) {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        int format = options.indexOf("-rf");
+        if (format < 0) {
+            options.add("-rf");
+            options.add("json");
+        } else if (format + 1 >= options.size() || !"json".equalsIgnoreCase(options.get(format + 1))) {
+            // Another format; JMH names its file
+            return options;
+        }
+        if (!options.contains("-rff")) {
+            options.add("-rff");
+            options.add(RESULTS.resolve(FILE_NAME.format(now) + ".json").toString());
+        }
+        return options;
+    }
+}
@@ -0,0 +1,113 @@
+package com.pizza.benchmarks;
+
+import com.pizza.delivery.dedup.OrderDeduplicator;
+import com.pizza.delivery.dispatch.DispatchEngine;
+import com.pizza.delivery.dispatch.DispatchPolicy;
+import com.pizza.delivery.notification.NotificationDispatcher;
+import com.pizza.delivery.service.DeliveryChangeLog;
+import com.pizza.delivery.service.DeliveryService;
+import com.pizza.delivery.store.ColumnarDeliveryStore;
+import com.pizza.delivery.store.DeliveryArchive;
+import com.pizza.delivery.store.DeliveryJournal;
+import com.pizza.delivery.store.DeliveryStore;
+import com.pizza.delivery.store.HeapDeliveryStore;
+import com.pizza.models.OrderReadyEvent;
+import com.pizza.models.time.VirtualClock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * A DeliveryService with the production defaults, journaling and archiving to a temporary
+ * directory and running on a {@link VirtualClock} that only moves when a benchmark moves it.
+ * The scheduled status updates and archival are not started, and the notification dispatcher
+ * has no thread, so notifications past its capacity are dropped as under overload.
+ */
+final class DeliveryFixture implements AutoCloseable {
+
+    static final int DRIVERS = 100;
+    private static final int LOAD_BATCH = 1000;
+
+    final VirtualClock clock = new VirtualClock(Fixtures.START);
+    final DeliveryService service;
+    private final Path directory = Fixtures.createTempDirectory("pizza-bench-delivery");
+    private final DeliveryArchive archive;
+    private final DeliveryJournal journal;
+    private final NotificationDispatcher notifications;
+    private int orders;
+
+    /**
+     * @param store            "heap" or "columnar", as {@code delivery.store.type}
+     * @param driverCapacity   orders each of the {@link #DRIVERS} drivers carries at once
+     */
+    DeliveryFixture(String store, int driverCapacity) {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        archive = new DeliveryArchive(directory.resolve("archive").toString(), 4, 32, meterRegistry);
+        journal = new DeliveryJournal(directory.resolve("journal").toString(), 5, meterRegistry);
+        notifications = new NotificationDispatcher(List.of(), 10000, 256, meterRegistry);
+        DispatchEngine dispatchEngine = new DispatchEngine(drivers(), driverCapacity, DispatchPolicy.BATCHING,
+                meterRegistry);
+        service = new DeliveryService(deliveryStore(store, meterRegistry), archive,
+                new DeliveryChangeLog(10000, meterRegistry), dispatchEngine, journal, notifications,
+                new OrderDeduplicator(100000, 1000000, 0.001, meterRegistry), clock, meterRegistry);
+    }
+
+    /**
+     * Drivers spread evenly over the ten zones of {@link Fixtures#orderReadyEvent(String, int)}
+     */
+    private static String drivers() {
+        StringJoiner drivers = new StringJoiner(",");
+        for (int i = 0; i < DRIVERS; i++) {
+            drivers.add("driver-" + i + ":" + (80 + i % 10));
+        }
+        return drivers.toString();
+    }
+
+    private static DeliveryStore deliveryStore(String store, MeterRegistry meterRegistry) {
+        switch (store) {
+            case "heap":
+                return new HeapDeliveryStore();
+            case "columnar":
+                return new ColumnarDeliveryStore(meterRegistry);
+            default:
+                throw new IllegalArgumentException("Unknown delivery store " + store);
+        }
+    }
+
+    /**
+     * Create deliveries for further orders in batches, as the order.ready listener would
+     */
+    void load(int count) {
+        List<OrderReadyEvent> batch = new ArrayList<>(LOAD_BATCH);
+        for (int i = 0; i < count; i++) {
+            batch.add(nextEvent());
+            if (batch.size() == LOAD_BATCH) {
+                service.handleOrderReadyBatch(batch);
+                batch = new ArrayList<>(LOAD_BATCH);
+            }
+        }
+        service.handleOrderReadyBatch(batch);
+    }
+
+    /**
+     * Ready event of an order that has no delivery yet; order IDs have the length of real ones
+     */
+    OrderReadyEvent nextEvent() {
+        int n = orders++;
+        return Fixtures.orderReadyEvent(new UUID(n, n).toString(), n);
+    }
+
+    @Override
+    public void close() {
+        notifications.close();
+        journal.close();
+        archive.close();
+        clock.close();
+        Fixtures.deleteRecursively(directory);
+    }
+}
@@ -0,0 +1,110 @@
+package com.pizza.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.pizza.models.DeliveryStatus;
+import com.pizza.models.OrderPlacedEvent;
+import com.pizza.models.OrderReadyEvent;
+import com.pizza.models.OrderRequest;
+import com.pizza.models.immutable.JsonCodecModule;
+import com.pizza.models.json.PizzaJacksonAutoConfiguration;
+import com.pizza.models.json.PizzaTimeModule;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+
+/**
+ * Models and infrastructure the benchmarks share
+ */
+final class Fixtures {
+
+    /** Fixed simulated start, so every run sees the same timestamps */
+    static final LocalDateTime START = LocalDateTime.of(2026, 1, 16, 10, 0);
+
+    private static final String[] PIZZAS = {"Margherita", "Salami", "Funghi", "Quattro Formaggi", "Hawaii"};
+
+    private Fixtures() {
+    }
+
+    /**
+     * ObjectMapper as Spring Boot builds it for the services, including the modules of
+     * {@link PizzaJacksonAutoConfiguration} and its warm-up
+     */
+    static ObjectMapper objectMapper() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                        SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .modulesToInstall(new BlackbirdModule(), new PizzaTimeModule(), new JsonCodecModule())
+                .build();
+        PizzaJacksonAutoConfiguration.warmUp(objectMapper);
+        return objectMapper;
+    }
+
+    static OrderRequest orderRequest() {
+        return new OrderRequest("Margherita", 2, "Musterstrasse 123, 8000 Zurich", "Max Mustermann");
+    }
+
+    static OrderPlacedEvent orderPlacedEvent(String orderId) {
+        return new OrderPlacedEvent(orderId, "Margherita", 2, "Musterstrasse 123, 8000 Zurich", "Max Mustermann",
+                START, START.plusSeconds(1), START.plusSeconds(1));
+    }
+
+    static OrderReadyEvent orderReadyEvent(String orderId) {
+        return new OrderReadyEvent(orderId, "Margherita", 2, "Musterstrasse 123, 8000 Zurich", "Max Mustermann",
+                START.plusSeconds(10), START, START.plusSeconds(1), START.plusSeconds(1), START.plusSeconds(2),
+                START.plusSeconds(10));
+    }
+
+    /**
+     * Ready event of the n-th order; addresses are spread over ten delivery zones
+     */
+    static OrderReadyEvent orderReadyEvent(String orderId, int n) {
+        OrderReadyEvent event = orderReadyEvent(orderId);
+        event.setPizza(PIZZAS[n % PIZZAS.length]);
+        event.setQuantity(1 + n % 3);
+        event.setAddress("Musterstrasse " + (n % 200 + 1) + ", " + (8000 + n % 10 * 100) + " Zurich");
+        return event;
+    }
+
+    static DeliveryStatus deliveryStatus(String orderId) {
+        return new DeliveryStatus(orderId, "IN_TRANSIT", "Max Mustermann", "Musterstrasse 123, 8000 Zurich",
+                START, START.plusMinutes(30), null, START.plusSeconds(12), START.plusSeconds(12),
+                START.plusSeconds(32));
+    }
+
+    static Path createTempDirectory(String prefix) {
+        try {
+            return Files.createTempDirectory(prefix);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void deleteRecursively(Path directory) {
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                    Files.delete(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.pizza.benchmarks;
+
+import com.pizza.models.OrderReadyEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating deliveries for ready orders while the hot tier holds {@link #deliveries} others.
+ *
+ * Each measured call creates {@link #ORDERS} deliveries, one event at a time as a single
+ * message would, or as one batch as the batch listener receives them. Both include the fsync
+ * of the journal, once per event or once per batch. The store is filled once per fork and
+ * grows by the orders created while measuring, at most 3,000.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class HandleOrderReadyBenchmark {
+
+    /** Deliveries created by one measured call */
+    static final int ORDERS = 100;
+
+    @Param({"10000", "100000", "1000000"})
+    int deliveries;
+
+    @Param({"heap", "columnar"})
+    String store;
+
+    private DeliveryFixture fixture;
+    private List<OrderReadyEvent> events;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Room for every order, so none waits for a driver
+        fixture = new DeliveryFixture(store, deliveries / DeliveryFixture.DRIVERS + 100);
+        fixture.load(deliveries);
+    }
+
+    @Setup(Level.Invocation)
+    public void nextOrders() {
+        events = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            events.add(fixture.nextEvent());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void handleOrderReady() {
+        for (OrderReadyEvent event : events) {
+            fixture.service.handleOrderReady(event);
+        }
+    }
+
+    @Benchmark
+    public void handleOrderReadyBatch() {
+        fixture.service.handleOrderReadyBatch(events);
+    }
+}
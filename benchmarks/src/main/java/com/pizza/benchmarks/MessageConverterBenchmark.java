@@ -0,0 +1,129 @@
+package com.pizza.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizza.models.OrderPlacedEvent;
+import com.pizza.models.OrderReadyEvent;
+import com.pizza.models.immutable.DeliveryStatusRecord;
+import com.pizza.models.immutable.OrderPlacedEventRecord;
+import com.pizza.models.immutable.OrderReadyEventRecord;
+import com.pizza.models.schema.EventSchemaRegistry;
+import com.pizza.models.wire.EventMessageConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing and reading the models as AMQP messages.
+ *
+ * <ul>
+ *   <li>{@code jackson}: a {@link Jackson2JsonMessageConverter} as Spring AMQP creates it, with
+ *       its own ObjectMapper</li>
+ *   <li>{@code jackson-shared}: the same converter on the ObjectMapper the services share</li>
+ *   <li>{@code event-json}: the {@link EventMessageConverter} of the services, writing JSON with
+ *       schema versions as on every queue today</li>
+ *   <li>{@code event-binary}: the same with the binary format switched on for the events;
+ *       DeliveryStatus has no binary schema and stays JSON</li>
+ * </ul>
+ *
+ * The {@code ...Record} models are the immutable variants of {@code com.pizza.models.immutable},
+ * read and written by their generated codecs; they have no binary schema either.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageConverterBenchmark {
+
+    @Param({"jackson", "jackson-shared", "event-json", "event-binary"})
+    String converter;
+
+    @Param({"OrderPlacedEvent", "OrderReadyEvent", "DeliveryStatus",
+            "OrderPlacedEventRecord", "OrderReadyEventRecord", "DeliveryStatusRecord"})
+    String model;
+
+    private MessageConverter messageConverter;
+    private Object payload;
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        messageConverter = converter(converter);
+        String orderId = "018d1f2e-6a40-7000-8000-000000000001";
+        switch (model) {
+            case "OrderPlacedEvent":
+                payload = Fixtures.orderPlacedEvent(orderId);
+                break;
+            case "OrderReadyEvent":
+                payload = Fixtures.orderReadyEvent(orderId);
+                break;
+            case "DeliveryStatus":
+                payload = Fixtures.deliveryStatus(orderId);
+                break;
+            case "OrderPlacedEventRecord":
+                payload = OrderPlacedEventRecord.from(Fixtures.orderPlacedEvent(orderId));
+                break;
+            case "OrderReadyEventRecord":
+                payload = OrderReadyEventRecord.from(Fixtures.orderReadyEvent(orderId));
+                break;
+            case "DeliveryStatusRecord":
+                payload = DeliveryStatusRecord.from(Fixtures.deliveryStatus(orderId));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown model " + model);
+        }
+        message = messageConverter.toMessage(payload, new MessageProperties());
+        // Set by the listener adapter from the parameter type of the listener method
+        message.getMessageProperties().setInferredArgumentType(payload.getClass());
+    }
+
+    private static MessageConverter converter(String name) {
+        switch (name) {
+            case "jackson":
+                return new Jackson2JsonMessageConverter();
+            case "jackson-shared":
+                return new Jackson2JsonMessageConverter(Fixtures.objectMapper());
+            case "event-json":
+                return eventConverter(List.of());
+            case "event-binary":
+                return eventConverter(List.of(OrderPlacedEvent.class, OrderReadyEvent.class));
+            default:
+                throw new IllegalArgumentException("Unknown converter " + name);
+        }
+    }
+
+    /**
+     * Converter as the services configure it
+     */
+    private static MessageConverter eventConverter(List<Class<?>> binaryTypes) {
+        ObjectMapper objectMapper = Fixtures.objectMapper();
+        return new EventMessageConverter(objectMapper, binaryTypes, EventSchemaRegistry.standard())
+                .withCompression(1024);
+    }
+
+    @Benchmark
+    public Message toMessage() {
+        return messageConverter.toMessage(payload, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object fromMessage() {
+        return messageConverter.fromMessage(message);
+    }
+}
@@ -0,0 +1,97 @@
+package com.pizza.benchmarks;
+
+import com.pizza.models.OrderRequest;
+import com.pizza.models.OrderResponse;
+import com.pizza.models.id.TimeOrderedIdGenerator;
+import com.pizza.models.time.SimulationClock;
+import com.pizza.order.controller.OrderController;
+import com.pizza.order.controller.v1.OrderControllerV1;
+import com.pizza.order.controller.v2.OrderControllerV2;
+import com.pizza.order.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * The order endpoints of all API versions from the request body to the response body: JSON
+ * binding, bean validation, the controller and the error handling of invalid orders. The order
+ * service answers with a fixed response, so only the web layer is measured; servlet container
+ * and network are left out by MockMvc.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderControllerBenchmark {
+
+    private static final String VALID = "{\"pizza\":\"Margherita\",\"quantity\":2,"
+            + "\"address\":\"Musterstrasse 123, 8000 Zurich\",\"customerName\":\"Max Mustermann\"}";
+    // Fails three constraints
+    private static final String INVALID = "{\"pizza\":\"\",\"quantity\":0,"
+            + "\"address\":\"Musterstrasse 123, 8000 Zurich\"}";
+
+    @Param({"/orders", "/api/v1/orders", "/api/v2/orders"})
+    String path;
+
+    @Param({"valid", "invalid"})
+    String body;
+
+    private MockMvc mockMvc;
+    private RequestBuilder request;
+
+    @Setup
+    public void setUp() {
+        OrderService orderService = new FixedOrderService();
+        // The validator is Hibernate Validator, picked up from the classpath as in the services
+        mockMvc = MockMvcBuilders.standaloneSetup(new OrderController(orderService),
+                        new OrderControllerV1(orderService), new OrderControllerV2(orderService))
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(Fixtures.objectMapper()))
+                .build();
+        request = post(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("valid".equals(body) ? VALID : INVALID);
+    }
+
+    @Benchmark
+    public int createOrder() throws Exception {
+        return mockMvc.perform(request).andReturn().getResponse().getStatus();
+    }
+
+    /**
+     * Accepts every order without calling the payment service or the broker
+     */
+    private static final class FixedOrderService extends OrderService {
+
+        private static final OrderResponse RESPONSE = new OrderResponse("018d1f2e-6a40-7000-8000-000000000001",
+                "SUCCESS", "Order placed successfully! Your order ID is: 018d1f2e-6a40-7000-8000-000000000001");
+
+        FixedOrderService() {
+            super(null, null, new TimeOrderedIdGenerator(), SimulationClock.system(), new SimpleMeterRegistry());
+        }
+
+        @Override
+        public OrderResponse processOrder(OrderRequest orderRequest) {
+            return RESPONSE;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.pizza.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizza.models.OrderRequest;
+import com.pizza.models.OrderResponse;
+import com.pizza.models.id.TimeOrderedIdGenerator;
+import com.pizza.models.schema.EventSchemaRegistry;
+import com.pizza.models.time.SimulationClock;
+import com.pizza.models.wire.EventMessageConverter;
+import com.pizza.order.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OrderService#processOrder} without the network: the payment service and the broker are
+ * stubbed right where the bytes would leave the process. The payment request and response still
+ * go through the RestTemplate's JSON conversion, and the order.placed event through the message
+ * converter the service is configured with.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderServiceBenchmark {
+
+    private static final byte[] PAYMENT_RESPONSE = ("{\"transactionId\":\"018d1f2e-6a40-7000-8000-000000000001\","
+            + "\"success\":true,\"message\":\"Payment processed successfully\"}").getBytes(StandardCharsets.UTF_8);
+
+    private OrderService orderService;
+    private OrderRequest orderRequest;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Fixtures.objectMapper();
+
+        // Converters as Boot's RestTemplateBuilder sets them up, with the shared mapper
+        RestTemplate restTemplate = new RestTemplateBuilder()
+                .messageConverters(new HttpMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                        .getConverters())
+                .build();
+        restTemplate.setRequestFactory((uri, method) -> {
+            MockClientHttpResponse response = new MockClientHttpResponse(PAYMENT_RESPONSE, HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            request.setResponse(response);
+            return request;
+        });
+
+        BrokerStub rabbitTemplate = new BrokerStub();
+        rabbitTemplate.setMessageConverter(new EventMessageConverter(objectMapper, List.of(),
+                EventSchemaRegistry.standard()).withCompression(1024));
+
+        orderService = new OrderService(restTemplate, rabbitTemplate, new TimeOrderedIdGenerator(),
+                SimulationClock.system(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(orderService, "paymentServiceUrl", "http://payment-service:8082");
+        orderRequest = Fixtures.orderRequest();
+    }
+
+    @Benchmark
+    public OrderResponse processOrder() {
+        return orderService.processOrder(orderRequest);
+    }
+
+    /**
+     * Converts messages like the real template, but keeps the last one instead of publishing it
+     */
+    private static final class BrokerStub extends RabbitTemplate {
+
+        private Message last;
+
+        @Override
+        public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+            last = message;
+        }
+    }
+}
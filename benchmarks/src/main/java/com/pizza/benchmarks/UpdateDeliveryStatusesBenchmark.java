@@ -0,0 +1,67 @@
+package com.pizza.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One run of the scheduled status update over {@link #deliveries} assigned deliveries.
+ *
+ * A run changes the state it measures, so every iteration starts from a fresh service and
+ * measures a single run: either all deliveries are due to leave and go IN_TRANSIT, or none is
+ * and the run only looks at each of them.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class UpdateDeliveryStatusesBenchmark {
+
+    // Beyond the latest departure of an order assigned at the start
+    private static final Duration ALL_DUE = Duration.ofSeconds(20);
+
+    @Param({"10000", "100000", "1000000"})
+    int deliveries;
+
+    @Param({"heap", "columnar"})
+    String store;
+
+    private DeliveryFixture fixture;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        fixture = new DeliveryFixture(store, deliveries / DeliveryFixture.DRIVERS + 1);
+        fixture.load(deliveries);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void allDue() {
+        fixture.clock.advance(ALL_DUE);
+        fixture.service.updateDeliveryStatuses();
+    }
+
+    @Benchmark
+    public void noneDue() {
+        fixture.service.updateDeliveryStatuses();
+    }
+}
@@ -0,0 +1,78 @@
+package com.pizza.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BenchmarkCompare Tests")
+class BenchmarkCompareTest {
+
+    @TempDir
+    Path dir;
+
+    private static Map<String, BenchmarkCompare.Score> scores(String key, double score, double error) {
+        return Map.of(key, new BenchmarkCompare.Score("avgt", score, error, "us/op"));
+    }
+
+    @Test
+    @DisplayName("Should read scores keyed by benchmark and sorted parameters")
+    void shouldReadScores() throws Exception {
+        // Given
+        Path file = dir.resolve("result.json");
+        Files.writeString(file, """
+                [{"benchmark":"com.pizza.benchmarks.HandleOrderReadyBenchmark.handleOrderReady","mode":"ss",
+                  "params":{"store":"heap","deliveries":"10000"},
+                  "primaryMetric":{"score":1.5,"scoreError":"NaN","scoreUnit":"ms/op"}},
+                 {"benchmark":"com.pizza.benchmarks.OrderServiceBenchmark.processOrder","mode":"avgt",
+                  "primaryMetric":{"score":12.25,"scoreError":0.5,"scoreUnit":"us/op"}}]
+                """);
+
+        // When
+        Map<String, BenchmarkCompare.Score> scores = BenchmarkCompare.read(new ObjectMapper(), file);
+
+        // Then
+        assertEquals(List.of("HandleOrderReadyBenchmark.handleOrderReady [deliveries=10000,store=heap]",
+                "OrderServiceBenchmark.processOrder"), List.copyOf(scores.keySet()));
+        BenchmarkCompare.Score ready = scores.get("HandleOrderReadyBenchmark.handleOrderReady "
+                + "[deliveries=10000,store=heap]");
+        assertEquals("ss", ready.mode);
+        assertEquals(1.5, ready.score);
+        assertTrue(Double.isNaN(ready.error));
+        assertEquals("ms/op", ready.unit);
+        assertEquals(0.5, scores.get("OrderServiceBenchmark.processOrder").error);
+    }
+
+    @Test
+    @DisplayName("Should call a change faster or slower only beyond the errors")
+    void shouldJudgeChangesAgainstErrors() {
+        // When
+        String slower = BenchmarkCompare.compare(scores("a", 10, 0.5), scores("a", 12, 0.5)).get(1);
+        String faster = BenchmarkCompare.compare(scores("a", 10, 0.5), scores("a", 8, 0.5)).get(1);
+        String noise = BenchmarkCompare.compare(scores("a", 10, 0.5), scores("a", 10.8, 0.5)).get(1);
+
+        // Then
+        assertTrue(slower.endsWith("+20.0%  slower"), slower);
+        assertTrue(faster.endsWith("-20.0%  faster"), faster);
+        assertTrue(noise.endsWith("within error"), noise);
+    }
+
+    @Test
+    @DisplayName("Should list benchmarks found in only one of the runs")
+    void shouldListNewAndRemovedBenchmarks() {
+        // When
+        List<String> lines = BenchmarkCompare.compare(scores("old", 10, 0.5), scores("new", 10, 0.5));
+
+        // Then
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(1).startsWith("new ") && lines.get(1).endsWith("new"), lines.get(1));
+        assertTrue(lines.get(2).startsWith("old ") && lines.get(2).endsWith("removed"), lines.get(2));
+    }
+}
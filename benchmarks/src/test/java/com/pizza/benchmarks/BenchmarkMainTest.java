@@ -0,0 +1,46 @@
+package com.pizza.benchmarks;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BenchmarkMain Tests")
+class BenchmarkMainTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 16, 10, 0, 5);
+
+    @Test
+    @DisplayName("Should write JSON results to a timestamped file by default")
+    void shouldDefaultToTimestampedJson() {
+        // When
+        List<String> options = BenchmarkMain.withJsonResults(new String[]{"OrderServiceBenchmark"}, NOW);
+
+        // Then
+        assertEquals(List.of("OrderServiceBenchmark", "-rf", "json", "-rff",
+                BenchmarkMain.RESULTS.resolve("20260116-100005.json").toString()), options);
+    }
+
+    @Test
+    @DisplayName("Should keep a result file given on the command line")
+    void shouldKeepGivenResultFile() {
+        // When
+        List<String> options = BenchmarkMain.withJsonResults(new String[]{"-rff", "baseline.json"}, NOW);
+
+        // Then
+        assertEquals(List.of("-rff", "baseline.json", "-rf", "json"), options);
+    }
+
+    @Test
+    @DisplayName("Should leave other result formats to JMH")
+    void shouldLeaveOtherFormatsAlone() {
+        // When
+        List<String> options = BenchmarkMain.withJsonResults(new String[]{"-rf", "csv"}, NOW);
+
+        // Then
+        assertEquals(List.of("-rf", "csv"), options);
+    }
+}
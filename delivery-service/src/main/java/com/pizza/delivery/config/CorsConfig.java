@@ -16,6 +16,8 @@ public class CorsConfig implements WebMvcConfigurer {
                 .allowedOrigins("*")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                // Lets the frontend read the version of a listing to poll changes from
+                .exposedHeaders("ETag")
                 .maxAge(3600);
     }
 }
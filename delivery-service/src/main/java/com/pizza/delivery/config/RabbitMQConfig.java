@@ -1,26 +1,70 @@
 package com.pizza.delivery.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizza.models.routing.OrderPartitioner;
+import com.pizza.models.schema.EventSchemaRegistry;
+import com.pizza.models.wire.EventMessageConverter;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 public class RabbitMQConfig {
 
     public static final String ORDER_READY_QUEUE = "order.ready";
+    public static final String ORDER_READY_CONTAINER_FACTORY = "orderReadyContainerFactory";
+    public static final String ORDER_READY_LISTENER = "orderReadyListener";
 
     @Bean
     public Queue orderReadyQueue() {
         return new Queue(ORDER_READY_QUEUE, true); // durable = true
     }
 
+    /**
+     * Partition exchange and one queue per partition for sharded delivery, see
+     * {@link com.pizza.delivery.shard.ShardManager}. Nothing is declared while
+     * {@code order-ready.partitions} is 0.
+     */
+    @Bean
+    public Declarables orderReadyPartitions(@Value("${order-ready.partitions:0}") int partitions) {
+        if (partitions <= 0) {
+            return new Declarables();
+        }
+        DirectExchange exchange = new DirectExchange(OrderPartitioner.EXCHANGE, true, false);
+        List<Declarable> declarables = new ArrayList<>();
+        declarables.add(exchange);
+        for (int partition = 0; partition < partitions; partition++) {
+            Queue queue = new Queue(OrderPartitioner.queueName(partition), true);
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(exchange).with(OrderPartitioner.routingKey(partition)));
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * Accepts order.ready events in JSON and in the binary wire format, so the kitchen can switch
+     * {@code order-ready.wire-format} without a coordinated release; heartbeats go out as JSON.
+     * JSON goes through the shared Spring Boot ObjectMapper, as in the REST layer, and events of
+     * an older schema version are upcast while decoding. Gzipped messages are inflated, and
+     * outgoing bodies from {@code amqp.compression.threshold-bytes} on are gzipped.
+     */
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter(ObjectMapper objectMapper,
+            @Value("${amqp.compression.threshold-bytes:1024}") int compressionThreshold) {
+        return new EventMessageConverter(objectMapper, List.of(), EventSchemaRegistry.standard())
+                .withCompression(compressionThreshold);
     }
 
     @Bean
@@ -28,6 +72,32 @@ public class RabbitMQConfig {
             MessageConverter messageConverter) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(messageConverter);
+        template.setObservationEnabled(true);
         return template;
     }
+
+    /**
+     * Delivers order.ready events in batches of up to {@code batch-size}. A partial batch is
+     * handed over once no further event arrived for {@code receive-timeout-ms}; the whole batch
+     * is acknowledged when the listener returns. Observation is enabled, but Spring AMQP only
+     * observes single-message listeners, so the
+     * {@link com.pizza.delivery.service.OrderReadyListener} starts the batch's consumer span.
+     */
+    @Bean(ORDER_READY_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory orderReadyContainerFactory(ConnectionFactory connectionFactory,
+            MessageConverter messageConverter,
+            @Value("${delivery.order-ready.batch-size:100}") int batchSize,
+            @Value("${delivery.order-ready.receive-timeout-ms:50}") long receiveTimeoutMs) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        // The broker must be allowed to send a full batch before the first ack
+        factory.setPrefetchCount(Math.max(batchSize, 250));
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        factory.setObservationEnabled(true);
+        return factory;
+    }
 }
@@ -1,7 +1,14 @@
 package com.pizza.delivery.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizza.delivery.model.DeliveryChanges;
+import com.pizza.delivery.model.DeliveryPage;
+import com.pizza.delivery.model.DeliveryStats;
+import com.pizza.delivery.model.LatencyBreakdown;
 import com.pizza.models.DeliveryStatus;
+import com.pizza.delivery.service.DeliveryQuery;
 import com.pizza.delivery.service.DeliveryService;
+import com.pizza.delivery.shard.ShardRouter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,9 +18,26 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -23,32 +47,63 @@ public class DeliveryController {
 
     private static final Logger logger = LoggerFactory.getLogger(DeliveryController.class);
 
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final DeliveryService deliveryService;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<ShardRouter> shardRouter;
 
-    public DeliveryController(DeliveryService deliveryService) {
+    public DeliveryController(DeliveryService deliveryService, ObjectMapper objectMapper,
+            ObjectProvider<ShardRouter> shardRouter) {
         this.deliveryService = deliveryService;
+        this.objectMapper = objectMapper;
+        this.shardRouter = shardRouter;
     }
 
     @Operation(summary = "Get delivery status by order ID",
-            description = "Retrieves the current delivery status for a specific order")
+            description = "Retrieves the current delivery status for a specific order. With sharding enabled, "
+                    + "orders held by another delivery instance are fetched from it or redirected to it")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Delivery status found",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = DeliveryStatus.class))),
+            @ApiResponse(responseCode = "304", description = "Delivery unchanged since the given ETag",
+                    content = @Content),
+            @ApiResponse(responseCode = "307", description = "Delivery owned by the delivery instance in Location",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "Delivery not found",
                     content = @Content)
     })
     @GetMapping("/{orderId}")
     public ResponseEntity<DeliveryStatus> getDeliveryStatus(
             @Parameter(description = "Order ID (UUID format)", required = true)
-            @PathVariable String orderId) {
+            @PathVariable String orderId,
+            WebRequest request) {
         logger.info("Checking delivery status for order {}", orderId);
 
+        // Version first: the delivery read afterwards is at least as new as its ETag
+        long version = deliveryService.getDeliveryVersion(orderId);
         DeliveryStatus status = deliveryService.getDeliveryStatus(orderId);
 
         if (status == null) {
+            ShardRouter router = shardRouter.getIfAvailable();
+            // Forwarded lookups are answered locally, so they never travel further
+            if (router != null && request.getHeader(ShardRouter.FORWARDED_HEADER) == null) {
+                ResponseEntity<DeliveryStatus> routed = router.route(orderId,
+                        request.getHeader(HttpHeaders.IF_NONE_MATCH));
+                if (routed != null) {
+                    return routed;
+                }
+            }
             return ResponseEntity.notFound().build();
         }
+        // Archived deliveries have no version and are served without an ETag
+        if (version > 0 && request.checkNotModified(eTag(version))) {
+            return null;
+        }
 
         return ResponseEntity.ok(status);
     }
@@ -57,14 +112,199 @@ public class DeliveryController {
             description = "Retrieves all active deliveries as a map of order IDs to delivery statuses")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "List of all deliveries",
-                    content = @Content(mediaType = "application/json"))
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "304", description = "No delivery changed since the given ETag",
+                    content = @Content)
     })
     @GetMapping
-    public ResponseEntity<Map<String, DeliveryStatus>> getAllDeliveries() {
+    public ResponseEntity<Map<String, DeliveryStatus>> getAllDeliveries(WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
         logger.info("Fetching all deliveries");
         return ResponseEntity.ok(deliveryService.getAllDeliveries());
     }
 
+    @Operation(summary = "Get changes since a version",
+            description = "Returns the delivery changes after the given version, oldest first. Start from the "
+                    + "epoch and version in the ETag W/\"<epoch>-<version>\" of a full listing and pass the "
+                    + "returned ones on the next call. If the epoch has changed with a restart or the version is "
+                    + "no longer covered, reset is true and the listing has to be reloaded.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes after the version",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = DeliveryChanges.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid version or limit",
+                    content = @Content)
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<DeliveryChanges> getChanges(
+            @Parameter(description = "Last version the client has seen", required = true, example = "42")
+            @RequestParam long since,
+            @Parameter(description = "Epoch of the version; without it the version is taken to be from the "
+                    + "current epoch", example = "9f3c02ab")
+            @RequestParam(required = false) String epoch,
+            @Parameter(description = "Maximum number of changes (1-" + MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "" + MAX_PAGE_SIZE) int limit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("since must not be negative");
+        }
+        checkLimit(limit);
+        return ResponseEntity.ok(deliveryService.getChangesSince(epoch, since, limit));
+    }
+
+    @Operation(summary = "Get delivery KPIs",
+            description = "Returns the number of active deliveries per status and per driver and the durations "
+                    + "of every stage from payment to delivery, kitchen-ready to delivered and placed to delivered "
+                    + "over the last minute, 15 minutes and hour of simulated time. Served from counters and "
+                    + "rolling histograms, so the cost does not grow with the number of deliveries.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Current KPIs",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = DeliveryStats.class)))
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<DeliveryStats> getStats() {
+        return ResponseEntity.ok(deliveryService.getStats());
+    }
+
+    @Operation(summary = "Get the end-to-end latency breakdown",
+            description = "Returns count, mean, p50, p95, p99 and max of each stage of an order, from payment "
+                    + "through the order.placed queue, preparation, the order.ready queue and dispatch to delivery, "
+                    + "and from placing the order to its delivery, over a rolling window of simulated time. The "
+                    + "stages before delivery are taken from the timestamps order-service and the kitchen stamp "
+                    + "into the events.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Durations per stage and end to end",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = LatencyBreakdown.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown window", content = @Content)
+    })
+    @GetMapping("/latency")
+    public ResponseEntity<LatencyBreakdown> getLatency(
+            @Parameter(description = "Rolling window: 1m, 15m or 1h", example = "15m")
+            @RequestParam(defaultValue = "15m") String window) {
+        return ResponseEntity.ok(deliveryService.getLatencyBreakdown(window));
+    }
+
+    @Operation(summary = "Get deliveries by status",
+            description = "Retrieves all active deliveries with the given status using the status index")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Deliveries with the status, ordered by order ID",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "304", description = "No delivery changed since the given ETag",
+                    content = @Content)
+    })
+    @GetMapping("/status/{status}")
+    public ResponseEntity<List<DeliveryStatus>> getDeliveriesByStatus(
+            @Parameter(description = "Delivery status", required = true, example = "IN_TRANSIT")
+            @PathVariable String status,
+            WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
+        logger.info("Fetching deliveries with status {}", status);
+        return ResponseEntity.ok(deliveryService.getDeliveriesByStatus(status));
+    }
+
+    @Operation(summary = "Get deliveries by driver",
+            description = "Retrieves all active deliveries assigned to the given driver using the driver index")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Deliveries of the driver, ordered by order ID",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "304", description = "No delivery changed since the given ETag",
+                    content = @Content)
+    })
+    @GetMapping("/driver/{driverName}")
+    public ResponseEntity<List<DeliveryStatus>> getDeliveriesByDriver(
+            @Parameter(description = "Driver name", required = true, example = "Anna Schmidt")
+            @PathVariable String driverName,
+            WebRequest request) {
+        if (notModified(request)) {
+            return null;
+        }
+        logger.info("Fetching deliveries for driver {}", driverName);
+        return ResponseEntity.ok(deliveryService.getDeliveriesByDriver(driverName));
+    }
+
+    @Operation(summary = "Get a page of deliveries",
+            description = "Retrieves deliveries ordered by order ID using cursor-based pagination, "
+                    + "optionally filtered by status, driver and assignment time and projected to selected fields")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of deliveries",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = DeliveryPage.class))),
+            @ApiResponse(responseCode = "304", description = "No delivery changed since the given ETag",
+                    content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, limit, time or field name",
+                    content = @Content)
+    })
+    @GetMapping("/page")
+    public ResponseEntity<DeliveryPage> getDeliveryPage(
+            @Parameter(description = "Only deliveries with this status", example = "IN_TRANSIT")
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Only deliveries assigned to this driver", example = "Anna Schmidt")
+            @RequestParam(required = false) String driver,
+            @Parameter(description = "Only deliveries assigned at or after this time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Only deliveries assigned before this time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Comma-separated list of fields to return", example = "orderId,status")
+            @RequestParam(required = false) String fields,
+            @Parameter(description = "Cursor returned as nextCursor by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of deliveries per page (1-" + MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            WebRequest request) {
+        checkLimit(limit);
+        DeliveryProjection projection = DeliveryProjection.parse(fields);
+        DeliveryQuery query = new DeliveryQuery(status, driver, from, to);
+        if (notModified(request)) {
+            return null;
+        }
+        logger.info("Fetching delivery page (limit {})", limit);
+
+        List<DeliveryStatus> deliveries = deliveryService.findDeliveries(query, decodeCursor(cursor), limit);
+
+        List<Object> items = new ArrayList<>(deliveries.size());
+        deliveries.forEach(delivery -> items.add(projection.apply(delivery)));
+        String nextCursor = deliveries.size() < limit ? null
+                : encodeCursor(deliveries.get(deliveries.size() - 1).getOrderId());
+        return ResponseEntity.ok(new DeliveryPage(items, nextCursor));
+    }
+
+    @Operation(summary = "Stream deliveries as NDJSON",
+            description = "Streams all matching deliveries as newline-delimited JSON while iterating, "
+                    + "without building the full listing in memory")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "One delivery per line",
+                    content = @Content(mediaType = APPLICATION_NDJSON_VALUE))
+    })
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamDeliveries(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String driver,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String fields) {
+        logger.info("Streaming deliveries");
+        DeliveryProjection projection = DeliveryProjection.parse(fields);
+        DeliveryQuery query = new DeliveryQuery(status, driver, from, to);
+
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            try {
+                deliveryService.forEachDelivery(query, delivery -> writeLine(out, projection.apply(delivery)));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
     @Operation(summary = "Health check",
             description = "Returns a simple health check message to verify the service is running")
     @ApiResponses(value = {
@@ -76,9 +316,59 @@ public class DeliveryController {
         return ResponseEntity.ok("Delivery Service is running");
     }
 
+    @ExceptionHandler({IllegalArgumentException.class, MethodArgumentTypeMismatchException.class,
+            MissingServletRequestParameterException.class})
+    public ResponseEntity<String> handleBadRequest(Exception ex) {
+        logger.warn("Invalid request: {}", ex.getMessage());
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleGenericException(Exception ex) {
         logger.error("Unexpected error: {}", ex.getMessage(), ex);
         return ResponseEntity.internalServerError().body("An unexpected error occurred.");
     }
+
+    /**
+     * Tag a listing with the current version, read before the listing so the content is at
+     * least as new as the tag. True if the client's copy is still current (304 already set).
+     */
+    private boolean notModified(WebRequest request) {
+        return request.checkNotModified(eTag(deliveryService.getVersion()));
+    }
+
+    /**
+     * Version with the epoch of its numbering, so a tag from before a restart or from another
+     * instance never matches. Weak, as the same version is sent gzipped or as it is; Tomcat does
+     * not compress responses with a strong ETag.
+     */
+    private String eTag(long version) {
+        return "W/\"" + deliveryService.getVersionEpoch() + "-" + version + "\"";
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private void writeLine(OutputStream out, Object item) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(item));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String encodeCursor(String orderId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(orderId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
 }
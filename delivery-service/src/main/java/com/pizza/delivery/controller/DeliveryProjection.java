@@ -0,0 +1,74 @@
+package com.pizza.delivery.controller;
+
+import com.pizza.models.DeliveryStatus;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Field projection for delivery listings, parsed from a comma-separated {@code fields} parameter.
+ */
+final class DeliveryProjection {
+
+    private static final Map<String, Function<DeliveryStatus, Object>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("orderId", DeliveryStatus::getOrderId);
+        FIELDS.put("status", DeliveryStatus::getStatus);
+        FIELDS.put("driverName", DeliveryStatus::getDriverName);
+        FIELDS.put("address", DeliveryStatus::getAddress);
+        FIELDS.put("assignedAt", DeliveryStatus::getAssignedAt);
+        FIELDS.put("estimatedDeliveryTime", DeliveryStatus::getEstimatedDeliveryTime);
+        FIELDS.put("deliveredAt", DeliveryStatus::getDeliveredAt);
+        FIELDS.put("inTransitAt", DeliveryStatus::getInTransitAt);
+        FIELDS.put("targetInTransitTime", DeliveryStatus::getTargetInTransitTime);
+        FIELDS.put("targetDeliveredTime", DeliveryStatus::getTargetDeliveredTime);
+    }
+
+    private static final DeliveryProjection ALL = new DeliveryProjection(null);
+
+    private final Map<String, Function<DeliveryStatus, Object>> selected;
+
+    private DeliveryProjection(Map<String, Function<DeliveryStatus, Object>> selected) {
+        this.selected = selected;
+    }
+
+    /**
+     * Parse a projection; a null or blank value selects the full delivery.
+     *
+     * @throws IllegalArgumentException if an unknown field is requested
+     */
+    static DeliveryProjection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Map<String, Function<DeliveryStatus, Object>> selected = new LinkedHashMap<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            Function<DeliveryStatus, Object> getter = FIELDS.get(name);
+            if (getter == null) {
+                throw new IllegalArgumentException("Unknown field '" + name + "', expected one of " + FIELDS.keySet());
+            }
+            selected.put(name, getter);
+        }
+        return new DeliveryProjection(selected);
+    }
+
+    /**
+     * Apply the projection. Returns the delivery itself when all fields are selected.
+     */
+    Object apply(DeliveryStatus delivery) {
+        if (selected == null) {
+            return delivery;
+        }
+        Map<String, Object> projected = new LinkedHashMap<>();
+        selected.forEach((name, getter) -> {
+            Object value = getter.apply(delivery);
+            if (value != null) {
+                projected.put(name, value);
+            }
+        });
+        return projected;
+    }
+}
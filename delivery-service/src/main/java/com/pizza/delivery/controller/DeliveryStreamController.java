@@ -0,0 +1,47 @@
+package com.pizza.delivery.controller;
+
+import com.pizza.delivery.service.DeliveryStreamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/deliveries")
+@Tag(name = "Deliveries", description = "Delivery management and tracking API")
+public class DeliveryStreamController {
+
+    private final DeliveryStreamService deliveryStreamService;
+
+    public DeliveryStreamController(DeliveryStreamService deliveryStreamService) {
+        this.deliveryStreamService = deliveryStreamService;
+    }
+
+    @Operation(summary = "Stream delivery updates",
+            description = "Server-Sent Events stream that emits an event whenever a delivery is created "
+                    + "(event 'CREATED'), changes status (event 'STATUS_CHANGED') or is archived (event "
+                    + "'ARCHIVED'). Event IDs are change versions; reconnecting clients resume from the "
+                    + "Last-Event-ID header; if the missed events are no longer buffered, "
+                    + "a 'resync' event tells the client to reload the full listing.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE))
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDeliveryUpdates(
+            @Parameter(description = "Only stream updates of this order (all orders if omitted)")
+            @RequestParam(required = false) String orderId,
+            @Parameter(description = "ID of the last event received before reconnecting")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return deliveryStreamService.subscribe(orderId, lastEventId);
+    }
+}
@@ -0,0 +1,66 @@
+package com.pizza.delivery.controller;
+
+import com.pizza.delivery.model.DriverInfo;
+import com.pizza.delivery.service.DeliveryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/drivers")
+@Tag(name = "Drivers", description = "Driver pool used for dispatching deliveries")
+public class DriverController {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverController.class);
+
+    private final DeliveryService deliveryService;
+
+    public DriverController(DeliveryService deliveryService) {
+        this.deliveryService = deliveryService;
+    }
+
+    @Operation(summary = "Get all drivers",
+            description = "Retrieves the driver pool with each driver's zone, capacity, current load and availability")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Drivers in configuration order",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @GetMapping
+    public ResponseEntity<List<DriverInfo>> getDrivers() {
+        return ResponseEntity.ok(deliveryService.getDrivers());
+    }
+
+    @Operation(summary = "Set driver availability",
+            description = "Takes a driver off duty or back on duty. Orders already assigned stay with the driver; "
+                    + "a driver coming back on duty picks up waiting orders.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Availability updated", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Driver not found", content = @Content)
+    })
+    @PutMapping("/{driverName}/availability")
+    public ResponseEntity<Void> setAvailability(
+            @Parameter(description = "Driver name", required = true, example = "Anna Schmidt")
+            @PathVariable String driverName,
+            @Parameter(description = "Whether the driver accepts new orders", required = true)
+            @RequestParam boolean available) {
+        logger.info("Setting availability of driver {} to {}", driverName, available);
+        if (!deliveryService.setDriverAvailable(driverName, available)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.pizza.delivery.dedup;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size Bloom filter over strings. Not thread-safe; a filter that is no longer written can
+ * be read from any thread once it has been safely published. Also used for the order IDs of
+ * archive segments.
+ *
+ * Bit positions come from double hashing two 64-bit hashes of the key, so a lookup costs one
+ * pass over the key plus {@code hashes} bit probes.
+ */
+public final class BloomFilter {
+
+    private final long[] bits;
+    private final long numBits;
+    private final int hashes;
+    private final int capacity;
+    private int insertions;
+    private long bitCount;
+
+    /**
+     * @param capacity insertions after which the false-positive probability reaches {@code fpp}
+     */
+    public BloomFilter(int capacity, double fpp) {
+        if (capacity <= 0 || !(fpp > 0 && fpp < 1)) {
+            throw new IllegalArgumentException("Invalid Bloom filter capacity " + capacity + " or fpp " + fpp);
+        }
+        long optimalBits = (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.bits = new long[(int) Math.max(1, (optimalBits + 63) / 64)];
+        this.numBits = bits.length * 64L;
+        this.hashes = Math.max(1, (int) Math.round((double) optimalBits / capacity * Math.log(2)));
+        this.capacity = capacity;
+    }
+
+    public boolean mightContain(String key) {
+        long hash1 = hash(key);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, numBits);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void put(String key) {
+        long hash1 = hash(key);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, numBits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((bits[word] & mask) == 0) {
+                bits[word] |= mask;
+                bitCount++;
+            }
+        }
+        insertions++;
+    }
+
+    boolean isFull() {
+        return insertions >= capacity;
+    }
+
+    void clear() {
+        Arrays.fill(bits, 0L);
+        insertions = 0;
+        bitCount = 0;
+    }
+
+    /**
+     * Fraction of bits set; about one half once the filter is at capacity
+     */
+    double saturation() {
+        return (double) bitCount / numBits;
+    }
+
+    /**
+     * Probability that a key never put into the filter is reported as contained
+     */
+    double falsePositiveProbability() {
+        return Math.pow(saturation(), hashes);
+    }
+
+    int hashes() {
+        return hashes;
+    }
+
+    public long sizeInBits() {
+        return numBits;
+    }
+
+    private static long hash(String key) {
+        // FNV-1a over the UTF-16 chars, finished with a strong mix
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long z) {
+        // SplitMix64 finalizer
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,146 @@
+package com.pizza.delivery.dedup;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers which orders already got a delivery so redelivered order.ready events can be skipped.
+ *
+ * The most recent order IDs are kept exactly. Older ones move into a Bloom filter, which only
+ * answers "maybe seen", so callers confirm a {@link Seen#MAYBE} against the delivery store before
+ * treating the event as a duplicate. The filter is split into two generations: when the current
+ * one reaches its capacity the older one is cleared and reused, so memory stays fixed however many
+ * orders pass through, at the price of forgetting orders older than two generations.
+ */
+@Component
+public class OrderDeduplicator {
+
+    public enum Seen {
+        /** Definitely not seen */
+        NEW,
+        /** Seen among the most recent orders */
+        RECENT,
+        /** Possibly seen before, confirm against the store */
+        MAYBE
+    }
+
+    /** Where a duplicate was detected, used as the {@code source} metric tag */
+    public enum Source {
+        BATCH, RECENT, FILTER, STORE
+    }
+
+    private final Map<String, Boolean> recent;
+    private final int recentCapacity;
+    private BloomFilter current;
+    private BloomFilter previous;
+    private final Counter checked;
+    private final Counter falsePositives;
+    private final Map<Source, Counter> duplicates = new EnumMap<>(Source.class);
+
+    public OrderDeduplicator(@Value("${delivery.dedup.recent-capacity:100000}") int recentCapacity,
+            @Value("${delivery.dedup.filter-capacity:1000000}") int filterCapacity,
+            @Value("${delivery.dedup.filter-fpp:0.001}") double filterFpp,
+            MeterRegistry meterRegistry) {
+        this.recentCapacity = recentCapacity;
+        this.current = new BloomFilter(filterCapacity, filterFpp);
+        this.previous = new BloomFilter(filterCapacity, filterFpp);
+        // Insertion order, so the eldest entry is the order seen longest ago
+        this.recent = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                if (size() > OrderDeduplicator.this.recentCapacity) {
+                    remember(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.checked = Counter.builder("delivery.dedup.checked")
+                .description("Order IDs checked for duplicates")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("delivery.dedup.false.positives")
+                .description("Orders the filter reported as seen that were not in the store")
+                .register(meterRegistry);
+        for (Source source : Source.values()) {
+            duplicates.put(source, Counter.builder("delivery.dedup.duplicates")
+                    .description("Duplicate order.ready events skipped")
+                    .tag("source", source.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("delivery.dedup.recent.size", this, OrderDeduplicator::getRecentSize)
+                .description("Order IDs held exactly")
+                .register(meterRegistry);
+        Gauge.builder("delivery.dedup.filter.saturation", this, OrderDeduplicator::getSaturation)
+                .description("Fraction of bits set in the current filter generation")
+                .register(meterRegistry);
+        Gauge.builder("delivery.dedup.filter.fpp", this, OrderDeduplicator::getFalsePositiveProbability)
+                .description("Estimated probability that an unseen order is reported as maybe seen")
+                .register(meterRegistry);
+    }
+
+    public synchronized Seen check(String orderId) {
+        checked.increment();
+        if (recent.containsKey(orderId)) {
+            return Seen.RECENT;
+        }
+        if (current.mightContain(orderId) || previous.mightContain(orderId)) {
+            return Seen.MAYBE;
+        }
+        return Seen.NEW;
+    }
+
+    /**
+     * Record an order whose delivery was created
+     */
+    public synchronized void record(String orderId) {
+        recent.put(orderId, Boolean.TRUE);
+    }
+
+    /**
+     * Record an order known only from the archive, straight into the filter
+     */
+    public synchronized void recordArchived(String orderId) {
+        remember(orderId);
+    }
+
+    public void countDuplicate(Source source) {
+        duplicates.get(source).increment();
+    }
+
+    /**
+     * Count a {@link Seen#MAYBE} that the store did not confirm
+     */
+    public void countFalsePositive() {
+        falsePositives.increment();
+    }
+
+    public synchronized int getRecentSize() {
+        return recent.size();
+    }
+
+    public synchronized double getSaturation() {
+        return current.saturation();
+    }
+
+    public synchronized double getFalsePositiveProbability() {
+        // A key is reported if either generation reports it
+        return 1 - (1 - current.falsePositiveProbability()) * (1 - previous.falsePositiveProbability());
+    }
+
+    private void remember(String orderId) {
+        if (current.isFull()) {
+            BloomFilter oldest = previous;
+            oldest.clear();
+            previous = current;
+            current = oldest;
+        }
+        current.put(orderId);
+    }
+}
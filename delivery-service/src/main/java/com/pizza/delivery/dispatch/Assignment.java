@@ -0,0 +1,34 @@
+package com.pizza.delivery.dispatch;
+
+import java.time.LocalDateTime;
+
+/**
+ * Result of dispatching an order: the driver and when the driver leaves with it.
+ */
+public class Assignment {
+
+    private final String orderId;
+    private final String driverName;
+    private final LocalDateTime departure;
+
+    public Assignment(String orderId, String driverName, LocalDateTime departure) {
+        this.orderId = orderId;
+        this.driverName = driverName;
+        this.departure = departure;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getDriverName() {
+        return driverName;
+    }
+
+    /**
+     * Departure of the trip; shared by all orders batched onto it
+     */
+    public LocalDateTime getDeparture() {
+        return departure;
+    }
+}
@@ -0,0 +1,339 @@
+package com.pizza.delivery.dispatch;
+
+import com.pizza.delivery.model.DriverInfo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Assigns orders to drivers of a configured pool, respecting each driver's capacity and availability.
+ *
+ * Drivers with spare capacity are kept in sets sorted by load, overall and per zone, plus a set of
+ * drivers with an open trip per destination zone, so an assignment costs O(log n) in the number of
+ * drivers. Orders that find no free driver wait in FIFO order until {@link #assignWaiting} is called
+ * after capacity was freed. All state is guarded by the engine's monitor.
+ */
+@Component
+public class DispatchEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(DispatchEngine.class);
+
+    public static final String DEFAULT_DRIVERS = "Max Mustermann,Anna Schmidt,Peter Mueller,Lisa Weber,Tom Fischer";
+
+    // Swiss and German style postal codes; the zone is their first two digits
+    private static final Pattern POSTAL_CODE = Pattern.compile("\\b(\\d{4,5})\\b");
+
+    private final Map<String, Driver> drivers = new LinkedHashMap<>();
+    private final NavigableSet<Driver> free = new TreeSet<>(Driver.BY_LOAD);
+    private final Map<String, NavigableSet<Driver>> freeByZone = new HashMap<>();
+    private final Map<String, NavigableSet<Driver>> openTrips = new HashMap<>();
+    private final Deque<WaitingOrder> waiting = new ArrayDeque<>();
+    private final DispatchPolicy policy;
+    private final Timer latency;
+    private final Map<String, Counter> assignments = new HashMap<>();
+
+    public DispatchEngine(@Value("${delivery.dispatch.drivers:" + DEFAULT_DRIVERS + "}") String drivers,
+            @Value("${delivery.dispatch.capacity:3}") int defaultCapacity,
+            @Value("${delivery.dispatch.policy:BATCHING}") DispatchPolicy policy,
+            MeterRegistry meterRegistry) {
+        this.policy = policy;
+        for (String spec : drivers.split(",")) {
+            if (spec.isBlank()) {
+                continue;
+            }
+            Driver driver = Driver.parse(spec, defaultCapacity);
+            if (this.drivers.putIfAbsent(driver.name, driver) != null) {
+                throw new IllegalArgumentException("Driver '" + driver.name + "' is configured twice");
+            }
+            attach(driver);
+            Gauge.builder("delivery.dispatch.driver.load", driver, d -> d.load)
+                    .description("Active orders of the driver")
+                    .tag("driver", driver.name)
+                    .register(meterRegistry);
+        }
+        if (this.drivers.isEmpty()) {
+            throw new IllegalArgumentException("delivery.dispatch.drivers must name at least one driver");
+        }
+
+        this.latency = Timer.builder("delivery.dispatch.latency")
+                .description("Time from order ready until a driver was assigned")
+                .register(meterRegistry);
+        for (String match : new String[]{"batch", "zone", "any"}) {
+            assignments.put(match, Counter.builder("delivery.dispatch.assignments")
+                    .description("Orders assigned to a driver, by how the driver was found")
+                    .tag("match", match)
+                    .register(meterRegistry));
+        }
+        Gauge.builder("delivery.dispatch.waiting", this, DispatchEngine::getWaitingCount)
+                .description("Orders waiting for a free driver")
+                .register(meterRegistry);
+        Gauge.builder("delivery.dispatch.utilization", this, DispatchEngine::getUtilization)
+                .description("Active orders over the capacity of available drivers")
+                .register(meterRegistry);
+        logger.info("Dispatching to {} drivers using {}", this.drivers.size(), policy);
+    }
+
+    /**
+     * Zone of a delivery address, or null if it contains no postal code
+     */
+    public static String zoneOf(String address) {
+        if (address == null) {
+            return null;
+        }
+        Matcher matcher = POSTAL_CODE.matcher(address);
+        String postalCode = null;
+        while (matcher.find()) {
+            postalCode = matcher.group(1);
+        }
+        return postalCode != null ? postalCode.substring(0, 2) : null;
+    }
+
+    /**
+     * Assign an order to a driver. If no driver has spare capacity the order is queued
+     * and null is returned; it is handed out later by {@link #assignWaiting}.
+     *
+     * @param departure when the driver would leave if the order starts a new trip
+     */
+    public synchronized Assignment assign(String orderId, String zone, LocalDateTime now, LocalDateTime departure) {
+        long start = System.nanoTime();
+        Assignment assignment = tryAssign(orderId, zone, now, departure);
+        if (assignment == null) {
+            waiting.addLast(new WaitingOrder(orderId, zone, start));
+            return null;
+        }
+        latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return assignment;
+    }
+
+    /**
+     * Assign a batch of orders in one pass, in list order. Unlike {@link #assign}, orders that
+     * find no driver are not queued: the caller {@link #requeue}s them once their PENDING entry
+     * is visible, so {@link #assignWaiting} never hands out an order that is not stored yet.
+     *
+     * @param departures when the driver would leave if the order starts a new trip, per order
+     * @return the assignment per order, null where no driver was free
+     */
+    public synchronized List<Assignment> assignAll(List<String> orderIds, List<String> zones, LocalDateTime now,
+            List<LocalDateTime> departures) {
+        long start = System.nanoTime();
+        List<Assignment> result = new ArrayList<>(orderIds.size());
+        for (int i = 0; i < orderIds.size(); i++) {
+            Assignment assignment = tryAssign(orderIds.get(i), zones.get(i), now, departures.get(i));
+            if (assignment != null) {
+                latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            result.add(assignment);
+        }
+        return result;
+    }
+
+    /**
+     * Hand waiting orders to drivers that have spare capacity again, oldest first
+     */
+    public synchronized List<Assignment> assignWaiting(LocalDateTime now, Supplier<LocalDateTime> departure) {
+        List<Assignment> assigned = new ArrayList<>();
+        while (!waiting.isEmpty() && !free.isEmpty()) {
+            WaitingOrder order = waiting.pollFirst();
+            assigned.add(tryAssign(order.orderId, order.zone, now, departure.get()));
+            latency.record(System.nanoTime() - order.enqueuedAt, TimeUnit.NANOSECONDS);
+        }
+        return assigned;
+    }
+
+    /**
+     * Free the capacity taken by one order of the driver, once it was delivered or reassigned
+     */
+    public synchronized void release(String driverName) {
+        Driver driver = driverName != null ? drivers.get(driverName) : null;
+        if (driver == null || driver.load == 0) {
+            return;
+        }
+        detach(driver);
+        driver.load--;
+        if (driver.load == 0) {
+            driver.tripZone = null;
+            driver.tripDeparture = null;
+        }
+        attach(driver);
+    }
+
+    /**
+     * Give back the capacity of an active delivery recovered after a restart. Its trip stays
+     * closed, so no new orders are batched onto it.
+     */
+    public synchronized void restore(String driverName) {
+        Driver driver = driverName != null ? drivers.get(driverName) : null;
+        if (driver == null) {
+            logger.warn("Recovered delivery belongs to unknown driver {}", driverName);
+            return;
+        }
+        detach(driver);
+        driver.load++;
+        attach(driver);
+    }
+
+    /**
+     * Queue an order that is waiting for a driver: one recovered after a restart, or one that
+     * found no driver in {@link #assignAll}
+     */
+    public synchronized void requeue(String orderId, String zone) {
+        waiting.addLast(new WaitingOrder(orderId, zone, System.nanoTime()));
+    }
+
+    /**
+     * Take a driver off or back on duty; orders already assigned stay with the driver
+     *
+     * @return false if the driver is unknown
+     */
+    public synchronized boolean setAvailable(String driverName, boolean available) {
+        Driver driver = drivers.get(driverName);
+        if (driver == null) {
+            return false;
+        }
+        detach(driver);
+        driver.available = available;
+        attach(driver);
+        return true;
+    }
+
+    public synchronized List<DriverInfo> getDrivers() {
+        List<DriverInfo> result = new ArrayList<>(drivers.size());
+        for (Driver driver : drivers.values()) {
+            result.add(new DriverInfo(driver.name, driver.zone, driver.capacity, driver.load, driver.available));
+        }
+        return result;
+    }
+
+    public synchronized int getWaitingCount() {
+        return waiting.size();
+    }
+
+    public synchronized double getUtilization() {
+        int load = 0;
+        int capacity = 0;
+        for (Driver driver : drivers.values()) {
+            if (driver.available) {
+                load += driver.load;
+                capacity += driver.capacity;
+            }
+        }
+        return capacity > 0 ? (double) load / capacity : 0.0;
+    }
+
+    private Assignment tryAssign(String orderId, String zone, LocalDateTime now, LocalDateTime departure) {
+        Driver driver = null;
+        String match = "any";
+        if (policy == DispatchPolicy.BATCHING && zone != null) {
+            driver = openTrip(zone, now);
+            match = "batch";
+        }
+        if (driver == null && policy != DispatchPolicy.LEAST_LOADED && zone != null) {
+            driver = first(freeByZone.get(zone));
+            match = "zone";
+        }
+        if (driver == null) {
+            driver = first(free);
+            match = "any";
+        }
+        if (driver == null) {
+            return null;
+        }
+
+        detach(driver);
+        driver.load++;
+        if ("batch".equals(match)) {
+            departure = driver.tripDeparture;
+        } else if (policy == DispatchPolicy.BATCHING && zone != null) {
+            driver.tripZone = zone;
+            driver.tripDeparture = departure;
+        }
+        attach(driver);
+        assignments.get(match).increment();
+        return new Assignment(orderId, driver.name, departure);
+    }
+
+    /**
+     * A driver with spare capacity whose trip to the zone has not left yet. Trips that
+     * already left are closed on the way.
+     */
+    private Driver openTrip(String zone, LocalDateTime now) {
+        NavigableSet<Driver> candidates = openTrips.get(zone);
+        while (candidates != null && !candidates.isEmpty()) {
+            Driver driver = candidates.first();
+            if (driver.hasOpenTrip(now)) {
+                return driver;
+            }
+            detach(driver);
+            driver.tripZone = null;
+            driver.tripDeparture = null;
+            attach(driver);
+        }
+        return null;
+    }
+
+    private void attach(Driver driver) {
+        if (!driver.hasCapacity()) {
+            return;
+        }
+        free.add(driver);
+        if (driver.zone != null) {
+            freeByZone.computeIfAbsent(driver.zone, zone -> new TreeSet<>(Driver.BY_LOAD)).add(driver);
+        }
+        if (driver.tripZone != null) {
+            openTrips.computeIfAbsent(driver.tripZone, zone -> new TreeSet<>(Driver.BY_LOAD)).add(driver);
+        }
+    }
+
+    private void detach(Driver driver) {
+        free.remove(driver);
+        if (driver.zone != null) {
+            remove(freeByZone, driver.zone, driver);
+        }
+        if (driver.tripZone != null) {
+            remove(openTrips, driver.tripZone, driver);
+        }
+    }
+
+    private static void remove(Map<String, NavigableSet<Driver>> sets, String zone, Driver driver) {
+        NavigableSet<Driver> set = sets.get(zone);
+        if (set != null) {
+            set.remove(driver);
+        }
+    }
+
+    private static Driver first(NavigableSet<Driver> drivers) {
+        return drivers == null || drivers.isEmpty() ? null : drivers.first();
+    }
+
+    private static final class WaitingOrder {
+        private final String orderId;
+        private final String zone;
+        private final long enqueuedAt;
+
+        private WaitingOrder(String orderId, String zone, long enqueuedAt) {
+            this.orderId = orderId;
+            this.zone = zone;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
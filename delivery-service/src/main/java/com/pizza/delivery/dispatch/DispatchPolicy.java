@@ -0,0 +1,23 @@
+package com.pizza.delivery.dispatch;
+
+/**
+ * How {@link DispatchEngine} picks a driver for an order.
+ */
+public enum DispatchPolicy {
+
+    /**
+     * The driver with the fewest active orders, regardless of zone
+     */
+    LEAST_LOADED,
+
+    /**
+     * The least loaded driver based in the order's zone, any driver if none is free there
+     */
+    NEAREST_ZONE,
+
+    /**
+     * Like {@link #NEAREST_ZONE}, but first add the order to a trip that is about to leave
+     * for the same zone so both orders depart together
+     */
+    BATCHING
+}
@@ -0,0 +1,57 @@
+package com.pizza.delivery.dispatch;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * Mutable driver state, only accessed under the {@link DispatchEngine} lock.
+ *
+ * Fields that {@link #BY_LOAD} depends on must only change while the driver is
+ * detached from the engine's sorted sets.
+ */
+class Driver {
+
+    static final Comparator<Driver> BY_LOAD = Comparator.comparingInt((Driver driver) -> driver.load)
+            .thenComparing(driver -> driver.name);
+
+    final String name;
+    final String zone;
+    final int capacity;
+    int load;
+    boolean available = true;
+    // Trip that still accepts orders, null if the driver has none
+    String tripZone;
+    LocalDateTime tripDeparture;
+
+    Driver(String name, String zone, int capacity) {
+        this.name = name;
+        this.zone = zone;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Parse {@code name[:zone[:capacity]]}
+     *
+     * @throws IllegalArgumentException if the entry is malformed
+     */
+    static Driver parse(String spec, int defaultCapacity) {
+        String[] parts = spec.trim().split(":");
+        if (parts.length > 3 || parts[0].isBlank()) {
+            throw new IllegalArgumentException("Invalid driver '" + spec + "', expected name[:zone[:capacity]]");
+        }
+        String zone = parts.length > 1 && !parts[1].isBlank() ? parts[1].trim() : null;
+        int capacity = parts.length > 2 ? Integer.parseInt(parts[2].trim()) : defaultCapacity;
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Driver '" + parts[0].trim() + "' needs a capacity of at least 1");
+        }
+        return new Driver(parts[0].trim(), zone, capacity);
+    }
+
+    boolean hasCapacity() {
+        return available && load < capacity;
+    }
+
+    boolean hasOpenTrip(LocalDateTime now) {
+        return tripDeparture != null && tripDeparture.isAfter(now);
+    }
+}
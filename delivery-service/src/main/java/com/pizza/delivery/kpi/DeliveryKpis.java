@@ -0,0 +1,320 @@
+package com.pizza.delivery.kpi;
+
+import com.pizza.delivery.model.DeliveryState;
+import com.pizza.delivery.model.DeliveryUpdate;
+import com.pizza.delivery.config.RabbitMQConfig;
+import com.pizza.delivery.model.DurationSummary;
+import com.pizza.delivery.model.LatencyBreakdown;
+import com.pizza.delivery.service.DeliveryListener;
+import com.pizza.models.DeliveryStatus;
+import com.pizza.models.OrderReadyEvent;
+import com.pizza.models.time.SimulationClock;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Rolling-window histograms of how long orders take, fed by the order.ready events and the
+ * delivery change stream.
+ *
+ * Each {@link Phase} is kept for each {@link Window} in a {@link RollingHistogram}, so reading
+ * the KPIs costs the same however many deliveries there are. The stages before delivery are
+ * taken from the timestamps order-service and the kitchen stamp into the events, the delivery
+ * phases from the delivery's own timestamps, and windows follow the simulation clock, so all of
+ * them are in simulated time. When the order was placed, ready and received is not part of a
+ * delivery, so it is remembered from creation until delivery; deliveries recovered from the
+ * journal and events of producers that did not stamp a time only count towards the phases they
+ * have both ends of.
+ *
+ * The exported gauges read one summary of every phase and window, taken by the first gauge read
+ * and reused for {@link #SCRAPE_REUSE_MILLIS}, so a scrape merges each histogram once rather
+ * than once per gauge.
+ */
+public class DeliveryKpis implements DeliveryListener {
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+    private static final List<ToDoubleFunction<DurationSummary>> QUANTILE_GETTERS = List.of(
+            DurationSummary::getP50Seconds, DurationSummary::getP95Seconds, DurationSummary::getP99Seconds);
+    // Far below any scrape interval, far above the time a scrape takes to read the gauges
+    static final long SCRAPE_REUSE_MILLIS = 1000;
+
+    /**
+     * Stages an order passes through, in order, followed by spans over several of them
+     */
+    public enum Phase {
+        PAYMENT("payment", true),
+        ORDER_PLACED_QUEUE("order-placed-queue", true),
+        PREPARATION("preparation", true),
+        ORDER_READY_QUEUE("order-ready-queue", true),
+        WAITING_FOR_DRIVER("waiting-for-driver", true),
+        ASSIGNED_TO_IN_TRANSIT("assigned-to-in-transit", true),
+        IN_TRANSIT_TO_DELIVERED("in-transit-to-delivered", true),
+        READY_TO_DELIVERED("ready-to-delivered", false),
+        PLACED_TO_DELIVERED("placed-to-delivered", false);
+
+        private final String tag;
+        private final boolean stage;
+
+        Phase(String tag, boolean stage) {
+            this.tag = tag;
+            this.stage = stage;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    public enum Window {
+        ONE_MINUTE("1m", Duration.ofMinutes(1), 12),
+        FIFTEEN_MINUTES("15m", Duration.ofMinutes(15), 15),
+        ONE_HOUR("1h", Duration.ofHours(1), 12);
+
+        private final String tag;
+        private final Duration length;
+        private final int slots;
+
+        Window(String tag, Duration length, int slots) {
+            this.tag = tag;
+            this.length = length;
+            this.slots = slots;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+
+        /**
+         * @throws IllegalArgumentException if no window has the tag
+         */
+        public static Window ofTag(String tag) {
+            for (Window window : values()) {
+                if (window.tag.equals(tag)) {
+                    return window;
+                }
+            }
+            throw new IllegalArgumentException("Unknown window " + tag + ", expected 1m, 15m or 1h");
+        }
+    }
+
+    // Epoch milliseconds of the simulated times an order was placed, ready and received, or UNKNOWN
+    private record Origin(long placedAt, long readyAt, long receivedAt) {
+    }
+
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    // Summaries the gauges read, and the System.nanoTime they were taken at
+    private record Scrape(long takenAt, Map<Phase, Map<Window, DurationSummary>> summaries) {
+    }
+
+    private final SimulationClock clock;
+    private final Map<Phase, Map<Window, RollingHistogram>> histograms = new EnumMap<>(Phase.class);
+    private final Map<String, Origin> origins = new ConcurrentHashMap<>();
+    private final Timer queueWait;
+    private final LongSupplier nanoTime;
+    private volatile Scrape scrape;
+
+    public DeliveryKpis(SimulationClock clock, MeterRegistry meterRegistry) {
+        this(clock, meterRegistry, System::nanoTime);
+    }
+
+    DeliveryKpis(SimulationClock clock, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.clock = clock;
+        this.nanoTime = nanoTime;
+        for (Phase phase : Phase.values()) {
+            Map<Window, RollingHistogram> windows = new EnumMap<>(Window.class);
+            for (Window window : Window.values()) {
+                windows.put(window, new RollingHistogram(window.length, window.slots));
+                for (int i = 0; i < QUANTILES.length; i++) {
+                    ToDoubleFunction<DurationSummary> percentile = QUANTILE_GETTERS.get(i);
+                    Gauge.builder("delivery.kpi.duration", this,
+                                    kpis -> percentile.applyAsDouble(kpis.scrapeSummary(phase, window)))
+                            .description("Delivery phase duration percentile in the window, in simulated seconds")
+                            .baseUnit("seconds")
+                            .tags("phase", phase.tag, "window", window.tag, "quantile", Double.toString(QUANTILES[i]))
+                            .register(meterRegistry);
+                }
+                Gauge.builder("delivery.kpi.duration.count", this, kpis -> kpis.scrapeSummary(phase, window).getCount())
+                        .description("Deliveries that completed the phase in the window")
+                        .tags("phase", phase.tag, "window", window.tag)
+                        .register(meterRegistry);
+            }
+            histograms.put(phase, windows);
+        }
+        Gauge.builder("delivery.kpi.awaiting.delivery", origins, Map::size)
+                .description("Ready orders whose earlier timestamps are kept until delivery")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("order.queue.wait")
+                .description("Time from sending an order until it was taken from the queue, in simulated time")
+                .tag("queue", RabbitMQConfig.ORDER_READY_QUEUE)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record the stages before delivery of an order that just got its delivery, and remember
+     * when it was placed, ready and received for the phases that end with the delivery
+     */
+    public void orderReady(OrderReadyEvent event, LocalDateTime receivedAt) {
+        long now = toMillis(clock.now());
+        record(Phase.PAYMENT, event.getPlacedAt(), event.getPaidAt(), now);
+        record(Phase.ORDER_PLACED_QUEUE, event.getOrderSentAt(), event.getKitchenReceivedAt(), now);
+        record(Phase.PREPARATION, event.getKitchenReceivedAt(), event.getPreparedAt(), now);
+        record(Phase.ORDER_READY_QUEUE, event.getSentAt(), receivedAt, now);
+        if (event.getSentAt() != null) {
+            queueWait.record(Duration.between(event.getSentAt(), receivedAt));
+        }
+        origins.put(event.getOrderId(), new Origin(toMillisOrUnknown(event.getPlacedAt()),
+                toMillisOrUnknown(event.getPreparedAt()), toMillis(receivedAt)));
+    }
+
+    @Override
+    public void onDeliveryUpdated(DeliveryUpdate update) {
+        DeliveryStatus delivery = update.getDelivery();
+        if (DeliveryUpdate.ARCHIVED.equals(update.getType())) {
+            origins.remove(delivery.getOrderId());
+            return;
+        }
+        long now = toMillis(clock.now());
+        if (DeliveryState.ASSIGNED.name().equals(delivery.getStatus())) {
+            // Created with a driver or assigned once one was free
+            Origin origin = origins.get(delivery.getOrderId());
+            if (origin != null && delivery.getAssignedAt() != null) {
+                recordMillis(Phase.WAITING_FOR_DRIVER, toMillis(delivery.getAssignedAt()) - origin.receivedAt, now);
+            }
+        } else if (!DeliveryUpdate.STATUS_CHANGED.equals(update.getType())) {
+            return;
+        } else if (DeliveryState.IN_TRANSIT.name().equals(delivery.getStatus())) {
+            record(Phase.ASSIGNED_TO_IN_TRANSIT, delivery.getAssignedAt(), delivery.getInTransitAt(), now);
+        } else if (DeliveryState.DELIVERED.name().equals(delivery.getStatus())) {
+            record(Phase.IN_TRANSIT_TO_DELIVERED, delivery.getInTransitAt(), delivery.getDeliveredAt(), now);
+            Origin origin = origins.remove(delivery.getOrderId());
+            if (origin != null && delivery.getDeliveredAt() != null) {
+                long deliveredAt = toMillis(delivery.getDeliveredAt());
+                if (origin.readyAt != UNKNOWN) {
+                    recordMillis(Phase.READY_TO_DELIVERED, deliveredAt - origin.readyAt, now);
+                }
+                if (origin.placedAt != UNKNOWN) {
+                    recordMillis(Phase.PLACED_TO_DELIVERED, deliveredAt - origin.placedAt, now);
+                }
+            }
+        }
+    }
+
+    /**
+     * Summary of every phase and window, keyed by their tags
+     */
+    public Map<String, Map<String, DurationSummary>> getSummaries() {
+        Map<String, Map<String, DurationSummary>> summaries = new LinkedHashMap<>();
+        summarizeAll().forEach((phase, windows) -> {
+            Map<String, DurationSummary> byTag = new LinkedHashMap<>();
+            windows.forEach((window, summary) -> byTag.put(window.tag, summary));
+            summaries.put(phase.tag, byTag);
+        });
+        return summaries;
+    }
+
+    /**
+     * Durations of every stage of an order within the window, in the order the stages are passed,
+     * and from placing the order to its delivery. Percentiles are per stage and do not add up to
+     * the end-to-end ones.
+     */
+    public LatencyBreakdown getBreakdown(Window window) {
+        long now = toMillis(clock.now());
+        Map<String, DurationSummary> stages = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            if (phase.stage) {
+                stages.put(phase.tag, summarize(histograms.get(phase).get(window).snapshot(now)));
+            }
+        }
+        return new LatencyBreakdown(window.tag, stages,
+                summarize(histograms.get(Phase.PLACED_TO_DELIVERED).get(window).snapshot(now)));
+    }
+
+    public DurationSummary getSummary(Phase phase, Window window) {
+        return summarize(snapshot(phase, window));
+    }
+
+    private RollingHistogram.Snapshot snapshot(Phase phase, Window window) {
+        return histograms.get(phase).get(window).snapshot(toMillis(clock.now()));
+    }
+
+    /**
+     * Summary for a gauge, from the summaries of the current scrape or, once they are older than
+     * {@link #SCRAPE_REUSE_MILLIS}, from new ones
+     */
+    private DurationSummary scrapeSummary(Phase phase, Window window) {
+        Scrape current = scrape;
+        if (isStale(current)) {
+            synchronized (this) {
+                // Only the first gauge read of a scrape takes the summaries, the others wait for them
+                current = scrape;
+                if (isStale(current)) {
+                    current = new Scrape(nanoTime.getAsLong(), summarizeAll());
+                    scrape = current;
+                }
+            }
+        }
+        return current.summaries.get(phase).get(window);
+    }
+
+    private boolean isStale(Scrape scrape) {
+        return scrape == null
+                || nanoTime.getAsLong() - scrape.takenAt >= TimeUnit.MILLISECONDS.toNanos(SCRAPE_REUSE_MILLIS);
+    }
+
+    private Map<Phase, Map<Window, DurationSummary>> summarizeAll() {
+        long now = toMillis(clock.now());
+        Map<Phase, Map<Window, DurationSummary>> summaries = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            Map<Window, DurationSummary> windows = new EnumMap<>(Window.class);
+            for (Window window : Window.values()) {
+                windows.put(window, summarize(histograms.get(phase).get(window).snapshot(now)));
+            }
+            summaries.put(phase, windows);
+        }
+        return summaries;
+    }
+
+    private void record(Phase phase, LocalDateTime from, LocalDateTime to, long now) {
+        if (from != null && to != null) {
+            recordMillis(phase, toMillis(to) - toMillis(from), now);
+        }
+    }
+
+    private void recordMillis(Phase phase, long millis, long now) {
+        for (RollingHistogram histogram : histograms.get(phase).values()) {
+            histogram.record(millis, now);
+        }
+    }
+
+    private static DurationSummary summarize(RollingHistogram.Snapshot snapshot) {
+        return new DurationSummary(snapshot.getCount(),
+                snapshot.getMean() / 1000.0,
+                snapshot.percentile(0.5) / 1000.0,
+                snapshot.percentile(0.95) / 1000.0,
+                snapshot.percentile(0.99) / 1000.0,
+                snapshot.getMax() / 1000.0);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static long toMillisOrUnknown(LocalDateTime time) {
+        return time != null ? toMillis(time) : UNKNOWN;
+    }
+}
@@ -0,0 +1,177 @@
+package com.pizza.delivery.kpi;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations recorded during the last window, updated without locks.
+ *
+ * The window is split into slots of equal length that are reused in a ring: the first value
+ * recorded in a new slot period resets the slot it lands on, and a snapshot merges the slots
+ * whose period lies in the window, so old values drop out one slot at a time. Values go into
+ * log-linear bins with 16 bins per power of two, so a reported percentile is within about 3% of
+ * the recorded value. Recording and snapshots cost the same however many values were recorded.
+ *
+ * A value recorded while another thread resets its slot can be lost; KPIs tolerate that and
+ * recording never waits.
+ */
+final class RollingHistogram {
+
+    private static final int SUB_BIN_BITS = 4;
+    private static final int SUB_BINS = 1 << SUB_BIN_BITS;
+    // Values are clamped to 2^40 ms, about 35 years
+    private static final int MAX_EXPONENT = 40;
+    static final int BINS = (MAX_EXPONENT - SUB_BIN_BITS + 1) * SUB_BINS;
+    private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+
+    private final long slotMillis;
+    private final Slot[] slots;
+
+    RollingHistogram(Duration window, int slotCount) {
+        if (slotCount <= 0 || window.toMillis() < slotCount) {
+            throw new IllegalArgumentException("Window " + window + " cannot be split into " + slotCount + " slots");
+        }
+        this.slotMillis = window.toMillis() / slotCount;
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    /**
+     * Record a duration at the given time; values older than the window are ignored
+     */
+    void record(long valueMillis, long nowMillis) {
+        long value = Math.min(Math.max(valueMillis, 0), MAX_VALUE);
+        long period = Math.floorDiv(nowMillis, slotMillis);
+        Slot slot = slots[(int) Math.floorMod(period, (long) slots.length)];
+        long slotPeriod = slot.period.get();
+        if (slotPeriod != period) {
+            if (slotPeriod > period) {
+                // The slot already holds a later period, so this value is out of the window
+                return;
+            }
+            if (slot.period.compareAndSet(slotPeriod, period)) {
+                slot.reset();
+            }
+        }
+        slot.bins.incrementAndGet(bin(value));
+        slot.count.incrementAndGet();
+        slot.sum.addAndGet(value);
+        slot.max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Values recorded in the slots of the window ending at the given time
+     */
+    Snapshot snapshot(long nowMillis) {
+        long period = Math.floorDiv(nowMillis, slotMillis);
+        long[] bins = new long[BINS];
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        for (Slot slot : slots) {
+            long slotPeriod = slot.period.get();
+            if (slotPeriod > period - slots.length && slotPeriod <= period) {
+                for (int i = 0; i < BINS; i++) {
+                    bins[i] += slot.bins.get(i);
+                }
+                count += slot.count.get();
+                sum += slot.sum.get();
+                max = Math.max(max, slot.max.get());
+            }
+        }
+        return new Snapshot(bins, count, sum, max);
+    }
+
+    static int bin(long value) {
+        if (value < SUB_BINS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBin = (int) (value >>> (exponent - SUB_BIN_BITS)) & (SUB_BINS - 1);
+        return (exponent - SUB_BIN_BITS + 1) * SUB_BINS + subBin;
+    }
+
+    /**
+     * Middle of the values falling into a bin
+     */
+    static long binValue(int bin) {
+        if (bin < SUB_BINS) {
+            return bin;
+        }
+        int exponent = bin / SUB_BINS + SUB_BIN_BITS - 1;
+        long width = 1L << (exponent - SUB_BIN_BITS);
+        long lower = (long) (SUB_BINS + bin % SUB_BINS) << (exponent - SUB_BIN_BITS);
+        return lower + (width - 1) / 2;
+    }
+
+    private static final class Slot {
+        private final AtomicLong period = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLongArray bins = new AtomicLongArray(BINS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        private void reset() {
+            for (int i = 0; i < BINS; i++) {
+                bins.set(i, 0);
+            }
+            count.set(0);
+            sum.set(0);
+            max.set(0);
+        }
+    }
+
+    /**
+     * Merged values of a window
+     */
+    static final class Snapshot {
+        private final long[] bins;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] bins, long count, long sum, long max) {
+            this.bins = bins;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        long getMax() {
+            return max;
+        }
+
+        /**
+         * Value below which the given fraction of the recorded values lies, 0 if nothing was recorded
+         */
+        long percentile(double fraction) {
+            long total = 0;
+            for (long binCount : bins) {
+                total += binCount;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(fraction * total));
+            long seen = 0;
+            for (int i = 0; i < bins.length; i++) {
+                seen += bins[i];
+                if (seen >= rank) {
+                    return Math.min(binValue(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
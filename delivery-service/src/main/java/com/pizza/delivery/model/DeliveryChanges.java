@@ -0,0 +1,28 @@
+package com.pizza.delivery.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Delivery changes since a client's last known version")
+public class DeliveryChanges {
+    @Schema(description = "Epoch of the version, to pass as 'epoch' on the next request; it changes "
+            + "with every restart of the service", example = "9f3c02ab")
+    private String epoch;
+
+    @Schema(description = "Version to pass as 'since' on the next request", example = "42")
+    private long version;
+
+    @Schema(description = "True if the requested version is from another epoch or no longer covered by "
+            + "the change log; the client must reload the full listing and continue from 'version'")
+    private boolean reset;
+
+    @Schema(description = "Changes in version order (empty when reset is true)")
+    private List<DeliveryUpdate> changes;
+}
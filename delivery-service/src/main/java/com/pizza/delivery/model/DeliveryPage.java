@@ -0,0 +1,20 @@
+package com.pizza.delivery.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One page of a delivery listing")
+public class DeliveryPage {
+    @Schema(description = "Deliveries on this page, ordered by order ID (projected if 'fields' was given)")
+    private List<Object> items;
+
+    @Schema(description = "Cursor for the next page, null on the last page", example = "b3JkZXItMTIz")
+    private String nextCursor;
+}
@@ -0,0 +1,51 @@
+package com.pizza.delivery.model;
+
+/**
+ * Lifecycle of a delivery. Each state has exactly one successor:
+ * PENDING -> ASSIGNED -> IN_TRANSIT -> DELIVERED.
+ */
+public enum DeliveryState {
+
+    /**
+     * Waiting for a driver with spare capacity
+     */
+    PENDING,
+
+    /**
+     * Assigned to a driver who has not left yet
+     */
+    ASSIGNED,
+
+    /**
+     * The driver is on the way
+     */
+    IN_TRANSIT,
+
+    /**
+     * Handed to the customer
+     */
+    DELIVERED;
+
+    /**
+     * State of a delivery's {@code status} field
+     *
+     * @throws IllegalArgumentException if the status is unknown
+     */
+    public static DeliveryState of(String status) {
+        if (status == null) {
+            throw new IllegalArgumentException("Delivery status is missing");
+        }
+        return valueOf(status);
+    }
+
+    public boolean canTransitionTo(DeliveryState next) {
+        return next.ordinal() == ordinal() + 1;
+    }
+
+    /**
+     * Whether the delivery takes up capacity of its driver
+     */
+    public boolean holdsDriver() {
+        return this == ASSIGNED || this == IN_TRANSIT;
+    }
+}
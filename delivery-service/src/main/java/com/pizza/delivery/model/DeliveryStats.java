@@ -0,0 +1,27 @@
+package com.pizza.delivery.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Delivery KPIs: hot-tier counts and rolling-window phase durations")
+public class DeliveryStats {
+    @Schema(description = "Hot-tier deliveries per status, statuses without deliveries left out",
+            example = "{\"ASSIGNED\": 4, \"IN_TRANSIT\": 7, \"DELIVERED\": 52}")
+    private Map<String, Long> byStatus;
+
+    @Schema(description = "Hot-tier deliveries per driver, drivers without deliveries left out",
+            example = "{\"Anna Schmidt\": 9, \"Tom Fischer\": 6}")
+    private Map<String, Long> byDriver;
+
+    @Schema(description = "Durations per phase (payment, order-placed-queue, preparation, order-ready-queue, "
+            + "waiting-for-driver, assigned-to-in-transit, in-transit-to-delivered, ready-to-delivered, "
+            + "placed-to-delivered) and window (1m, 15m, 1h)")
+    private Map<String, Map<String, DurationSummary>> durations;
+}
@@ -0,0 +1,30 @@
+package com.pizza.delivery.model;
+
+import com.pizza.models.DeliveryStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A delivery that was created, changed status or was archived")
+public class DeliveryUpdate {
+    public static final String CREATED = "CREATED";
+    public static final String STATUS_CHANGED = "STATUS_CHANGED";
+    public static final String ARCHIVED = "ARCHIVED";
+
+    @Schema(description = "Monotonically increasing version of this change", example = "42")
+    private long version;
+
+    @Schema(description = "Kind of change", example = "STATUS_CHANGED",
+            allowableValues = {CREATED, STATUS_CHANGED, ARCHIVED})
+    private String type;
+
+    @Schema(description = "Status before the change (null for CREATED)", example = "ASSIGNED")
+    private String previousStatus;
+
+    @Schema(description = "Snapshot of the delivery after the change")
+    private DeliveryStatus delivery;
+}
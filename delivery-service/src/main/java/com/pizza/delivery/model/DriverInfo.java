@@ -0,0 +1,27 @@
+package com.pizza.delivery.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A driver of the dispatch pool and its current load")
+public class DriverInfo {
+    @Schema(description = "Driver name", example = "Anna Schmidt")
+    private String name;
+
+    @Schema(description = "Zone the driver is based in (first two digits of the postal code)", example = "80")
+    private String zone;
+
+    @Schema(description = "Maximum number of active orders", example = "3")
+    private int capacity;
+
+    @Schema(description = "Number of active orders", example = "2")
+    private int load;
+
+    @Schema(description = "Whether the driver accepts new orders", example = "true")
+    private boolean available;
+}
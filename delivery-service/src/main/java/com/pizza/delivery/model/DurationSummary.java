@@ -0,0 +1,30 @@
+package com.pizza.delivery.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Durations of one delivery phase within a rolling window, in simulated seconds")
+public class DurationSummary {
+    @Schema(description = "Deliveries that completed the phase in the window", example = "118")
+    private long count;
+
+    @Schema(description = "Mean duration", example = "12.4")
+    private double meanSeconds;
+
+    @Schema(description = "Median duration (within about 3%)", example = "12.2")
+    private double p50Seconds;
+
+    @Schema(description = "95th percentile duration (within about 3%)", example = "14.7")
+    private double p95Seconds;
+
+    @Schema(description = "99th percentile duration (within about 3%)", example = "14.9")
+    private double p99Seconds;
+
+    @Schema(description = "Longest duration", example = "15.0")
+    private double maxSeconds;
+}
@@ -0,0 +1,25 @@
+package com.pizza.delivery.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Where the time from placing an order to its delivery went, within a rolling window")
+public class LatencyBreakdown {
+    @Schema(description = "Rolling window of simulated time", example = "15m")
+    private String window;
+
+    @Schema(description = "Durations per stage in the order they are passed (payment, order-placed-queue, "
+            + "preparation, order-ready-queue, waiting-for-driver, assigned-to-in-transit, in-transit-to-delivered); "
+            + "percentiles are per stage and do not add up")
+    private Map<String, DurationSummary> stages;
+
+    @Schema(description = "Durations from placing the order to its delivery")
+    private DurationSummary endToEnd;
+}
@@ -0,0 +1,70 @@
+package com.pizza.delivery.notification;
+
+import java.time.LocalDateTime;
+
+/**
+ * What a customer is told once their order is handed to delivery. Kept small so the order
+ * listener only allocates this record; sinks render it later on the dispatcher thread.
+ */
+public class CustomerNotification {
+
+    private final String orderId;
+    private final String customerName;
+    private final String pizza;
+    private final Integer quantity;
+    private final String address;
+    private final String driverName;
+    private final LocalDateTime estimatedDelivery;
+
+    public CustomerNotification(String orderId, String customerName, String pizza, Integer quantity,
+            String address, String driverName, LocalDateTime estimatedDelivery) {
+        this.orderId = orderId;
+        this.customerName = customerName;
+        this.pizza = pizza;
+        this.quantity = quantity;
+        this.address = address;
+        this.driverName = driverName;
+        this.estimatedDelivery = estimatedDelivery;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getPizza() {
+        return pizza;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    /**
+     * Driver of the order, null while it waits for a free driver
+     */
+    public String getDriverName() {
+        return driverName;
+    }
+
+    public LocalDateTime getEstimatedDelivery() {
+        return estimatedDelivery;
+    }
+
+    /**
+     * The message as the customer reads it
+     */
+    public String render() {
+        return "Dear " + customerName + ", your order " + orderId + " (" + quantity + " x " + pizza
+                + ") is on its way to " + address + ". Driver: "
+                + (driverName != null ? driverName : "to be assigned")
+                + ". Estimated delivery: " + estimatedDelivery;
+    }
+}
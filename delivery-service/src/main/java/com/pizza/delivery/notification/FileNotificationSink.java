@@ -0,0 +1,71 @@
+package com.pizza.delivery.notification;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends notifications to a local file, one line each, flushed once per batch
+ */
+@Component
+@ConditionalOnProperty(name = "delivery.notifications.file.path")
+public class FileNotificationSink implements NotificationSink {
+
+    private final Path path;
+    private BufferedWriter writer;
+
+    public FileNotificationSink(@Value("${delivery.notifications.file.path}") String path) {
+        this.path = Path.of(path);
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void send(List<CustomerNotification> batch) throws IOException {
+        if (writer == null) {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        try {
+            for (CustomerNotification notification : batch) {
+                writer.write(notification.getOrderId());
+                writer.write('\t');
+                writer.write(notification.render());
+                writer.newLine();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            // Reopen on the next batch
+            close();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                // Nothing left to flush it to
+            }
+            writer = null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.pizza.delivery.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes one log line per notification
+ */
+@Component
+@ConditionalOnProperty(name = "delivery.notifications.log.enabled", matchIfMissing = true)
+public class LogNotificationSink implements NotificationSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogNotificationSink.class);
+
+    @Override
+    public String getName() {
+        return "log";
+    }
+
+    @Override
+    public void send(List<CustomerNotification> batch) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        for (CustomerNotification notification : batch) {
+            logger.info("Customer notification: {}", notification.render());
+        }
+    }
+}
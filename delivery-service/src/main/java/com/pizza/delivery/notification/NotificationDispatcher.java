@@ -0,0 +1,176 @@
+package com.pizza.delivery.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers customer notifications to the configured sinks off the order listener thread.
+ *
+ * {@link #enqueue} only appends to a bounded lock-free queue and never blocks: when the queue is
+ * full the notification is dropped and counted, so slow sinks cannot back up order processing.
+ * A single dispatcher thread drains the queue in batches of whatever has accumulated, so sinks
+ * pay their per-call cost once per batch under load.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    // Upper bound on how long a notification waits if a wake-up was missed
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Queue<CustomerNotification> queue = new ConcurrentLinkedQueue<>();
+    // Bounds the queue; ConcurrentLinkedQueue.size() is O(n)
+    private final AtomicInteger size = new AtomicInteger();
+    private final List<NotificationSink> sinks;
+    private final int capacity;
+    private final int batchSize;
+    private final Counter dropped;
+    private final DistributionSummary batchSizes;
+    private final Map<String, Counter> sent = new HashMap<>();
+    private final Map<String, Counter> failed = new HashMap<>();
+    private volatile boolean running;
+    private volatile Thread dispatcher;
+
+    public NotificationDispatcher(List<NotificationSink> sinks,
+            @Value("${delivery.notifications.capacity:10000}") int capacity,
+            @Value("${delivery.notifications.batch-size:256}") int batchSize,
+            MeterRegistry meterRegistry) {
+        this.sinks = List.copyOf(sinks);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.dropped = Counter.builder("delivery.notifications.dropped")
+                .description("Notifications dropped because the queue was full")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("delivery.notifications.batch.size")
+                .description("Notifications handed to the sinks at once")
+                .register(meterRegistry);
+        for (NotificationSink sink : this.sinks) {
+            sent.put(sink.getName(), Counter.builder("delivery.notifications.sent")
+                    .description("Notifications delivered by the sink")
+                    .tag("sink", sink.getName())
+                    .register(meterRegistry));
+            failed.put(sink.getName(), Counter.builder("delivery.notifications.failed")
+                    .description("Notifications the sink failed to deliver")
+                    .tag("sink", sink.getName())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("delivery.notifications.queued", size, AtomicInteger::get)
+                .description("Notifications waiting for the dispatcher")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::run, "notification-dispatcher");
+        thread.setDaemon(true);
+        dispatcher = thread;
+        thread.start();
+        logger.info("Dispatching customer notifications to {}",
+                sinks.stream().map(NotificationSink::getName).toList());
+    }
+
+    /**
+     * Queue a notification without blocking
+     *
+     * @return false if the queue was full and the notification was dropped
+     */
+    public boolean enqueue(CustomerNotification notification) {
+        int queued = size.incrementAndGet();
+        if (queued > capacity) {
+            size.decrementAndGet();
+            dropped.increment();
+            return false;
+        }
+        queue.offer(notification);
+        // The dispatcher only parks on an empty queue, so waking it on the first entry suffices
+        if (queued == 1) {
+            Thread thread = dispatcher;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+        return true;
+    }
+
+    public int getQueued() {
+        return size.get();
+    }
+
+    /**
+     * Stop the dispatcher after it delivered everything queued so far
+     */
+    @PreDestroy
+    public void close() {
+        Thread thread = dispatcher;
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dispatcher = null;
+        if (size.get() > 0) {
+            logger.warn("{} customer notifications were not delivered before shutdown", size.get());
+        }
+    }
+
+    private void run() {
+        List<CustomerNotification> batch = new ArrayList<>(batchSize);
+        List<CustomerNotification> view = Collections.unmodifiableList(batch);
+        while (true) {
+            CustomerNotification notification;
+            while (batch.size() < batchSize && (notification = queue.poll()) != null) {
+                batch.add(notification);
+            }
+            if (batch.isEmpty()) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            size.addAndGet(-batch.size());
+            deliver(view);
+            batch.clear();
+        }
+    }
+
+    private void deliver(List<CustomerNotification> batch) {
+        batchSizes.record(batch.size());
+        for (NotificationSink sink : sinks) {
+            try {
+                sink.send(batch);
+                sent.get(sink.getName()).increment(batch.size());
+            } catch (Exception e) {
+                failed.get(sink.getName()).increment(batch.size());
+                logger.warn("Notification sink {} failed to deliver {} notifications: {}",
+                        sink.getName(), batch.size(), e.getMessage());
+            }
+        }
+    }
+}
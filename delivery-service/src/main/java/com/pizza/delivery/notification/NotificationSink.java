@@ -0,0 +1,21 @@
+package com.pizza.delivery.notification;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A channel customer notifications are delivered through. Every enabled sink receives each
+ * batch from the {@link NotificationDispatcher} thread; a failing sink does not affect the others.
+ */
+public interface NotificationSink {
+
+    /**
+     * Name used in metrics and logs
+     */
+    String getName();
+
+    /**
+     * Deliver a batch of notifications, oldest first. The list must not be kept after returning.
+     */
+    void send(List<CustomerNotification> batch) throws IOException;
+}
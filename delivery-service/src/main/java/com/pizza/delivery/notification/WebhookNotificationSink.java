@@ -0,0 +1,61 @@
+package com.pizza.delivery.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Posts each batch as a JSON array to a webhook, standing in for an SMS or push provider
+ */
+@Component
+@ConditionalOnProperty(name = "delivery.notifications.webhook.url")
+public class WebhookNotificationSink implements NotificationSink {
+
+    private final URI url;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client;
+
+    public WebhookNotificationSink(@Value("${delivery.notifications.webhook.url}") String url,
+            @Value("${delivery.notifications.webhook.timeout-ms:2000}") long timeoutMs,
+            ObjectMapper objectMapper) {
+        this.url = URI.create(url);
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public String getName() {
+        return "webhook";
+    }
+
+    @Override
+    public void send(List<CustomerNotification> batch) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(batch)))
+                .build();
+        HttpResponse<Void> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while posting notifications");
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Webhook " + url + " answered " + response.statusCode());
+        }
+    }
+}
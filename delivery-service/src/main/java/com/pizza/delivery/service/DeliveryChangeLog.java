@@ -0,0 +1,180 @@
+package com.pizza.delivery.service;
+
+import com.pizza.delivery.model.DeliveryChanges;
+import com.pizza.delivery.model.DeliveryUpdate;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versions every delivery mutation and keeps a bounded log of the most recent ones.
+ *
+ * Writers take a version with {@link #nextVersion()} while they hold the delivery's map entry
+ * and {@link #commit} the resulting update once the change is visible. Commits can arrive out
+ * of order across orders; the log only exposes the contiguous prefix up to {@link #getVersion()},
+ * so a client that has seen version N is guaranteed to find every later change in the log.
+ * Listeners are called in version order.
+ */
+@Component
+public class DeliveryChangeLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryChangeLog.class);
+
+    private final String epoch = String.format("%08x", new SecureRandom().nextInt());
+    private final AtomicLong versionCounter = new AtomicLong();
+    private final NavigableMap<Long, DeliveryUpdate> entries = new ConcurrentSkipListMap<>();
+    private final Map<Long, DeliveryUpdate> pending = new HashMap<>();
+    private final List<DeliveryListener> listeners = new CopyOnWriteArrayList<>();
+    private final int capacity;
+    private volatile long committedVersion;
+    private volatile long evictedVersion;
+    private volatile long recoveredVersion;
+    private int size;
+
+    public DeliveryChangeLog(@Value("${delivery.changes.capacity:10000}") int capacity,
+            MeterRegistry meterRegistry) {
+        this.capacity = capacity;
+        Gauge.builder("delivery.changes.version", this, DeliveryChangeLog::getVersion)
+                .description("Latest committed delivery version")
+                .register(meterRegistry);
+    }
+
+    public void addListener(DeliveryListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Reserve the version for a mutation. Every reserved version must be committed.
+     */
+    public long nextVersion() {
+        return versionCounter.incrementAndGet();
+    }
+
+    /**
+     * Continue numbering after the last version recovered from the journal. Earlier changes
+     * are not in the log, so clients behind it have to reload the full state.
+     */
+    public synchronized void recover(long version) {
+        versionCounter.set(version);
+        committedVersion = version;
+        evictedVersion = version;
+        recoveredVersion = version;
+    }
+
+    /**
+     * Random ID of this instance's numbering. Versions are only comparable within one epoch: a
+     * restart without the journal, or another instance, can hand out the same version for other
+     * content, so anything that caches by version, such as an ETag, has to carry the epoch.
+     */
+    public String getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Latest version such that all changes up to and including it are committed
+     */
+    public long getVersion() {
+        return committedVersion;
+    }
+
+    /**
+     * Version the log was recovered at, 0 if it started empty. Listeners only see later changes.
+     */
+    public long getRecoveredVersion() {
+        return recoveredVersion;
+    }
+
+    /**
+     * Commit the update carrying a version from {@link #nextVersion()}. A null update
+     * releases a version whose mutation was abandoned.
+     */
+    public void commit(long version, DeliveryUpdate update) {
+        synchronized (this) {
+            List<DeliveryUpdate> ready = new ArrayList<>();
+            pending.put(version, update);
+            long next = committedVersion + 1;
+            while (pending.containsKey(next)) {
+                DeliveryUpdate committed = pending.remove(next);
+                if (committed != null) {
+                    entries.put(next, committed);
+                    size++;
+                    ready.add(committed);
+                }
+                committedVersion = next++;
+            }
+            while (size > capacity) {
+                // Publish the eviction before removing so readers never miss a gap
+                evictedVersion = entries.firstKey();
+                entries.pollFirstEntry();
+                size--;
+            }
+            // Listeners run under the lock so they observe updates in version order
+            for (DeliveryUpdate committed : ready) {
+                notifyListeners(committed);
+            }
+        }
+    }
+
+    /**
+     * Changes with a version in {@code (since, upTo]}, oldest first, or empty if some of them
+     * are no longer retained and the caller has to reload the full state instead.
+     */
+    public Optional<List<DeliveryUpdate>> changesBetween(long since, long upTo) {
+        if (since >= upTo) {
+            return Optional.of(List.of());
+        }
+        List<DeliveryUpdate> changes = new ArrayList<>(entries.subMap(since, false, upTo, true).values());
+        if (since < evictedVersion) {
+            return Optional.empty();
+        }
+        return Optional.of(changes);
+    }
+
+    /**
+     * Up to {@code limit} committed changes after {@code since}. The result's version and epoch
+     * are the ones to ask for next; if {@code since} is from another epoch or the log no longer
+     * covers it, the result is a reset carrying the current version, and the caller has to
+     * reload the full state. Without an epoch {@code since} is taken to be from this one.
+     */
+    public DeliveryChanges changesSince(String sinceEpoch, long since, int limit) {
+        long upTo = committedVersion;
+        // A version from another epoch or from the future was issued before a restart
+        boolean sameEpoch = sinceEpoch == null || sinceEpoch.equals(epoch);
+        Optional<List<DeliveryUpdate>> changes = sameEpoch && since <= upTo
+                ? changesBetween(since, upTo) : Optional.empty();
+        if (changes.isEmpty()) {
+            return new DeliveryChanges(epoch, upTo, true, List.of());
+        }
+        List<DeliveryUpdate> list = changes.get();
+        if (list.size() > limit) {
+            list = List.copyOf(list.subList(0, limit));
+            return new DeliveryChanges(epoch, list.get(limit - 1).getVersion(), false, list);
+        }
+        return new DeliveryChanges(epoch, upTo, false, list);
+    }
+
+    private void notifyListeners(DeliveryUpdate update) {
+        for (DeliveryListener listener : listeners) {
+            try {
+                listener.onDeliveryUpdated(update);
+            } catch (RuntimeException e) {
+                logger.error("Delivery listener {} failed for order {}: {}", listener.getClass().getSimpleName(),
+                        update.getDelivery().getOrderId(), e.getMessage(), e);
+            }
+        }
+    }
+}
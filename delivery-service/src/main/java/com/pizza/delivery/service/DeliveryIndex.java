@@ -0,0 +1,141 @@
+package com.pizza.delivery.service;
+
+import com.pizza.models.DeliveryStatus;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Secondary indexes over the hot tier: all order IDs, order IDs by status and by driver.
+ *
+ * Each set is sorted by order ID so it can serve cursor-based listings directly.
+ * Callers must update the index while holding the primary map entry (inside
+ * {@code compute}) so index and map change together for a given order.
+ *
+ * The skip-list sets count their elements by walking them, so the number of orders per status
+ * and per driver is kept in separate counters for statistics.
+ */
+class DeliveryIndex {
+
+    private final NavigableSet<String> orderIds = new ConcurrentSkipListSet<>();
+    private final Map<String, NavigableSet<String>> byStatus = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<String>> byDriver = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> statusCounts = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> driverCounts = new ConcurrentHashMap<>();
+
+    void add(DeliveryStatus delivery) {
+        orderIds.add(delivery.getOrderId());
+        addTo(byStatus, statusCounts, delivery.getStatus(), delivery.getOrderId());
+        addTo(byDriver, driverCounts, delivery.getDriverName(), delivery.getOrderId());
+    }
+
+    void remove(DeliveryStatus delivery) {
+        orderIds.remove(delivery.getOrderId());
+        removeFrom(byStatus, statusCounts, delivery.getStatus(), delivery.getOrderId());
+        removeFrom(byDriver, driverCounts, delivery.getDriverName(), delivery.getOrderId());
+    }
+
+    void replace(DeliveryStatus previous, DeliveryStatus next) {
+        String orderId = next.getOrderId();
+        if (!Objects.equals(previous.getStatus(), next.getStatus())) {
+            removeFrom(byStatus, statusCounts, previous.getStatus(), orderId);
+            addTo(byStatus, statusCounts, next.getStatus(), orderId);
+        }
+        if (!Objects.equals(previous.getDriverName(), next.getDriverName())) {
+            removeFrom(byDriver, driverCounts, previous.getDriverName(), orderId);
+            addTo(byDriver, driverCounts, next.getDriverName(), orderId);
+        }
+    }
+
+    NavigableSet<String> all() {
+        return orderIds;
+    }
+
+    NavigableSet<String> withStatus(String status) {
+        return lookup(byStatus, status);
+    }
+
+    NavigableSet<String> withDriver(String driverName) {
+        return lookup(byDriver, driverName);
+    }
+
+    long countWithStatus(String status) {
+        return count(statusCounts, status);
+    }
+
+    long countWithDriver(String driverName) {
+        return count(driverCounts, driverName);
+    }
+
+    /**
+     * Number of orders per status, leaving out statuses without orders
+     */
+    Map<String, Long> statusCounts() {
+        return counts(statusCounts);
+    }
+
+    /**
+     * Number of orders per driver, leaving out drivers without orders
+     */
+    Map<String, Long> driverCounts() {
+        return counts(driverCounts);
+    }
+
+    /**
+     * Pick the narrowest index that covers the query; results still need {@link DeliveryQuery#matches}.
+     */
+    NavigableSet<String> candidates(DeliveryQuery query) {
+        // Prefer the driver index: DELIVERED alone can hold most of the hot tier
+        if (query.getDriverName() != null) {
+            return withDriver(query.getDriverName());
+        }
+        if (query.getStatus() != null) {
+            return withStatus(query.getStatus());
+        }
+        return orderIds;
+    }
+
+    private static void addTo(Map<String, NavigableSet<String>> index, Map<String, AtomicLong> counts,
+            String key, String orderId) {
+        if (key != null && index.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(orderId)) {
+            counts.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    private static void removeFrom(Map<String, NavigableSet<String>> index, Map<String, AtomicLong> counts,
+            String key, String orderId) {
+        if (key != null) {
+            NavigableSet<String> ids = index.get(key);
+            if (ids != null && ids.remove(orderId)) {
+                counts.get(key).decrementAndGet();
+            }
+        }
+    }
+
+    private static long count(Map<String, AtomicLong> counts, String key) {
+        AtomicLong count = key != null ? counts.get(key) : null;
+        return count != null ? count.get() : 0;
+    }
+
+    private static Map<String, Long> counts(Map<String, AtomicLong> counts) {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counts.forEach((key, count) -> {
+            long value = count.get();
+            if (value > 0) {
+                snapshot.put(key, value);
+            }
+        });
+        return snapshot;
+    }
+
+    private static NavigableSet<String> lookup(Map<String, NavigableSet<String>> index, String key) {
+        NavigableSet<String> ids = index.get(key);
+        return ids != null ? ids : Collections.emptyNavigableSet();
+    }
+}
@@ -0,0 +1,14 @@
+package com.pizza.delivery.service;
+
+import com.pizza.delivery.model.DeliveryUpdate;
+
+/**
+ * Receives every delivery creation, status transition and archival made by {@link DeliveryService}.
+ *
+ * Registered with {@link DeliveryChangeLog} and called in version order once the change is
+ * visible, on the thread that committed it, so implementations must not block.
+ */
+public interface DeliveryListener {
+
+    void onDeliveryUpdated(DeliveryUpdate update);
+}
@@ -0,0 +1,61 @@
+package com.pizza.delivery.service;
+
+import com.pizza.models.DeliveryStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filter criteria for delivery listings. Null criteria match everything;
+ * the time range applies to {@code assignedAt} and is inclusive-exclusive.
+ */
+public class DeliveryQuery {
+
+    private final String status;
+    private final String driverName;
+    private final LocalDateTime assignedFrom;
+    private final LocalDateTime assignedTo;
+
+    public DeliveryQuery(String status, String driverName, LocalDateTime assignedFrom, LocalDateTime assignedTo) {
+        this.status = status;
+        this.driverName = driverName;
+        this.assignedFrom = assignedFrom;
+        this.assignedTo = assignedTo;
+    }
+
+    public static DeliveryQuery all() {
+        return new DeliveryQuery(null, null, null, null);
+    }
+
+    public boolean matches(DeliveryStatus delivery) {
+        if (status != null && !status.equals(delivery.getStatus())) {
+            return false;
+        }
+        if (driverName != null && !driverName.equals(delivery.getDriverName())) {
+            return false;
+        }
+        LocalDateTime assignedAt = delivery.getAssignedAt();
+        if (assignedFrom != null && (assignedAt == null || assignedAt.isBefore(assignedFrom))) {
+            return false;
+        }
+        if (assignedTo != null && (assignedAt == null || !assignedAt.isBefore(assignedTo))) {
+            return false;
+        }
+        return true;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getDriverName() {
+        return driverName;
+    }
+
+    public LocalDateTime getAssignedFrom() {
+        return assignedFrom;
+    }
+
+    public LocalDateTime getAssignedTo() {
+        return assignedTo;
+    }
+}
@@ -1,29 +1,84 @@
 package com.pizza.delivery.service;
 
-import com.pizza.delivery.config.RabbitMQConfig;
+import com.pizza.delivery.dedup.OrderDeduplicator;
+import com.pizza.delivery.dispatch.Assignment;
+import com.pizza.delivery.dispatch.DispatchEngine;
+import com.pizza.delivery.kpi.DeliveryKpis;
+import com.pizza.delivery.model.DeliveryChanges;
+import com.pizza.delivery.model.DeliveryStats;
+import com.pizza.delivery.model.DeliveryState;
+import com.pizza.delivery.model.DeliveryUpdate;
+import com.pizza.delivery.model.DriverInfo;
+import com.pizza.delivery.model.LatencyBreakdown;
+import com.pizza.delivery.notification.CustomerNotification;
+import com.pizza.delivery.notification.NotificationDispatcher;
+import com.pizza.delivery.store.DeliveryArchive;
+import com.pizza.delivery.store.DeliveryJournal;
+import com.pizza.delivery.store.DeliveryStore;
+import com.pizza.delivery.store.JournalRecovery;
 import com.pizza.models.DeliveryStatus;
 import com.pizza.models.OrderReadyEvent;
+import com.pizza.models.time.SimulationClock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
+/**
+ * Tracks deliveries from order ready to delivered.
+ *
+ * Hot-tier deliveries are immutable: a transition builds the next state from the current one
+ * without holding a lock and installs it only if the entry still holds that state, retrying
+ * otherwise (see {@link #apply}). Readers and API responses therefore always see a consistent
+ * delivery.
+ *
+ * All delivery times come from the {@link SimulationClock}, which also drives the status updates
+ * and archival, so a simulation can run the delivery lifecycle faster than real time.
+ */
 @Service
 public class DeliveryService {
 
     private static final Logger logger = LoggerFactory.getLogger(DeliveryService.class);
     private final Random random = new Random();
-    private final Map<String, DeliveryStatus> deliveries = new ConcurrentHashMap<>();
-
-    private static final String[] DRIVER_NAMES = {
-            "Max Mustermann", "Anna Schmidt", "Peter Mueller", "Lisa Weber", "Tom Fischer"
-    };
+    // Hot tier: deliveries that are still active or were delivered within the retention window.
+    // Values are never modified, only replaced.
+    private final DeliveryStore deliveries;
+    // Secondary indexes, only updated in the onChange callback of deliveries.compute* for the affected order
+    private final DeliveryIndex index = new DeliveryIndex();
+    private final DeliveryArchive archive;
+    private final DeliveryChangeLog changeLog;
+    private final DispatchEngine dispatchEngine;
+    private final DeliveryJournal journal;
+    private final NotificationDispatcher notifications;
+    private final OrderDeduplicator deduplicator;
+    private final SimulationClock clock;
+    // Rolling-window phase durations, fed by the change log
+    private final DeliveryKpis kpis;
+    private final List<SimulationClock.Task> tasks = new ArrayList<>();
+    // Version of the latest change per hot-tier order, raised only after the change is visible
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    private final Counter transitionConflicts;
 
     // Time in seconds after assignment when order goes IN_TRANSIT (10-15 seconds)
     private static final int MIN_IN_TRANSIT_TIME = 10;
@@ -33,6 +88,100 @@ public class DeliveryService {
     private static final int MIN_DELIVERY_TIME = 15;
     private static final int MAX_DELIVERY_TIME = 25;
 
+    // Simulated time between two runs of the status update
+    private static final Duration STATUS_UPDATE_INTERVAL = Duration.ofSeconds(5);
+
+    // Time in seconds a DELIVERED order stays in the hot tier before it is archived
+    @Value("${delivery.archive.retention-seconds:300}")
+    private long archiveRetentionSeconds = 300;
+
+    // Simulated time in milliseconds between two archival runs
+    @Value("${delivery.archive.interval-ms:60000}")
+    private long archiveIntervalMs = 60000;
+
+    public DeliveryService(DeliveryStore deliveries, DeliveryArchive archive, DeliveryChangeLog changeLog,
+            DispatchEngine dispatchEngine, DeliveryJournal journal, NotificationDispatcher notifications, OrderDeduplicator deduplicator,
+            SimulationClock clock, MeterRegistry meterRegistry) {
+        this.deliveries = deliveries;
+        this.archive = archive;
+        this.changeLog = changeLog;
+        this.dispatchEngine = dispatchEngine;
+        this.journal = journal;
+        this.notifications = notifications;
+        this.deduplicator = deduplicator;
+        this.clock = clock;
+        Gauge.builder("delivery.store.hot.size", deliveries, DeliveryStore::size)
+                .description("Number of deliveries held in the hot tier")
+                .register(meterRegistry);
+        for (DeliveryState state : DeliveryState.values()) {
+            Gauge.builder("delivery.status.count", index, ids -> ids.countWithStatus(state.name()))
+                    .description("Hot-tier deliveries with the status")
+                    .tag("status", state.name())
+                    .register(meterRegistry);
+        }
+        for (DriverInfo driver : dispatchEngine.getDrivers()) {
+            Gauge.builder("delivery.driver.count", index, ids -> ids.countWithDriver(driver.getName()))
+                    .description("Hot-tier deliveries of the driver")
+                    .tag("driver", driver.getName())
+                    .register(meterRegistry);
+        }
+        this.kpis = new DeliveryKpis(clock, meterRegistry);
+        changeLog.addListener(kpis);
+        this.transitionConflicts = Counter.builder("delivery.transition.conflicts")
+                .description("Transitions retried because the delivery changed concurrently")
+                .register(meterRegistry);
+        recover();
+    }
+
+    /**
+     * Restore the hot tier from the journal. Drivers get their active deliveries back, waiting
+     * orders are queued again and pending transitions resume from their target times. Archived
+     * and recovered orders are fed to the deduplicator so redeliveries after a restart are
+     * recognised.
+     */
+    private void recover() {
+        archive.forEachOrderId(deduplicator::recordArchived);
+        JournalRecovery recovery = journal.recover();
+        long version = recovery.getVersion();
+        recovery.forEach(delivery -> {
+            deliveries.put(delivery);
+            deduplicator.record(delivery.getOrderId());
+            index.add(delivery);
+            // Exact versions are not kept. ETags carry the epoch of this start, so client caches
+            // from before the restart do not match whatever version stands in here
+            versions.put(delivery.getOrderId(), version);
+            DeliveryState state = DeliveryState.of(delivery.getStatus());
+            if (state == DeliveryState.PENDING) {
+                dispatchEngine.requeue(delivery.getOrderId(), DispatchEngine.zoneOf(delivery.getAddress()));
+            } else if (state.holdsDriver()) {
+                dispatchEngine.restore(delivery.getDriverName());
+            }
+        });
+        changeLog.recover(version);
+        if (recovery.size() > 0) {
+            dispatchWaiting(clock.now());
+        }
+    }
+
+    /**
+     * Schedule the status updates and archival on the simulation clock
+     */
+    @PostConstruct
+    public void start() {
+        tasks.add(clock.scheduleAtFixedRate(this::updateDeliveryStatuses, STATUS_UPDATE_INTERVAL));
+        tasks.add(clock.scheduleAtFixedRate(this::archiveDeliveredOrders, Duration.ofMillis(archiveIntervalMs)));
+    }
+
+    /**
+     * Stop the scheduled work and leave a snapshot so the next start replays little
+     */
+    @PreDestroy
+    public void stop() {
+        tasks.forEach(SimulationClock.Task::cancel);
+        tasks.clear();
+        writeSnapshot();
+    }
+
     /**
      * Calculate a random time in seconds within the given range (inclusive)
      */
@@ -40,92 +189,500 @@ public class DeliveryService {
         return minSeconds + random.nextInt(maxSeconds - minSeconds + 1);
     }
 
-    @RabbitListener(queues = RabbitMQConfig.ORDER_READY_QUEUE)
+    /**
+     * Create the delivery for a single ready order, see {@link #handleOrderReadyBatch}
+     */
     public void handleOrderReady(OrderReadyEvent event) {
-        logger.info("Received order.ready event for order {}", event.getOrderId());
-
-        // Simulate driver assignment
-        String driverName = DRIVER_NAMES[random.nextInt(DRIVER_NAMES.length)];
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime estimatedDelivery = now.plusMinutes(20 + random.nextInt(20)); // 20-40 minutes
+        handleOrderReadyBatch(List.of(event));
+    }
 
-        // Calculate target transition times upfront
-        int inTransitSeconds = calculateRandomSeconds(MIN_IN_TRANSIT_TIME, MAX_IN_TRANSIT_TIME);
-        LocalDateTime targetInTransitTime = now.plusSeconds(inTransitSeconds);
+    /**
+     * Create deliveries for a batch of ready orders. Drivers are picked for the whole batch in one
+     * pass over the dispatch engine, and the batch is acknowledged once all of its deliveries are
+     * journaled, so a crash redelivers the entire batch. Events for orders that already have a
+     * delivery are skipped, so redeliveries are harmless; see {@link #isDuplicate}. Batches arrive
+     * through the {@link OrderReadyListener}.
+     */
+    public void handleOrderReadyBatch(List<OrderReadyEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        int received = events.size();
+        events = withoutDuplicates(events);
+        if (events.isEmpty()) {
+            logger.info("Skipped {} duplicate order.ready events", received);
+            return;
+        }
+        LocalDateTime now = clock.now();
+        int size = events.size();
+        List<String> orderIds = new ArrayList<>(size);
+        List<String> zones = new ArrayList<>(size);
+        List<LocalDateTime> departures = new ArrayList<>(size);
+        for (OrderReadyEvent event : events) {
+            orderIds.add(event.getOrderId());
+            zones.add(DispatchEngine.zoneOf(event.getAddress()));
+            // Calculate target transition times upfront; a batched trip may leave at its own time
+            departures.add(now.plusSeconds(calculateRandomSeconds(MIN_IN_TRANSIT_TIME, MAX_IN_TRANSIT_TIME)));
+        }
+        List<Assignment> assignments = dispatchEngine.assignAll(orderIds, zones, now, departures);
 
-        DeliveryStatus status = new DeliveryStatus(
-                event.getOrderId(),
-                "ASSIGNED",
-                driverName,
-                event.getAddress(),
-                now,
-                estimatedDelivery,
-                null,
-                null,
-                targetInTransitTime,
-                null);
+        List<DeliveryStatus> created = new ArrayList<>(size);
+        boolean released = false;
+        int waiting = 0;
+        int skipped = received - size;
+        for (int i = 0; i < size; i++) {
+            OrderReadyEvent event = events.get(i);
+            Assignment assignment = assignments.get(i);
+            DeliveryStatus status = new DeliveryStatus(
+                    event.getOrderId(),
+                    assignment != null ? DeliveryState.ASSIGNED.name() : DeliveryState.PENDING.name(),
+                    assignment != null ? assignment.getDriverName() : null,
+                    event.getAddress(),
+                    assignment != null ? now : null,
+                    now.plusMinutes(20 + random.nextInt(20)), // 20-40 minutes
+                    null,
+                    null,
+                    assignment != null ? assignment.getDeparture() : null,
+                    null);
+            DeliveryUpdate[] update = new DeliveryUpdate[1];
+            deliveries.compute(event.getOrderId(),
+                    // Created by a concurrent batch since the duplicate check if there is a previous one
+                    (orderId, previous) -> previous != null ? previous : status,
+                    (previous, next) -> {
+                        index.add(next);
+                        update[0] = change(DeliveryUpdate.CREATED, null, next);
+                    });
+            if (update[0] == null) {
+                deduplicator.countDuplicate(OrderDeduplicator.Source.STORE);
+                if (assignment != null) {
+                    dispatchEngine.release(assignment.getDriverName());
+                    released = true;
+                }
+                skipped++;
+                created.add(null);
+                continue;
+            }
+            kpis.orderReady(event, now);
+            record(update[0]);
+            deduplicator.record(event.getOrderId());
+            if (assignment == null) {
+                // Only queued now that its PENDING entry is in the map, see DispatchEngine.assignAll
+                dispatchEngine.requeue(event.getOrderId(), zones.get(i));
+                waiting++;
+            }
+            created.add(status);
+        }
+        // Acknowledge the batch only once its deliveries would survive a crash
+        journal.awaitDurable();
+        if (released || waiting > 0) {
+            dispatchWaiting(now);
+        }
+        logger.info("Received {} order.ready events: {} assigned, {} waiting for a free driver, "
+                + "{} duplicates skipped", received, received - skipped - waiting, waiting, skipped);
 
-        deliveries.put(event.getOrderId(), status);
+        for (int i = 0; i < size; i++) {
+            OrderReadyEvent event = events.get(i);
+            DeliveryStatus status = created.get(i);
+            if (status == null) {
+                continue;
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Order {} {} for delivery to {}", event.getOrderId(),
+                        status.getDriverName() != null ? "assigned to driver " + status.getDriverName() : "waiting",
+                        event.getAddress());
+            }
+            // Rendered and sent by the dispatcher thread, dropped if it falls behind
+            notifications.enqueue(new CustomerNotification(event.getOrderId(), event.getCustomerName(),
+                    event.getPizza(), event.getQuantity(), event.getAddress(), status.getDriverName(),
+                    status.getEstimatedDeliveryTime()));
+        }
+    }
 
-        logger.info("Order {} assigned to driver {} for delivery to {}",
-                event.getOrderId(), driverName, event.getAddress());
+    /**
+     * Drop the events of a batch whose orders already have a delivery
+     */
+    private List<OrderReadyEvent> withoutDuplicates(List<OrderReadyEvent> events) {
+        List<OrderReadyEvent> fresh = new ArrayList<>(events.size());
+        Set<String> batch = new HashSet<>();
+        for (OrderReadyEvent event : events) {
+            if (!batch.add(event.getOrderId())) {
+                deduplicator.countDuplicate(OrderDeduplicator.Source.BATCH);
+            } else if (!isDuplicate(event.getOrderId())) {
+                fresh.add(event);
+            }
+        }
+        return fresh;
+    }
 
-        // Simulate customer notification
-        sendNotification(event, driverName, estimatedDelivery);
+    /**
+     * Whether an order already has a delivery. Recently created orders are known exactly; older
+     * ones the filter may have seen are confirmed against the hot tier and the archive index, so
+     * a filter false positive never drops a new order.
+     */
+    private boolean isDuplicate(String orderId) {
+        switch (deduplicator.check(orderId)) {
+            case RECENT:
+                deduplicator.countDuplicate(OrderDeduplicator.Source.RECENT);
+                return true;
+            case MAYBE:
+                if (deliveries.contains(orderId) || archive.contains(orderId)) {
+                    deduplicator.countDuplicate(OrderDeduplicator.Source.FILTER);
+                    return true;
+                }
+                deduplicator.countFalsePositive();
+                return false;
+            default:
+                return false;
+        }
     }
 
     /**
-     * Scheduled task to update delivery statuses every 5 seconds
+     * Scheduled task to update delivery statuses every 5 seconds of simulated time
      */
-    @Scheduled(fixedRate = 5000)
     public void updateDeliveryStatuses() {
-        LocalDateTime now = LocalDateTime.now();
-
-        deliveries.values().forEach(delivery -> {
-            // Use synchronized block to prevent race conditions during status updates
-            synchronized (delivery) {
-                if ("ASSIGNED".equals(delivery.getStatus()) && delivery.getTargetInTransitTime() != null) {
-                    // Check if target time for IN_TRANSIT has been reached
-                    if (!now.isBefore(delivery.getTargetInTransitTime())) {
-                        delivery.setStatus("IN_TRANSIT");
-                        delivery.setInTransitAt(now);
-
-                        // Calculate target time for delivery
-                        int deliverySeconds = calculateRandomSeconds(MIN_DELIVERY_TIME, MAX_DELIVERY_TIME);
-                        delivery.setTargetDeliveredTime(now.plusSeconds(deliverySeconds));
-
-                        logger.info("Order {} status changed to IN_TRANSIT (driver {} on the way)",
-                                delivery.getOrderId(), delivery.getDriverName());
-                    }
-                } else if ("IN_TRANSIT".equals(delivery.getStatus()) && delivery.getTargetDeliveredTime() != null) {
-                    // Check if target time for DELIVERED has been reached
-                    if (!now.isBefore(delivery.getTargetDeliveredTime())) {
-                        delivery.setStatus("DELIVERED");
-                        delivery.setDeliveredAt(now);
-                        logger.info("Order {} has been DELIVERED to {} by {}",
-                                delivery.getOrderId(), delivery.getAddress(), delivery.getDriverName());
-                    }
-                }
+        updateDeliveryStatuses(clock.now());
+    }
+
+    void updateDeliveryStatuses(LocalDateTime now) {
+        // Only active deliveries can transition. IN_TRANSIT goes first so an order
+        // advances at most one step per run.
+        for (String orderId : index.withStatus(DeliveryState.IN_TRANSIT.name())) {
+            transition(orderId, now);
+        }
+        for (String orderId : index.withStatus(DeliveryState.ASSIGNED.name())) {
+            transition(orderId, now);
+        }
+        // Drivers freed by deliveries pick up waiting orders
+        dispatchWaiting(now);
+    }
+
+    private void transition(String orderId, LocalDateTime now) {
+        DeliveryUpdate update = apply(orderId, delivery -> advance(delivery, now));
+        if (update == null) {
+            return;
+        }
+        DeliveryStatus delivery = update.getDelivery();
+        if (DeliveryState.DELIVERED.name().equals(delivery.getStatus())) {
+            // Only the transition that won the swap frees the driver
+            dispatchEngine.release(delivery.getDriverName());
+            logger.info("Order {} has been DELIVERED to {} by {}",
+                    delivery.getOrderId(), delivery.getAddress(), delivery.getDriverName());
+        } else {
+            logger.info("Order {} status changed to IN_TRANSIT (driver {} on the way)",
+                    delivery.getOrderId(), delivery.getDriverName());
+        }
+    }
+
+    /**
+     * The next state of the delivery if the target time of its next transition has been reached,
+     * otherwise null
+     */
+    private DeliveryStatus advance(DeliveryStatus delivery, LocalDateTime now) {
+        DeliveryState state = DeliveryState.of(delivery.getStatus());
+        if (state == DeliveryState.ASSIGNED && delivery.getTargetInTransitTime() != null
+                && !now.isBefore(delivery.getTargetInTransitTime())) {
+            int deliverySeconds = calculateRandomSeconds(MIN_DELIVERY_TIME, MAX_DELIVERY_TIME);
+            return DeliveryTransitions.depart(delivery, now, now.plusSeconds(deliverySeconds));
+        }
+        if (state == DeliveryState.IN_TRANSIT && delivery.getTargetDeliveredTime() != null
+                && !now.isBefore(delivery.getTargetDeliveredTime())) {
+            return DeliveryTransitions.deliver(delivery, now);
+        }
+        return null;
+    }
+
+    /**
+     * Assign waiting orders to drivers with spare capacity
+     */
+    private void dispatchWaiting(LocalDateTime now) {
+        List<Assignment> assignments = dispatchEngine.assignWaiting(now,
+                () -> now.plusSeconds(calculateRandomSeconds(MIN_IN_TRANSIT_TIME, MAX_IN_TRANSIT_TIME)));
+        for (Assignment assignment : assignments) {
+            DeliveryUpdate update = apply(assignment.getOrderId(), delivery ->
+                    DeliveryState.PENDING.name().equals(delivery.getStatus())
+                            ? DeliveryTransitions.assign(delivery, assignment.getDriverName(), now,
+                                    assignment.getDeparture())
+                            : null);
+            if (update != null) {
+                logger.info("Order {} assigned to driver {} after waiting",
+                        assignment.getOrderId(), assignment.getDriverName());
+            } else {
+                // Stale queue entry of an order that is no longer pending; the slot
+                // is reused on the next run
+                dispatchEngine.release(assignment.getDriverName());
             }
-        });
+        }
+    }
+
+    /**
+     * Apply a transition with optimistic concurrency. The next state is built from the current
+     * delivery without holding a lock and installed only if the entry still holds that delivery;
+     * if a concurrent change won, the transition is retried on the new state.
+     *
+     * @param transition next state of a delivery, or null if it should not change
+     * @return the published update, or null if the delivery did not change
+     */
+    private DeliveryUpdate apply(String orderId, UnaryOperator<DeliveryStatus> transition) {
+        while (true) {
+            DeliveryStatus current = deliveries.get(orderId);
+            DeliveryStatus next = current != null ? transition.apply(current) : null;
+            if (next == null) {
+                return null;
+            }
+            DeliveryUpdate update = compareAndSet(current, next);
+            if (update != null) {
+                record(update);
+                return update;
+            }
+            transitionConflicts.increment();
+        }
+    }
+
+    /**
+     * Replace {@code expected} by {@code next} if the entry still holds {@code expected}. Index,
+     * version and journal change together with the entry, which is only held for that long.
+     *
+     * @return the update, or null if the entry changed in the meantime
+     */
+    private DeliveryUpdate compareAndSet(DeliveryStatus expected, DeliveryStatus next) {
+        DeliveryUpdate[] update = new DeliveryUpdate[1];
+        deliveries.computeIfPresent(expected.getOrderId(),
+                // Equal rather than identical: a store may build a new instance on every read
+                (orderId, current) -> current.equals(expected) ? next : current,
+                (current, stored) -> {
+                    index.replace(current, stored);
+                    update[0] = change(DeliveryUpdate.STATUS_CHANGED, current.getStatus(), stored);
+                });
+        return update[0];
+    }
+
+    /**
+     * Take a driver off or back on duty
+     *
+     * @return false if the driver is unknown
+     */
+    public boolean setDriverAvailable(String driverName, boolean available) {
+        if (!dispatchEngine.setAvailable(driverName, available)) {
+            return false;
+        }
+        logger.info("Driver {} is now {}", driverName, available ? "available" : "unavailable");
+        if (available) {
+            dispatchWaiting(clock.now());
+        }
+        return true;
+    }
+
+    public List<DriverInfo> getDrivers() {
+        return dispatchEngine.getDrivers();
     }
 
-    private void sendNotification(OrderReadyEvent event, String driverName, LocalDateTime estimatedDelivery) {
-        logger.info("=== CUSTOMER NOTIFICATION ===");
-        logger.info("Dear {}, your order is on its way!", event.getCustomerName());
-        logger.info("Order ID: {}", event.getOrderId());
-        logger.info("Items: {} x {}", event.getQuantity(), event.getPizza());
-        logger.info("Driver: {}", driverName);
-        logger.info("Delivery Address: {}", event.getAddress());
-        logger.info("Estimated Delivery Time: {}", estimatedDelivery);
-        logger.info("=============================");
+    /**
+     * Hot-tier counts per status and driver and rolling-window phase durations, all read from
+     * counters and histograms kept up to date by the transitions, without visiting deliveries
+     */
+    public DeliveryStats getStats() {
+        return new DeliveryStats(index.statusCounts(), index.driverCounts(), kpis.getSummaries());
+    }
+
+    /**
+     * Durations of every stage of an order from payment to delivery within the window, read from
+     * the same histograms as {@link #getStats()}
+     *
+     * @param window 1m, 15m or 1h
+     * @throws IllegalArgumentException for any other window
+     */
+    public LatencyBreakdown getLatencyBreakdown(String window) {
+        return kpis.getBreakdown(DeliveryKpis.Window.ofTag(window));
+    }
+
+    /**
+     * Scheduled task to move DELIVERED orders past the retention window to the archive tier
+     */
+    public void archiveDeliveredOrders() {
+        archiveDeliveredOrders(clock.now());
     }
 
+    void archiveDeliveredOrders(LocalDateTime now) {
+        LocalDateTime cutoff = now.minusSeconds(archiveRetentionSeconds);
+
+        List<DeliveryStatus> batch = new ArrayList<>();
+        for (String orderId : index.withStatus(DeliveryState.DELIVERED.name())) {
+            DeliveryStatus delivery = deliveries.get(orderId);
+            if (delivery != null && DeliveryState.DELIVERED.name().equals(delivery.getStatus())
+                    && delivery.getDeliveredAt() != null && !delivery.getDeliveredAt().isAfter(cutoff)) {
+                batch.add(delivery);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            archive.append(batch);
+        } catch (IOException e) {
+            // Keep the batch in the hot tier and retry on the next run
+            logger.error("Failed to archive {} delivered orders: {}", batch.size(), e.getMessage(), e);
+            return;
+        }
+
+        // Only drop entries that were not replaced while the batch was written
+        for (DeliveryStatus delivery : batch) {
+            DeliveryUpdate[] update = new DeliveryUpdate[1];
+            deliveries.computeIfPresent(delivery.getOrderId(),
+                    (orderId, current) -> current.equals(delivery) ? null : current,
+                    (current, removed) -> {
+                        index.remove(current);
+                        update[0] = change(DeliveryUpdate.ARCHIVED, current.getStatus(), current);
+                    });
+            if (update[0] != null) {
+                record(update[0]);
+                long version = update[0].getVersion();
+                // Keep the entry if the order was redelivered in the meantime
+                versions.computeIfPresent(delivery.getOrderId(), (orderId, v) -> v <= version ? null : v);
+            }
+        }
+        logger.info("Moved {} delivered orders to the archive tier", batch.size());
+    }
+
+    /**
+     * Scheduled task to write a journal snapshot so recovery only replays recent changes
+     */
+    @Scheduled(fixedRateString = "${delivery.journal.snapshot-interval-ms:60000}",
+            initialDelayString = "${delivery.journal.snapshot-interval-ms:60000}")
+    public void writeSnapshot() {
+        long start = System.nanoTime();
+        try (DeliveryJournal.Snapshot snapshot = journal.startSnapshot()) {
+            for (DeliveryStatus delivery : deliveries.asMap().values()) {
+                snapshot.write(delivery);
+            }
+            snapshot.commit(changeLog.getVersion());
+        } catch (IOException e) {
+            // The journal keeps all segments since the last snapshot, nothing is lost
+            logger.error("Failed to write delivery journal snapshot: {}", e.getMessage(), e);
+            return;
+        }
+        logger.debug("Delivery journal snapshot took {} ms",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Take the next version for a change to the delivery and append it to the journal. Runs once
+     * the store accepted the change while it still holds the order, so versions and journal
+     * records follow the order's history and no version is taken for a rejected change. A version
+     * whose record cannot be appended is released, as the change log waits for every version.
+     */
+    private DeliveryUpdate change(String type, String previousStatus, DeliveryStatus delivery) {
+        long version = changeLog.nextVersion();
+        try {
+            DeliveryUpdate update = new DeliveryUpdate(version, type, previousStatus, delivery);
+            journal.append(update);
+            return update;
+        } catch (RuntimeException e) {
+            changeLog.commit(version, null);
+            throw e;
+        }
+    }
+
+    /**
+     * Publish a change once it is visible in the hot tier. Runs outside of compute so
+     * listeners never run under the map's bin lock.
+     */
+    private void record(DeliveryUpdate update) {
+        // Concurrent changes to one order can get here out of order, so only ever raise it
+        versions.merge(update.getDelivery().getOrderId(), update.getVersion(), Math::max);
+        changeLog.commit(update.getVersion(), update);
+    }
+
+    /**
+     * Look up a delivery in the hot tier, falling back to the archive for old orders
+     */
     public DeliveryStatus getDeliveryStatus(String orderId) {
-        return deliveries.get(orderId);
+        DeliveryStatus delivery = deliveries.get(orderId);
+        if (delivery == null) {
+            delivery = archive.find(orderId);
+        }
+        return delivery;
     }
 
+    /**
+     * Version of the latest change to a hot-tier delivery, or 0 if it is not in the hot tier.
+     * Read it before the delivery itself: the content is then at least as new as the version.
+     */
+    public long getDeliveryVersion(String orderId) {
+        return versions.getOrDefault(orderId, 0L);
+    }
+
+    /**
+     * Latest version such that every change up to it is visible in the hot tier
+     */
+    public long getVersion() {
+        return changeLog.getVersion();
+    }
+
+    /**
+     * Epoch of the versions, see {@link DeliveryChangeLog#getEpoch()}
+     */
+    public String getVersionEpoch() {
+        return changeLog.getEpoch();
+    }
+
+    /**
+     * Changes after {@code since}, see {@link DeliveryChangeLog#changesSince}
+     */
+    public DeliveryChanges getChangesSince(String sinceEpoch, long since, int limit) {
+        return changeLog.changesSince(sinceEpoch, since, limit);
+    }
+
+    /**
+     * Deliveries in the hot tier; archived orders are only reachable by ID
+     */
     public Map<String, DeliveryStatus> getAllDeliveries() {
-        return deliveries;
+        return deliveries.asMap();
+    }
+
+    /**
+     * Return up to {@code limit} hot-tier deliveries matching the query, ordered by order ID
+     * and starting after {@code afterOrderId} (exclusive, null for the first page)
+     */
+    public List<DeliveryStatus> findDeliveries(DeliveryQuery query, String afterOrderId, int limit) {
+        List<DeliveryStatus> page = new ArrayList<>(Math.min(limit, 256));
+        NavigableSet<String> candidates = index.candidates(query);
+        NavigableSet<String> keys = afterOrderId == null ? candidates : candidates.tailSet(afterOrderId, false);
+        for (String orderId : keys) {
+            if (page.size() >= limit) {
+                break;
+            }
+            DeliveryStatus delivery = deliveries.get(orderId);
+            if (delivery != null && query.matches(delivery)) {
+                page.add(delivery);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Visit every hot-tier delivery matching the query in order ID order without buffering them
+     */
+    public void forEachDelivery(DeliveryQuery query, Consumer<DeliveryStatus> action) {
+        for (String orderId : index.candidates(query)) {
+            DeliveryStatus delivery = deliveries.get(orderId);
+            if (delivery != null && query.matches(delivery)) {
+                action.accept(delivery);
+            }
+        }
+    }
+
+    /**
+     * All hot-tier deliveries with the given status, served from the status index
+     */
+    public List<DeliveryStatus> getDeliveriesByStatus(String status) {
+        return findDeliveries(new DeliveryQuery(status, null, null, null), null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * All hot-tier deliveries assigned to the given driver, served from the driver index
+     */
+    public List<DeliveryStatus> getDeliveriesByDriver(String driverName) {
+        return findDeliveries(new DeliveryQuery(null, driverName, null, null), null, Integer.MAX_VALUE);
     }
 }
@@ -0,0 +1,303 @@
+package com.pizza.delivery.service;
+
+import com.pizza.delivery.model.DeliveryUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes delivery updates to Server-Sent Events subscribers.
+ *
+ * The event ID is the update's version from {@link DeliveryChangeLog}, which also serves as
+ * replay buffer for clients resuming via {@code Last-Event-ID}. Subscribers are indexed by
+ * order, so publishing an update only touches the clients that want it. Each subscriber has a
+ * bounded queue drained by the sender pool, a few events at a time so a busy client does not
+ * hold on to a thread. The publisher never writes to a client: a subscriber whose queue overflows,
+ * or whose write has been stuck for {@code delivery.stream.send-timeout-ms}, is unsubscribed at
+ * once and its connection completed by its sender. A stuck write still occupies its sender thread
+ * until the servlet container times it out, which is why the pool grows up to
+ * {@code delivery.stream.sender-threads} rather than being that size from the start. Nothing is
+ * sent while nothing changes, apart from periodic heartbeats.
+ */
+@Service
+public class DeliveryStreamService implements DeliveryListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryStreamService.class);
+
+    static final String RESYNC_EVENT = "resync";
+    // Queue markers, compared by identity
+    private static final DeliveryUpdate HEARTBEAT = new DeliveryUpdate();
+    private static final DeliveryUpdate RESYNC = new DeliveryUpdate();
+    // Events a sender writes to one subscriber before it lets others have the thread
+    private static final int SEND_BATCH = 32;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> allOrderSubscribers = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<Subscriber>> orderSubscribers = new ConcurrentHashMap<>();
+    private final DeliveryChangeLog changeLog;
+    private final ThreadPoolExecutor sender;
+    private final Counter droppedSubscribers;
+    private final int subscriberBufferSize;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    // Version of the last update handed to subscribers
+    private long lastEventId;
+
+    public DeliveryStreamService(DeliveryChangeLog changeLog,
+            @Value("${delivery.stream.subscriber-buffer-size:256}") int subscriberBufferSize,
+            @Value("${delivery.stream.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${delivery.stream.sender-threads:16}") int senderThreads,
+            @Value("${delivery.stream.send-timeout-ms:10000}") long sendTimeoutMillis,
+            MeterRegistry meterRegistry) {
+        this.changeLog = changeLog;
+        this.subscriberBufferSize = subscriberBufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        // Starts a thread per task up to the limit, then queues; idle threads go away again
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "delivery-stream-sender");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.sender.allowCoreThreadTimeOut(true);
+        Gauge.builder("delivery.stream.subscribers", subscribers, Set::size)
+                .description("Number of connected delivery stream subscribers")
+                .register(meterRegistry);
+        this.droppedSubscribers = Counter.builder("delivery.stream.dropped")
+                .description("Subscribers disconnected because their buffer overflowed or a write got stuck")
+                .register(meterRegistry);
+        changeLog.addListener(this);
+    }
+
+    /**
+     * Subscribe to updates of one order, or of all orders if {@code orderId} is null.
+     * If {@code lastEventId} is given, updates after it are replayed from the change log first;
+     * when they are no longer retained the subscriber gets a {@value #RESYNC_EVENT} event instead.
+     */
+    public SseEmitter subscribe(String orderId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, orderId, subscriberBufferSize);
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> unregister(subscriber));
+
+        synchronized (this) {
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            register(subscriber);
+        }
+        logger.info("New delivery stream subscriber for {} (last event {})",
+                orderId != null ? "order " + orderId : "all orders", lastEventId);
+        schedule(subscriber);
+        return emitter;
+    }
+
+    @Override
+    public void onDeliveryUpdated(DeliveryUpdate update) {
+        List<Subscriber> notified = new ArrayList<>();
+        List<Subscriber> overflowed = new ArrayList<>();
+        synchronized (this) {
+            lastEventId = update.getVersion();
+            offer(allOrderSubscribers, update, notified, overflowed);
+            Set<Subscriber> forOrder = orderSubscribers.get(update.getDelivery().getOrderId());
+            if (forOrder != null) {
+                offer(forOrder, update, notified, overflowed);
+            }
+        }
+        notified.forEach(this::schedule);
+        overflowed.forEach(subscriber -> drop(subscriber, "its buffer overflowed"));
+    }
+
+    /**
+     * Heartbeat keeps idle connections open through proxies and detects dead clients and clients
+     * that stopped reading
+     */
+    @Scheduled(fixedRateString = "${delivery.stream.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long sendStarted = subscriber.sendStarted;
+            if (sendStarted != 0 && now - sendStarted > sendTimeoutNanos) {
+                drop(subscriber, "a write to it got stuck");
+            } else if (subscriber.queue.offer(HEARTBEAT)) {
+                schedule(subscriber);
+            } else {
+                drop(subscriber, "its buffer overflowed");
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            unregister(subscriber);
+            subscriber.emitter.complete();
+        }
+        sender.shutdownNow();
+    }
+
+    private void replay(Subscriber subscriber, long lastEventId) {
+        // Updates after upTo are still on their way to onDeliveryUpdated and will reach the
+        // subscriber once it is registered. Nothing was published yet for recovered versions.
+        long upTo = Math.max(this.lastEventId, changeLog.getRecoveredVersion());
+        Optional<List<DeliveryUpdate>> missed = changeLog.changesBetween(lastEventId, upTo);
+        // An ID from the future was issued by an instance whose changes were lost
+        if (missed.isEmpty() || lastEventId > upTo) {
+            subscriber.queue.offer(RESYNC);
+            return;
+        }
+        for (DeliveryUpdate update : missed.get()) {
+            if (subscriber.accepts(update) && !subscriber.queue.offer(update)) {
+                // Too much to replay into the buffer: let the client reload instead
+                subscriber.queue.clear();
+                subscriber.queue.offer(RESYNC);
+                return;
+            }
+        }
+    }
+
+    private static void offer(Set<Subscriber> candidates, DeliveryUpdate update, List<Subscriber> notified,
+            List<Subscriber> overflowed) {
+        for (Subscriber subscriber : candidates) {
+            if (subscriber.queue.offer(update)) {
+                notified.add(subscriber);
+            } else {
+                overflowed.add(subscriber);
+            }
+        }
+    }
+
+    private void register(Subscriber subscriber) {
+        subscribers.add(subscriber);
+        if (subscriber.orderId == null) {
+            allOrderSubscribers.add(subscriber);
+        } else {
+            orderSubscribers.computeIfAbsent(subscriber.orderId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+    }
+
+    private boolean unregister(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return false;
+        }
+        if (subscriber.orderId == null) {
+            allOrderSubscribers.remove(subscriber);
+        } else {
+            orderSubscribers.computeIfPresent(subscriber.orderId, (id, forOrder) -> {
+                forOrder.remove(subscriber);
+                return forOrder.isEmpty() ? null : forOrder;
+            });
+        }
+        return true;
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            DeliveryUpdate update;
+            int sent = 0;
+            while (!subscriber.dropped && sent++ < SEND_BATCH && (update = subscriber.queue.poll()) != null) {
+                subscriber.sendStarted = System.nanoTime();
+                subscriber.emitter.send(toSseEvent(update));
+                subscriber.sendStarted = 0;
+            }
+            if (subscriber.dropped && subscriber.completed.compareAndSet(false, true)) {
+                subscriber.emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter already completed
+            unregister(subscriber);
+            subscriber.queue.clear();
+            return;
+        } finally {
+            subscriber.sendStarted = 0;
+            subscriber.draining.set(false);
+        }
+        // More than one batch was queued, or an event or the drop came after the last check but
+        // before draining was reset
+        if (subscriber.dropped ? !subscriber.completed.get() : !subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Unsubscribe a client that does not keep up. Its sender completes the connection, so the
+     * caller never waits for a write to the client.
+     */
+    private void drop(Subscriber subscriber, String reason) {
+        if (unregister(subscriber)) {
+            droppedSubscribers.increment();
+            subscriber.dropped = true;
+            subscriber.queue.clear();
+            logger.warn("Dropping slow delivery stream subscriber for {} because {}",
+                    subscriber.orderId != null ? "order " + subscriber.orderId : "all orders", reason);
+            schedule(subscriber);
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toSseEvent(DeliveryUpdate update) {
+        if (update == HEARTBEAT) {
+            return SseEmitter.event().comment("heartbeat");
+        }
+        if (update == RESYNC) {
+            return SseEmitter.event().name(RESYNC_EVENT).data("");
+        }
+        return SseEmitter.event()
+                .id(Long.toString(update.getVersion()))
+                .name(update.getType())
+                .data(update);
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final String orderId;
+        private final BlockingQueue<DeliveryUpdate> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile boolean dropped;
+        // System.nanoTime() when the write in progress began, 0 while none is
+        private volatile long sendStarted;
+
+        private Subscriber(SseEmitter emitter, String orderId, int bufferSize) {
+            this.emitter = emitter;
+            this.orderId = orderId;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private boolean accepts(DeliveryUpdate update) {
+            return orderId == null || orderId.equals(update.getDelivery().getOrderId());
+        }
+    }
+}
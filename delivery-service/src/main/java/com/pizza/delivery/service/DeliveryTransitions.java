@@ -0,0 +1,80 @@
+package com.pizza.delivery.service;
+
+import com.pizza.delivery.model.DeliveryState;
+import com.pizza.models.DeliveryStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * State machine of a hot-tier delivery. Deliveries are never modified once they are in the
+ * hot tier; every transition returns a new instance and leaves its input untouched, so readers
+ * always see a consistent delivery without taking a lock.
+ */
+final class DeliveryTransitions {
+
+    private DeliveryTransitions() {
+    }
+
+    /**
+     * PENDING -> ASSIGNED
+     */
+    static DeliveryStatus assign(DeliveryStatus delivery, String driverName, LocalDateTime now,
+            LocalDateTime departure) {
+        check(delivery, DeliveryState.ASSIGNED);
+        return new DeliveryStatus(
+                delivery.getOrderId(),
+                DeliveryState.ASSIGNED.name(),
+                driverName,
+                delivery.getAddress(),
+                now,
+                delivery.getEstimatedDeliveryTime(),
+                null,
+                null,
+                departure,
+                null);
+    }
+
+    /**
+     * ASSIGNED -> IN_TRANSIT
+     */
+    static DeliveryStatus depart(DeliveryStatus delivery, LocalDateTime now, LocalDateTime arrival) {
+        check(delivery, DeliveryState.IN_TRANSIT);
+        return new DeliveryStatus(
+                delivery.getOrderId(),
+                DeliveryState.IN_TRANSIT.name(),
+                delivery.getDriverName(),
+                delivery.getAddress(),
+                delivery.getAssignedAt(),
+                delivery.getEstimatedDeliveryTime(),
+                null,
+                now,
+                delivery.getTargetInTransitTime(),
+                arrival);
+    }
+
+    /**
+     * IN_TRANSIT -> DELIVERED
+     */
+    static DeliveryStatus deliver(DeliveryStatus delivery, LocalDateTime now) {
+        check(delivery, DeliveryState.DELIVERED);
+        return new DeliveryStatus(
+                delivery.getOrderId(),
+                DeliveryState.DELIVERED.name(),
+                delivery.getDriverName(),
+                delivery.getAddress(),
+                delivery.getAssignedAt(),
+                delivery.getEstimatedDeliveryTime(),
+                now,
+                delivery.getInTransitAt(),
+                delivery.getTargetInTransitTime(),
+                delivery.getTargetDeliveredTime());
+    }
+
+    private static void check(DeliveryStatus delivery, DeliveryState next) {
+        DeliveryState state = DeliveryState.of(delivery.getStatus());
+        if (!state.canTransitionTo(next)) {
+            throw new IllegalStateException(
+                    "Order " + delivery.getOrderId() + " cannot change from " + state + " to " + next);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.pizza.delivery.service;
+
+import com.pizza.delivery.config.RabbitMQConfig;
+import com.pizza.models.OrderReadyEvent;
+import io.micrometer.tracing.Link;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hands order.ready batches to the {@link DeliveryService} within a consumer span.
+ *
+ * Spring AMQP observes only single-message listeners, so the span is started here from the
+ * {@code traceparent} header the kitchen sent with each event. A batch of one continues the
+ * kitchen's trace. A larger batch holds the events of many traces: each event gets a receive
+ * span in its own trace, so every order can still be followed from the kitchen to its delivery,
+ * and the batch span starts a trace of its own linked to those receive spans. The batch span is
+ * current while the batch is handled, so the messages sent meanwhile carry it on.
+ */
+@Component
+public class OrderReadyListener {
+
+    static final String PROCESS_SPAN = RabbitMQConfig.ORDER_READY_QUEUE + " process";
+    static final String RECEIVE_SPAN = RabbitMQConfig.ORDER_READY_QUEUE + " receive";
+
+    private static final Propagator.Getter<MessageHeaders> HEADERS = (headers, key) -> {
+        Object value = headers.get(key);
+        return value != null ? value.toString() : null;
+    };
+
+    private final DeliveryService deliveryService;
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    /**
+     * Without tracing, e.g. with {@code management.tracing.enabled=false}, spans are no-ops
+     */
+    @Autowired
+    public OrderReadyListener(DeliveryService deliveryService, ObjectProvider<Tracer> tracer,
+            ObjectProvider<Propagator> propagator) {
+        this(deliveryService, tracer.getIfAvailable(() -> Tracer.NOOP),
+                propagator.getIfAvailable(() -> Propagator.NOOP));
+    }
+
+    OrderReadyListener(DeliveryService deliveryService, Tracer tracer, Propagator propagator) {
+        this.deliveryService = deliveryService;
+        this.tracer = tracer;
+        this.propagator = propagator;
+    }
+
+    /**
+     * See {@link DeliveryService#handleOrderReadyBatch}. With sharding the
+     * {@link com.pizza.delivery.shard.ShardManager} adds the owned partition queues to this
+     * listener.
+     */
+    @RabbitListener(id = RabbitMQConfig.ORDER_READY_LISTENER, queues = RabbitMQConfig.ORDER_READY_QUEUE,
+            containerFactory = RabbitMQConfig.ORDER_READY_CONTAINER_FACTORY)
+    public void onOrderReady(List<Message<OrderReadyEvent>> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        List<OrderReadyEvent> events = new ArrayList<>(messages.size());
+        for (Message<OrderReadyEvent> message : messages) {
+            events.add(message.getPayload());
+        }
+        Span span = startProcessSpan(messages);
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            deliveryService.handleOrderReadyBatch(events);
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private Span startProcessSpan(List<Message<OrderReadyEvent>> messages) {
+        if (messages.size() == 1) {
+            Message<OrderReadyEvent> message = messages.get(0);
+            return extract(message)
+                    .name(PROCESS_SPAN)
+                    .kind(Span.Kind.CONSUMER)
+                    .tag("order.id", message.getPayload().getOrderId())
+                    .tag("messaging.batch.message_count", "1")
+                    .start();
+        }
+        Span.Builder batch = tracer.spanBuilder()
+                .setNoParent()
+                .name(PROCESS_SPAN)
+                .kind(Span.Kind.CONSUMER)
+                .tag("messaging.batch.message_count", Integer.toString(messages.size()));
+        for (Message<OrderReadyEvent> message : messages) {
+            Span received = extract(message)
+                    .name(RECEIVE_SPAN)
+                    .kind(Span.Kind.CONSUMER)
+                    .tag("order.id", message.getPayload().getOrderId())
+                    .start();
+            received.end();
+            batch.addLink(new Link(received.context()));
+        }
+        return batch.start();
+    }
+
+    private Span.Builder extract(Message<OrderReadyEvent> message) {
+        // Without a traceparent header the builder starts a new trace
+        return propagator.extract(message.getHeaders(), HEADERS);
+    }
+}
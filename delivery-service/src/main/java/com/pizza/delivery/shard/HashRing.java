@@ -0,0 +1,103 @@
+package com.pizza.delivery.shard;
+
+import com.pizza.models.routing.OrderPartitioner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Consistent-hash ring placing every member at a number of virtual points. A key belongs to the
+ * member of the first point at or after the key's hash, wrapping around at the end.
+ *
+ * When a member joins it only takes over the keys between its new points and their
+ * predecessors, and when one leaves only its own keys move to the following points, so each
+ * change moves about 1/n of the keys. Immutable.
+ */
+public final class HashRing {
+
+    private final long[] points;
+    private final String[] owners;
+    private final int memberCount;
+
+    public HashRing(Collection<String> members, int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("virtualNodes must be positive: " + virtualNodes);
+        }
+        String[] memberArray = members.stream().distinct().toArray(String[]::new);
+        this.memberCount = memberArray.length;
+        int size = memberArray.length * virtualNodes;
+        long[] hashes = new long[size];
+        for (int m = 0; m < memberArray.length; m++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                hashes[m * virtualNodes + v] = OrderPartitioner.hash(memberArray[m] + "#" + v);
+            }
+        }
+        // Sort by point, ties by member name, so every instance builds the same ring
+        Integer[] order = IntStream.range(0, size).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.<Integer>comparingLong(i -> hashes[i])
+                .thenComparing(i -> memberArray[i / virtualNodes]));
+        this.points = new long[size];
+        this.owners = new String[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = hashes[order[i]];
+            owners[i] = memberArray[order[i] / virtualNodes];
+        }
+    }
+
+    /**
+     * Member owning the key, or null if the ring is empty
+     */
+    public String owner(String key) {
+        return owner(OrderPartitioner.hash(key));
+    }
+
+    /**
+     * Member owning the hash, or null if the ring is empty
+     */
+    public String owner(long hash) {
+        if (points.length == 0) {
+            return null;
+        }
+        return owners[index(hash)];
+    }
+
+    private int index(long hash) {
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        } else {
+            // Equal points sort by member name; the first of them owns the hash
+            while (index > 0 && points[index - 1] == hash) {
+                index--;
+            }
+        }
+        return index == points.length ? 0 : index;
+    }
+
+    /**
+     * All members in the order of their first point at or after the key's hash, wrapping
+     * around; the first one owns the key
+     */
+    public List<String> successors(String key) {
+        List<String> successors = new ArrayList<>();
+        if (points.length == 0) {
+            return successors;
+        }
+        int start = index(OrderPartitioner.hash(key));
+        for (int i = 0; i < points.length && successors.size() < memberCount; i++) {
+            String owner = owners[(start + i) % points.length];
+            if (!successors.contains(owner)) {
+                successors.add(owner);
+            }
+        }
+        return successors;
+    }
+
+    public boolean isEmpty() {
+        return points.length == 0;
+    }
+}
@@ -0,0 +1,86 @@
+package com.pizza.delivery.shard;
+
+import com.pizza.models.routing.OrderPartitioner;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Owner of every order.ready partition for one set of delivery instances, placed on a
+ * {@link HashRing}. Every instance that sees the same members computes the same assignment.
+ * Immutable.
+ *
+ * With a few dozen partitions the plain ring leaves some instances with a third more partitions
+ * than others, and the busiest instance limits the throughput of all. Each instance therefore
+ * takes at most its fair share, rounded up; a partition whose ring owner is full goes to the
+ * next instance along the ring with room (consistent hashing with bounded loads).
+ */
+public final class PartitionAssignment {
+
+    private final Set<String> members;
+    private final String[] owners;
+
+    public PartitionAssignment(Collection<String> members, int partitions, int virtualNodes) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions must be positive: " + partitions);
+        }
+        this.members = Collections.unmodifiableSet(new TreeSet<>(members));
+        HashRing ring = new HashRing(this.members, virtualNodes);
+        this.owners = new String[partitions];
+        if (this.members.isEmpty()) {
+            return;
+        }
+        int capacity = (partitions + this.members.size() - 1) / this.members.size();
+        Map<String, Integer> loads = new HashMap<>();
+        for (int partition = 0; partition < partitions; partition++) {
+            for (String member : ring.successors("partition-" + partition)) {
+                if (loads.getOrDefault(member, 0) < capacity) {
+                    loads.merge(member, 1, Integer::sum);
+                    owners[partition] = member;
+                    break;
+                }
+            }
+        }
+    }
+
+    public Set<String> getMembers() {
+        return members;
+    }
+
+    public int getPartitions() {
+        return owners.length;
+    }
+
+    /**
+     * Instance owning the partition, or null without members
+     */
+    public String owner(int partition) {
+        return owners[partition];
+    }
+
+    /**
+     * Instance owning the partition of the order, or null without members
+     */
+    public String ownerOf(String orderId) {
+        return owners[OrderPartitioner.partition(orderId, owners.length)];
+    }
+
+    /**
+     * Partitions owned by the instance, in ascending order
+     */
+    public List<Integer> partitionsOf(String member) {
+        List<Integer> partitions = new ArrayList<>();
+        for (int partition = 0; partition < owners.length; partition++) {
+            if (member.equals(owners[partition])) {
+                partitions.add(partition);
+            }
+        }
+        return partitions;
+    }
+}
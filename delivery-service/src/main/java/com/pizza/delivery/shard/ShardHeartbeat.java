@@ -0,0 +1,18 @@
+package com.pizza.delivery.shard;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Broadcast by every delivery instance to announce that it is alive and where it serves
+ * queries, or that it is shutting down
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardHeartbeat {
+    private String instanceId;
+    private String url;
+    private boolean leaving;
+}
@@ -0,0 +1,178 @@
+package com.pizza.delivery.shard;
+
+import com.pizza.delivery.config.RabbitMQConfig;
+import com.pizza.models.routing.OrderPartitioner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Spreads the order.ready partitions over the running delivery instances.
+ *
+ * Every instance broadcasts a heartbeat on a fanout exchange and listens to everyone else's.
+ * Whenever the members change, each instance places the same members on the same
+ * {@link HashRing} and adds the queues of the partitions it gained to its order.ready listener
+ * and removes the ones it lost; unacknowledged events of a lost partition go back to its queue
+ * for the new owner. The shared order.ready queue keeps being consumed by everyone, so events
+ * from an unpartitioned kitchen are still delivered. Only active when
+ * {@code order-ready.partitions} is positive.
+ */
+@Component
+@ConditionalOnExpression("${order-ready.partitions:0} > 0")
+public class ShardManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardManager.class);
+
+    public static final String MEMBERSHIP_EXCHANGE = "delivery.shards";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    private final ShardMembership membership;
+    private final String selfUrl;
+    private final int partitions;
+    private final int virtualNodes;
+    private final Counter rebalances;
+    private final Set<Integer> consumed = new TreeSet<>();
+    private volatile ShardTable table;
+    private boolean balanced;
+    private boolean announced;
+
+    public ShardManager(RabbitTemplate rabbitTemplate, RabbitListenerEndpointRegistry listenerRegistry,
+            @Value("${order-ready.partitions}") int partitions,
+            @Value("${delivery.sharding.instance-id:}") String instanceId,
+            @Value("${delivery.sharding.url:http://localhost:${server.port:8083}}") String url,
+            @Value("${delivery.sharding.virtual-nodes:128}") int virtualNodes,
+            @Value("${delivery.sharding.member-timeout-ms:6000}") long memberTimeoutMs,
+            MeterRegistry meterRegistry) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.listenerRegistry = listenerRegistry;
+        this.partitions = partitions;
+        this.virtualNodes = virtualNodes;
+        this.selfUrl = url;
+        String selfId = instanceId == null || instanceId.isBlank() ? UUID.randomUUID().toString() : instanceId;
+        this.membership = new ShardMembership(selfId, url, memberTimeoutMs);
+        // Until the first rebalance queries are only answered locally
+        this.table = new ShardTable(selfId, membership.getMembers(),
+                new PartitionAssignment(Set.of(selfId), partitions, virtualNodes), null);
+        this.rebalances = Counter.builder("delivery.sharding.rebalances")
+                .description("Changes of the partitions owned by this instance")
+                .register(meterRegistry);
+        Gauge.builder("delivery.sharding.members", this, manager -> manager.getTable().getUrls().size())
+                .description("Delivery instances sharing the order.ready partitions")
+                .register(meterRegistry);
+        Gauge.builder("delivery.sharding.partitions.owned", this,
+                        manager -> manager.getTable().getOwnedPartitions().size())
+                .description("order.ready partitions consumed by this instance")
+                .register(meterRegistry);
+        logger.info("Delivery instance {} sharding {} order.ready partitions", selfId, partitions);
+    }
+
+    public ShardTable getTable() {
+        return table;
+    }
+
+    @RabbitListener(bindings = @QueueBinding(value = @Queue,
+            exchange = @Exchange(value = MEMBERSHIP_EXCHANGE, type = ExchangeTypes.FANOUT)))
+    public void onHeartbeat(ShardHeartbeat heartbeat) {
+        if (membership.heartbeat(heartbeat, System.currentTimeMillis())) {
+            logger.info("Delivery instance {} {}", heartbeat.getInstanceId(),
+                    heartbeat.isLeaving() ? "left" : "joined at " + heartbeat.getUrl());
+        }
+    }
+
+    /**
+     * Announce this instance, forget silent ones and rebalance if the members changed. The first
+     * run only announces, so the heartbeats of the running instances arrive before this one
+     * claims any partition.
+     */
+    @Scheduled(fixedDelayString = "${delivery.sharding.heartbeat-ms:2000}")
+    public void heartbeat() {
+        rabbitTemplate.convertAndSend(MEMBERSHIP_EXCHANGE, "",
+                new ShardHeartbeat(membership.getSelfId(), selfUrl, false));
+        if (membership.expire(System.currentTimeMillis())) {
+            logger.warn("Dropped delivery instances that stopped sending heartbeats");
+        }
+        if (!announced) {
+            announced = true;
+            return;
+        }
+        rebalance();
+    }
+
+    @PreDestroy
+    public void leave() {
+        // Lets the others take over the partitions without waiting for the member timeout
+        rabbitTemplate.convertAndSend(MEMBERSHIP_EXCHANGE, "",
+                new ShardHeartbeat(membership.getSelfId(), selfUrl, true));
+    }
+
+    /**
+     * Recompute the assignment from the current members and consume the queues of the owned
+     * partitions
+     */
+    synchronized void rebalance() {
+        SortedMap<String, String> members = membership.getMembers();
+        ShardTable current = table;
+        if (balanced && members.equals(current.getUrls())) {
+            return;
+        }
+        if (balanced && members.keySet().equals(current.getAssignment().getMembers())) {
+            // Only a URL changed, partitions stay where they are
+            table = new ShardTable(current.getSelfId(), members, current.getAssignment(),
+                    current.getPreviousAssignment());
+            return;
+        }
+        PartitionAssignment assignment = new PartitionAssignment(members.keySet(), partitions, virtualNodes);
+        ShardTable next = new ShardTable(current.getSelfId(), members, assignment,
+                balanced ? current.getAssignment() : null);
+        consume(next.getOwnedPartitions());
+        table = next;
+        balanced = true;
+        rebalances.increment();
+        logger.info("Rebalanced over {} delivery instances, consuming {} of {} partitions: {}",
+                members.size(), consumed.size(), partitions, consumed);
+    }
+
+    private void consume(List<Integer> owned) {
+        AbstractMessageListenerContainer container = (AbstractMessageListenerContainer)
+                listenerRegistry.getListenerContainer(RabbitMQConfig.ORDER_READY_LISTENER);
+        String[] lost = consumed.stream()
+                .filter(partition -> !owned.contains(partition))
+                .map(OrderPartitioner::queueName)
+                .toArray(String[]::new);
+        String[] gained = owned.stream()
+                .filter(partition -> !consumed.contains(partition))
+                .map(OrderPartitioner::queueName)
+                .toArray(String[]::new);
+        // Both restart the consumers, which return unacknowledged events of lost partitions
+        if (lost.length > 0) {
+            container.removeQueueNames(lost);
+        }
+        if (gained.length > 0) {
+            container.addQueueNames(gained);
+        }
+        consumed.clear();
+        consumed.addAll(owned);
+    }
+}
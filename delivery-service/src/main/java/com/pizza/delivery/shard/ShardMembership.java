@@ -0,0 +1,75 @@
+package com.pizza.delivery.shard;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Delivery instances known from their heartbeats. An instance is a member from its first
+ * heartbeat until it announces that it leaves or stays silent for longer than the timeout.
+ * The own instance is always a member. Thread-safe.
+ */
+public class ShardMembership {
+
+    private final String selfId;
+    private final String selfUrl;
+    private final long timeoutMs;
+    private final Map<String, Member> others = new HashMap<>();
+
+    public ShardMembership(String selfId, String selfUrl, long timeoutMs) {
+        this.selfId = selfId;
+        this.selfUrl = selfUrl;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Record a heartbeat received at {@code nowMs}
+     *
+     * @return whether an instance joined or left
+     */
+    public synchronized boolean heartbeat(ShardHeartbeat heartbeat, long nowMs) {
+        String instanceId = heartbeat.getInstanceId();
+        if (instanceId == null || instanceId.equals(selfId)) {
+            return false;
+        }
+        if (heartbeat.isLeaving()) {
+            return others.remove(instanceId) != null;
+        }
+        Member previous = others.put(instanceId, new Member(heartbeat.getUrl(), nowMs));
+        return previous == null;
+    }
+
+    /**
+     * Drop instances whose last heartbeat is older than the timeout
+     *
+     * @return whether an instance left
+     */
+    public synchronized boolean expire(long nowMs) {
+        return others.values().removeIf(member -> nowMs - member.lastSeenMs > timeoutMs);
+    }
+
+    /**
+     * Instance IDs of all members with their query URL, the own instance included
+     */
+    public synchronized SortedMap<String, String> getMembers() {
+        SortedMap<String, String> members = new TreeMap<>();
+        others.forEach((instanceId, member) -> members.put(instanceId, member.url));
+        members.put(selfId, selfUrl);
+        return members;
+    }
+
+    public String getSelfId() {
+        return selfId;
+    }
+
+    private static final class Member {
+        private final String url;
+        private final long lastSeenMs;
+
+        private Member(String url, long lastSeenMs) {
+            this.url = url;
+            this.lastSeenMs = lastSeenMs;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.pizza.delivery.shard;
+
+import com.pizza.models.DeliveryStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Answers lookups for orders this instance does not hold by asking the instances that may hold
+ * them, see {@link ShardTable#candidateUrls}. Forwarded requests carry {@link #FORWARDED_HEADER}
+ * and are only answered locally, so a lookup takes at most one hop per candidate. The client is
+ * built from Spring Boot's {@link RestTemplateBuilder}, so forwarded lookups are observed and
+ * carry the {@code traceparent} of the original request like every other REST hop.
+ *
+ * In {@link Mode#REDIRECT} mode a lookup for an order owned elsewhere is answered with a
+ * temporary redirect to the owner instead, which saves this instance the round trip; the owner
+ * then asks the previous owner itself.
+ */
+@Component
+@ConditionalOnExpression("${order-ready.partitions:0} > 0")
+public class ShardRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRouter.class);
+
+    public static final String FORWARDED_HEADER = "X-Delivery-Forwarded";
+    private static final String DELIVERIES_PATH = "/api/v1/deliveries/";
+
+    public enum Mode {
+        FORWARD, REDIRECT
+    }
+
+    private final ShardManager shardManager;
+    private final Mode mode;
+    private final RestTemplate restTemplate;
+    private final Counter forwarded;
+    private final Counter redirected;
+    private final Counter failed;
+
+    public ShardRouter(ShardManager shardManager,
+            @Value("${delivery.sharding.query-mode:FORWARD}") Mode mode,
+            @Value("${delivery.sharding.timeout-ms:2000}") long timeoutMs,
+            RestTemplateBuilder restTemplateBuilder, MeterRegistry meterRegistry) {
+        this.shardManager = shardManager;
+        this.mode = mode;
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofMillis(timeoutMs))
+                .setReadTimeout(Duration.ofMillis(timeoutMs))
+                .build();
+        this.forwarded = routed(meterRegistry, "forward");
+        this.redirected = routed(meterRegistry, "redirect");
+        this.failed = Counter.builder("delivery.sharding.forward.failures")
+                .description("Forwarded lookups the other instance did not answer")
+                .register(meterRegistry);
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String mode) {
+        return Counter.builder("delivery.sharding.routed")
+                .description("Lookups for orders not held by this instance")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Look up an order that is not held locally
+     *
+     * @param ifNoneMatch If-None-Match header of the original request, or null
+     * @return the owner's answer, a redirect to it, or null if no other instance holds the order
+     */
+    public ResponseEntity<DeliveryStatus> route(String orderId, String ifNoneMatch) {
+        return route(shardManager.getTable(), orderId, ifNoneMatch);
+    }
+
+    ResponseEntity<DeliveryStatus> route(ShardTable table, String orderId, String ifNoneMatch) {
+        String ownerUrl = table.ownerUrl(orderId);
+        if (mode == Mode.REDIRECT && ownerUrl != null) {
+            redirected.increment();
+            return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT).location(deliveryUri(ownerUrl, orderId))
+                    .build();
+        }
+        List<String> candidates = table.candidateUrls(orderId);
+        for (String url : candidates) {
+            forwarded.increment();
+            ResponseEntity<DeliveryStatus> response = forward(url, orderId, ifNoneMatch);
+            if (response != null) {
+                return response;
+            }
+        }
+        return null;
+    }
+
+    private ResponseEntity<DeliveryStatus> forward(String url, String orderId, String ifNoneMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.set(FORWARDED_HEADER, "true");
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        ResponseEntity<DeliveryStatus> response;
+        try {
+            response = restTemplate.exchange(deliveryUri(url, orderId), HttpMethod.GET, new HttpEntity<>(headers),
+                    DeliveryStatus.class);
+        } catch (HttpClientErrorException.NotFound e) {
+            return null;
+        } catch (RestClientException e) {
+            // Unreachable, an error status or an unreadable body
+            failed.increment();
+            logger.warn("Could not forward lookup of order {} to {}: {}", orderId, url, e.getMessage());
+            return null;
+        }
+        String etag = response.getHeaders().getETag();
+        switch (response.getStatusCode().value()) {
+            case 200:
+                return ResponseEntity.ok().eTag(etag).body(response.getBody());
+            case 304:
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            default:
+                failed.increment();
+                logger.warn("Lookup of order {} at {} answered {}", orderId, url, response.getStatusCode().value());
+                return null;
+        }
+    }
+
+    private static URI deliveryUri(String baseUrl, String orderId) {
+        String base = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        return URI.create(base + DELIVERIES_PATH
+                + URLEncoder.encode(orderId, StandardCharsets.UTF_8).replace("+", "%20"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.pizza.delivery.shard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Where the orders of each partition live, as seen by one instance after a rebalance.
+ *
+ * Deliveries stay with the instance that created them, so right after a partition moved its
+ * older orders are still held by the previous owner. Lookups for an order that is not held
+ * locally therefore try the current owner first and then the previous one. Immutable.
+ */
+public final class ShardTable {
+
+    private final String selfId;
+    private final SortedMap<String, String> urls;
+    private final PartitionAssignment current;
+    private final PartitionAssignment previous;
+
+    /**
+     * @param urls     query URL of every member, the own instance included
+     * @param previous assignment before this one, null on the first rebalance
+     */
+    public ShardTable(String selfId, SortedMap<String, String> urls, PartitionAssignment current,
+            PartitionAssignment previous) {
+        this.selfId = selfId;
+        this.urls = Collections.unmodifiableSortedMap(new TreeMap<>(urls));
+        this.current = current;
+        this.previous = previous;
+    }
+
+    public String getSelfId() {
+        return selfId;
+    }
+
+    /**
+     * Query URL of every member by instance ID
+     */
+    public SortedMap<String, String> getUrls() {
+        return urls;
+    }
+
+    public PartitionAssignment getAssignment() {
+        return current;
+    }
+
+    /**
+     * Assignment before the last change of members, or null
+     */
+    public PartitionAssignment getPreviousAssignment() {
+        return previous;
+    }
+
+    public List<Integer> getOwnedPartitions() {
+        return current.partitionsOf(selfId);
+    }
+
+    public boolean isOwner(String orderId) {
+        return selfId.equals(current.ownerOf(orderId));
+    }
+
+    /**
+     * Query URL of the instance owning the order, or null if this instance owns it
+     */
+    public String ownerUrl(String orderId) {
+        String owner = current.ownerOf(orderId);
+        return selfId.equals(owner) ? null : urls.get(owner);
+    }
+
+    /**
+     * Query URLs of the other instances that may hold the order: the current owner, then the
+     * previous owner if it is still a member
+     */
+    public List<String> candidateUrls(String orderId) {
+        List<String> candidates = new ArrayList<>(2);
+        addCandidate(candidates, current.ownerOf(orderId));
+        if (previous != null && previous.getPartitions() == current.getPartitions()) {
+            addCandidate(candidates, previous.ownerOf(orderId));
+        }
+        return candidates;
+    }
+
+    private void addCandidate(List<String> candidates, String instanceId) {
+        if (instanceId == null || instanceId.equals(selfId)) {
+            return;
+        }
+        String url = urls.get(instanceId);
+        if (url != null && !candidates.contains(url)) {
+            candidates.add(url);
+        }
+    }
+}
@@ -0,0 +1,464 @@
+package com.pizza.delivery.store;
+
+import com.pizza.delivery.dedup.BloomFilter;
+import com.pizza.models.DeliveryStatus;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Immutable on-disk segment of archived deliveries.
+ *
+ * Layout: length-prefixed records sorted by order ID, followed by an index of
+ * (orderId, offset) pairs and a fixed 16 byte footer (index offset, record count, magic).
+ * The index stays on disk. The heap only holds a Bloom filter of the order IDs, which answers
+ * most lookups for orders the segment does not hold, and every {@value #INDEX_INTERVAL}th order
+ * ID with the position of its index entry, so a lookup reads one block of index entries and
+ * then the record with positional reads.
+ *
+ * Readers share one channel. A FileChannel closes itself when a thread reading from it is
+ * interrupted, so a reader that finds the channel closed while the segment is still open reopens
+ * it; only the interrupted reader sees the failure.
+ */
+class ArchiveSegment implements AutoCloseable {
+
+    static final int INDEX_INTERVAL = 64;
+    private static final int MAGIC = 0x44534731; // "DSG1"
+    private static final int FOOTER_SIZE = Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final double FILTER_FPP = 0.01;
+
+    private final Path path;
+    // Replaced only when an interrupted reader closed it, see read
+    private volatile FileChannel channel;
+    private boolean closed;
+    private final int count;
+    private final long indexOffset;
+    private final long indexEnd;
+    // First order ID of each block of INDEX_INTERVAL index entries and where the block starts
+    private final String[] blockKeys;
+    private final long[] blockOffsets;
+    private final BloomFilter filter;
+
+    private ArchiveSegment(Path path, FileChannel channel, int count, long indexOffset, long indexEnd,
+                           String[] blockKeys, long[] blockOffsets, BloomFilter filter) {
+        this.path = path;
+        this.channel = channel;
+        this.count = count;
+        this.indexOffset = indexOffset;
+        this.indexEnd = indexEnd;
+        this.blockKeys = blockKeys;
+        this.blockOffsets = blockOffsets;
+        this.filter = filter;
+    }
+
+    /**
+     * Write the given deliveries to a new segment file and open it for reading. Of several
+     * deliveries for one order, the last one is kept.
+     */
+    static ArchiveSegment write(Path path, List<DeliveryStatus> deliveries) throws IOException {
+        List<DeliveryStatus> sorted = new ArrayList<>(deliveries);
+        // Stable, so the last delivery of an order stays last
+        sorted.sort(Comparator.comparing(DeliveryStatus::getOrderId));
+        try (Writer writer = new Writer(path)) {
+            for (int i = 0; i < sorted.size(); i++) {
+                DeliveryStatus delivery = sorted.get(i);
+                if (i + 1 == sorted.size() || !delivery.getOrderId().equals(sorted.get(i + 1).getOrderId())) {
+                    writer.add(delivery);
+                }
+            }
+            return writer.finish();
+        }
+    }
+
+    /**
+     * Merge segments into one new segment file at {@code path}, which may be the file of one of
+     * them. Where several segments hold an order, the delivery of the first one in the list wins.
+     */
+    static ArchiveSegment merge(Path path, List<ArchiveSegment> newestFirst) throws IOException {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Comparator
+                .comparing((Cursor cursor) -> cursor.current.getOrderId())
+                .thenComparingInt(cursor -> cursor.rank));
+        List<Cursor> cursors = new ArrayList<>(newestFirst.size());
+        try (Writer writer = new Writer(path)) {
+            for (int i = 0; i < newestFirst.size(); i++) {
+                Cursor cursor = newestFirst.get(i).cursor(i);
+                cursors.add(cursor);
+                if (cursor.advance()) {
+                    heads.add(cursor);
+                }
+            }
+            String last = null;
+            while (!heads.isEmpty()) {
+                Cursor cursor = heads.poll();
+                DeliveryStatus delivery = cursor.current;
+                if (!delivery.getOrderId().equals(last)) {
+                    writer.add(delivery);
+                    last = delivery.getOrderId();
+                }
+                if (cursor.advance()) {
+                    heads.add(cursor);
+                }
+            }
+            return writer.finish();
+        } finally {
+            for (Cursor cursor : cursors) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * Open an existing segment file. The index is read once to build the Bloom filter and the
+     * sampled order IDs; only those are kept.
+     */
+    static ArchiveSegment open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < FOOTER_SIZE) {
+                throw new IOException("Archive segment too small: " + path);
+            }
+            ByteBuffer footer = readFully(channel::read, size - FOOTER_SIZE, FOOTER_SIZE);
+            long indexOffset = footer.getLong();
+            int count = footer.getInt();
+            if (footer.getInt() != MAGIC) {
+                throw new IOException("Archive segment has invalid magic: " + path);
+            }
+            long indexEnd = size - FOOTER_SIZE;
+            if (indexOffset < 0 || indexOffset > indexEnd || count < 0) {
+                throw new IOException("Archive segment has an invalid footer: " + path);
+            }
+
+            int blocks = (count + INDEX_INTERVAL - 1) / INDEX_INTERVAL;
+            String[] blockKeys = new String[blocks];
+            long[] blockOffsets = new long[blocks];
+            BloomFilter filter = new BloomFilter(Math.max(1, count), FILTER_FPP);
+            try (DataInputStream in = indexStream(channel::read, indexOffset)) {
+                long position = indexOffset;
+                for (int i = 0; i < count; i++) {
+                    String orderId = in.readUTF();
+                    if (i % INDEX_INTERVAL == 0) {
+                        blockKeys[i / INDEX_INTERVAL] = orderId;
+                        blockOffsets[i / INDEX_INTERVAL] = position;
+                    }
+                    filter.put(orderId);
+                    in.readLong();
+                    position += indexEntrySize(orderId);
+                }
+            }
+            return new ArchiveSegment(path, channel, count, indexOffset, indexEnd, blockKeys, blockOffsets, filter);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Look up a delivery by order ID, or return null if this segment does not contain it.
+     */
+    DeliveryStatus find(String orderId) throws IOException {
+        long offset = recordOffset(orderId);
+        if (offset < 0) {
+            return null;
+        }
+        int length = readFully(this::read, offset, Integer.BYTES).getInt();
+        ByteBuffer record = readFully(this::read, offset + Integer.BYTES, length);
+        return decode(record.array());
+    }
+
+    boolean contains(String orderId) throws IOException {
+        return recordOffset(orderId) >= 0;
+    }
+
+    void forEachOrderId(Consumer<String> action) throws IOException {
+        try (DataInputStream in = indexStream(this::read, indexOffset)) {
+            for (int i = 0; i < count; i++) {
+                action.accept(in.readUTF());
+                in.readLong();
+            }
+        }
+    }
+
+    int size() {
+        return count;
+    }
+
+    long sizeInBytes() {
+        return indexEnd + FOOTER_SIZE;
+    }
+
+    /**
+     * Heap held for this segment's lookups, roughly
+     */
+    long heapBytes() {
+        long bytes = filter.sizeInBits() / 8 + (long) blockOffsets.length * Long.BYTES;
+        for (String key : blockKeys) {
+            // Reference, String object and its byte array
+            bytes += 8 + 24 + 16 + key.length();
+        }
+        return bytes;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        channel.close();
+    }
+
+    /**
+     * Positional read on the shared channel
+     *
+     * @throws ClosedByInterruptException if this thread was interrupted, which closes the channel
+     * @throws ClosedChannelException if the segment was closed
+     */
+    private int read(ByteBuffer buffer, long position) throws IOException {
+        FileChannel current = channel;
+        try {
+            return current.read(buffer, position);
+        } catch (ClosedByInterruptException e) {
+            throw e;
+        } catch (ClosedChannelException e) {
+            // Closed by another reader's interrupt, unless the segment was closed
+            return reopen(current, e).read(buffer, position);
+        }
+    }
+
+    private synchronized FileChannel reopen(FileChannel closedChannel, ClosedChannelException e) throws IOException {
+        if (closed) {
+            throw e;
+        }
+        if (channel == closedChannel) {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        }
+        return channel;
+    }
+
+    /**
+     * Offset of the order's record, or -1 if the segment does not hold it
+     */
+    private long recordOffset(String orderId) throws IOException {
+        if (count == 0 || !filter.mightContain(orderId)) {
+            return -1;
+        }
+        int block = Arrays.binarySearch(blockKeys, orderId);
+        if (block < 0) {
+            // The block whose first order ID is the greatest one below orderId
+            block = -block - 2;
+            if (block < 0) {
+                return -1;
+            }
+        }
+        long start = blockOffsets[block];
+        long end = block + 1 < blockOffsets.length ? blockOffsets[block + 1] : indexEnd;
+        ByteBuffer entries = readFully(this::read, start, (int) (end - start));
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(entries.array(), 0, entries.limit()));
+        while (in.available() > 0) {
+            int order = in.readUTF().compareTo(orderId);
+            long offset = in.readLong();
+            if (order == 0) {
+                return offset;
+            } else if (order > 0) {
+                break;
+            }
+        }
+        return -1;
+    }
+
+    private Cursor cursor(int rank) throws IOException {
+        return new Cursor(rank, new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16)),
+                indexOffset);
+    }
+
+    private static DataInputStream indexStream(PositionalReader reader, long indexOffset) {
+        InputStream in = new InputStream() {
+            private long position = indexOffset;
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                // Positional reads, so lookups on the shared channel are not disturbed
+                int read = reader.read(ByteBuffer.wrap(bytes, offset, length), position);
+                if (read > 0) {
+                    position += read;
+                }
+                return read;
+            }
+        };
+        return new DataInputStream(new BufferedInputStream(in, 1 << 16));
+    }
+
+    /**
+     * Bytes DataOutputStream.writeUTF writes for the order ID plus the record offset
+     */
+    private static int indexEntrySize(String orderId) {
+        int bytes = 2 + Long.BYTES;
+        for (int i = 0; i < orderId.length(); i++) {
+            char c = orderId.charAt(i);
+            bytes += c >= 0x0001 && c <= 0x007F ? 1 : c <= 0x07FF ? 2 : 3;
+        }
+        return bytes;
+    }
+
+    private static ByteBuffer readFully(PositionalReader reader, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (reader.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of archive segment");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static byte[] encode(DeliveryStatus delivery) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(buffer);
+        DeliveryCodec.write(out, delivery);
+        out.flush();
+        return buffer.toByteArray();
+    }
+
+    private static DeliveryStatus decode(byte[] record) throws IOException {
+        return DeliveryCodec.read(new DataInputStream(new ByteArrayInputStream(record)));
+    }
+
+    /**
+     * Reads the records of a segment in order, for merging
+     */
+    @FunctionalInterface
+    private interface PositionalReader {
+        int read(ByteBuffer buffer, long position) throws IOException;
+    }
+
+    private static final class Cursor implements Closeable {
+
+        private final int rank;
+        private final DataInputStream in;
+        private final long end;
+        private long position;
+        private DeliveryStatus current;
+
+        private Cursor(int rank, DataInputStream in, long end) {
+            this.rank = rank;
+            this.in = in;
+            this.end = end;
+        }
+
+        boolean advance() throws IOException {
+            if (position >= end) {
+                current = null;
+                return false;
+            }
+            byte[] record = new byte[in.readInt()];
+            in.readFully(record);
+            position += Integer.BYTES + record.length;
+            current = decode(record);
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * Streams records in ascending order ID order to a temporary file and the index entries to a
+     * second one, then joins them and moves the result into place. Nothing is held per record.
+     */
+    private static final class Writer implements Closeable {
+
+        private final Path path;
+        private final Path tmp;
+        private final Path indexTmp;
+        private final FileChannel channel;
+        private final DataOutputStream records;
+        private final DataOutputStream index;
+        private long offset;
+        private int count;
+        private String last;
+        private boolean finished;
+
+        Writer(Path path) throws IOException {
+            this.path = path;
+            this.tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            this.indexTmp = path.resolveSibling(path.getFileName() + ".index.tmp");
+            this.channel = FileChannel.open(tmp,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            this.records = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            this.index = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexTmp), 1 << 16));
+        }
+
+        void add(DeliveryStatus delivery) throws IOException {
+            String orderId = delivery.getOrderId();
+            if (last != null && orderId.compareTo(last) <= 0) {
+                throw new IllegalArgumentException("Archive segment records must be added in ascending order ID "
+                        + "order, got " + orderId + " after " + last);
+            }
+            byte[] record = encode(delivery);
+            records.writeInt(record.length);
+            records.write(record);
+            index.writeUTF(orderId);
+            index.writeLong(offset);
+            offset += Integer.BYTES + record.length;
+            count++;
+            last = orderId;
+        }
+
+        ArchiveSegment finish() throws IOException {
+            index.close();
+            Files.copy(indexTmp, records);
+            records.writeLong(offset);
+            records.writeInt(count);
+            records.writeInt(MAGIC);
+            records.flush();
+            channel.force(true);
+            records.close();
+            Files.delete(indexTmp);
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            finished = true;
+            return open(path);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!finished) {
+                index.close();
+                records.close();
+                Files.deleteIfExists(indexTmp);
+                Files.deleteIfExists(tmp);
+            }
+        }
+    }
+}
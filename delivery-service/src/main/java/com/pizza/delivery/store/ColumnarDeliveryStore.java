@@ -0,0 +1,461 @@
+package com.pizza.delivery.store;
+
+import com.pizza.delivery.model.DeliveryState;
+import com.pizza.models.DeliveryStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * Store that keeps deliveries in primitive columns instead of one object graph per delivery.
+ *
+ * A delivery occupies one slot across the columns: timestamps as epoch milliseconds like
+ * {@link DeliveryCodec}, the status as {@link DeliveryState} ordinal, the driver as a code into a
+ * dictionary of driver names, and order ID plus address as one UTF-8 entry in a {@link StringArena}.
+ * An open-addressing table maps order IDs to slots. The garbage collector therefore only sees a
+ * few large arrays however many deliveries are held; {@link DeliveryStatus} objects are built when
+ * a delivery is read and are not cached, so timestamps come back at millisecond precision.
+ *
+ * Changes to one order are serialised on one of {@value #LOCK_STRIPES} stripe locks chosen by the
+ * hash of its order ID. The remapping function and {@code onChange} run under the stripe alone, so
+ * changes to orders of different stripes, and their journal appends, proceed in parallel. Only
+ * writing the result to the columns takes the exclusive lock, for a few array stores. Readers
+ * share a read lock, and iteration materialises the deliveries in small chunks so it never blocks
+ * writers for long.
+ */
+@Component
+@ConditionalOnProperty(name = "delivery.store.type", havingValue = "columnar")
+public class ColumnarDeliveryStore implements DeliveryStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int LOCK_STRIPES = 256;
+    private static final int ITERATION_CHUNK = 256;
+    private static final long FREE = -1;
+    private static final int NO_DRIVER = -1;
+    private static final DeliveryState[] STATES = DeliveryState.values();
+
+    // Guards the columns, table and arena; held only to read or write them
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Held by a change to an order for its whole duration, indexed by the order ID's hash
+    private final Lock[] stripes = new Lock[LOCK_STRIPES];
+    private final Map<String, DeliveryStatus> view = new View();
+
+    // Columns, indexed by slot
+    private long[] assignedAt = new long[INITIAL_CAPACITY];
+    private long[] estimatedDeliveryTime = new long[INITIAL_CAPACITY];
+    private long[] deliveredAt = new long[INITIAL_CAPACITY];
+    private long[] inTransitAt = new long[INITIAL_CAPACITY];
+    private long[] targetInTransitTime = new long[INITIAL_CAPACITY];
+    private long[] targetDeliveredTime = new long[INITIAL_CAPACITY];
+    private byte[] states = new byte[INITIAL_CAPACITY];
+    private int[] drivers = new int[INITIAL_CAPACITY];
+    // Arena entry of order ID and address, FREE for an unused slot
+    private long[] strings = new long[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private StringArena arena = new StringArena();
+
+    // Slots below this have been used at least once; freed ones are reused first
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private volatile int size;
+
+    // Order ID to slot + 1 with linear probing, 0 marks an empty bucket; at most half full
+    private int[] table = new int[2 * INITIAL_CAPACITY];
+
+    private final List<String> driverNames = new ArrayList<>();
+    private final Map<String, Integer> driverCodes = new HashMap<>();
+
+    public ColumnarDeliveryStore(MeterRegistry meterRegistry) {
+        Arrays.fill(strings, FREE);
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        Gauge.builder("delivery.store.columnar.bytes", this, ColumnarDeliveryStore::getAllocatedBytes)
+                .description("Bytes allocated for the columns, order ID index and string arena")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public DeliveryStatus get(String orderId) {
+        int hash = hash(orderId);
+        byte[] key = orderId.getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            int slot = table[bucket(hash, key)] - 1;
+            return slot >= 0 ? read(slot) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(String orderId) {
+        int hash = hash(orderId);
+        byte[] key = orderId.getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            return table[bucket(hash, key)] != 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public DeliveryStatus compute(String orderId, BiFunction<String, DeliveryStatus, DeliveryStatus> remapping) {
+        return compute(orderId, remapping, null);
+    }
+
+    @Override
+    public DeliveryStatus compute(String orderId, BiFunction<String, DeliveryStatus, DeliveryStatus> remapping,
+            BiConsumer<DeliveryStatus, DeliveryStatus> onChange) {
+        int hash = hash(orderId);
+        byte[] key = orderId.getBytes(StandardCharsets.UTF_8);
+        Lock stripe = stripes[hash & (LOCK_STRIPES - 1)];
+        stripe.lock();
+        try {
+            DeliveryStatus previous;
+            lock.readLock().lock();
+            try {
+                int slot = table[bucket(hash, key)] - 1;
+                previous = slot >= 0 ? read(slot) : null;
+            } finally {
+                lock.readLock().unlock();
+            }
+            DeliveryStatus next = remapping.apply(orderId, previous);
+            if (next == previous) {
+                return next;
+            }
+            if (next != null) {
+                if (!orderId.equals(next.getOrderId())) {
+                    throw new IllegalArgumentException("Delivery for order " + next.getOrderId()
+                            + " cannot be stored under " + orderId);
+                }
+                // Encode everything that can fail before the first column changes
+                long[] timestamps = encodeTimestamps(next);
+                byte state = (byte) DeliveryState.of(next.getStatus()).ordinal();
+                lock.writeLock().lock();
+                try {
+                    store(orderId, hash, key, previous, next, state, timestamps);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } else {
+                lock.writeLock().lock();
+                try {
+                    int bucket = bucket(hash, key);
+                    remove(bucket, table[bucket] - 1);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            if (onChange != null) {
+                onChange.accept(previous, next);
+            }
+            return next;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Write a delivery to its slot, allocating one for a new order. The order's stripe lock keeps
+     * its slot as it was when {@code previous} was read; other orders may have moved the table.
+     */
+    private void store(String orderId, int hash, byte[] key, DeliveryStatus previous, DeliveryStatus next,
+            byte state, long[] timestamps) {
+        int bucket = bucket(hash, key);
+        int slot = table[bucket] - 1;
+        if (slot < 0) {
+            slot = allocateSlot();
+            strings[slot] = arena.add(orderId, next.getAddress());
+            hashes[slot] = hash;
+            if (2 * (size + 1) > table.length) {
+                resizeTable();
+                bucket = bucket(hash, key);
+            }
+            table[bucket] = slot + 1;
+            size++;
+        } else if (!Objects.equals(previous.getAddress(), next.getAddress())) {
+            arena.free(strings[slot]);
+            strings[slot] = arena.add(orderId, next.getAddress());
+        }
+        write(slot, state, driverCode(next.getDriverName()), timestamps);
+        if (arena.needsCompaction()) {
+            compactArena();
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Map<String, DeliveryStatus> asMap() {
+        return view;
+    }
+
+    /**
+     * Bytes held by the columns, the order ID table and the string arena
+     */
+    public long getAllocatedBytes() {
+        lock.readLock().lock();
+        try {
+            long capacity = strings.length;
+            // Six timestamps, arena reference, hash, driver code and state per slot
+            return capacity * (7 * Long.BYTES + 2 * Integer.BYTES + 1)
+                    + (long) table.length * Integer.BYTES
+                    + (long) freeSlots.length * Integer.BYTES
+                    + arena.allocatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private DeliveryStatus read(int slot) {
+        long ref = strings[slot];
+        int driver = drivers[slot];
+        return new DeliveryStatus(
+                arena.first(ref),
+                STATES[states[slot]].name(),
+                driver == NO_DRIVER ? null : driverNames.get(driver),
+                arena.second(ref),
+                DeliveryCodec.fromEpochMillis(assignedAt[slot]),
+                DeliveryCodec.fromEpochMillis(estimatedDeliveryTime[slot]),
+                DeliveryCodec.fromEpochMillis(deliveredAt[slot]),
+                DeliveryCodec.fromEpochMillis(inTransitAt[slot]),
+                DeliveryCodec.fromEpochMillis(targetInTransitTime[slot]),
+                DeliveryCodec.fromEpochMillis(targetDeliveredTime[slot]));
+    }
+
+    private static long[] encodeTimestamps(DeliveryStatus delivery) {
+        return new long[] {
+                DeliveryCodec.toEpochMillis(delivery.getAssignedAt()),
+                DeliveryCodec.toEpochMillis(delivery.getEstimatedDeliveryTime()),
+                DeliveryCodec.toEpochMillis(delivery.getDeliveredAt()),
+                DeliveryCodec.toEpochMillis(delivery.getInTransitAt()),
+                DeliveryCodec.toEpochMillis(delivery.getTargetInTransitTime()),
+                DeliveryCodec.toEpochMillis(delivery.getTargetDeliveredTime())
+        };
+    }
+
+    private void write(int slot, byte state, int driver, long[] timestamps) {
+        states[slot] = state;
+        drivers[slot] = driver;
+        assignedAt[slot] = timestamps[0];
+        estimatedDeliveryTime[slot] = timestamps[1];
+        deliveredAt[slot] = timestamps[2];
+        inTransitAt[slot] = timestamps[3];
+        targetInTransitTime[slot] = timestamps[4];
+        targetDeliveredTime[slot] = timestamps[5];
+    }
+
+    private int driverCode(String driverName) {
+        if (driverName == null) {
+            return NO_DRIVER;
+        }
+        Integer code = driverCodes.get(driverName);
+        if (code == null) {
+            code = driverNames.size();
+            driverNames.add(driverName);
+            driverCodes.put(driverName, code);
+        }
+        return code;
+    }
+
+    private void remove(int bucket, int slot) {
+        arena.free(strings[slot]);
+        strings[slot] = FREE;
+        deleteBucket(bucket);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        size--;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == strings.length) {
+            growColumns(strings.length * 2);
+        }
+        return slotCount++;
+    }
+
+    private void growColumns(int capacity) {
+        assignedAt = Arrays.copyOf(assignedAt, capacity);
+        estimatedDeliveryTime = Arrays.copyOf(estimatedDeliveryTime, capacity);
+        deliveredAt = Arrays.copyOf(deliveredAt, capacity);
+        inTransitAt = Arrays.copyOf(inTransitAt, capacity);
+        targetInTransitTime = Arrays.copyOf(targetInTransitTime, capacity);
+        targetDeliveredTime = Arrays.copyOf(targetDeliveredTime, capacity);
+        states = Arrays.copyOf(states, capacity);
+        drivers = Arrays.copyOf(drivers, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+        int previous = strings.length;
+        strings = Arrays.copyOf(strings, capacity);
+        Arrays.fill(strings, previous, capacity, FREE);
+    }
+
+    /**
+     * Bucket holding the order, or the empty bucket where it would go
+     */
+    private int bucket(int hash, byte[] key) {
+        int mask = table.length - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            int slot = table[i] - 1;
+            if (slot < 0 || (hashes[slot] == hash && arena.firstEquals(strings[slot], key))) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * Empty a bucket and shift later entries of the same probe run back, so lookups never stop
+     * early at the gap
+     */
+    private void deleteBucket(int bucket) {
+        int mask = table.length - 1;
+        int gap = bucket;
+        for (int i = (gap + 1) & mask; table[i] != 0; i = (i + 1) & mask) {
+            int home = hashes[table[i] - 1] & mask;
+            // Move the entry into the gap unless its home lies cyclically between gap and i
+            boolean between = gap <= i ? gap < home && home <= i : gap < home || home <= i;
+            if (!between) {
+                table[gap] = table[i];
+                gap = i;
+            }
+        }
+        table[gap] = 0;
+    }
+
+    private void resizeTable() {
+        table = new int[table.length * 2];
+        int mask = table.length - 1;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (strings[slot] != FREE) {
+                int i = hashes[slot] & mask;
+                while (table[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = slot + 1;
+            }
+        }
+    }
+
+    private void compactArena() {
+        StringArena compacted = new StringArena();
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (strings[slot] != FREE) {
+                strings[slot] = compacted.copy(arena, strings[slot]);
+            }
+        }
+        arena = compacted;
+    }
+
+    private static int hash(String orderId) {
+        int hash = orderId.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Read-only map over the store. Iteration walks the slots in chunks, each materialised under
+     * the read lock, and reflects changes made in the meantime in some order, like the iterators
+     * of a concurrent map.
+     */
+    private final class View extends AbstractMap<String, DeliveryStatus> {
+
+        private final Set<Entry<String, DeliveryStatus>> entries = new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, DeliveryStatus>> iterator() {
+                return new ChunkIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+
+        @Override
+        public DeliveryStatus get(Object key) {
+            return key instanceof String ? ColumnarDeliveryStore.this.get((String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && contains((String) key);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Entry<String, DeliveryStatus>> entrySet() {
+            return entries;
+        }
+    }
+
+    private final class ChunkIterator implements Iterator<Map.Entry<String, DeliveryStatus>> {
+
+        private final List<DeliveryStatus> chunk = new ArrayList<>(ITERATION_CHUNK);
+        private int nextSlot;
+        private int position;
+
+        @Override
+        public boolean hasNext() {
+            if (position < chunk.size()) {
+                return true;
+            }
+            chunk.clear();
+            position = 0;
+            lock.readLock().lock();
+            try {
+                while (chunk.size() < ITERATION_CHUNK && nextSlot < slotCount) {
+                    if (strings[nextSlot] != FREE) {
+                        chunk.add(read(nextSlot));
+                    }
+                    nextSlot++;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            return !chunk.isEmpty();
+        }
+
+        @Override
+        public Map.Entry<String, DeliveryStatus> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            DeliveryStatus delivery = chunk.get(position++);
+            return new AbstractMap.SimpleImmutableEntry<>(delivery.getOrderId(), delivery);
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.pizza.delivery.store;
+
+import com.pizza.models.DeliveryStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Archive tier for completed deliveries.
+ *
+ * Deliveries are flushed in batches to immutable {@link ArchiveSegment} files. Lookups
+ * search the segments newest-first; each segment's Bloom filter rules it out without I/O for
+ * almost every order it does not hold.
+ *
+ * A background thread merges adjacent segments so their number stays logarithmic in the archive
+ * size: whenever {@code delivery.archive.merge-factor} neighbours are in the same size tier
+ * (records between factor^n and factor^(n+1)), they become one segment of the next tier. Past
+ * {@code delivery.archive.max-segments} the two smallest neighbours are merged regardless. The
+ * merged file takes the name of the newest input, so segments keep their order on disk, and the
+ * older inputs are deleted afterwards; if that is cut short, the leftovers only duplicate
+ * deliveries the merged segment shadows and go with the next merge.
+ */
+@Component
+public class DeliveryArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryArchive.class);
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+    // A lookup that keeps losing its segments to merges gives up after this many attempts
+    private static final int MAX_LOOKUP_ATTEMPTS = 3;
+
+    private final Path directory;
+    private final int mergeFactor;
+    private final int maxSegments;
+    // Newest first. Changed under the archive's lock, read without it.
+    private final List<ArchiveSegment> segments = new CopyOnWriteArrayList<>();
+    // Raised with every change of segments, so a lookup can tell whether a merge replaced its segment
+    private final AtomicLong segmentsVersion = new AtomicLong();
+    private final AtomicLong nextSegmentId = new AtomicLong();
+    private final AtomicLong archivedCount = new AtomicLong();
+    private final AtomicBoolean mergeScheduled = new AtomicBoolean();
+    private final Object mergeLock = new Object();
+    private final ExecutorService merger;
+    private final Timer lookupTimer;
+    private final Timer mergeTimer;
+
+    public DeliveryArchive(@Value("${delivery.archive.directory:data/archive}") String directory,
+            @Value("${delivery.archive.merge-factor:4}") int mergeFactor,
+            @Value("${delivery.archive.max-segments:32}") int maxSegments,
+            MeterRegistry meterRegistry) {
+        if (mergeFactor < 2 || maxSegments < 2) {
+            throw new IllegalArgumentException("delivery.archive.merge-factor and max-segments must be at least 2");
+        }
+        this.directory = Paths.get(directory);
+        this.mergeFactor = mergeFactor;
+        this.maxSegments = maxSegments;
+        this.lookupTimer = Timer.builder("delivery.archive.lookup")
+                .description("Latency of delivery lookups in the archive tier")
+                .register(meterRegistry);
+        this.mergeTimer = Timer.builder("delivery.archive.merge")
+                .description("Time to merge archive segments")
+                .register(meterRegistry);
+        Gauge.builder("delivery.archive.size", archivedCount, AtomicLong::get)
+                .description("Number of deliveries held in the archive tier")
+                .register(meterRegistry);
+        Gauge.builder("delivery.archive.segments", segments, List::size)
+                .description("Number of archive segment files")
+                .register(meterRegistry);
+        Gauge.builder("delivery.archive.index.bytes", this, DeliveryArchive::getIndexHeapBytes)
+                .description("Heap held by the Bloom filters and sampled indexes of the archive segments")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.merger = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "delivery-archive-merge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        loadSegments();
+        scheduleMerge();
+    }
+
+    /**
+     * Write a batch of deliveries to a new segment. The batch is searchable once this returns.
+     */
+    public void append(List<DeliveryStatus> deliveries) throws IOException {
+        if (deliveries.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(directory);
+        Path path = directory.resolve(segmentFileName(nextSegmentId.getAndIncrement()));
+        ArchiveSegment segment = ArchiveSegment.write(path, deliveries);
+        synchronized (this) {
+            segments.add(0, segment);
+            segmentsVersion.incrementAndGet();
+        }
+        archivedCount.addAndGet(segment.size());
+        logger.info("Archived {} deliveries to {}", segment.size(), path);
+        scheduleMerge();
+    }
+
+    /**
+     * Find an archived delivery by order ID, or return null if it was never archived.
+     */
+    public DeliveryStatus find(String orderId) {
+        return lookupTimer.record(() -> search(orderId, segment -> segment.find(orderId)));
+    }
+
+    /**
+     * Whether an order was archived. Reads one block of a segment's index where its Bloom filter
+     * cannot rule the order out, but never a record.
+     */
+    public boolean contains(String orderId) {
+        return search(orderId, segment -> segment.contains(orderId) ? Boolean.TRUE : null) != null;
+    }
+
+    /**
+     * Visit the order ID of every archived delivery, oldest segment first. Holds off merges
+     * until it is done, so no segment is closed underneath it.
+     */
+    public void forEachOrderId(Consumer<String> action) {
+        synchronized (mergeLock) {
+            List<ArchiveSegment> snapshot = new ArrayList<>(segments);
+            try {
+                for (int i = snapshot.size() - 1; i >= 0; i--) {
+                    snapshot.get(i).forEachOrderId(action);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read the archive index", e);
+            }
+        }
+    }
+
+    public long size() {
+        return archivedCount.get();
+    }
+
+    /**
+     * Heap held for lookups across all segments, roughly
+     */
+    public long getIndexHeapBytes() {
+        long bytes = 0;
+        for (ArchiveSegment segment : segments) {
+            bytes += segment.heapBytes();
+        }
+        return bytes;
+    }
+
+    @PreDestroy
+    public void close() {
+        merger.shutdown();
+        try {
+            if (!merger.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Archive merge did not finish in time, closing anyway");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            for (ArchiveSegment segment : segments) {
+                closeQuietly(segment);
+            }
+            segments.clear();
+            segmentsVersion.incrementAndGet();
+        }
+    }
+
+    /**
+     * Merge segments until no tier holds merge-factor neighbours and the count is within
+     * max-segments. Runs on the merge thread; package-private for tests.
+     */
+    void mergeSegments() throws IOException {
+        synchronized (mergeLock) {
+            List<ArchiveSegment> run;
+            while ((run = nextMerge(List.copyOf(segments))) != null) {
+                merge(run);
+            }
+        }
+    }
+
+    /**
+     * Adjacent segments to merge next, newest first, or null if none need merging
+     */
+    List<ArchiveSegment> nextMerge(List<ArchiveSegment> newestFirst) {
+        int start = 0;
+        for (int i = 1; i <= newestFirst.size(); i++) {
+            if (i == newestFirst.size() || tier(newestFirst.get(i)) != tier(newestFirst.get(start))) {
+                if (i - start >= mergeFactor) {
+                    return newestFirst.subList(start, start + mergeFactor);
+                }
+                start = i;
+            }
+        }
+        if (newestFirst.size() > maxSegments) {
+            int smallest = 0;
+            for (int i = 1; i + 1 < newestFirst.size(); i++) {
+                if (pairSize(newestFirst, i) < pairSize(newestFirst, smallest)) {
+                    smallest = i;
+                }
+            }
+            return newestFirst.subList(smallest, smallest + 2);
+        }
+        return null;
+    }
+
+    private void merge(List<ArchiveSegment> run) throws IOException {
+        long start = System.nanoTime();
+        ArchiveSegment newest = run.get(0);
+        ArchiveSegment merged = ArchiveSegment.merge(newest.getPath(), run);
+        int inputs = 0;
+        for (ArchiveSegment segment : run) {
+            inputs += segment.size();
+        }
+        synchronized (this) {
+            int position = segments.indexOf(newest);
+            segments.set(position, merged);
+            segments.subList(position + 1, position + run.size()).clear();
+            segmentsVersion.incrementAndGet();
+        }
+        for (ArchiveSegment segment : run) {
+            closeQuietly(segment);
+            if (segment != newest) {
+                Files.deleteIfExists(segment.getPath());
+            }
+        }
+        archivedCount.addAndGet(merged.size() - inputs);
+        mergeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        logger.info("Merged {} archive segments into {} with {} deliveries in {} ms", run.size(),
+                merged.getPath().getFileName(), merged.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void scheduleMerge() {
+        if (nextMerge(List.copyOf(segments)) == null || !mergeScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        merger.execute(() -> {
+            mergeScheduled.set(false);
+            try {
+                mergeSegments();
+            } catch (IOException | RuntimeException e) {
+                // The inputs stay in place and are merged on the next attempt
+                logger.error("Failed to merge archive segments: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    private int tier(ArchiveSegment segment) {
+        int tier = 0;
+        for (long records = segment.size(); records >= mergeFactor; records /= mergeFactor) {
+            tier++;
+        }
+        return tier;
+    }
+
+    private static long pairSize(List<ArchiveSegment> newestFirst, int first) {
+        return newestFirst.get(first).sizeInBytes() + newestFirst.get(first + 1).sizeInBytes();
+    }
+
+    /**
+     * First non-null result of the lookup in the segments, newest first. A segment that a merge
+     * closed while the lookup read it is replaced by the merged one, so the lookup starts over,
+     * up to {@link #MAX_LOOKUP_ATTEMPTS} times.
+     *
+     * @throws UncheckedIOException if a segment cannot be read, the archive was closed or this
+     *         thread was interrupted while reading; the interrupt flag stays set
+     */
+    private <T> T search(String orderId, SegmentLookup<T> lookup) {
+        for (int attempt = 1; ; attempt++) {
+            long version = segmentsVersion.get();
+            try {
+                for (ArchiveSegment segment : segments) {
+                    T result = lookup.apply(segment);
+                    if (result != null) {
+                        return result;
+                    }
+                }
+                return null;
+            } catch (ClosedByInterruptException e) {
+                // The segment reopens its channel for the other readers
+                Thread.currentThread().interrupt();
+                throw new UncheckedIOException("Interrupted while looking up " + orderId + " in the archive", e);
+            } catch (ClosedChannelException e) {
+                if (merger.isShutdown()) {
+                    throw new UncheckedIOException("Archive is closed, cannot look up " + orderId, e);
+                }
+                if (segmentsVersion.get() == version || attempt == MAX_LOOKUP_ATTEMPTS) {
+                    throw new UncheckedIOException("Archive segment closed while looking up " + orderId, e);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read the archive for " + orderId, e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SegmentLookup<T> {
+        T apply(ArchiveSegment segment) throws IOException;
+    }
+
+    private void closeQuietly(ArchiveSegment segment) {
+        try {
+            segment.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close archive segment {}: {}", segment.getPath(), e.getMessage());
+        }
+    }
+
+    private void loadSegments() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(paths::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list archive directory " + directory, e);
+        }
+        // Files of a write or merge that did not finish
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*.tmp")) {
+            for (Path path : stream) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to delete unfinished archive files in {}: {}", directory, e.getMessage());
+        }
+        // Zero-padded names sort chronologically; newest segment is searched first
+        paths.sort((a, b) -> b.getFileName().toString().compareTo(a.getFileName().toString()));
+
+        for (Path path : paths) {
+            try {
+                long id = segmentId(path);
+                ArchiveSegment segment = ArchiveSegment.open(path);
+                segments.add(segment);
+                archivedCount.addAndGet(segment.size());
+                nextSegmentId.accumulateAndGet(id + 1, Math::max);
+            } catch (IOException | NumberFormatException e) {
+                logger.error("Skipping unreadable archive segment {}: {}", path, e.getMessage());
+            }
+        }
+        logger.info("Loaded {} archive segments with {} deliveries", segments.size(), archivedCount.get());
+    }
+
+    private static String segmentFileName(long id) {
+        return String.format("%s%012d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX);
+    }
+
+    private static long segmentId(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
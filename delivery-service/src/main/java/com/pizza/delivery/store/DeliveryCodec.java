@@ -0,0 +1,84 @@
+package com.pizza.delivery.store;
+
+import com.pizza.models.DeliveryStatus;
+import com.pizza.models.intern.StringDictionary;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Compact binary encoding of a delivery shared by the archive segments and the journal.
+ *
+ * Strings are written as a presence flag plus modified UTF-8, timestamps as epoch
+ * milliseconds in UTC with {@link Long#MIN_VALUE} standing for null. Status and driver name are
+ * read back through the {@link StringDictionary#shared() shared dictionary}, so a million
+ * recovered or archived deliveries hold a handful of distinct strings rather than a copy each.
+ */
+final class DeliveryCodec {
+
+    private static final long NULL_TIMESTAMP = Long.MIN_VALUE;
+
+    private DeliveryCodec() {
+    }
+
+    static void write(DataOutput out, DeliveryStatus delivery) throws IOException {
+        out.writeUTF(delivery.getOrderId());
+        writeString(out, delivery.getStatus());
+        writeString(out, delivery.getDriverName());
+        writeString(out, delivery.getAddress());
+        writeTimestamp(out, delivery.getAssignedAt());
+        writeTimestamp(out, delivery.getEstimatedDeliveryTime());
+        writeTimestamp(out, delivery.getDeliveredAt());
+        writeTimestamp(out, delivery.getInTransitAt());
+        writeTimestamp(out, delivery.getTargetInTransitTime());
+        writeTimestamp(out, delivery.getTargetDeliveredTime());
+    }
+
+    static DeliveryStatus read(DataInput in) throws IOException {
+        return new DeliveryStatus(
+                in.readUTF(),
+                StringDictionary.shared().intern(readString(in)),
+                StringDictionary.shared().intern(readString(in)),
+                readString(in),
+                readTimestamp(in),
+                readTimestamp(in),
+                readTimestamp(in),
+                readTimestamp(in),
+                readTimestamp(in),
+                readTimestamp(in));
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeTimestamp(DataOutput out, LocalDateTime value) throws IOException {
+        out.writeLong(toEpochMillis(value));
+    }
+
+    private static LocalDateTime readTimestamp(DataInput in) throws IOException {
+        return fromEpochMillis(in.readLong());
+    }
+
+    static long toEpochMillis(LocalDateTime value) {
+        return value == null ? NULL_TIMESTAMP : value.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime fromEpochMillis(long millis) {
+        if (millis == NULL_TIMESTAMP) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+                (int) Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+}
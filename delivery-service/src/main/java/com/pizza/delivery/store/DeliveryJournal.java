@@ -0,0 +1,528 @@
+package com.pizza.delivery.store;
+
+import com.pizza.delivery.model.DeliveryUpdate;
+import com.pizza.models.DeliveryStatus;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Write-ahead log of delivery changes with periodic snapshots.
+ *
+ * Each change is appended as the full delivery state, or as a removal, to the current log
+ * segment. Appends only fill an in-memory buffer. Callers that must not acknowledge work before
+ * it is on disk use {@link #awaitDurable()}: the first waiter writes and fsyncs everything
+ * buffered so far while later ones queue behind it and share the next fsync (group commit).
+ * A sync thread flushes changes nobody waits for every sync interval.
+ *
+ * {@link #startSnapshot()} moves appends to a new segment N. Recovery loads snapshot N and
+ * replays segments N-1 and later: records hold full states, so the last record of an order wins,
+ * and keeping one segment before the snapshot covers changes that were still being applied while
+ * it was taken. Older segments and snapshots are deleted once the snapshot is committed.
+ *
+ * Segment record layout: body length, CRC32 of the body, then the body (type, version, payload).
+ * A record that is cut short or fails its checksum ends the replay of its segment.
+ */
+@Component
+public class DeliveryJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryJournal.class);
+
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final int SNAPSHOT_MAGIC = 0x44534E31; // "DSN1"
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+
+    private final Path directory;
+    private final long syncIntervalMillis;
+    private final Timer syncTimer;
+    private final DistributionSummary batchSize;
+    private final Timer recoveryTimer;
+    private final ScheduledExecutorService syncer;
+
+    // Guarded by this: records not yet handed to the sync thread
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+    private int bufferedRecords;
+    private long appendedRecords;
+    private long durableRecords;
+
+    // Guarded by channelLock: the segment being written
+    private final Object channelLock = new Object();
+    private FileChannel channel;
+    private long segmentId;
+
+    public DeliveryJournal(@Value("${delivery.journal.directory:data/journal}") String directory,
+            @Value("${delivery.journal.sync-interval-ms:5}") long syncIntervalMillis,
+            MeterRegistry meterRegistry) {
+        this.directory = Paths.get(directory);
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.syncTimer = Timer.builder("delivery.journal.sync")
+                .description("Latency of writing and fsyncing a batch of journal records")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("delivery.journal.batch.size")
+                .description("Journal records made durable by one fsync")
+                .register(meterRegistry);
+        this.recoveryTimer = Timer.builder("delivery.journal.recovery")
+                .description("Time to load the latest snapshot and replay the journal")
+                .register(meterRegistry);
+        this.syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "delivery-journal-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Rebuild the delivery state from disk and open a new segment for appends.
+     * Must be called once before anything is appended.
+     */
+    public JournalRecovery recover() {
+        synchronized (channelLock) {
+            if (channel != null) {
+                throw new IllegalStateException("Delivery journal " + directory + " is already open");
+            }
+        }
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            List<Long> snapshots = list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+            List<Long> segments = list(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+
+            Map<String, DeliveryStatus> deliveries = new HashMap<>();
+            long[] version = new long[1];
+            long firstSegment = 0;
+            for (int i = snapshots.size() - 1; i >= 0; i--) {
+                Path path = directory.resolve(fileName(SNAPSHOT_PREFIX, snapshots.get(i), SNAPSHOT_SUFFIX));
+                try {
+                    version[0] = readSnapshot(path, deliveries);
+                    firstSegment = Math.max(0, snapshots.get(i) - 1);
+                    break;
+                } catch (IOException e) {
+                    logger.error("Skipping unreadable journal snapshot {}: {}", path, e.getMessage());
+                    deliveries.clear();
+                }
+            }
+
+            int replayed = 0;
+            for (long id : segments) {
+                Path segment = directory.resolve(fileName(SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+                if (Files.size(segment) == 0) {
+                    // Left behind by an instance that stopped before anything changed
+                    Files.delete(segment);
+                } else if (id >= firstSegment) {
+                    replayed += replaySegment(segment, deliveries, version);
+                }
+            }
+
+            long nextSegment = Math.max(firstSegment + 1,
+                    segments.isEmpty() ? 0 : segments.get(segments.size() - 1) + 1);
+            synchronized (channelLock) {
+                openSegment(nextSegment);
+            }
+            syncer.scheduleWithFixedDelay(this::sync, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+
+            long elapsed = System.nanoTime() - start;
+            recoveryTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            logger.info("Recovered {} deliveries (version {}) replaying {} journal records in {} ms",
+                    deliveries.size(), version[0], replayed, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            return new JournalRecovery(deliveries, version[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover the delivery journal from " + directory, e);
+        }
+    }
+
+    /**
+     * Buffer the change for the next sync. Callers append while holding the delivery's map
+     * entry so each order's records are in the order its changes were made.
+     */
+    public void append(DeliveryUpdate update) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(160);
+        try {
+            DataOutputStream out = new DataOutputStream(body);
+            if (DeliveryUpdate.ARCHIVED.equals(update.getType())) {
+                out.writeByte(REMOVE);
+                out.writeLong(update.getVersion());
+                out.writeUTF(update.getDelivery().getOrderId());
+            } else {
+                out.writeByte(PUT);
+                out.writeLong(update.getVersion());
+                DeliveryCodec.write(out, update.getDelivery());
+            }
+        } catch (IOException e) {
+            // Writing to a byte array cannot fail
+            throw new UncheckedIOException(e);
+        }
+        byte[] bytes = body.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+
+        synchronized (this) {
+            writeInt(buffer, bytes.length);
+            writeInt(buffer, (int) crc.getValue());
+            buffer.writeBytes(bytes);
+            bufferedRecords++;
+            appendedRecords++;
+        }
+    }
+
+    /**
+     * Wait until everything appended so far has been fsynced
+     *
+     * @throws UncheckedIOException if the journal could not be written
+     */
+    public void awaitDurable() {
+        long target;
+        synchronized (this) {
+            target = appendedRecords;
+            if (durableRecords >= target) {
+                return;
+            }
+        }
+        synchronized (channelLock) {
+            synchronized (this) {
+                // The flush we queued behind may have covered our records
+                if (durableRecords >= target) {
+                    return;
+                }
+            }
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to sync the delivery journal", e);
+            }
+        }
+    }
+
+    /**
+     * Start a snapshot. Later appends go to a new segment; the snapshot has to contain every
+     * delivery whose last change was appended before the previous snapshot was started.
+     */
+    public Snapshot startSnapshot() throws IOException {
+        long id;
+        synchronized (channelLock) {
+            flush();
+            channel.close();
+            openSegment(segmentId + 1);
+            id = segmentId;
+        }
+        return new Snapshot(id);
+    }
+
+    /**
+     * Write buffered records and fsync them. Runs on the sync thread every sync interval.
+     */
+    void sync() {
+        synchronized (channelLock) {
+            if (channel == null) {
+                // A sync that was already queued when the journal was closed
+                return;
+            }
+            try {
+                flush();
+            } catch (IOException e) {
+                logger.error("Failed to sync delivery journal, retrying: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        // Let a running sync finish: interrupting it inside force() would close the channel
+        // under the final flush and lose the buffered records
+        syncer.shutdown();
+        try {
+            if (!syncer.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("Delivery journal sync did not finish in time, closing anyway");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (channelLock) {
+            if (channel == null) {
+                return;
+            }
+            try {
+                flush();
+                channel.close();
+            } catch (IOException e) {
+                logger.error("Failed to close delivery journal: {}", e.getMessage(), e);
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * Must hold channelLock
+     */
+    private void flush() throws IOException {
+        if (channel == null) {
+            throw new IOException("Delivery journal is not open");
+        }
+        byte[] bytes;
+        int records;
+        long upTo;
+        synchronized (this) {
+            if (bufferedRecords == 0) {
+                return;
+            }
+            bytes = buffer.toByteArray();
+            records = bufferedRecords;
+            upTo = appendedRecords;
+            buffer = new ByteArrayOutputStream(Math.max(64 * 1024, bytes.length));
+            bufferedRecords = 0;
+        }
+
+        long start = System.nanoTime();
+        long position = channel.position();
+        try {
+            ByteBuffer data = ByteBuffer.wrap(bytes);
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // Drop a partial write and put the batch back in front of newer records
+            channel.truncate(position);
+            channel.position(position);
+            synchronized (this) {
+                ByteArrayOutputStream retry = new ByteArrayOutputStream(bytes.length + buffer.size());
+                retry.writeBytes(bytes);
+                retry.writeBytes(buffer.toByteArray());
+                buffer = retry;
+                bufferedRecords += records;
+            }
+            throw e;
+        }
+        syncTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSize.record(records);
+
+        synchronized (this) {
+            durableRecords = upTo;
+        }
+    }
+
+    /**
+     * Must hold channelLock
+     */
+    private void openSegment(long id) throws IOException {
+        segmentId = id;
+        channel = FileChannel.open(directory.resolve(fileName(SEGMENT_PREFIX, id, SEGMENT_SUFFIX)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private int replaySegment(Path path, Map<String, DeliveryStatus> deliveries, long[] version)
+            throws IOException {
+        int records = 0;
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            while (true) {
+                byte[] body;
+                try {
+                    int length = in.readInt();
+                    int checksum = in.readInt();
+                    if (length <= 0) {
+                        throw new IOException("invalid record length " + length);
+                    }
+                    body = new byte[length];
+                    in.readFully(body);
+                    crc.reset();
+                    crc.update(body, 0, length);
+                    if ((int) crc.getValue() != checksum) {
+                        throw new IOException("checksum mismatch");
+                    }
+                } catch (EOFException e) {
+                    // Clean end of the segment, or a record cut short by a crash
+                    return records;
+                } catch (IOException e) {
+                    logger.warn("Stopping replay of {} after {} records: {}", path, records, e.getMessage());
+                    return records;
+                }
+
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(body));
+                byte type = record.readByte();
+                long recordVersion = record.readLong();
+                if (type == PUT) {
+                    DeliveryStatus delivery = DeliveryCodec.read(record);
+                    deliveries.put(delivery.getOrderId(), delivery);
+                } else if (type == REMOVE) {
+                    deliveries.remove(record.readUTF());
+                } else {
+                    throw new IOException("Unknown journal record type " + type + " in " + path);
+                }
+                version[0] = Math.max(version[0], recordVersion);
+                records++;
+            }
+        }
+    }
+
+    private long readSnapshot(Path path, Map<String, DeliveryStatus> deliveries) throws IOException {
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16), new CRC32())) {
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("invalid magic");
+            }
+            int count = 0;
+            while (in.readBoolean()) {
+                DeliveryStatus delivery = DeliveryCodec.read(in);
+                deliveries.put(delivery.getOrderId(), delivery);
+                count++;
+            }
+            long version = in.readLong();
+            if (in.readInt() != count) {
+                throw new IOException("entry count mismatch");
+            }
+            long expected = checked.getChecksum().getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("checksum mismatch");
+            }
+            return version;
+        }
+    }
+
+    private List<Long> list(String prefix, String suffix) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    ids.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    logger.warn("Ignoring unexpected journal file {}", file);
+                }
+            }
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+
+    private void deleteBefore(long id) {
+        try {
+            for (long segment : list(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+                if (segment < id - 1) {
+                    Files.deleteIfExists(directory.resolve(fileName(SEGMENT_PREFIX, segment, SEGMENT_SUFFIX)));
+                }
+            }
+            for (long snapshot : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+                if (snapshot < id) {
+                    Files.deleteIfExists(directory.resolve(fileName(SNAPSHOT_PREFIX, snapshot, SNAPSHOT_SUFFIX)));
+                }
+            }
+        } catch (IOException e) {
+            // Leftovers are skipped by the next recovery and deleted after the next snapshot
+            logger.warn("Failed to delete old journal files: {}", e.getMessage());
+        }
+    }
+
+    private static String fileName(String prefix, long id, String suffix) {
+        return String.format("%s%012d%s", prefix, id, suffix);
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    /**
+     * A snapshot being written. Deliveries can be written in any order; nothing changes on disk
+     * unless {@link #commit} is called.
+     */
+    public final class Snapshot implements Closeable {
+
+        private final long id;
+        private final Path path;
+        private final Path tmp;
+        private final FileChannel file;
+        private final CheckedOutputStream checked;
+        private final DataOutputStream out;
+        private int count;
+        private boolean committed;
+
+        private Snapshot(long id) throws IOException {
+            this.id = id;
+            this.path = directory.resolve(fileName(SNAPSHOT_PREFIX, id, SNAPSHOT_SUFFIX));
+            this.tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            this.file = FileChannel.open(tmp,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            this.checked = new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(file), 1 << 16), new CRC32());
+            this.out = new DataOutputStream(checked);
+            out.writeInt(SNAPSHOT_MAGIC);
+        }
+
+        public void write(DeliveryStatus delivery) throws IOException {
+            out.writeBoolean(true);
+            DeliveryCodec.write(out, delivery);
+            count++;
+        }
+
+        /**
+         * Make the snapshot durable and delete the journal files it replaces
+         *
+         * @param version latest committed change version, restored even if its delivery was removed
+         */
+        public void commit(long version) throws IOException {
+            out.writeBoolean(false);
+            out.writeLong(version);
+            out.writeInt(count);
+            out.flush();
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+            file.force(true);
+            file.close();
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            committed = true;
+            deleteBefore(id);
+            logger.info("Wrote journal snapshot {} with {} deliveries", path, count);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                file.close();
+                Files.deleteIfExists(tmp);
+            }
+        }
+    }
+}
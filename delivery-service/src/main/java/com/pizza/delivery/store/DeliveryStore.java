@@ -0,0 +1,81 @@
+package com.pizza.delivery.store;
+
+import com.pizza.models.DeliveryStatus;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * Hot tier: deliveries that are still active or were delivered recently, keyed by order ID.
+ *
+ * Changes to one order are atomic like {@link java.util.concurrent.ConcurrentMap#compute}. Callers
+ * update secondary indexes and the journal in the {@code onChange} callback, which runs while the
+ * order is still held but only once the store has accepted the new delivery. A delivery
+ * handed out by the store must not be modified; changes go through {@link #compute}. Whether two
+ * reads of an unchanged delivery return the same instance depends on the implementation, so
+ * compare deliveries with {@code equals}.
+ */
+public interface DeliveryStore {
+
+    DeliveryStatus get(String orderId);
+
+    default boolean contains(String orderId) {
+        return get(orderId) != null;
+    }
+
+    /**
+     * Atomically replace the delivery of an order by the result of {@code remapping}, which gets
+     * the current delivery or null. A null result removes the order.
+     *
+     * @return the new delivery, or null if there is none
+     */
+    DeliveryStatus compute(String orderId, BiFunction<String, DeliveryStatus, DeliveryStatus> remapping);
+
+    /**
+     * {@link #compute} that passes the previous and the new delivery to {@code onChange} once the
+     * store holds the new one, before the order is released. It is not called if {@code remapping}
+     * returns the current delivery or if the store rejects the new one.
+     *
+     * The default calls it at the end of the remapping function, which is only right for stores
+     * that accept every delivery; others override it.
+     */
+    default DeliveryStatus compute(String orderId, BiFunction<String, DeliveryStatus, DeliveryStatus> remapping,
+            BiConsumer<DeliveryStatus, DeliveryStatus> onChange) {
+        return compute(orderId, (id, current) -> {
+            DeliveryStatus next = remapping.apply(id, current);
+            if (next != current) {
+                onChange.accept(current, next);
+            }
+            return next;
+        });
+    }
+
+    /**
+     * {@link #compute} for orders that are in the store; absent orders are left alone
+     */
+    default DeliveryStatus computeIfPresent(String orderId,
+            BiFunction<String, DeliveryStatus, DeliveryStatus> remapping) {
+        return compute(orderId, (id, current) -> current != null ? remapping.apply(id, current) : null);
+    }
+
+    /**
+     * {@link #compute(String, BiFunction, BiConsumer)} for orders that are in the store
+     */
+    default DeliveryStatus computeIfPresent(String orderId,
+            BiFunction<String, DeliveryStatus, DeliveryStatus> remapping,
+            BiConsumer<DeliveryStatus, DeliveryStatus> onChange) {
+        return compute(orderId, (id, current) -> current != null ? remapping.apply(id, current) : null, onChange);
+    }
+
+    default void put(DeliveryStatus delivery) {
+        compute(delivery.getOrderId(), (orderId, current) -> delivery);
+    }
+
+    int size();
+
+    /**
+     * Unmodifiable, weakly consistent view of the store for iteration and API responses
+     */
+    Map<String, DeliveryStatus> asMap();
+}
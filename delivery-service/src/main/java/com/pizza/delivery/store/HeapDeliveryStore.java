@@ -0,0 +1,58 @@
+package com.pizza.delivery.store;
+
+import com.pizza.models.DeliveryStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Default store holding each delivery as a {@link DeliveryStatus} object in a concurrent map.
+ * Reads return the stored instance without copying.
+ */
+@Component
+@ConditionalOnProperty(name = "delivery.store.type", havingValue = "heap", matchIfMissing = true)
+public class HeapDeliveryStore implements DeliveryStore {
+
+    private final Map<String, DeliveryStatus> deliveries = new ConcurrentHashMap<>();
+    private final Map<String, DeliveryStatus> view = Collections.unmodifiableMap(deliveries);
+
+    @Override
+    public DeliveryStatus get(String orderId) {
+        return deliveries.get(orderId);
+    }
+
+    @Override
+    public boolean contains(String orderId) {
+        return deliveries.containsKey(orderId);
+    }
+
+    @Override
+    public DeliveryStatus compute(String orderId, BiFunction<String, DeliveryStatus, DeliveryStatus> remapping) {
+        return deliveries.compute(orderId, remapping);
+    }
+
+    @Override
+    public DeliveryStatus computeIfPresent(String orderId,
+            BiFunction<String, DeliveryStatus, DeliveryStatus> remapping) {
+        return deliveries.computeIfPresent(orderId, remapping);
+    }
+
+    @Override
+    public void put(DeliveryStatus delivery) {
+        deliveries.put(delivery.getOrderId(), delivery);
+    }
+
+    @Override
+    public int size() {
+        return deliveries.size();
+    }
+
+    @Override
+    public Map<String, DeliveryStatus> asMap() {
+        return view;
+    }
+}
@@ -0,0 +1,36 @@
+package com.pizza.delivery.store;
+
+import com.pizza.models.DeliveryStatus;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Delivery state rebuilt by {@link DeliveryJournal#recover()}: the latest state of every
+ * delivery that was not removed, and the highest change version found.
+ */
+public class JournalRecovery {
+
+    private final Map<String, DeliveryStatus> deliveries;
+    private final long version;
+
+    JournalRecovery(Map<String, DeliveryStatus> deliveries, long version) {
+        this.deliveries = deliveries;
+        this.version = version;
+    }
+
+    public int size() {
+        return deliveries.size();
+    }
+
+    /**
+     * Highest version in the snapshot or the log, including removals
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public void forEach(Consumer<DeliveryStatus> action) {
+        deliveries.values().forEach(action);
+    }
+}
@@ -0,0 +1,158 @@
+package com.pizza.delivery.store;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Append-only storage for pairs of strings in large byte pages. Not thread-safe.
+ *
+ * An entry is two lengths followed by the UTF-8 bytes of both strings and is addressed by a
+ * reference combining page and offset. Freed entries only leave a gap; the owner copies the live
+ * entries into a fresh arena once {@link #needsCompaction} says the gaps outweigh them.
+ */
+final class StringArena {
+
+    // Small enough to stay below G1's humongous object threshold, which would round each page
+    // up to a whole heap region
+    static final int PAGE_SIZE = 1 << 18;
+    private static final int HEADER = 2 * Integer.BYTES;
+    private static final int NULL_LENGTH = -1;
+
+    private byte[][] pages = new byte[16][];
+    private int pageCount;
+    private int position;
+    private long usedBytes;
+    private long liveBytes;
+
+    /**
+     * Store a non-null {@code first} and a nullable {@code second} string
+     *
+     * @return reference to the entry
+     */
+    long add(String first, String second) {
+        byte[] firstBytes = first.getBytes(StandardCharsets.UTF_8);
+        byte[] secondBytes = second != null ? second.getBytes(StandardCharsets.UTF_8) : null;
+        int length = HEADER + firstBytes.length + (secondBytes != null ? secondBytes.length : 0);
+        long ref = reserve(length);
+        byte[] page = pages[page(ref)];
+        int offset = offset(ref);
+        writeInt(page, offset, firstBytes.length);
+        writeInt(page, offset + Integer.BYTES, secondBytes != null ? secondBytes.length : NULL_LENGTH);
+        System.arraycopy(firstBytes, 0, page, offset + HEADER, firstBytes.length);
+        if (secondBytes != null) {
+            System.arraycopy(secondBytes, 0, page, offset + HEADER + firstBytes.length, secondBytes.length);
+        }
+        return ref;
+    }
+
+    /**
+     * Copy an entry of another arena into this one
+     */
+    long copy(StringArena source, long sourceRef) {
+        int length = source.length(sourceRef);
+        long ref = reserve(length);
+        System.arraycopy(source.pages[page(sourceRef)], offset(sourceRef), pages[page(ref)], offset(ref), length);
+        return ref;
+    }
+
+    String first(long ref) {
+        byte[] page = pages[page(ref)];
+        int offset = offset(ref);
+        return new String(page, offset + HEADER, readInt(page, offset), StandardCharsets.UTF_8);
+    }
+
+    String second(long ref) {
+        byte[] page = pages[page(ref)];
+        int offset = offset(ref);
+        int length = readInt(page, offset + Integer.BYTES);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        return new String(page, offset + HEADER + readInt(page, offset), length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Whether the first string of the entry has exactly the given UTF-8 bytes
+     */
+    boolean firstEquals(long ref, byte[] key) {
+        byte[] page = pages[page(ref)];
+        int offset = offset(ref);
+        if (readInt(page, offset) != key.length) {
+            return false;
+        }
+        return Arrays.equals(page, offset + HEADER, offset + HEADER + key.length, key, 0, key.length);
+    }
+
+    void free(long ref) {
+        liveBytes -= length(ref);
+    }
+
+    /**
+     * Whether more than half of the used bytes belong to freed entries
+     */
+    boolean needsCompaction() {
+        return usedBytes > PAGE_SIZE && usedBytes - liveBytes > liveBytes;
+    }
+
+    /**
+     * Bytes held by the pages, including the unused end of the current one
+     */
+    long allocatedBytes() {
+        long bytes = 0;
+        for (int i = 0; i < pageCount; i++) {
+            bytes += pages[i].length;
+        }
+        return bytes;
+    }
+
+    long liveBytes() {
+        return liveBytes;
+    }
+
+    private int length(long ref) {
+        byte[] page = pages[page(ref)];
+        int offset = offset(ref);
+        int secondLength = readInt(page, offset + Integer.BYTES);
+        return HEADER + readInt(page, offset) + (secondLength == NULL_LENGTH ? 0 : secondLength);
+    }
+
+    private long reserve(int length) {
+        if (pageCount == 0 || position + length > pages[pageCount - 1].length) {
+            // Entries larger than a page get a page of their own
+            addPage(Math.max(PAGE_SIZE, length));
+        }
+        long ref = ((long) (pageCount - 1) << 32) | position;
+        position += length;
+        usedBytes += length;
+        liveBytes += length;
+        return ref;
+    }
+
+    private void addPage(int size) {
+        if (pageCount == pages.length) {
+            pages = Arrays.copyOf(pages, pageCount * 2);
+        }
+        pages[pageCount++] = new byte[size];
+        position = 0;
+    }
+
+    private static int page(long ref) {
+        return (int) (ref >>> 32);
+    }
+
+    private static int offset(long ref) {
+        return (int) ref;
+    }
+
+    private static void writeInt(byte[] page, int offset, int value) {
+        page[offset] = (byte) (value >>> 24);
+        page[offset + 1] = (byte) (value >>> 16);
+        page[offset + 2] = (byte) (value >>> 8);
+        page[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] page, int offset) {
+        return (page[offset] << 24) | ((page[offset + 1] & 0xff) << 16)
+                | ((page[offset + 2] & 0xff) << 8) | (page[offset + 3] & 0xff);
+    }
+}
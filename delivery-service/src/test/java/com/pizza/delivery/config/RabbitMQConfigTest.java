@@ -1,12 +1,25 @@
 package com.pizza.delivery.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import com.pizza.models.OrderReadyEvent;
+import com.pizza.models.routing.OrderPartitioner;
+import com.pizza.models.wire.BinaryEventCodec;
+import com.pizza.models.wire.EventMessageConverter;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 
 @DisplayName("RabbitMQConfig Tests")
 class RabbitMQConfigTest {
@@ -33,13 +46,53 @@ class RabbitMQConfigTest {
     }
 
     @Test
-    @DisplayName("Should create JSON message converter")
-    void shouldCreateJsonMessageConverter() {
+    @DisplayName("Should create a message converter accepting JSON and binary events")
+    void shouldCreateContentNegotiatingMessageConverter() {
+        // Given
+        OrderReadyEvent event = new OrderReadyEvent("order-1", "Margherita", 1, "Address", "Customer", null);
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(BinaryEventCodec.CONTENT_TYPE);
+
+        // When
+        MessageConverter converter = rabbitMQConfig.messageConverter(new ObjectMapper(), 1024);
+
+        // Then
+        assertInstanceOf(EventMessageConverter.class, converter);
+        assertEquals(event, converter.fromMessage(new Message(BinaryEventCodec.encode(event), properties)));
+        assertEquals(MessageProperties.CONTENT_TYPE_JSON,
+                converter.toMessage(event, new MessageProperties()).getMessageProperties().getContentType());
+    }
+
+    @Test
+    @DisplayName("Should create a batch listener container factory for order ready events")
+    void shouldCreateOrderReadyBatchContainerFactory() {
+        // When
+        SimpleRabbitListenerContainerFactory factory = rabbitMQConfig.orderReadyContainerFactory(
+                mock(ConnectionFactory.class), rabbitMQConfig.messageConverter(new ObjectMapper(), 1024), 500, 50L);
+
+        // Then
+        assertNotNull(factory);
+        assertEquals(500, ReflectionTestUtils.getField(factory, "batchSize"));
+        assertEquals(Boolean.TRUE, ReflectionTestUtils.getField(factory, "consumerBatchEnabled"));
+        assertEquals(500, ReflectionTestUtils.getField(factory, "prefetchCount"));
+        assertEquals(50L, ReflectionTestUtils.getField(factory, "receiveTimeout"));
+        assertEquals(Boolean.TRUE, ReflectionTestUtils.getField(factory, "observationEnabled"));
+    }
+
+    @Test
+    @DisplayName("Should declare one bound queue per order ready partition")
+    void shouldDeclareOrderReadyPartitions() {
         // When
-        MessageConverter converter = rabbitMQConfig.jsonMessageConverter();
+        Declarables declarables = rabbitMQConfig.orderReadyPartitions(4);
+        Declarables none = rabbitMQConfig.orderReadyPartitions(0);
 
         // Then
-        assertNotNull(converter);
-        assertInstanceOf(Jackson2JsonMessageConverter.class, converter);
+        DirectExchange exchange = declarables.getDeclarablesByType(DirectExchange.class).get(0);
+        assertEquals(OrderPartitioner.EXCHANGE, exchange.getName());
+        assertEquals(4, declarables.getDeclarablesByType(Queue.class).size());
+        Binding binding = declarables.getDeclarablesByType(Binding.class).get(3);
+        assertEquals("order.ready.3", binding.getDestination());
+        assertEquals("3", binding.getRoutingKey());
+        assertTrue(none.getDeclarables().isEmpty());
     }
 }
@@ -1,21 +1,42 @@
 package com.pizza.delivery.controller;
 
+import com.pizza.delivery.model.DeliveryChanges;
+import com.pizza.delivery.model.DeliveryStats;
+import com.pizza.delivery.model.DeliveryUpdate;
+import com.pizza.delivery.model.DurationSummary;
+import com.pizza.delivery.model.LatencyBreakdown;
 import com.pizza.models.DeliveryStatus;
+import com.pizza.delivery.service.DeliveryQuery;
 import com.pizza.delivery.service.DeliveryService;
+import com.pizza.delivery.shard.ShardRouter;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -29,6 +50,9 @@ class DeliveryControllerTest {
     @MockBean
     private DeliveryService deliveryService;
 
+    @MockBean
+    private ShardRouter shardRouter;
+
     @Test
     @DisplayName("Should return delivery status when order exists")
     void getDeliveryStatus_shouldReturnStatus() throws Exception {
@@ -59,6 +83,44 @@ class DeliveryControllerTest {
                 .andExpect(jsonPath("$.address").value("Musterstrasse 123, 8000 Zurich"));
     }
 
+    @Test
+    @DisplayName("Should return delivery KPIs")
+    void getStats_shouldReturnCountsAndDurations() throws Exception {
+        // Given
+        DeliveryStats stats = new DeliveryStats(Map.of("IN_TRANSIT", 2L), Map.of("Anna Schmidt", 2L),
+                Map.of("in-transit-to-delivered",
+                        Map.of("1m", new DurationSummary(2, 20.0, 19.8, 24.6, 24.6, 25.0))));
+        when(deliveryService.getStats()).thenReturn(stats);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/deliveries/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.byStatus.IN_TRANSIT").value(2))
+                .andExpect(jsonPath("$.byDriver['Anna Schmidt']").value(2))
+                .andExpect(jsonPath("$.durations['in-transit-to-delivered']['1m'].count").value(2))
+                .andExpect(jsonPath("$.durations['in-transit-to-delivered']['1m'].p95Seconds").value(24.6));
+    }
+
+    @Test
+    @DisplayName("Should return the latency breakdown of a window and reject unknown windows")
+    void getLatency_shouldReturnStagesAndEndToEnd() throws Exception {
+        // Given
+        LatencyBreakdown breakdown = new LatencyBreakdown("1h",
+                Map.of("preparation", new DurationSummary(3, 7.5, 7.4, 9.8, 9.8, 9.9)),
+                new DurationSummary(3, 52.0, 51.0, 60.1, 60.1, 61.0));
+        when(deliveryService.getLatencyBreakdown("1h")).thenReturn(breakdown);
+        when(deliveryService.getLatencyBreakdown("2h")).thenThrow(new IllegalArgumentException("Unknown window 2h"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/deliveries/latency").param("window", "1h"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.window").value("1h"))
+                .andExpect(jsonPath("$.stages.preparation.p95Seconds").value(9.8))
+                .andExpect(jsonPath("$.endToEnd.count").value(3));
+        mockMvc.perform(get("/api/v1/deliveries/latency").param("window", "2h"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Should return 404 when delivery does not exist")
     void getDeliveryStatus_shouldReturn404WhenNotFound() throws Exception {
@@ -71,6 +133,38 @@ class DeliveryControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("Should answer with the owning instance's delivery when the order is not held locally")
+    void getDeliveryStatus_shouldRouteOrdersHeldElsewhere() throws Exception {
+        // Given
+        when(deliveryService.getDeliveryStatus("order-2")).thenReturn(null);
+        when(shardRouter.route("order-2", "\"3\"")).thenReturn(
+                ResponseEntity.ok().eTag("\"4\"").body(delivery("order-2", "IN_TRANSIT", "Tom Fischer")));
+        when(shardRouter.route("order-3", null)).thenReturn(ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                .location(URI.create("http://delivery-2:8083/api/v1/deliveries/order-3")).build());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/deliveries/{orderId}", "order-2").header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.driverName").value("Tom Fischer"));
+        mockMvc.perform(get("/api/v1/deliveries/{orderId}", "order-3"))
+                .andExpect(status().isTemporaryRedirect())
+                .andExpect(header().string("Location", "http://delivery-2:8083/api/v1/deliveries/order-3"));
+    }
+
+    @Test
+    @DisplayName("Should answer forwarded lookups from local deliveries only")
+    void getDeliveryStatus_shouldNotRouteForwardedLookups() throws Exception {
+        // Given
+        when(deliveryService.getDeliveryStatus("order-2")).thenReturn(null);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/deliveries/{orderId}", "order-2").header(ShardRouter.FORWARDED_HEADER, "true"))
+                .andExpect(status().isNotFound());
+        verify(shardRouter, never()).route(anyString(), any());
+    }
+
     @Test
     @DisplayName("Should return all deliveries")
     void getAllDeliveries_shouldReturnAllDeliveries() throws Exception {
@@ -191,4 +285,231 @@ class DeliveryControllerTest {
                 .andExpect(jsonPath("$.status").value("DELIVERED"))
                 .andExpect(jsonPath("$.deliveredAt").exists());
     }
+
+    private DeliveryStatus delivery(String orderId, String status, String driver) {
+        return new DeliveryStatus(
+                orderId,
+                status,
+                driver,
+                "Address " + orderId,
+                LocalDateTime.of(2026, 1, 16, 10, 0),
+                LocalDateTime.of(2026, 1, 16, 10, 30),
+                null,
+                null,
+                LocalDateTime.of(2026, 1, 16, 10, 5),
+                null
+        );
+    }
+
+    @Test
+    @DisplayName("Should return first page with next cursor when page is full")
+    void getDeliveryPage_shouldReturnPageWithCursor() throws Exception {
+        // Given
+        when(deliveryService.findDeliveries(any(DeliveryQuery.class), isNull(), eq(2)))
+                .thenReturn(List.of(
+                        delivery("order-1", "ASSIGNED", "Anna Schmidt"),
+                        delivery("order-2", "ASSIGNED", "Tom Fischer")));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/deliveries/page").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].orderId").value("order-1"))
+                .andExpect(jsonPath("$.items[1].driverName").value("Tom Fischer"))
+                .andExpect(jsonPath("$.nextCursor").value("b3JkZXItMg"));
+    }
+
+    @Test
+    @DisplayName("Should continue after decoded cursor and omit cursor on last page")
+    void getDeliveryPage_shouldContinueFromCursor() throws Exception {
+        // Given
+        when(deliveryService.findDeliveries(any(DeliveryQuery.class), eq("order-2"), eq(2)))
+                .thenReturn(List.of(delivery("order-3", "IN_TRANSIT", "Lisa Weber")));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/deliveries/page")
+                        .param("cursor", "b3JkZXItMg")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].orderId").value("order-3"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should project page items to the requested fields")
+    void getDeliveryPage_shouldProjectFields() throws Exception {
+        // Given
+        when(deliveryService.findDeliveries(any(DeliveryQuery.class), isNull(), eq(100)))
+                .thenReturn(List.of(delivery("order-1", "ASSIGNED", "Anna Schmidt")));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/deliveries/page").param("fields", "orderId,status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].orderId").value("order-1"))
+                .andExpect(jsonPath("$.items[0].status").value("ASSIGNED"))
+                .andExpect(jsonPath("$.items[0].driverName").doesNotExist())
+                .andExpect(jsonPath("$.items[0].address").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown projection fields and invalid limits")
+    void getDeliveryPage_shouldRejectInvalidParameters() throws Exception {
+        mockMvc.perform(get("/api/v1/deliveries/page").param("fields", "orderId,secret"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/deliveries/page").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/deliveries/page").param("from", "yesterday"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should stream matching deliveries as NDJSON")
+    @SuppressWarnings("unchecked")
+    void streamDeliveries_shouldWriteOneLinePerDelivery() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            Consumer<DeliveryStatus> action = invocation.getArgument(1);
+            action.accept(delivery("order-1", "IN_TRANSIT", "Anna Schmidt"));
+            action.accept(delivery("order-2", "IN_TRANSIT", "Anna Schmidt"));
+            return null;
+        }).when(deliveryService).forEachDelivery(any(DeliveryQuery.class), any(Consumer.class));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/deliveries/export")
+                        .param("status", "IN_TRANSIT")
+                        .param("fields", "orderId"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"orderId\":\"order-1\"}\n{\"orderId\":\"order-2\"}\n"));
+    }
+
+    @Test
+    @DisplayName("Should return deliveries with the requested status")
+    void getDeliveriesByStatus_shouldReturnIndexedDeliveries() throws Exception {
+        // Given
+        when(deliveryService.getDeliveriesByStatus("IN_TRANSIT"))
+                .thenReturn(List.of(delivery("order-1", "IN_TRANSIT", "Anna Schmidt")));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/deliveries/status/{status}", "IN_TRANSIT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].orderId").value("order-1"))
+                .andExpect(jsonPath("$[0].status").value("IN_TRANSIT"));
+    }
+
+    @Test
+    @DisplayName("Should return deliveries assigned to the requested driver")
+    void getDeliveriesByDriver_shouldReturnIndexedDeliveries() throws Exception {
+        // Given
+        when(deliveryService.getDeliveriesByDriver("Anna Schmidt"))
+                .thenReturn(List.of(
+                        delivery("order-1", "ASSIGNED", "Anna Schmidt"),
+                        delivery("order-2", "DELIVERED", "Anna Schmidt")));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/deliveries/driver/{driverName}", "Anna Schmidt"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].orderId").value("order-2"));
+    }
+
+    @Test
+    @DisplayName("Should tag a delivery with its version and answer 304 while it is unchanged")
+    void getDeliveryStatus_shouldSupportConditionalRequests() throws Exception {
+        // Given
+        when(deliveryService.getVersionEpoch()).thenReturn("b00t");
+        when(deliveryService.getDeliveryVersion("order-1")).thenReturn(7L);
+        when(deliveryService.getDeliveryStatus("order-1")).thenReturn(delivery("order-1", "ASSIGNED", "Anna Schmidt"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/deliveries/{orderId}", "order-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"b00t-7\""));
+        mockMvc.perform(get("/api/v1/deliveries/{orderId}", "order-1").header("If-None-Match", "W/\"b00t-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/v1/deliveries/{orderId}", "order-1").header("If-None-Match", "W/\"b00t-6\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderId").value("order-1"));
+    }
+
+    @Test
+    @DisplayName("Should answer 304 for listings without scanning when nothing changed")
+    void listings_shouldSupportConditionalRequests() throws Exception {
+        // Given
+        when(deliveryService.getVersionEpoch()).thenReturn("b00t");
+        when(deliveryService.getVersion()).thenReturn(42L);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/deliveries").header("If-None-Match", "W/\"b00t-42\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/deliveries/page").header("If-None-Match", "W/\"b00t-42\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/deliveries/status/{status}", "ASSIGNED")
+                        .header("If-None-Match", "W/\"b00t-42\""))
+                .andExpect(status().isNotModified());
+        verify(deliveryService, never()).getAllDeliveries();
+        verify(deliveryService, never()).findDeliveries(any(), any(), anyInt());
+
+        mockMvc.perform(get("/api/v1/deliveries/driver/{driverName}", "Anna Schmidt")
+                        .header("If-None-Match", "W/\"b00t-41\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"b00t-42\""));
+        // Same version from another start of the service
+        mockMvc.perform(get("/api/v1/deliveries").header("If-None-Match", "W/\"f00d-42\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should return changes since the given version")
+    void getChanges_shouldReturnChanges() throws Exception {
+        // Given
+        DeliveryUpdate update = new DeliveryUpdate(
+                43, DeliveryUpdate.STATUS_CHANGED, "ASSIGNED", delivery("order-1", "IN_TRANSIT", "Anna Schmidt"));
+        when(deliveryService.getChangesSince("b00t", 42, 1000))
+                .thenReturn(new DeliveryChanges("b00t", 43, false, List.of(update)));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/deliveries/changes").param("since", "42").param("epoch", "b00t"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.epoch").value("b00t"))
+                .andExpect(jsonPath("$.version").value(43))
+                .andExpect(jsonPath("$.reset").value(false))
+                .andExpect(jsonPath("$.changes[0].version").value(43))
+                .andExpect(jsonPath("$.changes[0].type").value("STATUS_CHANGED"))
+                .andExpect(jsonPath("$.changes[0].delivery.status").value("IN_TRANSIT"));
+    }
+
+    @Test
+    @DisplayName("Should answer changes from another epoch with a reset")
+    void getChanges_shouldResetForOtherEpoch() throws Exception {
+        // Given
+        when(deliveryService.getChangesSince("f00d", 42, 1000))
+                .thenReturn(new DeliveryChanges("b00t", 7, true, List.of()));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/deliveries/changes").param("since", "42").param("epoch", "f00d"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.epoch").value("b00t"))
+                .andExpect(jsonPath("$.version").value(7))
+                .andExpect(jsonPath("$.reset").value(true))
+                .andExpect(jsonPath("$.changes").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid change requests")
+    void getChanges_shouldRejectInvalidParameters() throws Exception {
+        mockMvc.perform(get("/api/v1/deliveries/changes"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/deliveries/changes").param("since", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/deliveries/changes").param("since", "0").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
 }
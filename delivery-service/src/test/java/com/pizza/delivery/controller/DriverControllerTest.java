@@ -0,0 +1,74 @@
+package com.pizza.delivery.controller;
+
+import com.pizza.delivery.model.DriverInfo;
+import com.pizza.delivery.service.DeliveryService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DriverController.class)
+@DisplayName("DriverController Unit Tests")
+class DriverControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DeliveryService deliveryService;
+
+    @Test
+    @DisplayName("Should return the driver pool with load and availability")
+    void getDrivers_shouldReturnDrivers() throws Exception {
+        // Given
+        when(deliveryService.getDrivers()).thenReturn(List.of(
+                new DriverInfo("Anna Schmidt", "80", 3, 2, true),
+                new DriverInfo("Max Mustermann", null, 3, 0, false)));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/drivers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Anna Schmidt"))
+                .andExpect(jsonPath("$[0].zone").value("80"))
+                .andExpect(jsonPath("$[0].load").value(2))
+                .andExpect(jsonPath("$[1].available").value(false));
+    }
+
+    @Test
+    @DisplayName("Should update driver availability")
+    void setAvailability_shouldUpdateDriver() throws Exception {
+        // Given
+        when(deliveryService.setDriverAvailable("Anna Schmidt", false)).thenReturn(true);
+
+        // When & Then
+        mockMvc.perform(put("/api/v1/drivers/{driverName}/availability", "Anna Schmidt")
+                        .param("available", "false"))
+                .andExpect(status().isNoContent());
+        verify(deliveryService).setDriverAvailable("Anna Schmidt", false);
+    }
+
+    @Test
+    @DisplayName("Should return 404 for unknown drivers")
+    void setAvailability_shouldReturn404ForUnknownDriver() throws Exception {
+        // Given
+        when(deliveryService.setDriverAvailable(anyString(), anyBoolean())).thenReturn(false);
+
+        // When & Then
+        mockMvc.perform(put("/api/v1/drivers/{driverName}/availability", "Unknown")
+                        .param("available", "true"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,85 @@
+package com.pizza.delivery.dedup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BloomFilter Unit Tests")
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Should never miss a key that was put")
+    void mightContain_shouldFindEveryPutKey() {
+        // Given
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+
+        // When
+        for (int i = 0; i < 10000; i++) {
+            filter.put("order-" + i);
+        }
+
+        // Then
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(filter.mightContain("order-" + i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep false positives near the configured probability at capacity")
+    void mightContain_shouldRespectFalsePositiveProbability() {
+        // Given
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.put("order-" + i);
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertTrue(falsePositives < 2000, "false positives: " + falsePositives);
+        assertTrue(filter.isFull());
+        assertEquals(0.5, filter.saturation(), 0.05);
+        assertEquals(0.01, filter.falsePositiveProbability(), 0.005);
+    }
+
+    @Test
+    @DisplayName("Should size bits and hash count for the capacity and probability")
+    void constructor_shouldComputeOptimalSize() {
+        // When
+        BloomFilter filter = new BloomFilter(1000000, 0.001);
+
+        // Then about 14.4 bits and 10 hashes per key
+        assertEquals(14377600, filter.sizeInBits(), 64);
+        assertEquals(10, filter.hashes());
+    }
+
+    @Test
+    @DisplayName("Should forget all keys when cleared")
+    void clear_shouldResetFilter() {
+        // Given
+        BloomFilter filter = new BloomFilter(100, 0.01);
+        filter.put("order-1");
+
+        // When
+        filter.clear();
+
+        // Then
+        assertFalse(filter.mightContain("order-1"));
+        assertEquals(0.0, filter.saturation());
+        assertFalse(filter.isFull());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid parameters")
+    void constructor_shouldRejectInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0));
+    }
+}
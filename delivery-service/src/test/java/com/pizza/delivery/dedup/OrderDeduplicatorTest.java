@@ -0,0 +1,99 @@
+package com.pizza.delivery.dedup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OrderDeduplicator Unit Tests")
+class OrderDeduplicatorTest {
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should report recorded orders as recent and others as new")
+    void check_shouldReportRecentOrders() {
+        // Given
+        OrderDeduplicator deduplicator = new OrderDeduplicator(10, 100, 0.01, meterRegistry);
+        deduplicator.record("order-1");
+
+        // When / Then
+        assertEquals(OrderDeduplicator.Seen.RECENT, deduplicator.check("order-1"));
+        assertEquals(OrderDeduplicator.Seen.NEW, deduplicator.check("order-2"));
+        assertEquals(2.0, meterRegistry.get("delivery.dedup.checked").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should move the oldest orders from the recent set into the filter")
+    void record_shouldEvictOldestIntoFilter() {
+        // Given
+        OrderDeduplicator deduplicator = new OrderDeduplicator(2, 100, 0.01, meterRegistry);
+
+        // When
+        deduplicator.record("order-1");
+        deduplicator.record("order-2");
+        deduplicator.record("order-3");
+
+        // Then
+        assertEquals(2, deduplicator.getRecentSize());
+        assertEquals(OrderDeduplicator.Seen.MAYBE, deduplicator.check("order-1"));
+        assertEquals(OrderDeduplicator.Seen.RECENT, deduplicator.check("order-2"));
+        assertEquals(OrderDeduplicator.Seen.RECENT, deduplicator.check("order-3"));
+        assertTrue(deduplicator.getSaturation() > 0);
+    }
+
+    @Test
+    @DisplayName("Should keep memory fixed by dropping the oldest filter generation")
+    void recordArchived_shouldRotateFilterGenerations() {
+        // Given
+        OrderDeduplicator deduplicator = new OrderDeduplicator(0, 100, 0.001, meterRegistry);
+        for (int i = 0; i < 100; i++) {
+            deduplicator.recordArchived("old-" + i);
+        }
+
+        // When two more generations fill up
+        for (int i = 0; i < 200; i++) {
+            deduplicator.recordArchived("new-" + i);
+        }
+
+        // Then the newest generations are still known and most of the oldest are forgotten
+        for (int i = 100; i < 200; i++) {
+            assertEquals(OrderDeduplicator.Seen.MAYBE, deduplicator.check("new-" + i));
+        }
+        int remembered = 0;
+        for (int i = 0; i < 100; i++) {
+            if (deduplicator.check("old-" + i) != OrderDeduplicator.Seen.NEW) {
+                remembered++;
+            }
+        }
+        assertTrue(remembered < 10, "remembered: " + remembered);
+    }
+
+    @Test
+    @DisplayName("Should count duplicates by source and false positives")
+    void countDuplicate_shouldTagSource() {
+        // Given
+        OrderDeduplicator deduplicator = new OrderDeduplicator(10, 100, 0.01, meterRegistry);
+
+        // When
+        deduplicator.countDuplicate(OrderDeduplicator.Source.RECENT);
+        deduplicator.countDuplicate(OrderDeduplicator.Source.RECENT);
+        deduplicator.countDuplicate(OrderDeduplicator.Source.FILTER);
+        deduplicator.countFalsePositive();
+
+        // Then
+        assertEquals(2.0, meterRegistry.get("delivery.dedup.duplicates").tag("source", "recent").counter().count());
+        assertEquals(1.0, meterRegistry.get("delivery.dedup.duplicates").tag("source", "filter").counter().count());
+        assertEquals(0.0, meterRegistry.get("delivery.dedup.duplicates").tag("source", "store").counter().count());
+        assertEquals(1.0, meterRegistry.get("delivery.dedup.false.positives").counter().count());
+        assertEquals(0.0, meterRegistry.get("delivery.dedup.filter.fpp").gauge().value());
+    }
+}
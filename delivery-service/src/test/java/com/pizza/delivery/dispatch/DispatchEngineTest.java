@@ -0,0 +1,197 @@
+package com.pizza.delivery.dispatch;
+
+import com.pizza.delivery.model.DriverInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DispatchEngine Tests")
+class DispatchEngineTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 16, 12, 0);
+    private static final LocalDateTime DEPARTURE = NOW.plusSeconds(12);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private DispatchEngine engine(String drivers, DispatchPolicy policy) {
+        return new DispatchEngine(drivers, 2, policy, meterRegistry);
+    }
+
+    private double assignments(String match) {
+        return meterRegistry.get("delivery.dispatch.assignments").tag("match", match).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should extract the zone from the postal code of an address")
+    void zoneOf_shouldUsePostalCode() {
+        assertEquals("80", DispatchEngine.zoneOf("Musterstrasse 123, 8000 Zurich"));
+        assertEquals("30", DispatchEngine.zoneOf("Bundesplatz 3, 3005 Bern"));
+        assertNull(DispatchEngine.zoneOf("Address 1"));
+        assertNull(DispatchEngine.zoneOf(null));
+    }
+
+    @Test
+    @DisplayName("Should assign to the least loaded driver")
+    void assign_shouldPickLeastLoadedDriver() {
+        // Given
+        DispatchEngine engine = engine("Anna,Max", DispatchPolicy.LEAST_LOADED);
+
+        // When
+        Assignment first = engine.assign("order-1", null, NOW, DEPARTURE);
+        Assignment second = engine.assign("order-2", null, NOW, DEPARTURE);
+        engine.release(first.getDriverName());
+        Assignment third = engine.assign("order-3", null, NOW, DEPARTURE);
+
+        // Then
+        assertEquals("Anna", first.getDriverName());
+        assertEquals("Max", second.getDriverName());
+        assertEquals("Anna", third.getDriverName());
+        assertEquals(DEPARTURE, third.getDeparture());
+        assertEquals(3.0, assignments("any"));
+    }
+
+    @Test
+    @DisplayName("Should prefer drivers of the order's zone and fall back to any driver")
+    void assign_shouldPreferZoneDrivers() {
+        // Given
+        DispatchEngine engine = engine("Anna:30,Max:80:1", DispatchPolicy.NEAREST_ZONE);
+
+        // When
+        Assignment inZone = engine.assign("order-1", "80", NOW, DEPARTURE);
+        Assignment zoneFull = engine.assign("order-2", "80", NOW, DEPARTURE);
+
+        // Then
+        assertEquals("Max", inZone.getDriverName());
+        assertEquals("Anna", zoneFull.getDriverName());
+        assertEquals(1.0, assignments("zone"));
+        assertEquals(1.0, assignments("any"));
+    }
+
+    @Test
+    @DisplayName("Should batch orders for the same zone onto a trip that has not left yet")
+    void assign_shouldBatchOrdersOntoOpenTrip() {
+        // Given
+        DispatchEngine engine = engine("Anna:80:3,Max:80:3", DispatchPolicy.BATCHING);
+        Assignment first = engine.assign("order-1", "80", NOW, DEPARTURE);
+
+        // When
+        Assignment batched = engine.assign("order-2", "80", NOW.plusSeconds(5), NOW.plusSeconds(20));
+        Assignment afterDeparture = engine.assign("order-3", "80", DEPARTURE, DEPARTURE.plusSeconds(12));
+
+        // Then
+        assertEquals(first.getDriverName(), batched.getDriverName());
+        assertEquals(DEPARTURE, batched.getDeparture());
+        assertNotEquals(first.getDriverName(), afterDeparture.getDriverName());
+        assertEquals(DEPARTURE.plusSeconds(12), afterDeparture.getDeparture());
+        assertEquals(1.0, assignments("batch"));
+    }
+
+    @Test
+    @DisplayName("Should queue orders while all drivers are at capacity and assign them oldest first")
+    void assign_shouldQueueWhenAtCapacity() {
+        // Given
+        DispatchEngine engine = engine("Anna:80:1", DispatchPolicy.BATCHING);
+        engine.assign("order-1", "80", NOW, DEPARTURE);
+
+        // When
+        Assignment queued = engine.assign("order-2", "80", NOW, DEPARTURE);
+        engine.assign("order-3", "80", NOW, DEPARTURE);
+        List<Assignment> stillBusy = engine.assignWaiting(NOW, () -> DEPARTURE);
+        engine.release("Anna");
+        List<Assignment> assigned = engine.assignWaiting(NOW.plusMinutes(1), () -> NOW.plusMinutes(2));
+
+        // Then
+        assertNull(queued);
+        assertTrue(stillBusy.isEmpty());
+        assertEquals(1, assigned.size());
+        assertEquals("order-2", assigned.get(0).getOrderId());
+        assertEquals(NOW.plusMinutes(2), assigned.get(0).getDeparture());
+        assertEquals(1, engine.getWaitingCount());
+        assertEquals(1.0, meterRegistry.get("delivery.dispatch.waiting").gauge().value());
+        assertEquals(1.0, meterRegistry.get("delivery.dispatch.utilization").gauge().value());
+        assertEquals(2, meterRegistry.get("delivery.dispatch.latency").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should skip unavailable drivers but keep their load")
+    void setAvailable_shouldExcludeDriver() {
+        // Given
+        DispatchEngine engine = engine("Anna,Max", DispatchPolicy.LEAST_LOADED);
+        engine.assign("order-1", null, NOW, DEPARTURE);
+
+        // When
+        assertTrue(engine.setAvailable("Anna", false));
+        Assignment assignment = engine.assign("order-2", null, NOW, DEPARTURE);
+
+        // Then
+        assertEquals("Max", assignment.getDriverName());
+        assertFalse(engine.setAvailable("Unknown", false));
+        DriverInfo anna = engine.getDrivers().get(0);
+        assertEquals("Anna", anna.getName());
+        assertEquals(1, anna.getLoad());
+        assertFalse(anna.isAvailable());
+        assertEquals(1.0, meterRegistry.get("delivery.dispatch.driver.load").tag("driver", "Anna").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid driver configurations")
+    void constructor_shouldRejectInvalidDrivers() {
+        assertThrows(IllegalArgumentException.class, () -> engine("Anna,Anna", DispatchPolicy.BATCHING));
+        assertThrows(IllegalArgumentException.class, () -> engine("Anna:80:0", DispatchPolicy.BATCHING));
+        assertThrows(IllegalArgumentException.class, () -> engine("Anna:80:1:2", DispatchPolicy.BATCHING));
+        assertThrows(IllegalArgumentException.class, () -> engine(" , ", DispatchPolicy.BATCHING));
+    }
+
+    @Test
+    @DisplayName("Should restore driver load and queue waiting orders after a restart")
+    void restore_shouldRebuildLoadAndQueue() {
+        // Given
+        DispatchEngine engine = engine("Anna::1", DispatchPolicy.BATCHING);
+
+        // When
+        engine.restore("Anna");
+        engine.restore("Unknown");
+        engine.requeue("order-2", "80");
+
+        // Then
+        assertEquals(1, engine.getDrivers().get(0).getLoad());
+        assertEquals(1, engine.getWaitingCount());
+        assertTrue(engine.assignWaiting(NOW, () -> DEPARTURE).isEmpty());
+        engine.release("Anna");
+        assertEquals("order-2", engine.assignWaiting(NOW, () -> DEPARTURE).get(0).getOrderId());
+    }
+
+    @Test
+    @DisplayName("Should assign a batch in order and leave orders without a driver unqueued")
+    void assignAll_shouldAssignBatchInOnePass() {
+        // Given
+        DispatchEngine engine = engine("Anna:80:2,Tom:30:1", DispatchPolicy.BATCHING);
+
+        // When
+        List<Assignment> assignments = engine.assignAll(List.of("order-1", "order-2", "order-3", "order-4"),
+                List.of("80", "80", "30", "30"), NOW,
+                List.of(DEPARTURE, DEPARTURE.plusSeconds(5), DEPARTURE, DEPARTURE));
+
+        // Then
+        assertEquals(4, assignments.size());
+        assertEquals("Anna", assignments.get(0).getDriverName());
+        // Batched onto Anna's open trip, leaving with the first order
+        assertEquals("Anna", assignments.get(1).getDriverName());
+        assertEquals(DEPARTURE, assignments.get(1).getDeparture());
+        assertEquals("Tom", assignments.get(2).getDriverName());
+        assertNull(assignments.get(3));
+        assertEquals(0, engine.getWaitingCount());
+        assertEquals(3, meterRegistry.get("delivery.dispatch.latency").timer().count());
+    }
+}
@@ -0,0 +1,195 @@
+package com.pizza.delivery.kpi;
+
+import com.pizza.delivery.model.DeliveryUpdate;
+import com.pizza.delivery.model.DurationSummary;
+import com.pizza.delivery.model.LatencyBreakdown;
+import com.pizza.models.DeliveryStatus;
+import com.pizza.models.OrderReadyEvent;
+import com.pizza.models.time.VirtualClock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DeliveryKpis Unit Tests")
+class DeliveryKpisTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 16, 10, 0);
+
+    private VirtualClock clock;
+    private MeterRegistry meterRegistry;
+    private AtomicLong nanoTime;
+    private DeliveryKpis kpis;
+
+    @BeforeEach
+    void setUp() {
+        clock = new VirtualClock(START);
+        meterRegistry = new SimpleMeterRegistry();
+        nanoTime = new AtomicLong();
+        kpis = new DeliveryKpis(clock, meterRegistry, nanoTime::get);
+    }
+
+    private static DeliveryStatus delivery(String orderId, String status, LocalDateTime assignedAt,
+            LocalDateTime inTransitAt, LocalDateTime deliveredAt) {
+        return new DeliveryStatus(orderId, status, "Anna Schmidt", "Address", assignedAt,
+                assignedAt.plusMinutes(30), deliveredAt, inTransitAt, null, null);
+    }
+
+    private static OrderReadyEvent ready(String orderId, LocalDateTime readyAt) {
+        return new OrderReadyEvent(orderId, "Margherita", 1, "Address", "Customer", readyAt);
+    }
+
+    private void deliver(String orderId, LocalDateTime readyAt, int transitSeconds, int deliverySeconds) {
+        deliver(ready(orderId, readyAt), transitSeconds, deliverySeconds);
+    }
+
+    private void deliver(OrderReadyEvent event, int transitSeconds, int deliverySeconds) {
+        String orderId = event.getOrderId();
+        kpis.orderReady(event, clock.now());
+        LocalDateTime assignedAt = clock.now();
+        kpis.onDeliveryUpdated(new DeliveryUpdate(0, DeliveryUpdate.CREATED, null,
+                delivery(orderId, "ASSIGNED", assignedAt, null, null)));
+        clock.advance(Duration.ofSeconds(transitSeconds));
+        LocalDateTime inTransitAt = clock.now();
+        kpis.onDeliveryUpdated(new DeliveryUpdate(1, DeliveryUpdate.STATUS_CHANGED, "ASSIGNED",
+                delivery(orderId, "IN_TRANSIT", assignedAt, inTransitAt, null)));
+        clock.advance(Duration.ofSeconds(deliverySeconds));
+        kpis.onDeliveryUpdated(new DeliveryUpdate(2, DeliveryUpdate.STATUS_CHANGED, "IN_TRANSIT",
+                delivery(orderId, "DELIVERED", assignedAt, inTransitAt, clock.now())));
+    }
+
+    @Test
+    @DisplayName("Should record the duration of every phase")
+    void onDeliveryUpdated_shouldRecordPhases() {
+        // Given an order ready 5 s before assignment, 10 s to leave and 20 s on the road
+        deliver("order-1", START.minusSeconds(5), 10, 20);
+
+        // When
+        Map<String, Map<String, DurationSummary>> summaries = kpis.getSummaries();
+
+        // Then
+        DurationSummary transit = summaries.get("assigned-to-in-transit").get("1m");
+        assertEquals(1, transit.getCount());
+        assertEquals(10.0, transit.getMaxSeconds(), 0.001);
+        assertEquals(10.0, transit.getP50Seconds(), 10 * 0.04);
+        assertEquals(20.0, summaries.get("in-transit-to-delivered").get("15m").getMaxSeconds(), 0.001);
+        assertEquals(35.0, summaries.get("ready-to-delivered").get("1h").getMeanSeconds(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should break the time from placing to delivering an order down into its stages")
+    void getBreakdown_shouldRecordEveryStage() {
+        // Given an order paid in 1 s, queued 1 s, prepared in 8 s and queued 2 s before delivery
+        OrderReadyEvent event = new OrderReadyEvent("order-1", "Margherita", 1, "Address", "Customer",
+                START.minusSeconds(2), START.minusSeconds(12), START.minusSeconds(11), START.minusSeconds(11),
+                START.minusSeconds(10), START.minusSeconds(2));
+        deliver(event, 10, 20);
+
+        // When
+        LatencyBreakdown breakdown = kpis.getBreakdown(DeliveryKpis.Window.FIFTEEN_MINUTES);
+
+        // Then the stages come in order and the order took 42 s from placing to delivery
+        assertEquals("15m", breakdown.getWindow());
+        assertEquals(List.of("payment", "order-placed-queue", "preparation", "order-ready-queue",
+                "waiting-for-driver", "assigned-to-in-transit", "in-transit-to-delivered"),
+                new ArrayList<>(breakdown.getStages().keySet()));
+        assertEquals(1.0, breakdown.getStages().get("payment").getMaxSeconds(), 0.001);
+        assertEquals(1.0, breakdown.getStages().get("order-placed-queue").getMaxSeconds(), 0.001);
+        assertEquals(8.0, breakdown.getStages().get("preparation").getMaxSeconds(), 0.001);
+        assertEquals(2.0, breakdown.getStages().get("order-ready-queue").getMaxSeconds(), 0.001);
+        assertEquals(1, breakdown.getStages().get("waiting-for-driver").getCount());
+        assertEquals(0.0, breakdown.getStages().get("waiting-for-driver").getMaxSeconds(), 0.001);
+        assertEquals(1, breakdown.getEndToEnd().getCount());
+        assertEquals(42.0, breakdown.getEndToEnd().getMaxSeconds(), 0.001);
+        assertEquals(2.0, meterRegistry.get("order.queue.wait").tag("queue", "order.ready").timer()
+                .totalTime(TimeUnit.SECONDS), 0.001);
+        assertThrows(IllegalArgumentException.class, () -> DeliveryKpis.Window.ofTag("2h"));
+    }
+
+    @Test
+    @DisplayName("Should let durations age out of the shorter windows first")
+    void getSummary_shouldRollWindows() {
+        // Given
+        deliver("order-1", START, 10, 20);
+
+        // When five minutes pass
+        clock.advance(Duration.ofMinutes(5));
+
+        // Then the minute window is empty, the longer ones still count the delivery
+        assertEquals(0, kpis.getSummary(DeliveryKpis.Phase.IN_TRANSIT_TO_DELIVERED,
+                DeliveryKpis.Window.ONE_MINUTE).getCount());
+        assertEquals(1, kpis.getSummary(DeliveryKpis.Phase.IN_TRANSIT_TO_DELIVERED,
+                DeliveryKpis.Window.FIFTEEN_MINUTES).getCount());
+        assertEquals(1, kpis.getSummary(DeliveryKpis.Phase.IN_TRANSIT_TO_DELIVERED,
+                DeliveryKpis.Window.ONE_HOUR).getCount());
+    }
+
+    @Test
+    @DisplayName("Should skip ready-to-delivered for deliveries without a known ready time")
+    void onDeliveryUpdated_shouldSkipUnknownReadyTime() {
+        // Given a recovered delivery and an archived one whose ready time is forgotten
+        deliver("recovered", null, 10, 20);
+        kpis.orderReady(ready("archived", START), START);
+        kpis.onDeliveryUpdated(new DeliveryUpdate(3, DeliveryUpdate.ARCHIVED, "DELIVERED",
+                delivery("archived", "DELIVERED", START, START, START)));
+
+        // When
+        DurationSummary ready = kpis.getSummary(DeliveryKpis.Phase.READY_TO_DELIVERED,
+                DeliveryKpis.Window.ONE_HOUR);
+
+        // Then
+        assertEquals(0, ready.getCount());
+        assertEquals(0.0, meterRegistry.get("delivery.kpi.awaiting.delivery").gauge().value());
+        assertEquals(1, kpis.getSummary(DeliveryKpis.Phase.IN_TRANSIT_TO_DELIVERED,
+                DeliveryKpis.Window.ONE_HOUR).getCount());
+    }
+
+    @Test
+    @DisplayName("Should export percentiles and counts as gauges in seconds")
+    void constructor_shouldRegisterGauges() {
+        // Given
+        deliver("order-1", START, 10, 20);
+
+        // Then
+        assertEquals(20.0, meterRegistry.get("delivery.kpi.duration")
+                .tags("phase", "in-transit-to-delivered", "window", "1m", "quantile", "0.99")
+                .gauge().value(), 20 * 0.04);
+        assertEquals(1.0, meterRegistry.get("delivery.kpi.duration.count")
+                .tags("phase", "assigned-to-in-transit", "window", "15m")
+                .gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should serve the gauges of one scrape from the same summaries")
+    void gauges_shouldReuseSummariesWithinScrape() {
+        // Given
+        deliver("order-1", START, 10, 20);
+        assertEquals(1.0, meterRegistry.get("delivery.kpi.duration.count")
+                .tags("phase", "in-transit-to-delivered", "window", "1m").gauge().value());
+
+        // When
+        deliver("order-2", START, 10, 40);
+        double sameScrape = meterRegistry.get("delivery.kpi.duration.count")
+                .tags("phase", "in-transit-to-delivered", "window", "1h").gauge().value();
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(DeliveryKpis.SCRAPE_REUSE_MILLIS));
+        double nextScrape = meterRegistry.get("delivery.kpi.duration.count")
+                .tags("phase", "in-transit-to-delivered", "window", "1h").gauge().value();
+
+        // Then
+        assertEquals(1.0, sameScrape);
+        assertEquals(2.0, nextScrape);
+        assertEquals(2, kpis.getSummary(DeliveryKpis.Phase.IN_TRANSIT_TO_DELIVERED,
+                DeliveryKpis.Window.ONE_HOUR).getCount());
+    }
+}
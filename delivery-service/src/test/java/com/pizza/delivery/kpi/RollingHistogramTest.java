@@ -0,0 +1,88 @@
+package com.pizza.delivery.kpi;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RollingHistogram Unit Tests")
+class RollingHistogramTest {
+
+    @Test
+    @DisplayName("Should report percentiles within the bin precision")
+    void snapshot_shouldReportPercentiles() {
+        // Given the values 1..1000 ms recorded in one window
+        RollingHistogram histogram = new RollingHistogram(Duration.ofMinutes(1), 12);
+        for (int value = 1; value <= 1000; value++) {
+            histogram.record(value, 0);
+        }
+
+        // When
+        RollingHistogram.Snapshot snapshot = histogram.snapshot(0);
+
+        // Then
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(500.5, snapshot.getMean(), 0.001);
+        assertEquals(1000, snapshot.getMax());
+        assertEquals(500, snapshot.percentile(0.5), 500 * 0.04);
+        assertEquals(950, snapshot.percentile(0.95), 950 * 0.04);
+        assertEquals(990, snapshot.percentile(0.99), 990 * 0.04);
+        assertTrue(snapshot.percentile(1.0) <= 1000);
+    }
+
+    @Test
+    @DisplayName("Should drop values once their slot leaves the window")
+    void snapshot_shouldExpireOldSlots() {
+        // Given one value per 5-second slot over a minute
+        RollingHistogram histogram = new RollingHistogram(Duration.ofMinutes(1), 12);
+        for (int slot = 0; slot < 12; slot++) {
+            histogram.record(100, slot * 5000L);
+        }
+        assertEquals(12, histogram.snapshot(59_999).getCount());
+
+        // When the window moves on by three slots without new values
+        RollingHistogram.Snapshot snapshot = histogram.snapshot(74_999);
+
+        // Then the three oldest values are gone
+        assertEquals(9, snapshot.getCount());
+        assertEquals(0, histogram.snapshot(200_000).getCount());
+        assertEquals(0, histogram.snapshot(200_000).percentile(0.5));
+    }
+
+    @Test
+    @DisplayName("Should reuse a slot for a later period and ignore values of earlier ones")
+    void record_shouldResetReusedSlots() {
+        // Given a value in the first slot
+        RollingHistogram histogram = new RollingHistogram(Duration.ofMinutes(1), 12);
+        histogram.record(100, 0);
+
+        // When the same slot is reached a window later and a late value for the first period arrives
+        histogram.record(200, 60_000);
+        histogram.record(300, 1000);
+
+        // Then only the newer value is counted
+        RollingHistogram.Snapshot snapshot = histogram.snapshot(60_000);
+        assertEquals(1, snapshot.getCount());
+        assertEquals(200, snapshot.getMax());
+    }
+
+    @Test
+    @DisplayName("Should map every value into a bin whose value lies within 1/16 of it")
+    void bin_shouldBeLogLinear() {
+        for (long value : new long[]{0, 1, 15, 16, 17, 31, 32, 100, 1000, 12_345, 3_600_000, 1L << 39}) {
+            long binValue = RollingHistogram.binValue(RollingHistogram.bin(value));
+            assertTrue(Math.abs(binValue - value) <= value / 16, value + " -> " + binValue);
+        }
+        assertEquals(RollingHistogram.BINS - 1, RollingHistogram.bin((1L << 40) - 1));
+        assertTrue(RollingHistogram.bin(1001) >= RollingHistogram.bin(1000));
+    }
+
+    @Test
+    @DisplayName("Should reject windows shorter than their slot count")
+    void constructor_shouldRejectInvalidSlots() {
+        assertThrows(IllegalArgumentException.class, () -> new RollingHistogram(Duration.ofMinutes(1), 0));
+        assertThrows(IllegalArgumentException.class, () -> new RollingHistogram(Duration.ofMillis(5), 12));
+    }
+}
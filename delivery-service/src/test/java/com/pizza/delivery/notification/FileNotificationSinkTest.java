@@ -0,0 +1,49 @@
+package com.pizza.delivery.notification;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FileNotificationSink Unit Tests")
+class FileNotificationSinkTest {
+
+    @TempDir
+    Path dir;
+
+    private static CustomerNotification notification(String orderId, String driverName) {
+        return new CustomerNotification(orderId, "Max Mustermann", "Margherita", 2,
+                "Musterstrasse 123, 8000 Zurich", driverName, LocalDateTime.of(2026, 1, 16, 10, 30));
+    }
+
+    @Test
+    @DisplayName("Should append one line per notification and keep earlier lines across restarts")
+    void send_shouldAppendLines() throws IOException {
+        // Given
+        Path file = dir.resolve("out").resolve("notifications.log");
+        FileNotificationSink sink = new FileNotificationSink(file.toString());
+        sink.send(List.of(notification("order-1", "Anna Schmidt"), notification("order-2", null)));
+        sink.close();
+
+        // When
+        FileNotificationSink restarted = new FileNotificationSink(file.toString());
+        restarted.send(List.of(notification("order-3", "Tom Fischer")));
+        restarted.close();
+
+        // Then
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+        assertEquals("order-1\tDear Max Mustermann, your order order-1 (2 x Margherita) is on its way to "
+                + "Musterstrasse 123, 8000 Zurich. Driver: Anna Schmidt. Estimated delivery: 2026-01-16T10:30",
+                lines.get(0));
+        assertTrue(lines.get(1).contains("Driver: to be assigned."));
+        assertTrue(lines.get(2).startsWith("order-3\t"));
+    }
+}
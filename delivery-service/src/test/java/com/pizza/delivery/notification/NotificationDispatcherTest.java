@@ -0,0 +1,168 @@
+package com.pizza.delivery.notification;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("NotificationDispatcher Unit Tests")
+class NotificationDispatcherTest {
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private static CustomerNotification notification(int i) {
+        return new CustomerNotification("order-" + i, "Customer " + i, "Margherita", 1, "Address " + i,
+                "Anna Schmidt", LocalDateTime.of(2026, 1, 16, 10, 30));
+    }
+
+    @Test
+    @DisplayName("Should deliver every notification to every sink in order")
+    void enqueue_shouldDeliverToAllSinksInOrder() {
+        // Given
+        RecordingSink first = new RecordingSink("first");
+        RecordingSink second = new RecordingSink("second");
+        NotificationDispatcher dispatcher = new NotificationDispatcher(List.of(first, second), 1000, 16,
+                meterRegistry);
+        dispatcher.start();
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            assertTrue(dispatcher.enqueue(notification(i)));
+        }
+        dispatcher.close();
+
+        // Then
+        assertEquals(100, first.received.size());
+        assertEquals(first.received, second.received);
+        for (int i = 0; i < 100; i++) {
+            assertEquals("order-" + i, first.received.get(i).getOrderId());
+        }
+        assertTrue(first.batches.stream().allMatch(size -> size <= 16));
+        assertEquals(100.0, meterRegistry.get("delivery.notifications.sent").tag("sink", "first").counter().count());
+        assertEquals(0, dispatcher.getQueued());
+    }
+
+    @Test
+    @DisplayName("Should batch notifications that queued up while a sink was busy")
+    void enqueue_shouldBatchWhileSinkIsBusy() throws InterruptedException {
+        // Given a sink that blocks on its first batch
+        CountDownLatch firstBatch = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink("slow") {
+            @Override
+            public void send(List<CustomerNotification> batch) {
+                firstBatch.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(batch);
+            }
+        };
+        NotificationDispatcher dispatcher = new NotificationDispatcher(List.of(sink), 1000, 256, meterRegistry);
+        dispatcher.start();
+        dispatcher.enqueue(notification(0));
+        assertTrue(firstBatch.await(5, TimeUnit.SECONDS));
+
+        // When
+        for (int i = 1; i <= 50; i++) {
+            dispatcher.enqueue(notification(i));
+        }
+        release.countDown();
+        dispatcher.close();
+
+        // Then
+        assertEquals(List.of(1, 50), sink.batches);
+        assertEquals(2, meterRegistry.get("delivery.notifications.batch.size").summary().count());
+    }
+
+    @Test
+    @DisplayName("Should drop and count notifications when the queue is full instead of blocking")
+    void enqueue_shouldDropWhenFull() {
+        // Given a dispatcher that is not running
+        NotificationDispatcher dispatcher = new NotificationDispatcher(List.of(), 2, 16, meterRegistry);
+
+        // When
+        boolean first = dispatcher.enqueue(notification(1));
+        boolean second = dispatcher.enqueue(notification(2));
+        boolean third = dispatcher.enqueue(notification(3));
+
+        // Then
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertEquals(2, dispatcher.getQueued());
+        assertEquals(1.0, meterRegistry.get("delivery.notifications.dropped").counter().count());
+        assertEquals(2.0, meterRegistry.get("delivery.notifications.queued").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should keep delivering to healthy sinks when one sink fails")
+    void deliver_shouldIsolateFailingSink() {
+        // Given
+        NotificationSink failing = new NotificationSink() {
+            @Override
+            public String getName() {
+                return "failing";
+            }
+
+            @Override
+            public void send(List<CustomerNotification> batch) throws IOException {
+                throw new IOException("unreachable");
+            }
+        };
+        RecordingSink healthy = new RecordingSink("healthy");
+        NotificationDispatcher dispatcher = new NotificationDispatcher(List.of(failing, healthy), 1000, 16,
+                meterRegistry);
+        dispatcher.start();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            dispatcher.enqueue(notification(i));
+        }
+        dispatcher.close();
+
+        // Then
+        assertEquals(10, healthy.received.size());
+        assertEquals(10.0, meterRegistry.get("delivery.notifications.failed").tag("sink", "failing").counter().count());
+        assertEquals(10.0, meterRegistry.get("delivery.notifications.sent").tag("sink", "healthy").counter().count());
+    }
+
+    private static class RecordingSink implements NotificationSink {
+        private final String name;
+        final List<CustomerNotification> received = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> batches = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingSink(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void send(List<CustomerNotification> batch) {
+            batches.add(batch.size());
+            received.addAll(batch);
+        }
+    }
+}
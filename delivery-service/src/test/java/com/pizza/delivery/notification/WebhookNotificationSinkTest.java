@@ -0,0 +1,74 @@
+package com.pizza.delivery.notification;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WebhookNotificationSink Unit Tests")
+class WebhookNotificationSinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicReference<byte[]> body = new AtomicReference<>();
+    private final AtomicInteger status = new AtomicInteger(204);
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/notify", exchange -> {
+            body.set(exchange.getRequestBody().readAllBytes());
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private WebhookNotificationSink sink() {
+        return new WebhookNotificationSink("http://127.0.0.1:" + server.getAddress().getPort() + "/notify",
+                2000, objectMapper);
+    }
+
+    @Test
+    @DisplayName("Should post the batch as a JSON array")
+    void send_shouldPostBatchAsJson() throws IOException {
+        // When
+        sink().send(List.of(
+                new CustomerNotification("order-1", "Customer 1", "Margherita", 1, "Address 1", "Anna Schmidt", null),
+                new CustomerNotification("order-2", "Customer 2", "Hawaii", 3, "Address 2", null, null)));
+
+        // Then
+        JsonNode json = objectMapper.readTree(body.get());
+        assertEquals(2, json.size());
+        assertEquals("order-1", json.get(0).get("orderId").asText());
+        assertEquals("Anna Schmidt", json.get(0).get("driverName").asText());
+        assertEquals(3, json.get(1).get("quantity").asInt());
+    }
+
+    @Test
+    @DisplayName("Should fail when the webhook does not answer with 2xx")
+    void send_shouldFailOnErrorStatus() {
+        // Given
+        status.set(503);
+
+        // When / Then
+        assertThrows(IOException.class, () -> sink().send(List.of(
+                new CustomerNotification("order-1", "Customer 1", "Margherita", 1, "Address 1", null, null))));
+    }
+}
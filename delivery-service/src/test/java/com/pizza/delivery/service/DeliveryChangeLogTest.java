@@ -0,0 +1,190 @@
+package com.pizza.delivery.service;
+
+import com.pizza.delivery.model.DeliveryChanges;
+import com.pizza.delivery.model.DeliveryUpdate;
+import com.pizza.models.DeliveryStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DeliveryChangeLog Tests")
+class DeliveryChangeLogTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DeliveryChangeLog changeLog;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        changeLog = new DeliveryChangeLog(3, meterRegistry);
+    }
+
+    private DeliveryUpdate update(long version, String orderId) {
+        DeliveryStatus delivery = new DeliveryStatus();
+        delivery.setOrderId(orderId);
+        delivery.setStatus("ASSIGNED");
+        return new DeliveryUpdate(version, DeliveryUpdate.CREATED, null, delivery);
+    }
+
+    private List<Long> versions(DeliveryChanges changes) {
+        return changes.getChanges().stream().map(DeliveryUpdate::getVersion).toList();
+    }
+
+    @Test
+    @DisplayName("Should only expose the contiguous prefix of out-of-order commits")
+    void commit_shouldWaitForEarlierVersions() {
+        // Given
+        List<Long> notified = new ArrayList<>();
+        changeLog.addListener(update -> notified.add(update.getVersion()));
+        long first = changeLog.nextVersion();
+        long second = changeLog.nextVersion();
+
+        // When
+        changeLog.commit(second, update(second, "order-2"));
+
+        // Then
+        assertEquals(0, changeLog.getVersion());
+        assertTrue(changeLog.changesSince(changeLog.getEpoch(), 0, 10).getChanges().isEmpty());
+        assertTrue(notified.isEmpty());
+
+        // When
+        changeLog.commit(first, update(first, "order-1"));
+
+        // Then
+        assertEquals(2, changeLog.getVersion());
+        assertEquals(List.of(1L, 2L), versions(changeLog.changesSince(changeLog.getEpoch(), 0, 10)));
+        assertEquals(List.of(1L, 2L), notified);
+        assertEquals(2.0, meterRegistry.get("delivery.changes.version").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should skip released versions")
+    void commit_shouldSkipReleasedVersions() {
+        // Given
+        long released = changeLog.nextVersion();
+        long used = changeLog.nextVersion();
+
+        // When
+        changeLog.commit(used, update(used, "order-1"));
+        changeLog.commit(released, null);
+
+        // Then
+        DeliveryChanges changes = changeLog.changesSince(changeLog.getEpoch(), 0, 10);
+        assertEquals(2, changes.getVersion());
+        assertEquals(List.of(2L), versions(changes));
+    }
+
+    @Test
+    @DisplayName("Should cap changes at the limit and continue from the last returned version")
+    void changesSince_shouldRespectLimit() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            long version = changeLog.nextVersion();
+            changeLog.commit(version, update(version, "order-" + version));
+        }
+
+        // When
+        DeliveryChanges first = changeLog.changesSince(changeLog.getEpoch(), 0, 2);
+        DeliveryChanges rest = changeLog.changesSince(changeLog.getEpoch(), first.getVersion(), 2);
+
+        // Then
+        assertEquals(List.of(1L, 2L), versions(first));
+        assertEquals(2, first.getVersion());
+        assertEquals(List.of(3L), versions(rest));
+        assertEquals(3, rest.getVersion());
+        assertTrue(changeLog.changesSince(changeLog.getEpoch(), 3, 2).getChanges().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should ask for a reset once changes were evicted")
+    void changesSince_shouldResetAfterEviction() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            long version = changeLog.nextVersion();
+            changeLog.commit(version, update(version, "order-" + version));
+        }
+
+        // When
+        DeliveryChanges evicted = changeLog.changesSince(changeLog.getEpoch(), 1, 10);
+        DeliveryChanges retained = changeLog.changesSince(changeLog.getEpoch(), 2, 10);
+
+        // Then
+        assertTrue(evicted.isReset());
+        assertEquals(5, evicted.getVersion());
+        assertTrue(evicted.getChanges().isEmpty());
+        assertFalse(retained.isReset());
+        assertEquals(List.of(3L, 4L, 5L), versions(retained));
+    }
+
+    @Test
+    @DisplayName("Should ask for a reset for versions from before a restart")
+    void changesSince_shouldResetForFutureVersion() {
+        // When
+        DeliveryChanges changes = changeLog.changesSince(changeLog.getEpoch(), 42, 10);
+
+        // Then
+        assertTrue(changes.isReset());
+        assertEquals(0, changes.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should ask for a reset for versions from another epoch even if they are covered")
+    void changesSince_shouldResetForOtherEpoch() {
+        // Given
+        for (int i = 0; i < 2; i++) {
+            long version = changeLog.nextVersion();
+            changeLog.commit(version, update(version, "order-" + version));
+        }
+
+        // When
+        DeliveryChanges otherEpoch = changeLog.changesSince("before-restart", 1, 10);
+        DeliveryChanges sameEpoch = changeLog.changesSince(changeLog.getEpoch(), 1, 10);
+        DeliveryChanges withoutEpoch = changeLog.changesSince(null, 1, 10);
+
+        // Then
+        assertTrue(otherEpoch.isReset());
+        assertEquals(2, otherEpoch.getVersion());
+        assertTrue(otherEpoch.getChanges().isEmpty());
+        assertEquals(changeLog.getEpoch(), otherEpoch.getEpoch());
+        assertFalse(sameEpoch.isReset());
+        assertEquals(List.of(2L), versions(sameEpoch));
+        assertEquals(changeLog.getEpoch(), sameEpoch.getEpoch());
+        assertEquals(List.of(2L), versions(withoutEpoch));
+    }
+
+    @Test
+    @DisplayName("Should continue numbering after the recovered version and reset older clients")
+    void recover_shouldContinueAfterRecoveredVersion() {
+        // When
+        changeLog.recover(41);
+        long version = changeLog.nextVersion();
+        changeLog.commit(version, update(version, "order-1"));
+
+        // Then
+        assertEquals(42, version);
+        assertEquals(41, changeLog.getRecoveredVersion());
+        assertTrue(changeLog.changesSince(changeLog.getEpoch(), 40, 10).isReset());
+        assertEquals(List.of(42L), versions(changeLog.changesSince(changeLog.getEpoch(), 41, 10)));
+    }
+
+    @Test
+    @DisplayName("Should number each start in its own epoch")
+    void getEpoch_shouldDifferBetweenStarts() {
+        // Given
+        DeliveryChangeLog restarted = new DeliveryChangeLog(3, meterRegistry);
+
+        // When
+        restarted.recover(changeLog.getVersion());
+
+        // Then
+        assertEquals(changeLog.getVersion(), restarted.getVersion());
+        assertNotEquals(changeLog.getEpoch(), restarted.getEpoch());
+        assertEquals(8, changeLog.getEpoch().length());
+    }
+}
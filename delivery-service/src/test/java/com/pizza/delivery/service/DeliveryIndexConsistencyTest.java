@@ -0,0 +1,144 @@
+package com.pizza.delivery.service;
+
+import com.pizza.delivery.dedup.OrderDeduplicator;
+import com.pizza.delivery.dispatch.DispatchEngine;
+import com.pizza.delivery.dispatch.DispatchPolicy;
+import com.pizza.delivery.notification.NotificationDispatcher;
+import com.pizza.delivery.store.ColumnarDeliveryStore;
+import com.pizza.delivery.store.DeliveryArchive;
+import com.pizza.delivery.store.DeliveryJournal;
+import com.pizza.delivery.store.DeliveryStore;
+import com.pizza.delivery.store.HeapDeliveryStore;
+import com.pizza.models.DeliveryStatus;
+import com.pizza.models.OrderReadyEvent;
+import com.pizza.models.time.SimulationClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DeliveryIndex Consistency Stress Test")
+class DeliveryIndexConsistencyTest {
+
+    private static final String[] STATUSES = {"PENDING", "ASSIGNED", "IN_TRANSIT", "DELIVERED"};
+    private static final String[] DRIVERS = {
+            "Max Mustermann", "Anna Schmidt", "Peter Mueller", "Lisa Weber", "Tom Fischer"
+    };
+    private static final int ORDER_COUNT = 2_000;
+    private static final int PRODUCERS = 4;
+    private static final int UPDATERS = 2;
+    private static final int EVENTS_PER_PRODUCER = 5_000;
+    private static final int UPDATES_PER_UPDATER = 200;
+
+    @TempDir
+    Path archiveDir;
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    @DisplayName("Indexes should match the delivery map after concurrent creates, redeliveries and transitions")
+    void indexesShouldStayConsistentUnderConcurrentUpdates() throws Exception {
+        assertIndexesStayConsistent(new HeapDeliveryStore());
+    }
+
+    @Test
+    @DisplayName("Indexes should match the columnar store after concurrent creates, redeliveries and transitions")
+    void indexesShouldStayConsistentWithColumnarStore() throws Exception {
+        assertIndexesStayConsistent(new ColumnarDeliveryStore(new SimpleMeterRegistry()));
+    }
+
+    private void assertIndexesStayConsistent(DeliveryStore store) throws Exception {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DeliveryArchive archive = new DeliveryArchive(archiveDir.toString(), 4, 32, registry);
+        DeliveryJournal journal = new DeliveryJournal(journalDir.toString(), 5, registry);
+        DeliveryService deliveryService = new DeliveryService(store, archive, new DeliveryChangeLog(1000, registry),
+                new DispatchEngine(DispatchEngine.DEFAULT_DRIVERS, 3, DispatchPolicy.BATCHING, registry), journal,
+                new NotificationDispatcher(List.of(), 1000, 256, registry),
+                new OrderDeduplicator(1000, 10000, 0.01, registry), SimulationClock.system(), registry);
+        ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS + UPDATERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int p = 0; p < PRODUCERS; p++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < EVENTS_PER_PRODUCER; i++) {
+                    // Random IDs from a small range so redeliveries race with transitions
+                    String orderId = "order-" + ThreadLocalRandom.current().nextInt(ORDER_COUNT);
+                    deliveryService.handleOrderReady(new OrderReadyEvent(
+                            orderId, "Margherita", 1, "Address", "Customer", LocalDateTime.now()));
+                }
+                return null;
+            }));
+        }
+        for (int u = 0; u < UPDATERS; u++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < UPDATES_PER_UPDATER; i++) {
+                    deliveryService.updateDeliveryStatuses(LocalDateTime.now().plusHours(i + 1));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        Map<String, DeliveryStatus> deliveries = deliveryService.getAllDeliveries();
+        DeliveryIndex index = (DeliveryIndex) ReflectionTestUtils.getField(deliveryService, "index");
+        assertNotNull(index);
+
+        assertEquals(deliveries.keySet(), new HashSet<>(index.all()));
+
+        Set<String> seen = new HashSet<>();
+        for (String status : STATUSES) {
+            for (String orderId : index.withStatus(status)) {
+                assertTrue(seen.add(orderId), "Order " + orderId + " is indexed under more than one status");
+                assertEquals(status, deliveries.get(orderId).getStatus(), "Stale status index for " + orderId);
+            }
+            assertEquals(index.withStatus(status).size(), index.countWithStatus(status), "Count of " + status);
+        }
+        assertEquals(deliveries.keySet(), seen);
+
+        Set<String> byDriver = new HashSet<>();
+        for (String driver : DRIVERS) {
+            for (String orderId : index.withDriver(driver)) {
+                assertTrue(byDriver.add(orderId), "Order " + orderId + " is indexed under more than one driver");
+                assertEquals(driver, deliveries.get(orderId).getDriverName(), "Stale driver index for " + orderId);
+            }
+            assertEquals(index.withDriver(driver).size(), index.countWithDriver(driver), "Count of " + driver);
+        }
+        // Waiting orders have no driver yet
+        Set<String> withDriver = new HashSet<>();
+        deliveries.forEach((orderId, delivery) -> {
+            if (delivery.getDriverName() != null) {
+                withDriver.add(orderId);
+            }
+        });
+        assertEquals(withDriver, byDriver);
+        journal.close();
+        archive.close();
+    }
+}
@@ -1,12 +1,36 @@
 package com.pizza.delivery.service;
 
+import com.pizza.delivery.dedup.OrderDeduplicator;
+import com.pizza.delivery.dispatch.DispatchEngine;
+import com.pizza.delivery.dispatch.DispatchPolicy;
+import com.pizza.delivery.model.DeliveryChanges;
+import com.pizza.delivery.model.DeliveryStats;
+import com.pizza.delivery.model.DeliveryUpdate;
+import com.pizza.delivery.model.DriverInfo;
+import com.pizza.delivery.model.DurationSummary;
+import com.pizza.delivery.notification.CustomerNotification;
+import com.pizza.delivery.notification.NotificationDispatcher;
+import com.pizza.delivery.notification.NotificationSink;
+import com.pizza.delivery.store.DeliveryArchive;
+import com.pizza.delivery.store.DeliveryJournal;
+import com.pizza.delivery.store.HeapDeliveryStore;
 import com.pizza.models.DeliveryStatus;
 import com.pizza.models.OrderReadyEvent;
+import com.pizza.models.time.SimulationClock;
+import com.pizza.models.time.VirtualClock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -14,11 +38,50 @@ import static org.junit.jupiter.api.Assertions.*;
 @DisplayName("DeliveryService Unit Tests")
 class DeliveryServiceTest {
 
+    @TempDir
+    Path archiveDir;
+
+    @TempDir
+    Path journalDir;
+
+    private MeterRegistry meterRegistry;
+    private DeliveryArchive archive;
+    private DeliveryChangeLog changeLog;
+    private DispatchEngine dispatchEngine;
+    private DeliveryJournal journal;
+    private NotificationDispatcher notifications;
+    private OrderDeduplicator deduplicator;
     private DeliveryService deliveryService;
+    private final List<DeliveryJournal> journals = new ArrayList<>();
 
     @BeforeEach
     void setUp() {
-        deliveryService = new DeliveryService();
+        meterRegistry = new SimpleMeterRegistry();
+        archive = new DeliveryArchive(archiveDir.toString(), 4, 32, meterRegistry);
+        changeLog = new DeliveryChangeLog(1000, meterRegistry);
+        dispatchEngine = new DispatchEngine(DispatchEngine.DEFAULT_DRIVERS, 3, DispatchPolicy.BATCHING, meterRegistry);
+        journal = journal("main");
+        notifications = new NotificationDispatcher(List.of(), 1000, 256, meterRegistry);
+        deduplicator = deduplicator();
+        deliveryService = new DeliveryService(new HeapDeliveryStore(), archive, changeLog, dispatchEngine, journal,
+                notifications, deduplicator, SimulationClock.system(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Closing twice is a no-op, so tests may close their own journals
+        journals.forEach(DeliveryJournal::close);
+        archive.close();
+    }
+
+    private OrderDeduplicator deduplicator() {
+        return new OrderDeduplicator(1000, 10000, 0.01, meterRegistry);
+    }
+
+    private DeliveryJournal journal(String name) {
+        DeliveryJournal created = new DeliveryJournal(journalDir.resolve(name).toString(), 5, meterRegistry);
+        journals.add(created);
+        return created;
     }
 
     @Test
@@ -73,6 +136,43 @@ class DeliveryServiceTest {
         assertFalse(status.getDriverName().isEmpty());
     }
 
+    @Test
+    @DisplayName("Should hand a customer notification to the dispatcher")
+    void handleOrderReady_shouldNotifyCustomer() {
+        // Given
+        List<CustomerNotification> sent = new ArrayList<>();
+        NotificationDispatcher dispatcher = new NotificationDispatcher(List.of(new NotificationSink() {
+            @Override
+            public String getName() {
+                return "test";
+            }
+
+            @Override
+            public void send(List<CustomerNotification> batch) {
+                sent.addAll(batch);
+            }
+        }), 1000, 256, meterRegistry);
+        dispatcher.start();
+        DeliveryService service = new DeliveryService(new HeapDeliveryStore(), archive,
+                new DeliveryChangeLog(1000, meterRegistry), dispatchEngine, journal("other"), dispatcher,
+                deduplicator(), SimulationClock.system(), meterRegistry);
+
+        // When
+        service.handleOrderReady(new OrderReadyEvent(
+                "order-1", "Margherita", 2, "Address 1", "Customer 1", LocalDateTime.now()));
+        dispatcher.close();
+
+        // Then
+        assertEquals(1, sent.size());
+        CustomerNotification notification = sent.get(0);
+        assertEquals("order-1", notification.getOrderId());
+        assertEquals("Customer 1", notification.getCustomerName());
+        assertEquals(2, notification.getQuantity().intValue());
+        assertEquals(service.getDeliveryStatus("order-1").getDriverName(), notification.getDriverName());
+        assertEquals(service.getDeliveryStatus("order-1").getEstimatedDeliveryTime(),
+                notification.getEstimatedDelivery());
+    }
+
     @Test
     @DisplayName("Should return null when delivery does not exist")
     void getDeliveryStatus_shouldReturnNullWhenNotFound() {
@@ -213,11 +313,9 @@ class DeliveryServiceTest {
         deliveryService.handleOrderReady(event);
 
         DeliveryStatus status = deliveryService.getDeliveryStatus("order-transit");
-        // Set target in transit time to past to trigger transition
-        status.setTargetInTransitTime(LocalDateTime.now().minusSeconds(1));
 
-        // When
-        deliveryService.updateDeliveryStatuses();
+        // When: run the scheduler once the target in transit time is reached
+        deliveryService.updateDeliveryStatuses(status.getTargetInTransitTime());
 
         // Then
         DeliveryStatus updatedStatus = deliveryService.getDeliveryStatus("order-transit");
@@ -242,15 +340,11 @@ class DeliveryServiceTest {
 
         DeliveryStatus status = deliveryService.getDeliveryStatus("order-delivered");
         // First transition to IN_TRANSIT
-        status.setTargetInTransitTime(LocalDateTime.now().minusSeconds(1));
-        deliveryService.updateDeliveryStatuses();
-
-        // Set target delivered time to past to trigger delivery
+        deliveryService.updateDeliveryStatuses(status.getTargetInTransitTime());
         status = deliveryService.getDeliveryStatus("order-delivered");
-        status.setTargetDeliveredTime(LocalDateTime.now().minusSeconds(1));
 
         // When
-        deliveryService.updateDeliveryStatuses();
+        deliveryService.updateDeliveryStatuses(status.getTargetDeliveredTime());
 
         // Then
         DeliveryStatus updatedStatus = deliveryService.getDeliveryStatus("order-delivered");
@@ -273,15 +367,544 @@ class DeliveryServiceTest {
         deliveryService.handleOrderReady(event);
 
         DeliveryStatus status = deliveryService.getDeliveryStatus("order-not-ready");
-        // Set target in transit time to future
-        status.setTargetInTransitTime(LocalDateTime.now().plusHours(1));
 
         // When
-        deliveryService.updateDeliveryStatuses();
+        deliveryService.updateDeliveryStatuses(status.getTargetInTransitTime().minusSeconds(1));
 
         // Then
         DeliveryStatus updatedStatus = deliveryService.getDeliveryStatus("order-not-ready");
         assertEquals("ASSIGNED", updatedStatus.getStatus());
         assertNull(updatedStatus.getInTransitAt());
     }
+
+    @Test
+    @DisplayName("Should move DELIVERED orders past retention to the archive and still find them")
+    void archiveDeliveredOrders_shouldMoveDeliveredOrdersToArchive() {
+        // Given
+        OrderReadyEvent event = new OrderReadyEvent(
+                "order-archived",
+                "Margherita",
+                1,
+                "Test Address",
+                "Test Customer",
+                LocalDateTime.now()
+        );
+        deliveryService.handleOrderReady(event);
+
+        deliveryService.updateDeliveryStatuses(LocalDateTime.now().plusHours(1));
+        deliveryService.updateDeliveryStatuses(LocalDateTime.now().plusHours(2));
+        DeliveryStatus status = deliveryService.getDeliveryStatus("order-archived");
+        assertEquals("DELIVERED", status.getStatus());
+
+        // When
+        deliveryService.archiveDeliveredOrders(LocalDateTime.now().plusHours(3));
+
+        // Then
+        assertFalse(deliveryService.getAllDeliveries().containsKey("order-archived"));
+        DeliveryStatus archived = deliveryService.getDeliveryStatus("order-archived");
+        assertNotNull(archived);
+        assertEquals("DELIVERED", archived.getStatus());
+        assertEquals("Test Address", archived.getAddress());
+        assertEquals(1, archive.size());
+        assertEquals(0.0, meterRegistry.get("delivery.store.hot.size").gauge().value());
+        assertEquals(1.0, meterRegistry.get("delivery.archive.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should keep active and recently delivered orders in the hot tier")
+    void archiveDeliveredOrders_shouldKeepActiveAndRecentOrders() {
+        // Given
+        OrderReadyEvent active = new OrderReadyEvent(
+                "order-active", "Margherita", 1, "Address 1", "Customer 1", LocalDateTime.now());
+        OrderReadyEvent recent = new OrderReadyEvent(
+                "order-recent", "Pepperoni", 1, "Address 2", "Customer 2", LocalDateTime.now());
+        deliveryService.handleOrderReady(recent);
+        deliveryService.updateDeliveryStatuses(LocalDateTime.now().plusHours(1));
+        deliveryService.updateDeliveryStatuses(LocalDateTime.now().plusHours(2));
+        assertEquals("DELIVERED", deliveryService.getDeliveryStatus("order-recent").getStatus());
+        deliveryService.handleOrderReady(active);
+
+        // When: order-recent was delivered just now
+        deliveryService.archiveDeliveredOrders(LocalDateTime.now().plusHours(2));
+
+        // Then
+        assertEquals(2, deliveryService.getAllDeliveries().size());
+        assertEquals(0, archive.size());
+    }
+
+    @Test
+    @DisplayName("Should page through deliveries in order ID order using the last ID as cursor")
+    void findDeliveries_shouldPageInOrderIdOrder() {
+        // Given
+        for (int i = 4; i >= 0; i--) {
+            deliveryService.handleOrderReady(new OrderReadyEvent(
+                    "order-" + i, "Margherita", 1, "Address " + i, "Customer " + i, LocalDateTime.now()));
+        }
+
+        // When
+        List<DeliveryStatus> first = deliveryService.findDeliveries(DeliveryQuery.all(), null, 2);
+        List<DeliveryStatus> second = deliveryService.findDeliveries(DeliveryQuery.all(), "order-1", 2);
+        List<DeliveryStatus> last = deliveryService.findDeliveries(DeliveryQuery.all(), "order-3", 2);
+
+        // Then
+        assertEquals(List.of("order-0", "order-1"), first.stream().map(DeliveryStatus::getOrderId).toList());
+        assertEquals(List.of("order-2", "order-3"), second.stream().map(DeliveryStatus::getOrderId).toList());
+        assertEquals(List.of("order-4"), last.stream().map(DeliveryStatus::getOrderId).toList());
+    }
+
+    @Test
+    @DisplayName("Should filter deliveries by status, driver and assignment time")
+    void findDeliveries_shouldApplyFilters() {
+        // Given
+        deliveryService.handleOrderReady(new OrderReadyEvent(
+                "order-b", "Pepperoni", 1, "Address B", "Customer B", LocalDateTime.now()));
+        deliveryService.updateDeliveryStatuses(LocalDateTime.now().plusMinutes(1));
+        deliveryService.handleOrderReady(new OrderReadyEvent(
+                "order-a", "Margherita", 1, "Address A", "Customer A", LocalDateTime.now()));
+        String driver = deliveryService.getDeliveryStatus("order-a").getDriverName();
+
+        // When
+        List<DeliveryStatus> byStatus = deliveryService.findDeliveries(
+                new DeliveryQuery("IN_TRANSIT", null, null, null), null, 10);
+        List<DeliveryStatus> byDriver = deliveryService.findDeliveries(
+                new DeliveryQuery(null, driver, null, null), null, 10);
+        List<DeliveryStatus> future = deliveryService.findDeliveries(
+                new DeliveryQuery(null, null, LocalDateTime.now().plusHours(1), null), null, 10);
+
+        // Then
+        assertEquals(1, byStatus.size());
+        assertEquals("order-b", byStatus.get(0).getOrderId());
+        assertTrue(byDriver.stream().anyMatch(d -> d.getOrderId().equals("order-a")));
+        assertTrue(byDriver.stream().allMatch(d -> d.getDriverName().equals(driver)));
+        assertTrue(future.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should visit every matching delivery when streaming")
+    void forEachDelivery_shouldVisitMatchingDeliveries() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            deliveryService.handleOrderReady(new OrderReadyEvent(
+                    "order-" + i, "Margherita", 1, "Address " + i, "Customer " + i, LocalDateTime.now()));
+        }
+
+        // When
+        List<String> visited = new ArrayList<>();
+        deliveryService.forEachDelivery(new DeliveryQuery("ASSIGNED", null, null, null),
+                delivery -> visited.add(delivery.getOrderId()));
+
+        // Then
+        assertEquals(List.of("order-0", "order-1", "order-2"), visited);
+    }
+
+    @Test
+    @DisplayName("Should query deliveries by status through the status index")
+    void getDeliveriesByStatus_shouldFollowTransitions() {
+        // Given
+        deliveryService.handleOrderReady(new OrderReadyEvent(
+                "order-2", "Pepperoni", 1, "Address 2", "Customer 2", LocalDateTime.now()));
+
+        // When
+        deliveryService.updateDeliveryStatuses(LocalDateTime.now().plusMinutes(1));
+        deliveryService.handleOrderReady(new OrderReadyEvent(
+                "order-1", "Margherita", 1, "Address 1", "Customer 1", LocalDateTime.now()));
+
+        // Then
+        assertEquals(List.of("order-1"), deliveryService.getDeliveriesByStatus("ASSIGNED").stream()
+                .map(DeliveryStatus::getOrderId).toList());
+        assertEquals(List.of("order-2"), deliveryService.getDeliveriesByStatus("IN_TRANSIT").stream()
+                .map(DeliveryStatus::getOrderId).toList());
+        assertTrue(deliveryService.getDeliveriesByStatus("DELIVERED").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should query deliveries by driver and keep a single entry on redelivery")
+    void getDeliveriesByDriver_shouldReturnOrdersOfDriver() {
+        // Given
+        OrderReadyEvent event = new OrderReadyEvent(
+                "order-1", "Margherita", 1, "Address 1", "Customer 1", LocalDateTime.now());
+        deliveryService.handleOrderReady(event);
+        String firstDriver = deliveryService.getDeliveryStatus("order-1").getDriverName();
+
+        // When
+        deliveryService.handleOrderReady(event);
+        String secondDriver = deliveryService.getDeliveryStatus("order-1").getDriverName();
+
+        // Then
+        assertEquals(1, deliveryService.getDeliveriesByDriver(secondDriver).size());
+        if (!firstDriver.equals(secondDriver)) {
+            assertTrue(deliveryService.getDeliveriesByDriver(firstDriver).isEmpty());
+        }
+        assertTrue(deliveryService.getDeliveriesByDriver("Unknown Driver").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should notify listeners with snapshots on creation and each transition")
+    void listeners_shouldReceiveCreatedAndStatusChangedUpdates() {
+        // Given
+        List<DeliveryUpdate> updates = new ArrayList<>();
+        changeLog.addListener(updates::add);
+        deliveryService.handleOrderReady(new OrderReadyEvent(
+                "order-1", "Margherita", 1, "Address 1", "Customer 1", LocalDateTime.now()));
+
+        // When
+        deliveryService.updateDeliveryStatuses(LocalDateTime.now().plusHours(1));
+        deliveryService.updateDeliveryStatuses(LocalDateTime.now().plusHours(2));
+        deliveryService.updateDeliveryStatuses(LocalDateTime.now().plusHours(3));
+
+        // Then
+        assertEquals(3, updates.size());
+        assertEquals(DeliveryUpdate.CREATED, updates.get(0).getType());
+        assertEquals("ASSIGNED", updates.get(0).getDelivery().getStatus());
+        assertEquals(DeliveryUpdate.STATUS_CHANGED, updates.get(1).getType());
+        assertEquals("ASSIGNED", updates.get(1).getPreviousStatus());
+        assertEquals("IN_TRANSIT", updates.get(1).getDelivery().getStatus());
+        assertEquals("IN_TRANSIT", updates.get(2).getPreviousStatus());
+        assertEquals("DELIVERED", updates.get(2).getDelivery().getStatus());
+        // Deliveries are immutable, so updates share the published instance instead of copying it
+        assertSame(deliveryService.getDeliveryStatus("order-1"), updates.get(2).getDelivery());
+    }
+
+    @Test
+    @DisplayName("Should version every change and expose them as deltas")
+    void changes_shouldFollowVersionsIncludingArchival() {
+        // Given
+        deliveryService.handleOrderReady(new OrderReadyEvent(
+                "order-1", "Margherita", 1, "Address 1", "Customer 1", LocalDateTime.now()));
+        long created = deliveryService.getVersion();
+        deliveryService.updateDeliveryStatuses(LocalDateTime.now().plusHours(1));
+        deliveryService.updateDeliveryStatuses(LocalDateTime.now().plusHours(2));
+
+        // When
+        deliveryService.archiveDeliveredOrders(LocalDateTime.now().plusHours(3));
+        DeliveryChanges changes = deliveryService.getChangesSince(deliveryService.getVersionEpoch(), created, 100);
+
+        // Then
+        assertEquals(1, created);
+        assertFalse(changes.isReset());
+        assertEquals(4, changes.getVersion());
+        assertEquals(List.of(2L, 3L, 4L), changes.getChanges().stream().map(DeliveryUpdate::getVersion).toList());
+        assertEquals(DeliveryUpdate.ARCHIVED, changes.getChanges().get(2).getType());
+        assertEquals(0, deliveryService.getDeliveryVersion("order-1"));
+    }
+
+    @Test
+    @DisplayName("Should raise the delivery version with each change")
+    void getDeliveryVersion_shouldTrackLatestChange() {
+        // Given
+        deliveryService.handleOrderReady(new OrderReadyEvent(
+                "order-1", "Margherita", 1, "Address 1", "Customer 1", LocalDateTime.now()));
+        long before = deliveryService.getDeliveryVersion("order-1");
+
+        // When
+        deliveryService.updateDeliveryStatuses(LocalDateTime.now().plusMinutes(1));
+        deliveryService.handleOrderReady(new OrderReadyEvent(
+                "order-2", "Margherita", 1, "Address 2", "Customer 2", LocalDateTime.now()));
+
+        // Then
+        assertEquals(1, before);
+        assertEquals(2, deliveryService.getDeliveryVersion("order-1"));
+        assertEquals(3, deliveryService.getDeliveryVersion("order-2"));
+        assertEquals(3, deliveryService.getVersion());
+        assertEquals(0, deliveryService.getDeliveryVersion("unknown"));
+    }
+
+    @Test
+    @DisplayName("Should keep orders pending while drivers are full and assign them once a driver delivers")
+    void handleOrderReady_shouldWaitForFreeDriver() {
+        // Given
+        DispatchEngine engine = new DispatchEngine("Anna Schmidt:80:1", 1, DispatchPolicy.BATCHING, meterRegistry);
+        DeliveryService service = new DeliveryService(new HeapDeliveryStore(), archive,
+                new DeliveryChangeLog(1000, meterRegistry), engine, journal("other"), notifications, deduplicator(),
+                SimulationClock.system(), meterRegistry);
+        service.handleOrderReady(new OrderReadyEvent(
+                "order-1", "Margherita", 1, "Bahnhofstrasse 1, 8001 Zurich", "Customer 1", LocalDateTime.now()));
+
+        // When
+        service.handleOrderReady(new OrderReadyEvent(
+                "order-2", "Margherita", 1, "Bahnhofstrasse 2, 8001 Zurich", "Customer 2", LocalDateTime.now()));
+
+        // Then
+        DeliveryStatus pending = service.getDeliveryStatus("order-2");
+        assertEquals("PENDING", pending.getStatus());
+        assertNull(pending.getDriverName());
+        assertNull(pending.getTargetInTransitTime());
+        assertEquals(1, service.getDeliveriesByStatus("PENDING").size());
+
+        // When
+        service.updateDeliveryStatuses(LocalDateTime.now().plusHours(1));
+        service.updateDeliveryStatuses(LocalDateTime.now().plusHours(2));
+
+        // Then
+        assertEquals("DELIVERED", service.getDeliveryStatus("order-1").getStatus());
+        DeliveryStatus assigned = service.getDeliveryStatus("order-2");
+        assertEquals("ASSIGNED", assigned.getStatus());
+        assertEquals("Anna Schmidt", assigned.getDriverName());
+        assertNotNull(assigned.getAssignedAt());
+        assertNotNull(assigned.getTargetInTransitTime());
+        assertEquals(List.of(assigned), service.getDeliveriesByDriver("Anna Schmidt").stream()
+                .filter(d -> "ASSIGNED".equals(d.getStatus())).toList());
+        assertTrue(service.getDeliveriesByStatus("PENDING").isEmpty());
+        assertEquals(1, service.getDrivers().get(0).getLoad());
+    }
+
+    @Test
+    @DisplayName("Should create a batch of deliveries, queue those without a driver and journal them together")
+    void handleOrderReadyBatch_shouldCreateAllDeliveries() {
+        // Given
+        DispatchEngine engine = new DispatchEngine("Anna Schmidt:80:2", 1, DispatchPolicy.NEAREST_ZONE, meterRegistry);
+        DeliveryService service = new DeliveryService(new HeapDeliveryStore(), archive,
+                new DeliveryChangeLog(1000, meterRegistry), engine, journal("other"), notifications, deduplicator(),
+                SimulationClock.system(), meterRegistry);
+        List<OrderReadyEvent> batch = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            batch.add(new OrderReadyEvent("order-" + i, "Margherita", 1, "Bahnhofstrasse " + i + ", 8001 Zurich",
+                    "Customer " + i, LocalDateTime.now()));
+        }
+        // A repeated event for the same order in the batch is skipped
+        batch.add(new OrderReadyEvent("order-1", "Hawaii", 1, "Bahnhofstrasse 9, 8001 Zurich", "Customer 1",
+                LocalDateTime.now()));
+
+        // When
+        service.handleOrderReadyBatch(batch);
+
+        // Then
+        assertEquals(3, service.getAllDeliveries().size());
+        DeliveryStatus first = service.getDeliveryStatus("order-1");
+        assertEquals("ASSIGNED", first.getStatus());
+        assertEquals("Bahnhofstrasse 1, 8001 Zurich", first.getAddress());
+        assertEquals("ASSIGNED", service.getDeliveryStatus("order-2").getStatus());
+        assertEquals("PENDING", service.getDeliveryStatus("order-3").getStatus());
+        assertEquals(2, service.getDrivers().get(0).getLoad());
+        assertEquals(1, engine.getWaitingCount());
+        assertEquals(3, service.getVersion());
+        assertEquals(1.0, meterRegistry.get("delivery.dedup.duplicates").tag("source", "batch").counter().count());
+
+        // When the drivers deliver, the waiting order gets a driver
+        service.updateDeliveryStatuses(LocalDateTime.now().plusHours(1));
+        service.updateDeliveryStatuses(LocalDateTime.now().plusHours(2));
+
+        // Then
+        assertTrue(service.getDeliveriesByStatus("PENDING").isEmpty());
+        assertEquals(0, engine.getWaitingCount());
+    }
+
+    @Test
+    @DisplayName("Should keep the delivery and its driver when an order is redelivered")
+    void handleOrderReady_shouldSkipRedelivery() {
+        // Given
+        OrderReadyEvent event = new OrderReadyEvent(
+                "order-1", "Margherita", 1, "Address 1", "Customer 1", LocalDateTime.now());
+        deliveryService.handleOrderReady(event);
+        DeliveryStatus original = deliveryService.getDeliveryStatus("order-1");
+        long version = deliveryService.getVersion();
+
+        // When
+        deliveryService.handleOrderReady(event);
+
+        // Then
+        assertSame(original, deliveryService.getDeliveryStatus("order-1"));
+        assertEquals(version, deliveryService.getVersion());
+        assertEquals(1, deliveryService.getDrivers().stream().mapToInt(DriverInfo::getLoad).sum());
+        assertEquals(1.0, meterRegistry.get("delivery.dedup.duplicates").tag("source", "recent").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should skip redelivered orders that were archived before a restart")
+    void handleOrderReady_shouldSkipArchivedRedeliveryAfterRestart() {
+        // Given an archived order
+        OrderReadyEvent event = new OrderReadyEvent(
+                "order-1", "Margherita", 1, "Address 1", "Customer 1", LocalDateTime.now());
+        deliveryService.handleOrderReady(event);
+        deliveryService.updateDeliveryStatuses(LocalDateTime.now().plusHours(1));
+        deliveryService.updateDeliveryStatuses(LocalDateTime.now().plusHours(2));
+        deliveryService.archiveDeliveredOrders(LocalDateTime.now().plusHours(3));
+        assertEquals(1, archive.size());
+        DeliveryService restarted = new DeliveryService(new HeapDeliveryStore(), archive,
+                new DeliveryChangeLog(1000, meterRegistry),
+                new DispatchEngine(DispatchEngine.DEFAULT_DRIVERS, 3, DispatchPolicy.BATCHING, meterRegistry),
+                journal("other"), notifications, deduplicator(), SimulationClock.system(), meterRegistry);
+
+        // When
+        restarted.handleOrderReady(event);
+
+        // Then
+        assertTrue(restarted.getAllDeliveries().isEmpty());
+        assertEquals("DELIVERED", restarted.getDeliveryStatus("order-1").getStatus());
+        assertEquals(1.0, meterRegistry.get("delivery.dedup.duplicates").tag("source", "filter").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should create new orders the filter wrongly reports as seen")
+    void handleOrderReady_shouldCreateFilterFalsePositives() {
+        // Given a deduplicator that keeps no exact IDs and a small filter with many false positives
+        DeliveryService service = new DeliveryService(new HeapDeliveryStore(), archive,
+                new DeliveryChangeLog(1000, meterRegistry),
+                new DispatchEngine(DispatchEngine.DEFAULT_DRIVERS, 3, DispatchPolicy.BATCHING, meterRegistry),
+                journal("other"), notifications, new OrderDeduplicator(0, 1000, 0.9, meterRegistry),
+                SimulationClock.system(), meterRegistry);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            service.handleOrderReady(new OrderReadyEvent(
+                    "order-" + i, "Margherita", 1, "Address " + i, "Customer " + i, LocalDateTime.now()));
+        }
+
+        // Then
+        assertEquals(100, service.getAllDeliveries().size());
+        assertTrue(meterRegistry.get("delivery.dedup.false.positives").counter().count() > 0);
+    }
+
+    @Test
+    @DisplayName("Should dispatch waiting orders when a driver comes back on duty")
+    void setDriverAvailable_shouldDispatchWaitingOrders() {
+        // Given
+        DispatchEngine engine = new DispatchEngine("Anna Schmidt", 1, DispatchPolicy.LEAST_LOADED, meterRegistry);
+        DeliveryService service = new DeliveryService(new HeapDeliveryStore(), archive,
+                new DeliveryChangeLog(1000, meterRegistry), engine, journal("other"), notifications, deduplicator(),
+                SimulationClock.system(), meterRegistry);
+        assertTrue(service.setDriverAvailable("Anna Schmidt", false));
+        service.handleOrderReady(new OrderReadyEvent(
+                "order-1", "Margherita", 1, "Address 1", "Customer 1", LocalDateTime.now()));
+        assertEquals("PENDING", service.getDeliveryStatus("order-1").getStatus());
+
+        // When
+        service.setDriverAvailable("Anna Schmidt", true);
+
+        // Then
+        assertEquals("ASSIGNED", service.getDeliveryStatus("order-1").getStatus());
+        assertFalse(service.setDriverAvailable("Unknown Driver", true));
+    }
+
+    @Test
+    @DisplayName("Should restore deliveries, driver load and waiting orders after a restart")
+    void constructor_shouldRecoverFromJournal() {
+        // Given
+        DispatchEngine engine = new DispatchEngine("Anna Schmidt:80:1", 1, DispatchPolicy.BATCHING, meterRegistry);
+        DeliveryJournal first = journal("restart");
+        DeliveryService service = new DeliveryService(new HeapDeliveryStore(), archive,
+                new DeliveryChangeLog(1000, meterRegistry), engine, first, notifications, deduplicator(),
+                SimulationClock.system(), meterRegistry);
+        service.handleOrderReady(new OrderReadyEvent(
+                "order-1", "Margherita", 1, "Bahnhofstrasse 1, 8001 Zurich", "Customer 1", LocalDateTime.now()));
+        service.writeSnapshot();
+        service.handleOrderReady(new OrderReadyEvent(
+                "order-2", "Margherita", 1, "Bahnhofstrasse 2, 8001 Zurich", "Customer 2", LocalDateTime.now()));
+        service.handleOrderReady(new OrderReadyEvent(
+                "order-3", "Margherita", 1, "Bahnhofstrasse 3, 8001 Zurich", "Customer 3", LocalDateTime.now()));
+        Map<String, DeliveryStatus> before = Map.copyOf(service.getAllDeliveries());
+        long version = service.getVersion();
+        first.close();
+
+        // When
+        DispatchEngine restartedEngine = new DispatchEngine("Anna Schmidt:80:1", 1, DispatchPolicy.BATCHING,
+                meterRegistry);
+        DeliveryChangeLog restartedLog = new DeliveryChangeLog(1000, meterRegistry);
+        DeliveryJournal second = journal("restart");
+        DeliveryService restarted = new DeliveryService(new HeapDeliveryStore(), archive, restartedLog, restartedEngine,
+                second, notifications, deduplicator(), SimulationClock.system(), meterRegistry);
+
+        // Then
+        // Timestamps are journaled with millisecond precision
+        assertEquals(before.keySet(), restarted.getAllDeliveries().keySet());
+        before.forEach((orderId, delivery) -> {
+            DeliveryStatus recovered = restarted.getDeliveryStatus(orderId);
+            assertEquals(delivery.getStatus(), recovered.getStatus());
+            assertEquals(delivery.getDriverName(), recovered.getDriverName());
+            assertEquals(delivery.getAddress(), recovered.getAddress());
+        });
+        assertEquals(version, restarted.getVersion());
+        assertEquals(version, restarted.getDeliveryVersion("order-2"));
+        assertEquals(1, restarted.getDrivers().get(0).getLoad());
+        assertEquals(2, restarted.getDeliveriesByStatus("PENDING").size());
+        assertTrue(restarted.getChangesSince(restarted.getVersionEpoch(), version - 1, 10).isReset());
+        assertEquals(version + 1, restartedLog.nextVersion());
+
+        // When the recovered delivery completes, the next waiting order gets the driver
+        restarted.updateDeliveryStatuses(LocalDateTime.now().plusHours(1));
+        restarted.updateDeliveryStatuses(LocalDateTime.now().plusHours(2));
+
+        // Then
+        assertEquals("DELIVERED", restarted.getDeliveryStatus("order-1").getStatus());
+        assertEquals(1, restarted.getDeliveriesByStatus("ASSIGNED").size());
+        assertEquals(1, restarted.getDeliveriesByStatus("PENDING").size());
+        second.close();
+    }
+
+    @Test
+    @DisplayName("Should run a simulated day of deliveries on a virtual clock")
+    void start_shouldDriveDeliveriesOnVirtualClock() {
+        // Given an order every minute for twelve hours on a clock that only moves when advanced
+        LocalDateTime start = LocalDateTime.of(2026, 1, 16, 10, 0);
+        VirtualClock clock = new VirtualClock(start);
+        DeliveryJournal virtualJournal = journal("virtual");
+        DeliveryService service = new DeliveryService(new HeapDeliveryStore(), archive,
+                new DeliveryChangeLog(1000, meterRegistry),
+                new DispatchEngine(DispatchEngine.DEFAULT_DRIVERS, 3, DispatchPolicy.BATCHING, meterRegistry),
+                virtualJournal, notifications, deduplicator(), clock, meterRegistry);
+        service.start();
+        int orders = 720;
+        for (int i = 0; i < orders; i++) {
+            String orderId = String.format("order-%03d", i);
+            clock.schedule(() -> service.handleOrderReady(new OrderReadyEvent(
+                    orderId, "Margherita", 1, "Address", "Customer", clock.now())), Duration.ofMinutes(i));
+        }
+
+        // When a full day passes
+        clock.advance(Duration.ofDays(1));
+
+        // Then every order went through the lifecycle in simulated time and was archived
+        assertTrue(service.getAllDeliveries().isEmpty());
+        for (int i = 0; i < orders; i++) {
+            DeliveryStatus delivery = service.getDeliveryStatus(String.format("order-%03d", i));
+            LocalDateTime ready = start.plusMinutes(i);
+            assertEquals("DELIVERED", delivery.getStatus());
+            assertFalse(delivery.getAssignedAt().isBefore(ready));
+            assertTrue(delivery.getInTransitAt().isAfter(delivery.getAssignedAt()));
+            assertTrue(delivery.getDeliveredAt().isAfter(delivery.getInTransitAt()));
+            assertTrue(delivery.getDeliveredAt().isBefore(ready.plusMinutes(5)));
+        }
+        assertEquals(start.plusDays(1), clock.now());
+        service.stop();
+        virtualJournal.close();
+    }
+
+    @Test
+    @DisplayName("Should report counts and phase durations without scanning deliveries")
+    void getStats_shouldReportCountsAndDurations() {
+        // Given three orders on a virtual clock, two of them delivered
+        LocalDateTime start = LocalDateTime.of(2026, 1, 16, 10, 0);
+        VirtualClock clock = new VirtualClock(start);
+        DeliveryJournal virtualJournal = journal("stats");
+        // Own registry, the gauges of the service from setUp would shadow these
+        MeterRegistry registry = new SimpleMeterRegistry();
+        DeliveryService service = new DeliveryService(new HeapDeliveryStore(), archive,
+                new DeliveryChangeLog(1000, registry),
+                new DispatchEngine(DispatchEngine.DEFAULT_DRIVERS, 3, DispatchPolicy.BATCHING, registry),
+                virtualJournal, notifications, deduplicator(), clock, registry);
+        service.handleOrderReady(new OrderReadyEvent("order-1", "Margherita", 1, "Address", "Customer",
+                start.minusMinutes(1)));
+        service.handleOrderReady(new OrderReadyEvent("order-2", "Margherita", 1, "Address", "Customer",
+                start.minusMinutes(1)));
+        clock.advance(Duration.ofMinutes(1));
+        service.updateDeliveryStatuses(clock.now());
+        service.updateDeliveryStatuses(service.getDeliveryStatus("order-1").getTargetDeliveredTime()
+                .plusSeconds(60));
+        service.handleOrderReady(new OrderReadyEvent("order-3", "Margherita", 1, "Address", "Customer",
+                clock.now()));
+
+        // When
+        DeliveryStats stats = service.getStats();
+
+        // Then
+        assertEquals(Map.of("ASSIGNED", 1L, "DELIVERED", 2L), stats.getByStatus());
+        assertEquals(3L, stats.getByDriver().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(2, stats.getDurations().get("assigned-to-in-transit").get("1h").getCount());
+        assertEquals(2, stats.getDurations().get("in-transit-to-delivered").get("1h").getCount());
+        DurationSummary ready = stats.getDurations().get("ready-to-delivered").get("1h");
+        assertEquals(2, ready.getCount());
+        assertTrue(ready.getP50Seconds() > 60);
+        assertEquals(1.0, registry.get("delivery.status.count").tag("status", "ASSIGNED").gauge().value());
+        virtualJournal.close();
+    }
 }
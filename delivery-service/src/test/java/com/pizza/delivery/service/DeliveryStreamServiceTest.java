@@ -0,0 +1,179 @@
+package com.pizza.delivery.service;
+
+import com.pizza.delivery.controller.DeliveryStreamController;
+import com.pizza.delivery.model.DeliveryUpdate;
+import com.pizza.models.DeliveryStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@DisplayName("DeliveryStreamService Tests")
+class DeliveryStreamServiceTest {
+
+    private static final int REPLAY_SIZE = 3;
+
+    private DeliveryChangeLog changeLog;
+    private DeliveryStreamService streamService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        changeLog = new DeliveryChangeLog(REPLAY_SIZE, registry);
+        streamService = new DeliveryStreamService(changeLog, 16, 60_000, 1, 10_000, registry);
+        mockMvc = MockMvcBuilders.standaloneSetup(new DeliveryStreamController(streamService)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.shutdown();
+    }
+
+    private void publishCreated(String orderId) {
+        long version = changeLog.nextVersion();
+        changeLog.commit(version, created(version, orderId));
+    }
+
+    private DeliveryUpdate created(long version, String orderId) {
+        DeliveryStatus delivery = new DeliveryStatus(
+                orderId,
+                "ASSIGNED",
+                "Anna Schmidt",
+                "Address " + orderId,
+                LocalDateTime.of(2026, 1, 16, 10, 0),
+                LocalDateTime.of(2026, 1, 16, 10, 30),
+                null,
+                null,
+                LocalDateTime.of(2026, 1, 16, 10, 0, 12),
+                null
+        );
+        return new DeliveryUpdate(version, DeliveryUpdate.CREATED, null, delivery);
+    }
+
+    private String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected)) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for '" + expected + "' in stream: " + content);
+            }
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    @Test
+    @DisplayName("Should push created deliveries to all-orders subscribers")
+    void shouldPushUpdatesToAllOrdersSubscriber() throws Exception {
+        // Given
+        MvcResult result = mockMvc.perform(get("/api/v1/deliveries/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // When
+        publishCreated("order-1");
+
+        // Then
+        String content = awaitContent(result, "order-1");
+        assertTrue(content.contains("id:1"));
+        assertTrue(content.contains("event:CREATED"));
+        assertEquals(1, streamService.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should only push updates of the subscribed order")
+    void shouldFilterPerOrderSubscription() throws Exception {
+        // Given
+        MvcResult result = mockMvc.perform(get("/api/v1/deliveries/stream").param("orderId", "order-2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // When
+        publishCreated("order-1");
+        publishCreated("order-2");
+
+        // Then
+        String content = awaitContent(result, "order-2");
+        assertFalse(content.contains("order-1"));
+        assertTrue(content.contains("id:2"));
+    }
+
+    @Test
+    @DisplayName("Should replay changes after Last-Event-ID from the change log")
+    void shouldResumeFromLastEventId() throws Exception {
+        // Given
+        publishCreated("order-1");
+        publishCreated("order-2");
+        publishCreated("order-3");
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/deliveries/stream").header("Last-Event-ID", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        String content = awaitContent(result, "order-3");
+        assertTrue(content.contains("order-2"));
+        assertFalse(content.contains("order-1"));
+    }
+
+    @Test
+    @DisplayName("Should ask for a resync when missed events left the change log")
+    void shouldRequestResyncWhenReplayBufferIsExceeded() throws Exception {
+        // Given
+        for (int i = 1; i <= REPLAY_SIZE + 2; i++) {
+            publishCreated("order-" + i);
+        }
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/deliveries/stream").header("Last-Event-ID", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        String content = awaitContent(result, "event:" + DeliveryStreamService.RESYNC_EVENT);
+        assertFalse(content.contains("order-"));
+    }
+
+    @Test
+    @DisplayName("Should send heartbeat comments to idle subscribers")
+    void shouldSendHeartbeats() throws Exception {
+        // Given
+        MvcResult result = mockMvc.perform(get("/api/v1/deliveries/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // When
+        streamService.sendHeartbeats();
+
+        // Then
+        awaitContent(result, ":heartbeat");
+    }
+
+    @Test
+    @DisplayName("Should ask for a resync when Last-Event-ID is from before a restart")
+    void shouldRequestResyncForFutureLastEventId() throws Exception {
+        // Given
+        publishCreated("order-1");
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/deliveries/stream").header("Last-Event-ID", "99"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        awaitContent(result, "event:" + DeliveryStreamService.RESYNC_EVENT);
+    }
+}
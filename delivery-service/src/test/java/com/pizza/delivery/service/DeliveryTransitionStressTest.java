@@ -0,0 +1,165 @@
+package com.pizza.delivery.service;
+
+import com.pizza.delivery.dedup.OrderDeduplicator;
+import com.pizza.delivery.dispatch.DispatchEngine;
+import com.pizza.delivery.dispatch.DispatchPolicy;
+import com.pizza.delivery.notification.NotificationDispatcher;
+import com.pizza.delivery.store.DeliveryArchive;
+import com.pizza.delivery.store.DeliveryJournal;
+import com.pizza.delivery.store.HeapDeliveryStore;
+import com.pizza.models.DeliveryStatus;
+import com.pizza.models.OrderReadyEvent;
+import com.pizza.models.time.SimulationClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Readers race with redeliveries and transitions and must only ever observe complete deliveries
+ * that never change once observed.
+ */
+@DisplayName("Delivery Transition Stress Test")
+class DeliveryTransitionStressTest {
+
+    private static final int ORDER_COUNT = 500;
+    private static final int PRODUCERS = 2;
+    private static final int UPDATERS = 2;
+    private static final int READERS = 2;
+    private static final int EVENTS_PER_PRODUCER = 3_000;
+
+    @TempDir
+    Path archiveDir;
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    @DisplayName("Readers should never observe a torn or changing delivery while transitions run")
+    void readersShouldOnlySeeConsistentSnapshots() throws Exception {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DeliveryArchive archive = new DeliveryArchive(archiveDir.toString(), 4, 32, registry);
+        DeliveryJournal journal = new DeliveryJournal(journalDir.toString(), 5, registry);
+        DeliveryService deliveryService = new DeliveryService(new HeapDeliveryStore(), archive,
+                new DeliveryChangeLog(1000, registry),
+                new DispatchEngine(DispatchEngine.DEFAULT_DRIVERS, 3, DispatchPolicy.BATCHING, registry), journal,
+                new NotificationDispatcher(List.of(), 1000, 256, registry),
+                new OrderDeduplicator(1000, 10000, 0.01, registry), SimulationClock.system(), registry);
+        ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS + UPDATERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean producing = new AtomicBoolean(true);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<?>> producers = new ArrayList<>();
+        List<Future<?>> updaters = new ArrayList<>();
+        List<Future<Integer>> readers = new ArrayList<>();
+
+        // When
+        for (int p = 0; p < PRODUCERS; p++) {
+            producers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < EVENTS_PER_PRODUCER; i++) {
+                    String orderId = "order-" + ThreadLocalRandom.current().nextInt(ORDER_COUNT);
+                    deliveryService.handleOrderReady(new OrderReadyEvent(
+                            orderId, "Margherita", 1, "Address 8001 Zurich", "Customer", LocalDateTime.now()));
+                }
+                return null;
+            }));
+        }
+        for (int u = 0; u < UPDATERS; u++) {
+            updaters.add(executor.submit(() -> {
+                start.await();
+                // Keep transitions running for as long as orders are created
+                for (int i = 1; producing.get(); i++) {
+                    deliveryService.updateDeliveryStatuses(LocalDateTime.now().plusMinutes(i));
+                }
+                return null;
+            }));
+        }
+        for (int r = 0; r < READERS; r++) {
+            readers.add(executor.submit(() -> {
+                // First rendering of every delivery instance this reader has seen
+                Map<DeliveryStatus, String> seen = new IdentityHashMap<>();
+                start.await();
+                while (writing.get()) {
+                    for (DeliveryStatus delivery : deliveryService.getAllDeliveries().values()) {
+                        assertConsistent(delivery);
+                        String rendered = delivery.toString();
+                        String previous = seen.putIfAbsent(delivery, rendered);
+                        assertTrue(previous == null || previous.equals(rendered),
+                                "Delivery changed after it was published: " + previous + " -> " + rendered);
+                    }
+                }
+                return seen.size();
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> producer : producers) {
+                producer.get();
+            }
+            producing.set(false);
+            for (Future<?> updater : updaters) {
+                updater.get();
+            }
+            writing.set(false);
+
+            // Then
+            for (Future<Integer> reader : readers) {
+                assertTrue(reader.get() > 0);
+            }
+        } finally {
+            producing.set(false);
+            writing.set(false);
+            executor.shutdownNow();
+        }
+        deliveryService.getAllDeliveries().values().forEach(DeliveryTransitionStressTest::assertConsistent);
+        journal.close();
+        archive.close();
+    }
+
+    private static void assertConsistent(DeliveryStatus delivery) {
+        String description = delivery.toString();
+        switch (delivery.getStatus()) {
+            case "PENDING":
+                assertNull(delivery.getDriverName(), description);
+                assertNull(delivery.getAssignedAt(), description);
+                assertNull(delivery.getInTransitAt(), description);
+                break;
+            case "ASSIGNED":
+                assertNotNull(delivery.getDriverName(), description);
+                assertNotNull(delivery.getAssignedAt(), description);
+                assertNotNull(delivery.getTargetInTransitTime(), description);
+                assertNull(delivery.getInTransitAt(), description);
+                assertNull(delivery.getDeliveredAt(), description);
+                break;
+            case "IN_TRANSIT":
+                assertNotNull(delivery.getDriverName(), description);
+                assertNotNull(delivery.getInTransitAt(), description);
+                assertNotNull(delivery.getTargetDeliveredTime(), description);
+                assertNull(delivery.getDeliveredAt(), description);
+                break;
+            case "DELIVERED":
+                assertNotNull(delivery.getInTransitAt(), description);
+                assertNotNull(delivery.getDeliveredAt(), description);
+                break;
+            default:
+                fail("Unknown status " + description);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.pizza.delivery.service;
+
+import com.pizza.delivery.model.DeliveryState;
+import com.pizza.models.DeliveryStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DeliveryTransitions Tests")
+class DeliveryTransitionsTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 16, 10, 0);
+
+    private static DeliveryStatus pending() {
+        return new DeliveryStatus("order-1", "PENDING", null, "Address 1", null, NOW.plusMinutes(30),
+                null, null, null, null);
+    }
+
+    @Test
+    @DisplayName("Should walk through the lifecycle returning new deliveries and leaving the old ones untouched")
+    void transitions_shouldReturnNewInstances() {
+        // Given
+        DeliveryStatus pending = pending();
+        DeliveryStatus pendingCopy = pending();
+
+        // When
+        DeliveryStatus assigned = DeliveryTransitions.assign(pending, "Anna Schmidt", NOW, NOW.plusSeconds(12));
+        DeliveryStatus inTransit = DeliveryTransitions.depart(assigned, NOW.plusSeconds(12), NOW.plusSeconds(30));
+        DeliveryStatus delivered = DeliveryTransitions.deliver(inTransit, NOW.plusSeconds(30));
+
+        // Then
+        assertEquals(pendingCopy, pending);
+        assertEquals("ASSIGNED", assigned.getStatus());
+        assertEquals("Anna Schmidt", assigned.getDriverName());
+        assertEquals(NOW, assigned.getAssignedAt());
+        assertEquals(NOW.plusSeconds(12), assigned.getTargetInTransitTime());
+        assertEquals("IN_TRANSIT", inTransit.getStatus());
+        assertEquals(NOW.plusSeconds(12), inTransit.getInTransitAt());
+        assertEquals(NOW.plusSeconds(30), inTransit.getTargetDeliveredTime());
+        assertEquals("DELIVERED", delivered.getStatus());
+        assertEquals(NOW.plusSeconds(30), delivered.getDeliveredAt());
+        assertEquals("Anna Schmidt", delivered.getDriverName());
+        assertEquals(NOW.plusMinutes(30), delivered.getEstimatedDeliveryTime());
+    }
+
+    @Test
+    @DisplayName("Should reject transitions that skip or repeat a state")
+    void transitions_shouldRejectInvalidTransitions() {
+        DeliveryStatus pending = pending();
+        DeliveryStatus assigned = DeliveryTransitions.assign(pending, "Anna Schmidt", NOW, NOW);
+
+        assertThrows(IllegalStateException.class, () -> DeliveryTransitions.deliver(pending, NOW));
+        assertThrows(IllegalStateException.class, () -> DeliveryTransitions.assign(assigned, "Tom Fischer", NOW, NOW));
+        assertThrows(IllegalArgumentException.class, () -> DeliveryTransitions.depart(
+                new DeliveryStatus("order-2", "LOST", null, null, null, null, null, null, null, null), NOW, NOW));
+        assertTrue(DeliveryState.IN_TRANSIT.canTransitionTo(DeliveryState.DELIVERED));
+        assertFalse(DeliveryState.DELIVERED.canTransitionTo(DeliveryState.PENDING));
+    }
+}
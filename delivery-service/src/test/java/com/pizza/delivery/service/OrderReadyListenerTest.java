@@ -0,0 +1,174 @@
+package com.pizza.delivery.service;
+
+import com.pizza.delivery.dedup.OrderDeduplicator;
+import com.pizza.delivery.dispatch.DispatchEngine;
+import com.pizza.delivery.dispatch.DispatchPolicy;
+import com.pizza.delivery.notification.NotificationDispatcher;
+import com.pizza.delivery.store.DeliveryArchive;
+import com.pizza.delivery.store.DeliveryJournal;
+import com.pizza.delivery.store.HeapDeliveryStore;
+import com.pizza.models.OrderReadyEvent;
+import com.pizza.models.time.SimulationClock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.otel.bridge.OtelBaggageManager;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OrderReadyListener Unit Tests")
+class OrderReadyListenerTest {
+
+    private static final String KITCHEN_TRACE_1 = "0af7651916cd43dd8448eb211c80319c";
+    private static final String KITCHEN_SPAN_1 = "b7ad6b7169203331";
+    private static final String KITCHEN_TRACE_2 = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String KITCHEN_SPAN_2 = "00f067aa0ba902b7";
+
+    @TempDir
+    Path archiveDir;
+
+    @TempDir
+    Path journalDir;
+
+    private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+    private SdkTracerProvider tracerProvider;
+    private DeliveryArchive archive;
+    private DeliveryJournal journal;
+    private DeliveryService deliveryService;
+    private OrderReadyListener listener;
+
+    @BeforeEach
+    void setUp() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        archive = new DeliveryArchive(archiveDir.toString(), 4, 32, meterRegistry);
+        journal = new DeliveryJournal(journalDir.toString(), 5, meterRegistry);
+        deliveryService = new DeliveryService(new HeapDeliveryStore(), archive,
+                new DeliveryChangeLog(1000, meterRegistry),
+                new DispatchEngine(DispatchEngine.DEFAULT_DRIVERS, 3, DispatchPolicy.BATCHING, meterRegistry),
+                journal, new NotificationDispatcher(List.of(), 1000, 256, meterRegistry),
+                new OrderDeduplicator(1000, 10000, 0.01, meterRegistry), SimulationClock.system(), meterRegistry);
+
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build();
+        io.opentelemetry.api.trace.Tracer otelTracer = tracerProvider.get("delivery-service");
+        OtelCurrentTraceContext currentTraceContext = new OtelCurrentTraceContext();
+        OtelTracer tracer = new OtelTracer(otelTracer, currentTraceContext, event -> { },
+                new OtelBaggageManager(currentTraceContext, List.of(), List.of()));
+        OtelPropagator propagator = new OtelPropagator(
+                ContextPropagators.create(W3CTraceContextPropagator.getInstance()), otelTracer);
+        listener = new OrderReadyListener(deliveryService, tracer, propagator);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+        journal.close();
+        archive.close();
+    }
+
+    private static Message<OrderReadyEvent> message(String orderId, String traceId, String spanId) {
+        OrderReadyEvent event = new OrderReadyEvent(orderId, "Margherita", 1, "Address", "Customer",
+                LocalDateTime.now());
+        return MessageBuilder.withPayload(event)
+                .setHeader("traceparent", "00-" + traceId + "-" + spanId + "-01")
+                .build();
+    }
+
+    private List<SpanData> spansNamed(String name) {
+        return exporter.getFinishedSpanItems().stream()
+                .filter(span -> span.getName().equals(name))
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Should continue the kitchen's trace when the batch holds one event")
+    void onOrderReady_shouldContinueTraceOfSingleEvent() {
+        // When
+        listener.onOrderReady(List.of(message("order-1", KITCHEN_TRACE_1, KITCHEN_SPAN_1)));
+
+        // Then
+        assertNotNull(deliveryService.getDeliveryStatus("order-1"));
+        List<SpanData> processed = spansNamed(OrderReadyListener.PROCESS_SPAN);
+        assertEquals(1, processed.size());
+        SpanData span = processed.get(0);
+        assertEquals(SpanKind.CONSUMER, span.getKind());
+        assertEquals(KITCHEN_TRACE_1, span.getTraceId());
+        assertEquals(KITCHEN_SPAN_1, span.getParentSpanId());
+        assertTrue(span.getParentSpanContext().isRemote());
+        assertEquals("order-1", span.getAttributes().get(AttributeKey.stringKey("order.id")));
+        assertTrue(span.getLinks().isEmpty());
+        assertTrue(spansNamed(OrderReadyListener.RECEIVE_SPAN).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should link the batch span to a receive span in the trace of each event")
+    void onOrderReady_shouldLinkBatchToEveryEventTrace() {
+        // When
+        listener.onOrderReady(List.of(
+                message("order-1", KITCHEN_TRACE_1, KITCHEN_SPAN_1),
+                message("order-2", KITCHEN_TRACE_2, KITCHEN_SPAN_2)));
+
+        // Then
+        assertNotNull(deliveryService.getDeliveryStatus("order-1"));
+        assertNotNull(deliveryService.getDeliveryStatus("order-2"));
+        List<SpanData> received = spansNamed(OrderReadyListener.RECEIVE_SPAN);
+        assertEquals(2, received.size());
+        SpanData first = received.get(0);
+        SpanData second = received.get(1);
+        assertEquals(KITCHEN_TRACE_1, first.getTraceId());
+        assertEquals(KITCHEN_SPAN_1, first.getParentSpanId());
+        assertEquals("order-1", first.getAttributes().get(AttributeKey.stringKey("order.id")));
+        assertEquals(KITCHEN_TRACE_2, second.getTraceId());
+        assertEquals(KITCHEN_SPAN_2, second.getParentSpanId());
+        assertEquals(SpanKind.CONSUMER, second.getKind());
+
+        List<SpanData> processed = spansNamed(OrderReadyListener.PROCESS_SPAN);
+        assertEquals(1, processed.size());
+        SpanData batch = processed.get(0);
+        assertEquals(SpanKind.CONSUMER, batch.getKind());
+        assertFalse(batch.getParentSpanContext().isValid());
+        assertNotEquals(KITCHEN_TRACE_1, batch.getTraceId());
+        assertNotEquals(KITCHEN_TRACE_2, batch.getTraceId());
+        assertEquals("2", batch.getAttributes().get(AttributeKey.stringKey("messaging.batch.message_count")));
+        List<SpanContext> links = batch.getLinks().stream().map(LinkData::getSpanContext).toList();
+        assertEquals(List.of(first.getSpanContext(), second.getSpanContext()), links);
+    }
+
+    @Test
+    @DisplayName("Should end the batch span with the error when handling the batch fails")
+    void onOrderReady_shouldRecordErrorOnBatchSpan() {
+        // Given
+        journal.close();
+
+        // When / Then
+        assertThrows(RuntimeException.class, () ->
+                listener.onOrderReady(List.of(message("order-1", KITCHEN_TRACE_1, KITCHEN_SPAN_1))));
+        SpanData span = spansNamed(OrderReadyListener.PROCESS_SPAN).get(0);
+        assertEquals(StatusCode.ERROR, span.getStatus().getStatusCode());
+    }
+}
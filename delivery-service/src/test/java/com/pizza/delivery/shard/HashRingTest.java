@@ -0,0 +1,92 @@
+package com.pizza.delivery.shard;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HashRing Unit Tests")
+class HashRingTest {
+
+    private static final int KEYS = 10_000;
+
+    @Test
+    @DisplayName("Should give every key the same owner regardless of member order")
+    void owner_shouldNotDependOnMemberOrder() {
+        // Given
+        HashRing ring = new HashRing(List.of("delivery-1", "delivery-2", "delivery-3"), 64);
+        HashRing reordered = new HashRing(List.of("delivery-3", "delivery-1", "delivery-2"), 64);
+
+        // Then
+        for (int i = 0; i < KEYS; i++) {
+            assertEquals(ring.owner("order-" + i), reordered.owner("order-" + i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should only move keys to a joining member")
+    void owner_shouldMoveFewKeysOnJoin() {
+        // Given
+        HashRing before = new HashRing(List.of("delivery-1", "delivery-2", "delivery-3"), 128);
+        HashRing after = new HashRing(List.of("delivery-1", "delivery-2", "delivery-3", "delivery-4"), 128);
+
+        // When
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "order-" + i;
+            if (!before.owner(key).equals(after.owner(key))) {
+                assertEquals("delivery-4", after.owner(key));
+                moved++;
+            }
+        }
+
+        // Then about a quarter of the keys moved
+        assertEquals(KEYS / 4, moved, KEYS * 0.05);
+    }
+
+    @Test
+    @DisplayName("Should only move the keys of a leaving member")
+    void owner_shouldMoveOnlyOwnKeysOnLeave() {
+        // Given
+        HashRing before = new HashRing(List.of("delivery-1", "delivery-2", "delivery-3"), 128);
+        HashRing after = new HashRing(List.of("delivery-1", "delivery-3"), 128);
+
+        // Then
+        for (int i = 0; i < KEYS; i++) {
+            String key = "order-" + i;
+            if (!before.owner(key).equals("delivery-2")) {
+                assertEquals(before.owner(key), after.owner(key));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should list every member once, starting with the owner")
+    void successors_shouldStartWithOwner() {
+        // Given
+        HashRing ring = new HashRing(List.of("delivery-1", "delivery-2", "delivery-3"), 16);
+
+        // When
+        List<String> successors = ring.successors("partition-7");
+
+        // Then
+        assertEquals(3, successors.size());
+        assertEquals(ring.owner("partition-7"), successors.get(0));
+        assertTrue(successors.containsAll(List.of("delivery-1", "delivery-2", "delivery-3")));
+    }
+
+    @Test
+    @DisplayName("Should have no owner without members")
+    void owner_shouldBeNullWhenEmpty() {
+        // Given
+        HashRing ring = new HashRing(List.of(), 16);
+
+        // Then
+        assertTrue(ring.isEmpty());
+        assertNull(ring.owner("order-1"));
+        assertTrue(ring.successors("order-1").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new HashRing(List.of("delivery-1"), 0));
+    }
+}
@@ -0,0 +1,103 @@
+package com.pizza.delivery.shard;
+
+import com.pizza.models.routing.OrderPartitioner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PartitionAssignment Unit Tests")
+class PartitionAssignmentTest {
+
+    private static List<String> members(int count) {
+        List<String> members = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            members.add("delivery-" + i);
+        }
+        return members;
+    }
+
+    @Test
+    @DisplayName("Should give every partition exactly one owner and no instance more than its fair share")
+    void shouldBalancePartitions() {
+        for (int count = 1; count <= 8; count++) {
+            // Given
+            List<String> members = members(count);
+
+            // When
+            PartitionAssignment assignment = new PartitionAssignment(members, 64, 128);
+
+            // Then
+            Set<Integer> assigned = new HashSet<>();
+            for (String member : members) {
+                List<Integer> partitions = assignment.partitionsOf(member);
+                assertTrue(partitions.size() <= (64 + count - 1) / count,
+                        member + " of " + count + " owns " + partitions.size());
+                partitions.forEach(partition -> assertTrue(assigned.add(partition)));
+            }
+            assertEquals(64, assigned.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should spread orders evenly over the instances")
+    void ownerOf_shouldSpreadOrders() {
+        // Given
+        List<String> members = members(4);
+        PartitionAssignment assignment = new PartitionAssignment(members, 64, 128);
+        int orders = 100_000;
+        int[] counts = new int[members.size()];
+
+        // When
+        for (int i = 0; i < orders; i++) {
+            String orderId = UUID.randomUUID().toString();
+            String owner = assignment.ownerOf(orderId);
+            assertEquals(owner, assignment.owner(OrderPartitioner.partition(orderId, 64)));
+            counts[members.indexOf(owner)]++;
+        }
+
+        // Then within 10% of an even split
+        for (int count : counts) {
+            assertEquals(orders / members.size(), count, orders / members.size() * 0.1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should move about one share of partitions when an instance joins or leaves")
+    void shouldMoveFewPartitions() {
+        // Given
+        PartitionAssignment three = new PartitionAssignment(members(3), 64, 128);
+        PartitionAssignment four = new PartitionAssignment(members(4), 64, 128);
+
+        // When
+        int moved = 0;
+        for (int partition = 0; partition < 64; partition++) {
+            if (!three.owner(partition).equals(four.owner(partition))) {
+                moved++;
+            }
+        }
+
+        // Then the new instance takes its 16 partitions and few others move
+        assertEquals(16, four.partitionsOf("delivery-4").size());
+        assertTrue(moved < 64 / 2, "moved " + moved);
+    }
+
+    @Test
+    @DisplayName("Should have no owners without members")
+    void shouldHandleNoMembers() {
+        // When
+        PartitionAssignment assignment = new PartitionAssignment(List.of(), 8, 128);
+
+        // Then
+        assertNull(assignment.owner(0));
+        assertNull(assignment.ownerOf("order-1"));
+        assertTrue(assignment.partitionsOf("delivery-1").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new PartitionAssignment(List.of("delivery-1"), 0, 128));
+    }
+}
@@ -0,0 +1,59 @@
+package com.pizza.delivery.shard;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ShardMembership Unit Tests")
+class ShardMembershipTest {
+
+    private final ShardMembership membership = new ShardMembership("delivery-1", "http://delivery-1:8083", 6000);
+
+    @Test
+    @DisplayName("Should always list the own instance")
+    void getMembers_shouldContainSelf() {
+        // When
+        boolean changed = membership.heartbeat(new ShardHeartbeat("delivery-1", "http://elsewhere", false), 0);
+
+        // Then
+        assertFalse(changed);
+        assertEquals(Map.of("delivery-1", "http://delivery-1:8083"), membership.getMembers());
+    }
+
+    @Test
+    @DisplayName("Should report joins but not repeated heartbeats")
+    void heartbeat_shouldReportJoins() {
+        // When
+        boolean joined = membership.heartbeat(new ShardHeartbeat("delivery-2", "http://delivery-2:8083", false), 0);
+        boolean repeated = membership.heartbeat(
+                new ShardHeartbeat("delivery-2", "http://delivery-2:8083", false), 2000);
+
+        // Then
+        assertTrue(joined);
+        assertFalse(repeated);
+        assertEquals("http://delivery-2:8083", membership.getMembers().get("delivery-2"));
+    }
+
+    @Test
+    @DisplayName("Should drop instances that leave or stop sending heartbeats")
+    void shouldDropLeavingAndSilentInstances() {
+        // Given
+        membership.heartbeat(new ShardHeartbeat("delivery-2", "http://delivery-2:8083", false), 0);
+        membership.heartbeat(new ShardHeartbeat("delivery-3", "http://delivery-3:8083", false), 0);
+        membership.heartbeat(new ShardHeartbeat("delivery-3", "http://delivery-3:8083", false), 5000);
+
+        // When
+        boolean left = membership.heartbeat(new ShardHeartbeat("delivery-2", null, true), 1000);
+        boolean expiredEarly = membership.expire(6000);
+        boolean expired = membership.expire(11_001);
+
+        // Then
+        assertTrue(left);
+        assertFalse(expiredEarly);
+        assertTrue(expired);
+        assertEquals(Map.of("delivery-1", "http://delivery-1:8083"), membership.getMembers());
+    }
+}
@@ -0,0 +1,215 @@
+package com.pizza.delivery.shard;
+
+import com.pizza.models.DeliveryStatus;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.handler.PropagatingSenderTracingObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelBaggageManager;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ShardRouter Unit Tests")
+class ShardRouterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger status = new AtomicInteger(200);
+    private final AtomicReference<String> path = new AtomicReference<>();
+    private final AtomicReference<String> forwardedHeader = new AtomicReference<>();
+    private final AtomicReference<String> ifNoneMatch = new AtomicReference<>();
+    private final AtomicReference<String> traceparent = new AtomicReference<>();
+    private HttpServer server;
+    private ShardTable table;
+    private String remoteOrder;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/deliveries/", exchange -> {
+            path.set(exchange.getRequestURI().getPath());
+            forwardedHeader.set(exchange.getRequestHeaders().getFirst(ShardRouter.FORWARDED_HEADER));
+            ifNoneMatch.set(exchange.getRequestHeaders().getFirst("If-None-Match"));
+            traceparent.set(exchange.getRequestHeaders().getFirst("traceparent"));
+            exchange.getResponseHeaders().add("ETag", "\"7\"");
+            if (status.get() == 200) {
+                String orderId = path.get().substring(path.get().lastIndexOf('/') + 1);
+                byte[] body = ("{\"orderId\":\"" + orderId + "\",\"status\":\"IN_TRANSIT\","
+                        + "\"driverName\":\"Anna Schmidt\"}").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } else {
+                exchange.sendResponseHeaders(status.get(), -1);
+            }
+            exchange.close();
+        });
+        server.start();
+
+        SortedMap<String, String> urls = new TreeMap<>();
+        urls.put("delivery-1", "http://127.0.0.1:1");
+        urls.put("delivery-2", "http://127.0.0.1:" + server.getAddress().getPort());
+        PartitionAssignment assignment = new PartitionAssignment(urls.keySet(), 16, 64);
+        table = new ShardTable("delivery-1", urls, assignment, null);
+        for (int i = 0; remoteOrder == null; i++) {
+            if (!table.isOwner("order-" + i)) {
+                remoteOrder = "order-" + i;
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private ShardRouter router(ShardRouter.Mode mode) {
+        return new ShardRouter(null, mode, 2000, new RestTemplateBuilder(), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should fetch the delivery from the owner and mark the request as forwarded")
+    void route_shouldForwardToOwner() {
+        // When
+        ResponseEntity<DeliveryStatus> response = router(ShardRouter.Mode.FORWARD).route(table, remoteOrder, "\"6\"");
+
+        // Then
+        assertNotNull(response);
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(remoteOrder, response.getBody().getOrderId());
+        assertEquals("Anna Schmidt", response.getBody().getDriverName());
+        assertEquals("\"7\"", response.getHeaders().getETag());
+        assertEquals("/api/v1/deliveries/" + remoteOrder, path.get());
+        assertEquals("true", forwardedHeader.get());
+        assertEquals("\"6\"", ifNoneMatch.get());
+        assertEquals(1.0, meterRegistry.get("delivery.sharding.routed").tag("mode", "forward").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should relay a not-modified answer of the owner")
+    void route_shouldRelayNotModified() {
+        // Given
+        status.set(304);
+
+        // When
+        ResponseEntity<DeliveryStatus> response = router(ShardRouter.Mode.FORWARD).route(table, remoteOrder, "\"7\"");
+
+        // Then
+        assertNotNull(response);
+        assertEquals(304, response.getStatusCode().value());
+        assertEquals("\"7\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    @DisplayName("Should return nothing when the owner does not know the order either")
+    void route_shouldReturnNullWhenOwnerMisses() {
+        // Given
+        status.set(404);
+
+        // Then
+        assertNull(router(ShardRouter.Mode.FORWARD).route(table, remoteOrder, null));
+        assertNull(ifNoneMatch.get());
+    }
+
+    @Test
+    @DisplayName("Should redirect to the owner without contacting it")
+    void route_shouldRedirectToOwner() {
+        // When
+        ResponseEntity<DeliveryStatus> response = router(ShardRouter.Mode.REDIRECT).route(table, remoteOrder, null);
+
+        // Then
+        assertEquals(307, response.getStatusCode().value());
+        assertEquals(URI.create(table.ownerUrl(remoteOrder) + "/api/v1/deliveries/" + remoteOrder),
+                response.getHeaders().getLocation());
+        assertNull(path.get());
+    }
+
+    @Test
+    @DisplayName("Should count owners that cannot be reached")
+    void route_shouldCountFailures() {
+        // Given the owner is down
+        server.stop(0);
+
+        // When
+        ResponseEntity<DeliveryStatus> response = router(ShardRouter.Mode.FORWARD).route(table, remoteOrder, null);
+
+        // Then
+        assertNull(response);
+        assertEquals(1.0, meterRegistry.get("delivery.sharding.forward.failures").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should answer orders owned by this instance locally only")
+    void route_shouldNotForwardOwnOrders() {
+        // Given
+        String ownOrder = null;
+        for (int i = 0; ownOrder == null; i++) {
+            if (table.isOwner("order-" + i)) {
+                ownOrder = "order-" + i;
+            }
+        }
+
+        // Then
+        assertEquals(List.of(), table.candidateUrls(ownOrder));
+        assertNull(router(ShardRouter.Mode.REDIRECT).route(table, ownOrder, null));
+        assertNull(path.get());
+    }
+
+    @Test
+    @DisplayName("Should carry the trace of the original request to the owner")
+    void route_shouldPropagateTraceContext() {
+        // Given a client observed the way Spring Boot observes RestTemplates
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder().build();
+        io.opentelemetry.api.trace.Tracer otelTracer = tracerProvider.get("delivery-service");
+        OtelCurrentTraceContext currentTraceContext = new OtelCurrentTraceContext();
+        OtelTracer tracer = new OtelTracer(otelTracer, currentTraceContext, event -> { },
+                new OtelBaggageManager(currentTraceContext, List.of(), List.of()));
+        OtelPropagator propagator = new OtelPropagator(
+                ContextPropagators.create(W3CTraceContextPropagator.getInstance()), otelTracer);
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig()
+                .observationHandler(new PropagatingSenderTracingObservationHandler<>(tracer, propagator));
+        ShardRouter router = new ShardRouter(null, ShardRouter.Mode.FORWARD, 2000,
+                new RestTemplateBuilder(template -> template.setObservationRegistry(observationRegistry)),
+                meterRegistry);
+        Span request = tracer.nextSpan().name("GET /api/v1/deliveries/{orderId}").start();
+
+        // When
+        try (Tracer.SpanInScope scope = tracer.withSpan(request)) {
+            assertNotNull(router.route(table, remoteOrder, null));
+        } finally {
+            request.end();
+            tracerProvider.close();
+        }
+
+        // Then
+        assertNotNull(traceparent.get());
+        assertTrue(traceparent.get().startsWith("00-" + request.context().traceId() + "-"),
+                "traceparent: " + traceparent.get());
+    }
+}
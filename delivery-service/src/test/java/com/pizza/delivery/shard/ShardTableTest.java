@@ -0,0 +1,85 @@
+package com.pizza.delivery.shard;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ShardTable Unit Tests")
+class ShardTableTest {
+
+    private static SortedMap<String, String> urls(String... instanceIds) {
+        SortedMap<String, String> urls = new TreeMap<>();
+        for (String instanceId : instanceIds) {
+            urls.put(instanceId, "http://" + instanceId + ":8083");
+        }
+        return urls;
+    }
+
+    /**
+     * First order owned by {@code from} before and by {@code to} after
+     */
+    private static String movedOrder(PartitionAssignment before, PartitionAssignment after, String from, String to) {
+        for (int i = 0; i < 100_000; i++) {
+            String orderId = "order-" + i;
+            if (from.equals(before.ownerOf(orderId)) && to.equals(after.ownerOf(orderId))) {
+                return orderId;
+            }
+        }
+        return fail("No order moved from " + from + " to " + to);
+    }
+
+    @Test
+    @DisplayName("Should route orders of other instances to their owner")
+    void shouldRouteToOwner() {
+        // Given
+        PartitionAssignment assignment = new PartitionAssignment(List.of("delivery-1", "delivery-2"), 16, 64);
+        ShardTable table = new ShardTable("delivery-1", urls("delivery-1", "delivery-2"), assignment, null);
+        String own = movedOrder(assignment, assignment, "delivery-1", "delivery-1");
+        String other = movedOrder(assignment, assignment, "delivery-2", "delivery-2");
+
+        // Then
+        assertEquals(assignment.partitionsOf("delivery-1"), table.getOwnedPartitions());
+        assertTrue(table.isOwner(own));
+        assertNull(table.ownerUrl(own));
+        assertTrue(table.candidateUrls(own).isEmpty());
+        assertFalse(table.isOwner(other));
+        assertEquals("http://delivery-2:8083", table.ownerUrl(other));
+        assertEquals(List.of("http://delivery-2:8083"), table.candidateUrls(other));
+    }
+
+    @Test
+    @DisplayName("Should try the previous owner of a moved partition after the current one")
+    void candidateUrls_shouldIncludePreviousOwner() {
+        // Given
+        PartitionAssignment before = new PartitionAssignment(List.of("delivery-1", "delivery-2"), 16, 64);
+        PartitionAssignment after = new PartitionAssignment(List.of("delivery-1", "delivery-2", "delivery-3"), 16, 64);
+        SortedMap<String, String> urls = urls("delivery-1", "delivery-2", "delivery-3");
+        ShardTable table = new ShardTable("delivery-1", urls, after, before);
+        ShardTable joined = new ShardTable("delivery-3", urls, after, before);
+        String moved = movedOrder(before, after, "delivery-2", "delivery-3");
+
+        // Then
+        assertEquals(List.of("http://delivery-3:8083", "http://delivery-2:8083"), table.candidateUrls(moved));
+        assertNull(joined.ownerUrl(moved));
+        assertEquals(List.of("http://delivery-2:8083"), joined.candidateUrls(moved));
+    }
+
+    @Test
+    @DisplayName("Should skip previous owners that left")
+    void candidateUrls_shouldSkipDepartedInstances() {
+        // Given
+        PartitionAssignment before = new PartitionAssignment(List.of("delivery-1", "delivery-2"), 16, 64);
+        PartitionAssignment after = new PartitionAssignment(List.of("delivery-1"), 16, 64);
+        ShardTable table = new ShardTable("delivery-1", urls("delivery-1"), after, before);
+        String orphaned = movedOrder(before, after, "delivery-2", "delivery-1");
+
+        // Then
+        assertTrue(table.isOwner(orphaned));
+        assertTrue(table.candidateUrls(orphaned).isEmpty());
+    }
+}
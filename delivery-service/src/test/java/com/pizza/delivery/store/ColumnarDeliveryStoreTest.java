@@ -0,0 +1,258 @@
+package com.pizza.delivery.store;
+
+import com.pizza.models.DeliveryStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ColumnarDeliveryStore Tests")
+class ColumnarDeliveryStoreTest {
+
+    private MeterRegistry meterRegistry;
+    private ColumnarDeliveryStore store;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new ColumnarDeliveryStore(meterRegistry);
+    }
+
+    private DeliveryStatus inTransit(String orderId, String driver) {
+        return new DeliveryStatus(
+                orderId,
+                "IN_TRANSIT",
+                driver,
+                "Bahnhofstrasse 1, 8001 Z\u00fcrich",
+                LocalDateTime.of(2026, 1, 16, 10, 0),
+                LocalDateTime.of(2026, 1, 16, 10, 30),
+                null,
+                LocalDateTime.of(2026, 1, 16, 10, 10, 5, 123_000_000),
+                LocalDateTime.of(2026, 1, 16, 10, 10),
+                LocalDateTime.of(2026, 1, 16, 10, 25)
+        );
+    }
+
+    @Test
+    @DisplayName("Should return stored deliveries with all fields preserved")
+    void shouldRoundTripDeliveries() {
+        // Given
+        DeliveryStatus delivery = inTransit("order-1", "Anna Schmidt");
+        DeliveryStatus pending = new DeliveryStatus("order-2", "PENDING", null, null,
+                null, LocalDateTime.of(2026, 1, 16, 10, 40), null, null, null, null);
+
+        // When
+        store.put(delivery);
+        store.put(pending);
+
+        // Then
+        assertEquals(delivery, store.get("order-1"));
+        assertEquals(pending, store.get("order-2"));
+        assertNull(store.get("order-3"));
+        assertTrue(store.contains("order-1"));
+        assertFalse(store.contains("order-3"));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    @DisplayName("Should keep timestamps at millisecond precision")
+    void shouldTruncateTimestampsToMillis() {
+        // Given
+        DeliveryStatus delivery = inTransit("order-1", "Anna Schmidt");
+        delivery.setAssignedAt(LocalDateTime.of(2026, 1, 16, 10, 0, 0, 123_456_789));
+
+        // When
+        store.put(delivery);
+
+        // Then
+        assertEquals(LocalDateTime.of(2026, 1, 16, 10, 0, 0, 123_000_000), store.get("order-1").getAssignedAt());
+    }
+
+    @Test
+    @DisplayName("Should apply compute like a concurrent map")
+    void compute_shouldReplaceAndRemove() {
+        // Given
+        store.put(inTransit("order-1", "Anna Schmidt"));
+
+        // When
+        DeliveryStatus delivered = store.computeIfPresent("order-1", (orderId, current) ->
+                new DeliveryStatus(orderId, "DELIVERED", current.getDriverName(), "Other address 5",
+                        current.getAssignedAt(), current.getEstimatedDeliveryTime(),
+                        LocalDateTime.of(2026, 1, 16, 10, 24), current.getInTransitAt(),
+                        current.getTargetInTransitTime(), current.getTargetDeliveredTime()));
+        DeliveryStatus absent = store.computeIfPresent("order-2", (orderId, current) -> current);
+
+        // Then
+        assertEquals(delivered, store.get("order-1"));
+        assertEquals("Other address 5", store.get("order-1").getAddress());
+        assertNull(absent);
+        assertFalse(store.contains("order-2"));
+
+        // When
+        store.compute("order-1", (orderId, current) -> null);
+
+        // Then
+        assertNull(store.get("order-1"));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    @DisplayName("Should leave the delivery unchanged when it cannot be encoded")
+    void compute_shouldRejectInvalidDeliveries() {
+        // Given
+        DeliveryStatus delivery = inTransit("order-1", "Anna Schmidt");
+        store.put(delivery);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> store.compute("order-1", (orderId, current) ->
+                new DeliveryStatus(orderId, "LOST", null, null, null, null, null, null, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> store.compute("order-1", (orderId, current) ->
+                inTransit("order-2", "Anna Schmidt")));
+        assertEquals(delivery, store.get("order-1"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("Should only report changes the store accepted")
+    void compute_shouldCallOnChangeOnlyForStoredDeliveries() {
+        // Given
+        DeliveryStatus delivery = inTransit("order-1", "Anna Schmidt");
+        store.put(delivery);
+        List<String> changes = new ArrayList<>();
+
+        // When
+        assertThrows(IllegalArgumentException.class, () -> store.compute("order-1",
+                (orderId, current) -> new DeliveryStatus(orderId, "LOST", null, null, null, null, null, null, null,
+                        null),
+                (previous, next) -> changes.add("rejected")));
+        store.compute("order-1", (orderId, current) -> current,
+                (previous, next) -> changes.add("unchanged"));
+        store.compute("order-1", (orderId, current) -> inTransit(orderId, "Tom Fischer"),
+                (previous, next) -> changes.add(previous.getDriverName() + " -> " + next.getDriverName()));
+        store.computeIfPresent("order-1", (orderId, current) -> null,
+                (previous, next) -> changes.add("removed " + (next == null)));
+        store.computeIfPresent("order-2", (orderId, current) -> inTransit(orderId, null),
+                (previous, next) -> changes.add("absent"));
+
+        // Then
+        assertEquals(List.of("Anna Schmidt -> Tom Fischer", "removed true"), changes);
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    @DisplayName("Should change and read other orders while a remapping function runs")
+    void compute_shouldNotBlockOtherOrdersDuringRemapping() throws Exception {
+        // Given
+        store.put(inTransit("order-1", "Anna Schmidt"));
+        CountDownLatch remapping = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<DeliveryStatus> slow = executor.submit(() -> store.compute("order-1", (orderId, current) -> {
+            remapping.countDown();
+            awaitQuietly(release);
+            return inTransit(orderId, "Tom Fischer");
+        }));
+        assertTrue(remapping.await(5, TimeUnit.SECONDS));
+
+        // When
+        store.put(inTransit("order-2", "Lisa Weber"));
+        store.computeIfPresent("order-2", (orderId, current) -> null);
+        store.put(inTransit("order-3", "Lisa Weber"));
+        DeliveryStatus duringRemapping = store.get("order-1");
+        release.countDown();
+
+        // Then
+        assertEquals("Anna Schmidt", duringRemapping.getDriverName());
+        assertEquals("Tom Fischer", slow.get(5, TimeUnit.SECONDS).getDriverName());
+        assertEquals("Tom Fischer", store.get("order-1").getDriverName());
+        assertEquals(2, store.size());
+        executor.shutdown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    @DisplayName("Should match a hash map through random inserts, updates and removals")
+    void shouldBehaveLikeAMap() {
+        // Given
+        Map<String, DeliveryStatus> expected = new HashMap<>();
+        Random random = new Random(42);
+        String[] drivers = {"Max Mustermann", "Anna Schmidt", "Peter Mueller", null};
+
+        // When enough churn to grow the columns, resize the table and compact the arena
+        for (int i = 0; i < 200_000; i++) {
+            String orderId = "order-" + random.nextInt(20_000);
+            if (random.nextInt(3) == 0) {
+                store.compute(orderId, (id, current) -> null);
+                expected.remove(orderId);
+            } else {
+                DeliveryStatus delivery = inTransit(orderId, drivers[random.nextInt(drivers.length)]);
+                delivery.setAddress("Street " + random.nextInt(1000) + ", 8001 Zurich");
+                store.put(delivery);
+                expected.put(orderId, delivery);
+            }
+        }
+
+        // Then
+        assertEquals(expected.size(), store.size());
+        assertEquals(expected, Map.copyOf(store.asMap()));
+        for (int i = 0; i < 20_000; i++) {
+            String orderId = "order-" + i;
+            assertEquals(expected.get(orderId), store.get(orderId));
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve an unmodifiable map view")
+    void asMap_shouldBeReadOnlyView() {
+        // Given
+        store.put(inTransit("order-1", "Anna Schmidt"));
+        Map<String, DeliveryStatus> view = store.asMap();
+
+        // When
+        store.put(inTransit("order-2", "Tom Fischer"));
+
+        // Then
+        assertEquals(2, view.size());
+        assertTrue(view.containsKey("order-2"));
+        assertEquals("Tom Fischer", view.get("order-2").getDriverName());
+        assertNull(view.get(42));
+        assertThrows(UnsupportedOperationException.class, () -> view.put("order-3", inTransit("order-3", null)));
+    }
+
+    @Test
+    @DisplayName("Should report allocated bytes as a gauge")
+    void shouldReportAllocatedBytes() {
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            store.put(inTransit("order-" + i, "Anna Schmidt"));
+        }
+
+        // Then
+        double bytes = meterRegistry.get("delivery.store.columnar.bytes").gauge().value();
+        assertEquals(store.getAllocatedBytes(), (long) bytes);
+        // Columns grow by doubling and the arena by whole pages
+        assertTrue(bytes < 10_000 * 2 * 100 + StringArena.PAGE_SIZE, "bytes: " + bytes);
+    }
+}
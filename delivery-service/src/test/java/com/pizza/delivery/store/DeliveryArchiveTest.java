@@ -0,0 +1,265 @@
+package com.pizza.delivery.store;
+
+import com.pizza.models.DeliveryStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DeliveryArchive Tests")
+class DeliveryArchiveTest {
+
+    @TempDir
+    Path archiveDir;
+
+    private DeliveryStatus delivered(String orderId, String driver) {
+        return new DeliveryStatus(
+                orderId,
+                "DELIVERED",
+                driver,
+                "Address " + orderId,
+                LocalDateTime.of(2026, 1, 16, 10, 0),
+                LocalDateTime.of(2026, 1, 16, 10, 30),
+                LocalDateTime.of(2026, 1, 16, 10, 25, 12, 345_000_000),
+                LocalDateTime.of(2026, 1, 16, 10, 10),
+                LocalDateTime.of(2026, 1, 16, 10, 10),
+                null
+        );
+    }
+
+    @Test
+    @DisplayName("Should find archived deliveries with all fields preserved")
+    void shouldFindArchivedDeliveries() throws Exception {
+        // Given
+        DeliveryArchive archive = new DeliveryArchive(archiveDir.toString(), 4, 32, new SimpleMeterRegistry());
+        DeliveryStatus first = delivered("order-b", "Anna Schmidt");
+        DeliveryStatus second = delivered("order-a", "Tom Fischer");
+
+        // When
+        archive.append(List.of(first, second));
+
+        // Then
+        assertEquals(first, archive.find("order-b"));
+        assertEquals(second, archive.find("order-a"));
+        assertNull(archive.find("order-unknown"));
+        assertEquals(2, archive.size());
+        archive.close();
+    }
+
+    @Test
+    @DisplayName("Should search newer segments before older ones")
+    void shouldPreferNewestSegment() throws Exception {
+        // Given
+        DeliveryArchive archive = new DeliveryArchive(archiveDir.toString(), 4, 32, new SimpleMeterRegistry());
+        archive.append(List.of(delivered("order-1", "Max Mustermann")));
+
+        // When
+        archive.append(List.of(delivered("order-1", "Lisa Weber")));
+
+        // Then
+        assertEquals("Lisa Weber", archive.find("order-1").getDriverName());
+        archive.close();
+    }
+
+    @Test
+    @DisplayName("Should answer membership from the index and list order IDs oldest segment first")
+    void shouldListArchivedOrderIds() throws Exception {
+        // Given
+        DeliveryArchive archive = new DeliveryArchive(archiveDir.toString(), 4, 32, new SimpleMeterRegistry());
+        archive.append(List.of(delivered("order-b", "Anna Schmidt"), delivered("order-a", "Tom Fischer")));
+        archive.append(List.of(delivered("order-c", "Lisa Weber")));
+
+        // When
+        List<String> orderIds = new ArrayList<>();
+        archive.forEachOrderId(orderIds::add);
+
+        // Then
+        assertEquals(List.of("order-a", "order-b", "order-c"), orderIds);
+        assertTrue(archive.contains("order-c"));
+        assertFalse(archive.contains("order-unknown"));
+        archive.close();
+    }
+
+    @Test
+    @DisplayName("Should reload existing segments on startup")
+    void shouldReloadSegmentsOnStartup() throws Exception {
+        // Given
+        DeliveryArchive archive = new DeliveryArchive(archiveDir.toString(), 4, 32, new SimpleMeterRegistry());
+        archive.append(List.of(delivered("order-1", "Max Mustermann")));
+        archive.append(List.of(delivered("order-2", "Peter Mueller")));
+        archive.close();
+
+        // When
+        DeliveryArchive reopened = new DeliveryArchive(archiveDir.toString(), 4, 32, new SimpleMeterRegistry());
+        reopened.append(List.of(delivered("order-3", "Lisa Weber")));
+
+        // Then
+        assertEquals(3, reopened.size());
+        assertNotNull(reopened.find("order-1"));
+        assertNotNull(reopened.find("order-2"));
+        assertNotNull(reopened.find("order-3"));
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Should share status and driver name between archived deliveries")
+    void shouldInternRepeatedStrings() throws Exception {
+        // Given
+        DeliveryArchive archive = new DeliveryArchive(archiveDir.toString(), 4, 32, new SimpleMeterRegistry());
+        archive.append(List.of(delivered("order-1", "Anna Schmidt"), delivered("order-2", "Anna Schmidt")));
+
+        // When
+        DeliveryStatus first = archive.find("order-1");
+        DeliveryStatus second = archive.find("order-2");
+
+        // Then
+        assertSame(first.getStatus(), second.getStatus());
+        assertSame(first.getDriverName(), second.getDriverName());
+        assertNotSame(first.getAddress(), archive.find("order-1").getAddress());
+        archive.close();
+    }
+
+    @Test
+    @DisplayName("Should record archive lookup latency")
+    void shouldRecordLookupLatency() throws Exception {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DeliveryArchive archive = new DeliveryArchive(archiveDir.toString(), 4, 32, registry);
+        archive.append(List.of(delivered("order-1", "Max Mustermann")));
+
+        // When
+        archive.find("order-1");
+        archive.find("order-2");
+
+        // Then
+        assertEquals(2, registry.get("delivery.archive.lookup").timer().count());
+        archive.close();
+    }
+
+    @Test
+    @DisplayName("Should merge segments of the same size tier, keeping the newest delivery of an order")
+    void shouldMergeSegmentsOfSameTier() throws Exception {
+        // Given
+        DeliveryArchive archive = new DeliveryArchive(archiveDir.toString(), 4, 32, new SimpleMeterRegistry());
+        archive.append(List.of(delivered("order-1", "Max Mustermann")));
+        archive.append(List.of(delivered("order-2", "Peter Mueller")));
+        archive.append(List.of(delivered("order-1", "Lisa Weber")));
+        archive.append(List.of(delivered("order-3", "Anna Schmidt")));
+
+        // When
+        archive.mergeSegments();
+
+        // Then
+        assertEquals(1, segmentFiles());
+        assertEquals(3, archive.size());
+        assertEquals("Lisa Weber", archive.find("order-1").getDriverName());
+        assertNotNull(archive.find("order-2"));
+        assertNotNull(archive.find("order-3"));
+        archive.close();
+    }
+
+    @Test
+    @DisplayName("Should merge the smallest neighbouring segments past the segment limit")
+    void shouldBoundSegmentCount() throws Exception {
+        // Given
+        DeliveryArchive archive = new DeliveryArchive(archiveDir.toString(), 100, 3, new SimpleMeterRegistry());
+        for (int i = 0; i < 10; i++) {
+            archive.append(List.of(delivered("order-" + i, "Max Mustermann")));
+        }
+
+        // When
+        archive.mergeSegments();
+
+        // Then
+        assertEquals(3, segmentFiles());
+        assertEquals(10, archive.size());
+        for (int i = 0; i < 10; i++) {
+            assertTrue(archive.contains("order-" + i));
+        }
+        archive.close();
+    }
+
+    @Test
+    @DisplayName("Should find every delivery of large merged segments after a restart")
+    void shouldFindDeliveriesOfMergedSegmentsAfterRestart() throws Exception {
+        // Given
+        DeliveryArchive archive = new DeliveryArchive(archiveDir.toString(), 2, 32, new SimpleMeterRegistry());
+        for (int batch = 0; batch < 4; batch++) {
+            List<DeliveryStatus> deliveries = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                deliveries.add(delivered(String.format("order-%05d", i * 4 + batch), "Tom Fischer"));
+            }
+            archive.append(deliveries);
+        }
+        archive.mergeSegments();
+        archive.close();
+
+        // When
+        DeliveryArchive reopened = new DeliveryArchive(archiveDir.toString(), 2, 32, new SimpleMeterRegistry());
+
+        // Then
+        assertEquals(1, segmentFiles());
+        assertEquals(2000, reopened.size());
+        for (int i = 0; i < 2000; i++) {
+            String orderId = String.format("order-%05d", i);
+            assertEquals(orderId, reopened.find(orderId).getOrderId());
+        }
+        assertNull(reopened.find("order-02000"));
+        assertFalse(reopened.contains("order-0000"));
+        List<String> orderIds = new ArrayList<>();
+        reopened.forEachOrderId(orderIds::add);
+        assertEquals(2000, orderIds.size());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Should fail only the interrupted lookup and keep serving the others")
+    void find_shouldRecoverFromInterruptedReader() throws Exception {
+        // Given
+        DeliveryArchive archive = new DeliveryArchive(archiveDir.toString(), 4, 32, new SimpleMeterRegistry());
+        archive.append(List.of(delivered("order-1", "Anna Schmidt"), delivered("order-2", "Tom Fischer")));
+
+        // When an interrupted request reads the segment, which closes its channel
+        Thread.currentThread().interrupt();
+        UncheckedIOException failure = assertThrows(UncheckedIOException.class, () -> archive.find("order-1"));
+
+        // Then
+        assertTrue(Thread.interrupted());
+        assertInstanceOf(ClosedByInterruptException.class, failure.getCause());
+        assertEquals("Anna Schmidt", archive.find("order-1").getDriverName());
+        assertTrue(archive.contains("order-2"));
+        archive.close();
+    }
+
+    @Test
+    @DisplayName("Should not reopen a segment that was closed")
+    void find_shouldFailOnClosedSegment() throws Exception {
+        // Given
+        ArchiveSegment segment = ArchiveSegment.write(archiveDir.resolve("segment-0.dat"),
+                List.of(delivered("order-1", "Anna Schmidt")));
+
+        // When
+        segment.close();
+
+        // Then
+        assertThrows(ClosedChannelException.class, () -> segment.find("order-1"));
+    }
+
+    private long segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(archiveDir)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.pizza.delivery.store;
+
+import com.pizza.delivery.model.DeliveryUpdate;
+import com.pizza.models.DeliveryStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DeliveryJournal Tests")
+class DeliveryJournalTest {
+
+    @TempDir
+    Path journalDir;
+
+    private DeliveryJournal open() {
+        return new DeliveryJournal(journalDir.toString(), 5, new SimpleMeterRegistry());
+    }
+
+    private static DeliveryStatus delivery(String orderId, String status) {
+        return new DeliveryStatus(
+                orderId,
+                status,
+                "Anna Schmidt",
+                "Bahnhofstrasse 1, 8001 Zurich",
+                LocalDateTime.of(2026, 1, 16, 10, 0),
+                LocalDateTime.of(2026, 1, 16, 10, 30),
+                null,
+                "IN_TRANSIT".equals(status) ? LocalDateTime.of(2026, 1, 16, 10, 10) : null,
+                LocalDateTime.of(2026, 1, 16, 10, 10),
+                null
+        );
+    }
+
+    private static Map<String, DeliveryStatus> toMap(JournalRecovery recovery) {
+        Map<String, DeliveryStatus> deliveries = new HashMap<>();
+        recovery.forEach(delivery -> deliveries.put(delivery.getOrderId(), delivery));
+        return deliveries;
+    }
+
+    private List<Path> files(String suffix) throws Exception {
+        try (Stream<Path> files = Files.list(journalDir)) {
+            return files.filter(file -> file.toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+
+    @Test
+    @DisplayName("Should recover the latest state of every order and drop removed ones")
+    void recover_shouldApplyLastRecordPerOrder() {
+        // Given
+        DeliveryJournal journal = open();
+        assertEquals(0, journal.recover().size());
+        journal.append(new DeliveryUpdate(1, DeliveryUpdate.CREATED, null, delivery("order-1", "ASSIGNED")));
+        journal.append(new DeliveryUpdate(2, DeliveryUpdate.CREATED, null, delivery("order-2", "ASSIGNED")));
+        journal.append(new DeliveryUpdate(3, DeliveryUpdate.STATUS_CHANGED, "ASSIGNED", delivery("order-1", "IN_TRANSIT")));
+        journal.append(new DeliveryUpdate(4, DeliveryUpdate.ARCHIVED, "DELIVERED", delivery("order-2", "DELIVERED")));
+        journal.awaitDurable();
+
+        // When: reopened without closing, as after a crash
+        JournalRecovery recovery = open().recover();
+
+        // Then
+        assertEquals(Map.of("order-1", delivery("order-1", "IN_TRANSIT")), toMap(recovery));
+        assertEquals(4, recovery.getVersion());
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Should combine the latest snapshot with the records appended after it")
+    void recover_shouldReplayRecordsAfterSnapshot() throws Exception {
+        // Given
+        DeliveryJournal journal = open();
+        journal.recover();
+        journal.append(new DeliveryUpdate(1, DeliveryUpdate.CREATED, null, delivery("order-1", "ASSIGNED")));
+        journal.append(new DeliveryUpdate(2, DeliveryUpdate.CREATED, null, delivery("order-2", "ASSIGNED")));
+        try (DeliveryJournal.Snapshot snapshot = journal.startSnapshot()) {
+            snapshot.write(delivery("order-1", "ASSIGNED"));
+            snapshot.write(delivery("order-2", "ASSIGNED"));
+            snapshot.commit(2);
+        }
+        journal.append(new DeliveryUpdate(3, DeliveryUpdate.CREATED, null, delivery("order-3", "ASSIGNED")));
+        journal.append(new DeliveryUpdate(4, DeliveryUpdate.STATUS_CHANGED, "ASSIGNED", delivery("order-1", "IN_TRANSIT")));
+        journal.close();
+
+        // When
+        JournalRecovery recovery = open().recover();
+
+        // Then
+        assertEquals(Map.of(
+                "order-1", delivery("order-1", "IN_TRANSIT"),
+                "order-2", delivery("order-2", "ASSIGNED"),
+                "order-3", delivery("order-3", "ASSIGNED")), toMap(recovery));
+        assertEquals(4, recovery.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should delete segments and snapshots that a newer snapshot replaces")
+    void snapshot_shouldDeleteReplacedFiles() throws Exception {
+        // Given
+        DeliveryJournal journal = open();
+        journal.recover();
+
+        // When
+        for (int i = 1; i <= 3; i++) {
+            journal.append(new DeliveryUpdate(i, DeliveryUpdate.CREATED, null, delivery("order-" + i, "ASSIGNED")));
+            try (DeliveryJournal.Snapshot snapshot = journal.startSnapshot()) {
+                for (int j = 1; j <= i; j++) {
+                    snapshot.write(delivery("order-" + j, "ASSIGNED"));
+                }
+                snapshot.commit(i);
+            }
+        }
+        journal.close();
+
+        // Then: the segment before the snapshot is kept for changes that raced with it
+        assertEquals(1, files(".snap").size());
+        assertEquals(2, files(".wal").size());
+        JournalRecovery recovery = open().recover();
+        assertEquals(3, recovery.size());
+        assertEquals(3, recovery.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should ignore an uncommitted snapshot")
+    void snapshot_shouldLeaveNothingBehindWithoutCommit() throws Exception {
+        // Given
+        DeliveryJournal journal = open();
+        journal.recover();
+        journal.append(new DeliveryUpdate(1, DeliveryUpdate.CREATED, null, delivery("order-1", "ASSIGNED")));
+
+        // When
+        try (DeliveryJournal.Snapshot snapshot = journal.startSnapshot()) {
+            snapshot.write(delivery("order-1", "ASSIGNED"));
+        }
+        journal.close();
+
+        // Then
+        assertTrue(files(".snap").isEmpty());
+        assertTrue(files(".tmp").isEmpty());
+        assertEquals(1, open().recover().size());
+    }
+
+    @Test
+    @DisplayName("Should stop replaying a segment at a torn record and keep the records before it")
+    void recover_shouldSkipTornTail() throws Exception {
+        // Given
+        DeliveryJournal journal = open();
+        journal.recover();
+        journal.append(new DeliveryUpdate(1, DeliveryUpdate.CREATED, null, delivery("order-1", "ASSIGNED")));
+        journal.append(new DeliveryUpdate(2, DeliveryUpdate.CREATED, null, delivery("order-2", "ASSIGNED")));
+        journal.close();
+        Path segment = files(".wal").get(0);
+        byte[] bytes = Files.readAllBytes(segment);
+
+        // When: the last record was only partly written and garbage follows
+        Files.write(segment, Arrays.copyOf(bytes, bytes.length - 5));
+        Files.write(segment, new byte[]{0, 0, 0, 9, 1, 2, 3}, StandardOpenOption.APPEND);
+        JournalRecovery recovery = open().recover();
+
+        // Then
+        assertEquals(Map.of("order-1", delivery("order-1", "ASSIGNED")), toMap(recovery));
+        assertEquals(1, recovery.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should reject a second recovery of an open journal")
+    void recover_shouldOnlyRunOnce() {
+        // Given
+        DeliveryJournal journal = open();
+        journal.recover();
+
+        // When / Then
+        assertThrows(IllegalStateException.class, journal::recover);
+        journal.close();
+    }
+}
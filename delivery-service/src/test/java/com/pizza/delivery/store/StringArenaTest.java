@@ -0,0 +1,74 @@
+package com.pizza.delivery.store;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StringArena Tests")
+class StringArenaTest {
+
+    @Test
+    @DisplayName("Should return both strings of an entry")
+    void shouldStoreStringPairs() {
+        // Given
+        StringArena arena = new StringArena();
+
+        // When
+        long first = arena.add("order-1", "Bahnhofstrasse 1, 8001 Z\u00fcrich");
+        long second = arena.add("order-2", null);
+
+        // Then
+        assertEquals("order-1", arena.first(first));
+        assertEquals("Bahnhofstrasse 1, 8001 Z\u00fcrich", arena.second(first));
+        assertEquals("order-2", arena.first(second));
+        assertNull(arena.second(second));
+        assertTrue(arena.firstEquals(first, "order-1".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(arena.firstEquals(first, "order-10".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Should give entries larger than a page a page of their own")
+    void shouldStoreOversizedEntries() {
+        // Given
+        StringArena arena = new StringArena();
+        String large = "x".repeat(StringArena.PAGE_SIZE + 10);
+
+        // When
+        long small = arena.add("order-1", "Address 1");
+        long big = arena.add("order-2", large);
+        long after = arena.add("order-3", "Address 3");
+
+        // Then
+        assertEquals("Address 1", arena.second(small));
+        assertEquals(large, arena.second(big));
+        assertEquals("Address 3", arena.second(after));
+    }
+
+    @Test
+    @DisplayName("Should ask for compaction once freed entries outweigh live ones")
+    void shouldTrackFreedBytes() {
+        // Given
+        StringArena arena = new StringArena();
+        long[] refs = new long[50_000];
+        for (int i = 0; i < refs.length; i++) {
+            refs[i] = arena.add("order-" + i, "Address " + i);
+        }
+        assertFalse(arena.needsCompaction());
+
+        // When
+        for (int i = 0; i < refs.length * 3 / 4; i++) {
+            arena.free(refs[i]);
+        }
+
+        // Then
+        assertTrue(arena.needsCompaction());
+        StringArena compacted = new StringArena();
+        long copy = compacted.copy(arena, refs[refs.length - 1]);
+        assertEquals("order-49999", compacted.first(copy));
+        assertEquals("Address 49999", compacted.second(copy));
+        assertTrue(compacted.liveBytes() < arena.liveBytes());
+    }
+}
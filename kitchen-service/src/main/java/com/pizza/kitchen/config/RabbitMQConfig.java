@@ -1,13 +1,26 @@
 package com.pizza.kitchen.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizza.models.OrderReadyEvent;
+import com.pizza.models.routing.OrderPartitioner;
+import com.pizza.models.schema.EventSchemaRegistry;
+import com.pizza.models.wire.EventMessageConverter;
+import com.pizza.models.wire.WireFormat;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 public class RabbitMQConfig {
 
@@ -24,16 +37,55 @@ public class RabbitMQConfig {
         return new Queue(ORDER_READY_QUEUE, true); // durable = true
     }
 
+    /**
+     * Partition exchange and one queue per partition, declared here as well as in the delivery
+     * service so no ready order is dropped when the kitchen starts first. Nothing is declared
+     * while {@code order-ready.partitions} is 0.
+     */
+    @Bean
+    public Declarables orderReadyPartitions(@Value("${order-ready.partitions:0}") int partitions) {
+        if (partitions <= 0) {
+            return new Declarables();
+        }
+        DirectExchange exchange = new DirectExchange(OrderPartitioner.EXCHANGE, true, false);
+        List<Declarable> declarables = new ArrayList<>();
+        declarables.add(exchange);
+        for (int partition = 0; partition < partitions; partition++) {
+            Queue queue = new Queue(OrderPartitioner.queueName(partition), true);
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(exchange).with(OrderPartitioner.routingKey(partition)));
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * Reads JSON and binary events alike and sends order.ready in {@code order-ready.wire-format}.
+     * Switch to BINARY only once every consumer of order.ready runs a release that reads it. JSON goes
+     * through the shared Spring Boot ObjectMapper, as in the REST layer. JSON events carry their
+     * schema version and older versions are upcast while decoding. Bodies from
+     * {@code amqp.compression.threshold-bytes} on are gzipped.
+     */
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter(ObjectMapper objectMapper,
+            @Value("${order-ready.wire-format:JSON}") WireFormat wireFormat,
+            @Value("${amqp.compression.threshold-bytes:1024}") int compressionThreshold) {
+        return new EventMessageConverter(objectMapper,
+                wireFormat == WireFormat.BINARY ? List.of(OrderReadyEvent.class) : List.of(),
+                EventSchemaRegistry.standard())
+                .withCompression(compressionThreshold);
     }
 
+    /**
+     * Sends order.ready in a producer observation, which carries the trace of the order being
+     * prepared on as W3C {@code traceparent}. The order.placed listener is observed through
+     * {@code spring.rabbitmq.listener.simple.observation-enabled}.
+     */
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, 
                                         MessageConverter messageConverter) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(messageConverter);
+        template.setObservationEnabled(true);
         return template;
     }
 }
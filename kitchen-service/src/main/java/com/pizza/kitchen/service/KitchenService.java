@@ -3,6 +3,10 @@ package com.pizza.kitchen.service;
 import com.pizza.kitchen.config.RabbitMQConfig;
 import com.pizza.models.OrderPlacedEvent;
 import com.pizza.models.OrderReadyEvent;
+import com.pizza.models.routing.OrderPartitioner;
+import com.pizza.models.time.SimulationClock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -11,6 +15,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.net.InetAddress;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Random;
 
@@ -20,7 +25,10 @@ public class KitchenService {
     private static final Logger logger = LoggerFactory.getLogger(KitchenService.class);
     private final Random random = new Random();
     private final RabbitTemplate rabbitTemplate;
+    private final SimulationClock clock;
     private final String instanceId;
+    private final Timer queueWait;
+    private final Timer preparation;
 
     @Value("${kitchen.preparation.time.min:5000}")
     private int preparationTimeMin;
@@ -28,8 +36,23 @@ public class KitchenService {
     @Value("${kitchen.preparation.time.max:10000}")
     private int preparationTimeMax;
 
-    public KitchenService(RabbitTemplate rabbitTemplate) {
+    @Value("${order-ready.partitions:0}")
+    private int orderReadyPartitions;
+
+    public KitchenService(RabbitTemplate rabbitTemplate, SimulationClock clock, MeterRegistry meterRegistry) {
         this.rabbitTemplate = rabbitTemplate;
+        this.clock = clock;
+        this.queueWait = Timer.builder("order.queue.wait")
+                .description("Time from sending an order until it was taken from the queue, in simulated time")
+                .tag("queue", RabbitMQConfig.ORDER_PLACED_QUEUE)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.preparation = Timer.builder("kitchen.preparation")
+                .description("Time from taking an order until it was ready, in simulated time")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
         // Generate unique instance ID to demonstrate competing consumers
         String id;
         try {
@@ -40,21 +63,32 @@ public class KitchenService {
         this.instanceId = id;
     }
 
+    /**
+     * Prepare an order and announce it as ready. The ready event carries the order's timestamps
+     * from order-service along with when the kitchen took it and sent it on.
+     */
     @RabbitListener(queues = RabbitMQConfig.ORDER_PLACED_QUEUE)
     public void handleOrderPlaced(OrderPlacedEvent event) {
+        LocalDateTime receivedAt = clock.now();
+        if (event.getSentAt() != null) {
+            queueWait.record(Duration.between(event.getSentAt(), receivedAt));
+        }
         logger.info("[{}] Received order {} - {} x {} for {}", 
             instanceId, event.getOrderId(), event.getQuantity(), event.getPizza(), event.getCustomerName());
 
         try {
-            // Simulate pizza preparation time
+            // Simulate pizza preparation time; the clock may run faster than real time
             int preparationTime = preparationTimeMin + random.nextInt(preparationTimeMax - preparationTimeMin);
             logger.info("[{}] Preparing order {} - estimated time: {} ms", 
                 instanceId, event.getOrderId(), preparationTime);
             
-            Thread.sleep(preparationTime);
+            clock.sleep(Duration.ofMillis(preparationTime));
             
             logger.info("[{}] Order {} is ready!", instanceId, event.getOrderId());
 
+            LocalDateTime preparedAt = clock.now();
+            preparation.record(Duration.between(receivedAt, preparedAt));
+
             // Publish order ready event
             OrderReadyEvent readyEvent = new OrderReadyEvent(
                 event.getOrderId(),
@@ -62,10 +96,23 @@ public class KitchenService {
                 event.getQuantity(),
                 event.getAddress(),
                 event.getCustomerName(),
-                LocalDateTime.now()
+                preparedAt,
+                event.getTimestamp(),
+                event.getPaidAt(),
+                event.getSentAt(),
+                receivedAt,
+                null
             );
 
-            rabbitTemplate.convertAndSend(RabbitMQConfig.ORDER_READY_QUEUE, readyEvent);
+            readyEvent.setSentAt(clock.now());
+            if (orderReadyPartitions > 0) {
+                // Sharded delivery: the partition decides which delivery instance gets the order
+                int partition = OrderPartitioner.partition(event.getOrderId(), orderReadyPartitions);
+                rabbitTemplate.convertAndSend(OrderPartitioner.EXCHANGE, OrderPartitioner.routingKey(partition),
+                        readyEvent);
+            } else {
+                rabbitTemplate.convertAndSend(RabbitMQConfig.ORDER_READY_QUEUE, readyEvent);
+            }
             logger.info("[{}] Published order.ready event for order {}", instanceId, event.getOrderId());
 
         } catch (InterruptedException e) {
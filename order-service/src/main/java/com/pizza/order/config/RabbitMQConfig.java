@@ -1,13 +1,20 @@
 package com.pizza.order.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizza.models.OrderPlacedEvent;
+import com.pizza.models.schema.EventSchemaRegistry;
+import com.pizza.models.wire.EventMessageConverter;
+import com.pizza.models.wire.WireFormat;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
 @Configuration
 public class RabbitMQConfig {
 
@@ -18,16 +25,33 @@ public class RabbitMQConfig {
         return new Queue(ORDER_PLACED_QUEUE, true); // durable = true
     }
 
+    /**
+     * Reads JSON and binary events alike and sends order.placed in {@code order-placed.wire-format}.
+     * Switch to BINARY only once every consumer of order.placed runs a release that reads it. JSON goes
+     * through the shared Spring Boot ObjectMapper, as in the REST layer. JSON events carry their
+     * schema version and older versions are upcast while decoding. Bodies from
+     * {@code amqp.compression.threshold-bytes} on are gzipped.
+     */
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter(ObjectMapper objectMapper,
+            @Value("${order-placed.wire-format:JSON}") WireFormat wireFormat,
+            @Value("${amqp.compression.threshold-bytes:1024}") int compressionThreshold) {
+        return new EventMessageConverter(objectMapper,
+                wireFormat == WireFormat.BINARY ? List.of(OrderPlacedEvent.class) : List.of(),
+                EventSchemaRegistry.standard())
+                .withCompression(compressionThreshold);
     }
 
+    /**
+     * Sends order.placed in a producer observation, which puts the W3C {@code traceparent} of the
+     * order request on the message
+     */
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, 
                                         MessageConverter messageConverter) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(messageConverter);
+        template.setObservationEnabled(true);
         return template;
     }
 }
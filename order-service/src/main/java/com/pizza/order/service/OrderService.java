@@ -2,6 +2,10 @@ package com.pizza.order.service;
 
 import com.pizza.order.config.RabbitMQConfig;
 import com.pizza.models.*;
+import com.pizza.models.id.TimeOrderedIdGenerator;
+import com.pizza.models.time.SimulationClock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -10,8 +14,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class OrderService {
@@ -20,17 +26,53 @@ public class OrderService {
 
     private final RestTemplate restTemplate;
     private final RabbitTemplate rabbitTemplate;
+    private final TimeOrderedIdGenerator idGenerator;
+    private final SimulationClock clock;
+    private final MeterRegistry meterRegistry;
+    private final Timer paymentTimer;
+    // order.request per response status, registered on first use
+    private final Map<String, Timer> requestTimers = new ConcurrentHashMap<>();
 
     @Value("${payment.service.url}")
     private String paymentServiceUrl;
 
-    public OrderService(RestTemplate restTemplate, RabbitTemplate rabbitTemplate) {
+    public OrderService(RestTemplate restTemplate, RabbitTemplate rabbitTemplate, TimeOrderedIdGenerator idGenerator,
+            SimulationClock clock, MeterRegistry meterRegistry) {
         this.restTemplate = restTemplate;
         this.rabbitTemplate = rabbitTemplate;
+        this.idGenerator = idGenerator;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        this.paymentTimer = Timer.builder("order.payment")
+                .description("Time the payment service took to answer, in simulated time")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
+    /**
+     * Take payment and hand the order to the kitchen. The event carries when the order was
+     * accepted, paid and sent, so the services further down can attribute the time spent.
+     */
     public OrderResponse processOrder(OrderRequest orderRequest) {
-        String orderId = UUID.randomUUID().toString();
+        LocalDateTime placedAt = clock.now();
+        OrderResponse response = placeOrder(orderRequest, placedAt);
+        requestTimers.computeIfAbsent(response.getStatus(), this::requestTimer)
+                .record(Duration.between(placedAt, clock.now()));
+        return response;
+    }
+
+    private Timer requestTimer(String status) {
+        return Timer.builder("order.request")
+                .description("Time from accepting an order to answering it, in simulated time")
+                .tag("status", status)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private OrderResponse placeOrder(OrderRequest orderRequest, LocalDateTime placedAt) {
+        String orderId = idGenerator.next();
         logger.info("Processing order {} for customer {}", orderId, orderRequest.getCustomerName());
 
         // Calculate amount based on quantity (simplified pricing)
@@ -38,9 +80,16 @@ public class OrderService {
 
         // Step 1: Process payment (synchronous)
         PaymentRequest paymentRequest = new PaymentRequest(orderId, orderRequest.getCustomerName(), amount);
-        
+        LocalDateTime paidAt;
+
         try {
-            PaymentResponse paymentResponse = processPayment(paymentRequest);
+            PaymentResponse paymentResponse;
+            try {
+                paymentResponse = processPayment(paymentRequest);
+            } finally {
+                paidAt = clock.now();
+                paymentTimer.record(Duration.between(placedAt, paidAt));
+            }
             
             if (!paymentResponse.isSuccess()) {
                 logger.warn("Payment failed for order {}: {}", orderId, paymentResponse.getMessage());
@@ -65,7 +114,9 @@ public class OrderService {
                 orderRequest.getQuantity(),
                 orderRequest.getAddress(),
                 orderRequest.getCustomerName(),
-                LocalDateTime.now()
+                placedAt,
+                paidAt,
+                clock.now()
             );
 
             rabbitTemplate.convertAndSend(RabbitMQConfig.ORDER_PLACED_QUEUE, event);
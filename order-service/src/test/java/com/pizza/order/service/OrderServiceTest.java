@@ -2,6 +2,9 @@ package com.pizza.order.service;
 
 import com.pizza.order.config.RabbitMQConfig;
 import com.pizza.models.*;
+import com.pizza.models.id.TimeOrderedIdGenerator;
+import com.pizza.models.time.VirtualClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,6 +16,11 @@ import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -27,13 +35,19 @@ class OrderServiceTest {
     private RabbitTemplate rabbitTemplate;
 
     private OrderService orderService;
+    private VirtualClock clock;
+    private SimpleMeterRegistry meterRegistry;
 
     private static final String PAYMENT_SERVICE_URL = "http://localhost:8081";
     private static final double PIZZA_PRICE = 15.99;
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 16, 10, 0);
 
     @BeforeEach
     void setUp() {
-        orderService = new OrderService(restTemplate, rabbitTemplate);
+        clock = new VirtualClock(START);
+        meterRegistry = new SimpleMeterRegistry();
+        orderService = new OrderService(restTemplate, rabbitTemplate, new TimeOrderedIdGenerator(), clock,
+                meterRegistry);
         ReflectionTestUtils.setField(orderService, "paymentServiceUrl", PAYMENT_SERVICE_URL);
     }
 
@@ -54,6 +68,7 @@ class OrderServiceTest {
         assertEquals("SUCCESS", response.getStatus());
         assertTrue(response.getMessage().contains("Order placed successfully"));
         assertNotNull(response.getOrderId());
+        assertEquals(7, UUID.fromString(response.getOrderId()).version());
 
         // Verify payment was called with correct amount
         ArgumentCaptor<PaymentRequest> paymentCaptor = ArgumentCaptor.forClass(PaymentRequest.class);
@@ -80,6 +95,30 @@ class OrderServiceTest {
         assertNotNull(capturedEvent.getTimestamp());
     }
 
+    @Test
+    void processOrder_StampsTimelineAndRecordsTimers() {
+        // Given a payment taking two seconds
+        OrderRequest orderRequest = new OrderRequest("Margherita", 1, "Test Street 1", "John Doe");
+        when(restTemplate.postForObject(anyString(), any(PaymentRequest.class), eq(PaymentResponse.class)))
+            .thenAnswer(invocation -> {
+                clock.advance(Duration.ofSeconds(2));
+                return new PaymentResponse("txn123", true, "Payment successful");
+            });
+
+        // When
+        orderService.processOrder(orderRequest);
+
+        // Then
+        ArgumentCaptor<OrderPlacedEvent> eventCaptor = ArgumentCaptor.forClass(OrderPlacedEvent.class);
+        verify(rabbitTemplate).convertAndSend(eq(RabbitMQConfig.ORDER_PLACED_QUEUE), eventCaptor.capture());
+        OrderPlacedEvent event = eventCaptor.getValue();
+        assertEquals(START, event.getTimestamp());
+        assertEquals(START.plusSeconds(2), event.getPaidAt());
+        assertEquals(START.plusSeconds(2), event.getSentAt());
+        assertEquals(2.0, meterRegistry.get("order.payment").timer().totalTime(TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get("order.request").tag("status", "SUCCESS").timer().count());
+    }
+
     @Test
     void processOrder_PaymentFailed() {
         // Given
@@ -103,6 +142,25 @@ class OrderServiceTest {
         verify(rabbitTemplate, never()).convertAndSend(anyString(), any(Object.class));
     }
 
+    @Test
+    void processOrder_RecordsRequestTimePerStatus() {
+        // Given two accepted payments and a declined one
+        when(restTemplate.postForObject(anyString(), any(PaymentRequest.class), eq(PaymentResponse.class)))
+            .thenReturn(new PaymentResponse("txn1", true, "Payment successful"),
+                new PaymentResponse("txn2", true, "Payment successful"),
+                new PaymentResponse("txn3", false, "Insufficient funds"));
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            orderService.processOrder(new OrderRequest("Margherita", 1, "Test Street 1", "John Doe"));
+        }
+
+        // Then
+        assertEquals(2, meterRegistry.find("order.request").timers().size());
+        assertEquals(2, meterRegistry.get("order.request").tag("status", "SUCCESS").timer().count());
+        assertEquals(1, meterRegistry.get("order.request").tag("status", "PAYMENT_FAILED").timer().count());
+    }
+
     @Test
     void processOrder_PaymentServiceUnavailable() {
         // Given
@@ -2,19 +2,23 @@ package com.pizza.payment.service;
 
 import com.pizza.models.PaymentRequest;
 import com.pizza.models.PaymentResponse;
+import com.pizza.models.id.TimeOrderedIdGenerator;
+import com.pizza.models.time.SimulationClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Random;
-import java.util.UUID;
 
 @Service
 public class PaymentService {
 
     private static final Logger logger = LoggerFactory.getLogger(PaymentService.class);
     private final Random random = new Random();
+    private final SimulationClock clock;
+    private final TimeOrderedIdGenerator idGenerator;
 
     @Value("${payment.failure.rate:0.2}")
     private double failureRate = 0.2;
@@ -25,14 +29,19 @@ public class PaymentService {
     @Value("${payment.delay.max:500}")
     private int delayMax = 500;
 
+    public PaymentService(SimulationClock clock, TimeOrderedIdGenerator idGenerator) {
+        this.clock = clock;
+        this.idGenerator = idGenerator;
+    }
+
     public PaymentResponse processPayment(PaymentRequest paymentRequest) {
         logger.info("Processing payment for order {} with amount {}",
                 paymentRequest.getOrderId(), paymentRequest.getAmount());
 
-        // Simulate processing delay
+        // Simulate processing delay in simulated time
         try {
             int delay = delayMin + random.nextInt(delayMax - delayMin);
-            Thread.sleep(delay);
+            clock.sleep(Duration.ofMillis(delay));
             logger.debug("Payment processing delayed by {} ms", delay);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -51,7 +60,7 @@ public class PaymentService {
                     "Payment declined by bank. Please try a different payment method.");
         }
 
-        String transactionId = UUID.randomUUID().toString();
+        String transactionId = idGenerator.next();
         logger.info("Payment successful for order {}, transaction ID: {}",
                 paymentRequest.getOrderId(), transactionId);
 
@@ -2,12 +2,17 @@ package com.pizza.payment.service;
 
 import com.pizza.models.PaymentRequest;
 import com.pizza.models.PaymentResponse;
+import com.pizza.models.id.TimeOrderedIdGenerator;
+import com.pizza.models.time.ScaledClock;
+import com.pizza.models.time.SimulationClock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Clock;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -18,7 +23,7 @@ class PaymentServiceTest {
 
     @BeforeEach
     void setUp() {
-        paymentService = new PaymentService();
+        paymentService = new PaymentService(SimulationClock.system(), new TimeOrderedIdGenerator());
         ReflectionTestUtils.setField(paymentService, "failureRate", 0.0d);
         ReflectionTestUtils.setField(paymentService, "delayMin", 0);
         ReflectionTestUtils.setField(paymentService, "delayMax", 1);
@@ -40,7 +45,7 @@ class PaymentServiceTest {
 
     @Test
     void processPayment_shouldReturnFailure_whenRandomFails() {
-        paymentService = new PaymentService();
+        paymentService = new PaymentService(SimulationClock.system(), new TimeOrderedIdGenerator());
         ReflectionTestUtils.setField(paymentService, "failureRate", 1.0d);
         ReflectionTestUtils.setField(paymentService, "delayMin", 0);
         ReflectionTestUtils.setField(paymentService, "delayMax", 1);
@@ -56,4 +61,25 @@ class PaymentServiceTest {
         assertNull(response.getTransactionId());
         assertEquals("Payment declined by bank. Please try a different payment method.", response.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void processPayment_shouldScaleDelayWithSimulationSpeed() {
+        // Given a delay of at least 2 seconds on a clock running 1000 times as fast
+        paymentService = new PaymentService(new ScaledClock(1000, null, Clock.systemDefaultZone()), new TimeOrderedIdGenerator());
+        ReflectionTestUtils.setField(paymentService, "failureRate", 0.0d);
+        ReflectionTestUtils.setField(paymentService, "delayMin", 2000);
+        ReflectionTestUtils.setField(paymentService, "delayMax", 2001);
+
+        PaymentRequest request = mock(PaymentRequest.class);
+        when(request.getOrderId()).thenReturn("order-3");
+
+        // When
+        long start = System.nanoTime();
+        PaymentResponse response = paymentService.processPayment(request);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Then
+        assertTrue(response.isSuccess());
+        assertTrue(elapsedMs < 1000, "Payment took " + elapsedMs + " ms");
+    }
+}
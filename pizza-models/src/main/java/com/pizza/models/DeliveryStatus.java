@@ -1,5 +1,7 @@
 package com.pizza.models;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.pizza.models.intern.InternedStringDeserializer;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -16,9 +18,11 @@ public class DeliveryStatus {
     private String orderId;
 
     @Schema(description = "Current delivery status", example = "IN_TRANSIT", allowableValues = {"ASSIGNED", "IN_TRANSIT", "DELIVERED"})
+    @JsonDeserialize(using = InternedStringDeserializer.class)
     private String status;
 
     @Schema(description = "Name of the assigned driver", example = "Max Mustermann")
+    @JsonDeserialize(using = InternedStringDeserializer.class)
     private String driverName;
 
     @Schema(description = "Delivery address", example = "Musterstrasse 123, 8000 Zurich")
@@ -1,5 +1,8 @@
 package com.pizza.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.pizza.models.intern.InternedStringDeserializer;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,11 +12,30 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class OrderPlacedEvent {
+
+    /** Schema version of this shape, sent with every event; see {@code EventSchemaRegistry} */
+    public static final int SCHEMA_VERSION = 1;
+
     private String orderId;
+    @JsonDeserialize(using = InternedStringDeserializer.class)
     private String pizza;
     private Integer quantity;
     private String address;
     private String customerName;
+    /** When order-service accepted the order */
     private LocalDateTime timestamp;
+    /** When the payment was confirmed */
+    private LocalDateTime paidAt;
+    /** When the event was sent to order.placed */
+    private LocalDateTime sentAt;
+
+    /**
+     * Event without payment and send times, which older producers did not stamp
+     */
+    public OrderPlacedEvent(String orderId, String pizza, Integer quantity, String address, String customerName,
+            LocalDateTime timestamp) {
+        this(orderId, pizza, quantity, address, customerName, timestamp, null, null);
+    }
 }
@@ -1,5 +1,8 @@
 package com.pizza.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.pizza.models.intern.InternedStringDeserializer;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -10,12 +13,18 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
 @Schema(description = "Event received when an order is ready for delivery")
 public class OrderReadyEvent {
+
+    /** Schema version of this shape, sent with every event; see {@code EventSchemaRegistry} */
+    public static final int SCHEMA_VERSION = 1;
+
     @Schema(description = "Unique order identifier (UUID)", example = "123e4567-e89b-12d3-a456-426614174000")
     private String orderId;
 
     @Schema(description = "Type of pizza ordered", example = "Margherita")
+    @JsonDeserialize(using = InternedStringDeserializer.class)
     private String pizza;
 
     @Schema(description = "Number of pizzas ordered", example = "2")
@@ -29,4 +38,29 @@ public class OrderReadyEvent {
 
     @Schema(description = "Timestamp when the order was prepared", example = "2026-01-16T10:00:00")
     private LocalDateTime preparedAt;
+
+    @Schema(description = "Timestamp when order-service accepted the order", example = "2026-01-16T09:59:50")
+    private LocalDateTime placedAt;
+
+    @Schema(description = "Timestamp when the payment was confirmed", example = "2026-01-16T09:59:51")
+    private LocalDateTime paidAt;
+
+    @Schema(description = "Timestamp when order-service sent the order to order.placed",
+            example = "2026-01-16T09:59:51")
+    private LocalDateTime orderSentAt;
+
+    @Schema(description = "Timestamp when the kitchen took the order from order.placed",
+            example = "2026-01-16T09:59:52")
+    private LocalDateTime kitchenReceivedAt;
+
+    @Schema(description = "Timestamp when the kitchen sent this event to order.ready", example = "2026-01-16T10:00:00")
+    private LocalDateTime sentAt;
+
+    /**
+     * Event without the order's earlier timestamps, which older producers did not stamp
+     */
+    public OrderReadyEvent(String orderId, String pizza, Integer quantity, String address, String customerName,
+            LocalDateTime preparedAt) {
+        this(orderId, pizza, quantity, address, customerName, preparedAt, null, null, null, null, null);
+    }
 }
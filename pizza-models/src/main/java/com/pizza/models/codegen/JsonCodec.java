@@ -0,0 +1,20 @@
+package com.pizza.models.codegen;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a record for which {@link JsonCodecProcessor} generates a Jackson serializer and
+ * deserializer, in a class named after the record with the suffix {@code JsonCodec}.
+ *
+ * The generated codecs write the components in declaration order under their own names and read
+ * them back through the canonical constructor, without reflection. Components may be Strings,
+ * primitives, their wrappers, enums or other non-generic classes; the latter are written and read
+ * by whatever the ObjectMapper has registered for their type.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface JsonCodec {
+}
@@ -0,0 +1,371 @@
+package com.pizza.models.codegen;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Generates the Jackson codecs of records annotated with {@link JsonCodec}.
+ *
+ * For a record {@code Foo} it writes {@code FooJsonCodec} next to it, holding a streaming
+ * {@code Serializer} and {@code Deserializer}, and for every package with such records a
+ * {@code JsonCodecModule} that registers all of them. The serializer writes pre-encoded field
+ * names and calls the accessors directly; the deserializer matches field names with a string
+ * switch into locals and calls the canonical constructor. Neither looks at the record through
+ * reflection, and there are no bean properties for the ObjectMapper to introspect.
+ *
+ * The processor runs during the build of pizza-models only and is not registered as a service,
+ * so projects depending on pizza-models do not pick it up.
+ */
+@SupportedAnnotationTypes("com.pizza.models.codegen.JsonCodec")
+public class JsonCodecProcessor extends AbstractProcessor {
+
+    /** Name of the generated module of each package */
+    static final String MODULE_NAME = "JsonCodecModule";
+
+    /** Suffix of the generated codec of each record */
+    static final String CODEC_SUFFIX = "JsonCodec";
+
+    private final Set<String> packagesWithModule = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Map<String, List<String>> codecsByPackage = new TreeMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(JsonCodec.class)) {
+            if (element.getKind() != ElementKind.RECORD
+                    || ((TypeElement) element).getNestingKind() != NestingKind.TOP_LEVEL) {
+                error(element, "@JsonCodec applies to top-level records only");
+                continue;
+            }
+            TypeElement record = (TypeElement) element;
+            List<Component> components = components(record);
+            if (components == null) {
+                continue;
+            }
+            String packageName = processingEnv.getElementUtils().getPackageOf(record).getQualifiedName().toString();
+            String codecName = record.getSimpleName() + CODEC_SUFFIX;
+            write(record, packageName, codecName, codec(packageName, record.getSimpleName().toString(),
+                    codecName, components));
+            codecsByPackage.computeIfAbsent(packageName, name -> new ArrayList<>()).add(codecName);
+        }
+        for (Map.Entry<String, List<String>> entry : codecsByPackage.entrySet()) {
+            if (!packagesWithModule.add(entry.getKey())) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "@JsonCodec records of " + entry.getKey() + " must all be present in the first round");
+                continue;
+            }
+            write(null, entry.getKey(), MODULE_NAME, module(entry.getKey(), entry.getValue()));
+        }
+        return true;
+    }
+
+    private List<Component> components(TypeElement record) {
+        List<Component> components = new ArrayList<>();
+        boolean valid = true;
+        for (RecordComponentElement element : record.getRecordComponents()) {
+            Kind kind = kind(element.asType());
+            if (kind == null) {
+                error(element, "Unsupported @JsonCodec component type " + element.asType()
+                        + "; use a String, int, long, double, boolean, their wrappers or a non-generic class");
+                valid = false;
+                continue;
+            }
+            String type = kind == Kind.OTHER
+                    ? ((TypeElement) ((DeclaredType) element.asType()).asElement()).getQualifiedName().toString()
+                    : kind.type;
+            components.add(new Component(element.getSimpleName().toString(), kind, type));
+        }
+        return valid ? components : null;
+    }
+
+    private static Kind kind(TypeMirror type) {
+        switch (type.getKind()) {
+            case INT:
+                return Kind.INT;
+            case LONG:
+                return Kind.LONG;
+            case DOUBLE:
+                return Kind.DOUBLE;
+            case BOOLEAN:
+                return Kind.BOOLEAN;
+            case DECLARED:
+                DeclaredType declared = (DeclaredType) type;
+                if (!declared.getTypeArguments().isEmpty()) {
+                    return null;
+                }
+                String name = ((TypeElement) declared.asElement()).getQualifiedName().toString();
+                for (Kind kind : Kind.values()) {
+                    if (kind.type.equals(name)) {
+                        return kind;
+                    }
+                }
+                return Kind.OTHER;
+            default:
+                return null;
+        }
+    }
+
+    private static String codec(String packageName, String recordName, String codecName,
+                                List<Component> components) {
+        StringBuilder out = new StringBuilder();
+        out.append("package ").append(packageName).append(";\n\n")
+                .append("import com.fasterxml.jackson.core.JsonGenerator;\n")
+                .append("import com.fasterxml.jackson.core.JsonParser;\n")
+                .append("import com.fasterxml.jackson.core.JsonToken;\n")
+                .append("import com.fasterxml.jackson.core.io.SerializedString;\n")
+                .append("import com.fasterxml.jackson.databind.BeanProperty;\n")
+                .append("import com.fasterxml.jackson.databind.DeserializationContext;\n")
+                .append("import com.fasterxml.jackson.databind.JsonDeserializer;\n")
+                .append("import com.fasterxml.jackson.databind.JsonMappingException;\n")
+                .append("import com.fasterxml.jackson.databind.SerializerProvider;\n")
+                .append("import com.fasterxml.jackson.databind.deser.ContextualDeserializer;\n")
+                .append("import com.fasterxml.jackson.databind.deser.impl.NullsConstantProvider;\n")
+                .append("import com.fasterxml.jackson.databind.deser.std.StdDeserializer;\n")
+                .append("import com.fasterxml.jackson.databind.module.SimpleModule;\n")
+                .append("import com.fasterxml.jackson.databind.ser.std.StdSerializer;\n\n")
+                .append("import java.io.IOException;\n\n")
+                .append("/**\n * Jackson codec of {@link ").append(recordName).append("}, generated by ")
+                .append(JsonCodecProcessor.class.getSimpleName()).append("\n */\n")
+                .append("@javax.annotation.processing.Generated(\"").append(JsonCodecProcessor.class.getName())
+                .append("\")\n")
+                .append("public final class ").append(codecName).append(" {\n\n");
+        for (int i = 0; i < components.size(); i++) {
+            out.append("    private static final SerializedString NAME_").append(i)
+                    .append(" = new SerializedString(\"").append(components.get(i).name).append("\");\n");
+        }
+        out.append("\n    private ").append(codecName).append("() {\n    }\n\n")
+                .append("    public static void register(SimpleModule module) {\n")
+                .append("        module.addSerializer(").append(recordName).append(".class, new Serializer());\n")
+                .append("        module.addDeserializer(").append(recordName)
+                .append(".class, new Deserializer());\n    }\n\n");
+
+        out.append("    public static final class Serializer extends StdSerializer<").append(recordName)
+                .append("> {\n\n")
+                .append("        public Serializer() {\n            super(").append(recordName).append(".class);\n")
+                .append("        }\n\n")
+                .append("        @Override\n")
+                .append("        public void serialize(").append(recordName)
+                .append(" value, JsonGenerator generator, SerializerProvider provider)\n")
+                .append("                throws IOException {\n")
+                .append("            generator.writeStartObject(value);\n");
+        for (int i = 0; i < components.size(); i++) {
+            Component component = components.get(i);
+            String value = "value." + component.name + "()";
+            out.append("            generator.writeFieldName(NAME_").append(i).append(");\n");
+            switch (component.kind) {
+                case STRING -> out.append("            generator.writeString(").append(value).append(");\n");
+                case INT, LONG, DOUBLE -> out.append("            generator.writeNumber(").append(value).append(");\n");
+                case BOOLEAN -> out.append("            generator.writeBoolean(").append(value).append(");\n");
+                case INTEGER_WRAPPER, LONG_WRAPPER, DOUBLE_WRAPPER, BOOLEAN_WRAPPER -> {
+                    out.append("            if (").append(value).append(" == null) {\n")
+                            .append("                generator.writeNull();\n")
+                            .append("            } else {\n")
+                            .append("                generator.")
+                            .append(component.kind == Kind.BOOLEAN_WRAPPER ? "writeBoolean(" : "writeNumber(")
+                            .append(value).append(");\n")
+                            .append("            }\n");
+                }
+                case OTHER -> out.append("            provider.defaultSerializeValue(").append(value)
+                        .append(", generator);\n");
+            }
+        }
+        out.append("            generator.writeEndObject();\n        }\n    }\n\n");
+
+        List<Component> resolved = new ArrayList<>();
+        for (Component component : components) {
+            if (component.kind == Kind.OTHER) {
+                resolved.add(component);
+            }
+        }
+        out.append("    /**\n")
+                .append("     * Looks up the deserializers of the non-scalar components once, when contextualized\n")
+                .append("     */\n")
+                .append("    public static final class Deserializer extends StdDeserializer<").append(recordName)
+                .append("> implements ContextualDeserializer {\n\n");
+        for (Component component : resolved) {
+            out.append("        private final JsonDeserializer<?> ").append(component.name).append("Deserializer;\n");
+        }
+        out.append(resolved.isEmpty() ? "" : "\n")
+                .append("        public Deserializer() {\n");
+        if (resolved.isEmpty()) {
+            out.append("            super(").append(recordName).append(".class);\n");
+        } else {
+            out.append("            this(").append(String.join(", ", Collections.nCopies(resolved.size(), "null")))
+                    .append(");\n")
+                    .append("        }\n\n")
+                    .append("        private Deserializer(");
+            for (int i = 0; i < resolved.size(); i++) {
+                out.append(i == 0 ? "" : ", ").append("JsonDeserializer<?> ").append(resolved.get(i).name)
+                        .append("Deserializer");
+            }
+            out.append(") {\n")
+                    .append("            super(").append(recordName).append(".class);\n");
+            for (Component component : resolved) {
+                out.append("            this.").append(component.name).append("Deserializer = ")
+                        .append(component.name).append("Deserializer;\n");
+            }
+        }
+        out.append("        }\n\n")
+                .append("        @Override\n")
+                .append("        public JsonDeserializer<?> createContextual(DeserializationContext context, ")
+                .append("BeanProperty property)\n")
+                .append("                throws JsonMappingException {\n");
+        if (resolved.isEmpty()) {
+            out.append("            return this;\n");
+        } else {
+            out.append("            return new Deserializer(");
+            for (int i = 0; i < resolved.size(); i++) {
+                out.append(i == 0 ? "\n" : ",\n")
+                        .append("                    context.findContextualValueDeserializer(context.constructType(")
+                        .append(resolved.get(i).type).append(".class), null)");
+            }
+            out.append(");\n");
+        }
+        out.append("        }\n\n")
+                .append("        @Override\n")
+                .append("        public ").append(recordName)
+                .append(" deserialize(JsonParser parser, DeserializationContext context) throws IOException {\n")
+                .append("            JsonToken token = parser.currentToken();\n")
+                .append("            if (token == JsonToken.START_OBJECT) {\n")
+                .append("                token = parser.nextToken();\n")
+                .append("            } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {\n")
+                .append("                return (").append(recordName).append(") context.handleUnexpectedToken(")
+                .append("handledType(), parser);\n")
+                .append("            }\n");
+        for (Component component : components) {
+            out.append("            ").append(component.type).append(' ').append(local(component))
+                    .append(" = ").append(component.kind.initial).append(";\n");
+        }
+        out.append("            for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {\n")
+                .append("                String name = parser.currentName();\n")
+                .append("                parser.nextToken();\n")
+                .append("                switch (name) {\n");
+        for (Component component : components) {
+            out.append("                    case \"").append(component.name).append("\" -> ")
+                    .append(local(component)).append(" = ").append(read(component)).append(";\n");
+        }
+        out.append("                    default -> handleUnknownProperty(parser, context, handledType(), name);\n")
+                .append("                }\n")
+                .append("            }\n")
+                .append("            return new ").append(recordName).append('(');
+        for (int i = 0; i < components.size(); i++) {
+            out.append(i == 0 ? "" : ", ").append(local(components.get(i)));
+        }
+        out.append(");\n        }\n    }\n}\n");
+        return out.toString();
+    }
+
+    private static String read(Component component) {
+        String nullable = "parser.hasToken(JsonToken.VALUE_NULL) ? null : ";
+        return switch (component.kind) {
+            // Strings coerced to null, such as empty ones where configured, become null as well
+            case STRING -> nullable + "_parseString(parser, context, NullsConstantProvider.nuller())";
+            case INT -> "_parseIntPrimitive(parser, context)";
+            case LONG -> "_parseLongPrimitive(parser, context)";
+            case DOUBLE -> "_parseDoublePrimitive(parser, context)";
+            case BOOLEAN -> "_parseBooleanPrimitive(parser, context)";
+            case INTEGER_WRAPPER -> nullable + "Integer.valueOf(_parseIntPrimitive(parser, context))";
+            case LONG_WRAPPER -> nullable + "Long.valueOf(_parseLongPrimitive(parser, context))";
+            case DOUBLE_WRAPPER -> nullable + "Double.valueOf(_parseDoublePrimitive(parser, context))";
+            case BOOLEAN_WRAPPER -> nullable + "Boolean.valueOf(_parseBooleanPrimitive(parser, context))";
+            case OTHER -> nullable + "(" + component.type + ") " + component.name
+                    + "Deserializer.deserialize(parser, context)";
+        };
+    }
+
+    /**
+     * Local variable of a component, prefixed so it cannot clash with the parser, context and name
+     */
+    private static String local(Component component) {
+        return "_" + component.name;
+    }
+
+    private static String module(String packageName, List<String> codecNames) {
+        StringBuilder out = new StringBuilder();
+        out.append("package ").append(packageName).append(";\n\n")
+                .append("import com.fasterxml.jackson.databind.module.SimpleModule;\n\n")
+                .append("/**\n * Registers the generated codecs of the @JsonCodec records in this package\n */\n")
+                .append("@javax.annotation.processing.Generated(\"").append(JsonCodecProcessor.class.getName())
+                .append("\")\n")
+                .append("public class ").append(MODULE_NAME).append(" extends SimpleModule {\n\n")
+                .append("    public ").append(MODULE_NAME).append("() {\n")
+                .append("        super(\"").append(packageName).append('.').append(MODULE_NAME).append("\");\n");
+        for (String codecName : new TreeSet<>(codecNames)) {
+            out.append("        ").append(codecName).append(".register(this);\n");
+        }
+        out.append("    }\n}\n");
+        return out.toString();
+    }
+
+    private void write(Element origin, String packageName, String simpleName, String source) {
+        Element[] origins = origin == null ? new Element[0] : new Element[]{origin};
+        try (Writer writer = processingEnv.getFiler()
+                .createSourceFile(packageName + '.' + simpleName, origins).openWriter()) {
+            writer.write(source);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write " + packageName + '.' + simpleName, e);
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private enum Kind {
+        STRING("java.lang.String", "null"),
+        INT("int", "0"),
+        LONG("long", "0L"),
+        DOUBLE("double", "0.0"),
+        BOOLEAN("boolean", "false"),
+        INTEGER_WRAPPER("java.lang.Integer", "null"),
+        LONG_WRAPPER("java.lang.Long", "null"),
+        DOUBLE_WRAPPER("java.lang.Double", "null"),
+        BOOLEAN_WRAPPER("java.lang.Boolean", "null"),
+        OTHER("", "null");
+
+        private final String type;
+        private final String initial;
+
+        Kind(String type, String initial) {
+            this.type = type;
+            this.initial = initial;
+        }
+    }
+
+    private static final class Component {
+        private final String name;
+        private final Kind kind;
+        private final String type;
+
+        private Component(String name, Kind kind, String type) {
+            this.name = name;
+            this.kind = kind;
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.pizza.models.id;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Generator of time-ordered IDs for every service that depends on pizza-models. Instances pick a
+ * random node unless {@code id.node} is configured, so replicas never need to coordinate.
+ */
+@AutoConfiguration
+public class IdGeneratorAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public TimeOrderedIdGenerator idGenerator(@Value("${id.node:}") String node) {
+        return TimeOrderedIdGenerator.of(node);
+    }
+}
@@ -0,0 +1,101 @@
+package com.pizza.models.id;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates order and transaction IDs as version 7 UUIDs (RFC 9562), in the same canonical form
+ * as {@link UUID#randomUUID()} so every consumer of an ID accepts them unchanged.
+ *
+ * An ID is laid out as
+ * <pre>
+ *   unix_ts_ms  48 bits  milliseconds since the epoch
+ *   ver          4 bits  7
+ *   counter     12 bits  sequence within the millisecond
+ *   var          2 bits  binary 10
+ *   node        30 bits  fixed per generator
+ *   random      32 bits  per ID
+ * </pre>
+ * Timestamp and counter form one 60-bit value that only grows: each ID takes the next value with
+ * a single atomic increment and jumps ahead to the current millisecond when the clock has moved
+ * on. IDs of one generator are therefore unique and strictly increasing in both their UUID and
+ * string order, even when the clock steps back or more than 4096 IDs are taken in a
+ * millisecond, in which case the timestamp runs slightly ahead until the clock catches up. The
+ * node tells instances apart, and the random bits come from {@link ThreadLocalRandom} rather
+ * than {@link SecureRandom}, so IDs are unique but not unguessable.
+ */
+public final class TimeOrderedIdGenerator {
+
+    /** Largest node component */
+    public static final int MAX_NODE = (1 << 30) - 1;
+
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+
+    private final long node;
+    private final LongSupplier currentMillis;
+    // Timestamp << COUNTER_BITS | counter of the last ID
+    private final AtomicLong last = new AtomicLong();
+
+    /**
+     * Generator with a random node on the system clock
+     */
+    public TimeOrderedIdGenerator() {
+        this(new SecureRandom().nextInt(MAX_NODE + 1));
+    }
+
+    public TimeOrderedIdGenerator(int node) {
+        this(node, System::currentTimeMillis);
+    }
+
+    /**
+     * @param node          between 0 and {@link #MAX_NODE}, distinct for every running instance
+     * @param currentMillis wall-clock milliseconds since the epoch
+     */
+    public TimeOrderedIdGenerator(int node, LongSupplier currentMillis) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Node must be between 0 and " + MAX_NODE + ": " + node);
+        }
+        this.node = node;
+        this.currentMillis = currentMillis;
+    }
+
+    /**
+     * Generator for the {@code id.node} setting; a blank node picks a random one
+     */
+    public static TimeOrderedIdGenerator of(String node) {
+        return node == null || node.isBlank() ? new TimeOrderedIdGenerator()
+                : new TimeOrderedIdGenerator(Integer.parseInt(node.trim()));
+    }
+
+    /**
+     * Next ID in canonical form
+     */
+    public String next() {
+        return nextUuid().toString();
+    }
+
+    public UUID nextUuid() {
+        long now = currentMillis.getAsLong() << COUNTER_BITS;
+        long value = last.incrementAndGet();
+        while (value < now) {
+            // First ID of a new millisecond; whoever loses the race takes the next value after it
+            if (last.compareAndSet(value, now)) {
+                value = now;
+                break;
+            }
+            value = last.incrementAndGet();
+        }
+        long mostSigBits = (value >>> COUNTER_BITS) << 16 | VERSION | (value & ((1 << COUNTER_BITS) - 1));
+        long leastSigBits = VARIANT | node << 32 | (ThreadLocalRandom.current().nextInt() & 0xFFFFFFFFL);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    public int getNode() {
+        return (int) node;
+    }
+}
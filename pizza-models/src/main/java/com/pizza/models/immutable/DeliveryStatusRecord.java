@@ -0,0 +1,28 @@
+package com.pizza.models.immutable;
+
+import com.pizza.models.DeliveryStatus;
+import com.pizza.models.codegen.JsonCodec;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable {@link DeliveryStatus} with the same JSON form, safe to share between threads
+ */
+@JsonCodec
+public record DeliveryStatusRecord(String orderId, String status, String driverName, String address,
+                                   LocalDateTime assignedAt, LocalDateTime estimatedDeliveryTime,
+                                   LocalDateTime deliveredAt, LocalDateTime inTransitAt,
+                                   LocalDateTime targetInTransitTime, LocalDateTime targetDeliveredTime) {
+
+    public static DeliveryStatusRecord from(DeliveryStatus delivery) {
+        return new DeliveryStatusRecord(delivery.getOrderId(), delivery.getStatus(), delivery.getDriverName(),
+                delivery.getAddress(), delivery.getAssignedAt(), delivery.getEstimatedDeliveryTime(),
+                delivery.getDeliveredAt(), delivery.getInTransitAt(), delivery.getTargetInTransitTime(),
+                delivery.getTargetDeliveredTime());
+    }
+
+    public DeliveryStatus toModel() {
+        return new DeliveryStatus(orderId, status, driverName, address, assignedAt, estimatedDeliveryTime,
+                deliveredAt, inTransitAt, targetInTransitTime, targetDeliveredTime);
+    }
+}
@@ -0,0 +1,30 @@
+package com.pizza.models.immutable;
+
+import com.pizza.models.OrderPlacedEvent;
+import com.pizza.models.codegen.JsonCodec;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable {@link OrderPlacedEvent} with the same JSON form
+ */
+@JsonCodec
+public record OrderPlacedEventRecord(String orderId, String pizza, Integer quantity, String address,
+                                     String customerName, LocalDateTime timestamp, LocalDateTime paidAt,
+                                     LocalDateTime sentAt) {
+
+    public OrderPlacedEventRecord(String orderId, String pizza, Integer quantity, String address,
+                                  String customerName, LocalDateTime timestamp) {
+        this(orderId, pizza, quantity, address, customerName, timestamp, null, null);
+    }
+
+    public static OrderPlacedEventRecord from(OrderPlacedEvent event) {
+        return new OrderPlacedEventRecord(event.getOrderId(), event.getPizza(), event.getQuantity(),
+                event.getAddress(), event.getCustomerName(), event.getTimestamp(), event.getPaidAt(),
+                event.getSentAt());
+    }
+
+    public OrderPlacedEvent toModel() {
+        return new OrderPlacedEvent(orderId, pizza, quantity, address, customerName, timestamp, paidAt, sentAt);
+    }
+}
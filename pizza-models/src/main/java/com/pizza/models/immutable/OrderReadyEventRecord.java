@@ -0,0 +1,32 @@
+package com.pizza.models.immutable;
+
+import com.pizza.models.OrderReadyEvent;
+import com.pizza.models.codegen.JsonCodec;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable {@link OrderReadyEvent} with the same JSON form
+ */
+@JsonCodec
+public record OrderReadyEventRecord(String orderId, String pizza, Integer quantity, String address,
+                                    String customerName, LocalDateTime preparedAt, LocalDateTime placedAt,
+                                    LocalDateTime paidAt, LocalDateTime orderSentAt,
+                                    LocalDateTime kitchenReceivedAt, LocalDateTime sentAt) {
+
+    public OrderReadyEventRecord(String orderId, String pizza, Integer quantity, String address,
+                                 String customerName, LocalDateTime preparedAt) {
+        this(orderId, pizza, quantity, address, customerName, preparedAt, null, null, null, null, null);
+    }
+
+    public static OrderReadyEventRecord from(OrderReadyEvent event) {
+        return new OrderReadyEventRecord(event.getOrderId(), event.getPizza(), event.getQuantity(),
+                event.getAddress(), event.getCustomerName(), event.getPreparedAt(), event.getPlacedAt(),
+                event.getPaidAt(), event.getOrderSentAt(), event.getKitchenReceivedAt(), event.getSentAt());
+    }
+
+    public OrderReadyEvent toModel() {
+        return new OrderReadyEvent(orderId, pizza, quantity, address, customerName, preparedAt, placedAt, paidAt,
+                orderSentAt, kitchenReceivedAt, sentAt);
+    }
+}
@@ -0,0 +1,24 @@
+package com.pizza.models.immutable;
+
+import com.pizza.models.PaymentRequest;
+import com.pizza.models.codegen.JsonCodec;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Immutable {@link PaymentRequest} with the same JSON form and constraints
+ */
+@JsonCodec
+public record PaymentRequestRecord(
+        @NotBlank(message = "Order ID is required") String orderId,
+        @NotBlank(message = "Customer name is required") String customerName,
+        @Positive(message = "Amount must be positive") double amount) {
+
+    public static PaymentRequestRecord from(PaymentRequest request) {
+        return new PaymentRequestRecord(request.getOrderId(), request.getCustomerName(), request.getAmount());
+    }
+
+    public PaymentRequest toModel() {
+        return new PaymentRequest(orderId, customerName, amount);
+    }
+}
@@ -0,0 +1,19 @@
+package com.pizza.models.immutable;
+
+import com.pizza.models.PaymentResponse;
+import com.pizza.models.codegen.JsonCodec;
+
+/**
+ * Immutable {@link PaymentResponse} with the same JSON form
+ */
+@JsonCodec
+public record PaymentResponseRecord(String transactionId, boolean success, String message) {
+
+    public static PaymentResponseRecord from(PaymentResponse response) {
+        return new PaymentResponseRecord(response.getTransactionId(), response.isSuccess(), response.getMessage());
+    }
+
+    public PaymentResponse toModel() {
+        return new PaymentResponse(transactionId, success, message);
+    }
+}
@@ -0,0 +1,37 @@
+package com.pizza.models.intern;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Reads a String property through the {@link StringDictionary#shared() shared dictionary}, for
+ * properties with few distinct values. Use it with
+ * {@code @JsonDeserialize(using = InternedStringDeserializer.class)} on the field.
+ */
+public class InternedStringDeserializer extends StdScalarDeserializer<String> {
+
+    private final StringDictionary dictionary;
+
+    public InternedStringDeserializer() {
+        this(StringDictionary.shared());
+    }
+
+    public InternedStringDeserializer(StringDictionary dictionary) {
+        super(String.class);
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_STRING)) {
+            return dictionary.intern(p.getText());
+        }
+        // Numbers, booleans and the like are coerced as for any String property
+        return dictionary.intern(StringDeserializer.instance.deserialize(p, ctxt));
+    }
+}
@@ -0,0 +1,109 @@
+package com.pizza.models.intern;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Concurrent dictionary of low-cardinality strings such as pizza types, driver names and
+ * delivery states. Every distinct value gets one canonical instance and a dense code from 0.
+ *
+ * Decoders pass the strings they read through {@link #intern} so that the thousands of
+ * events and deliveries naming the same pizza or driver share a single String instead of each
+ * holding a copy. Unlike {@link String#intern()} the dictionary is bounded: once it holds
+ * {@link #capacity()} values, further new values are returned as they are and get no code, so
+ * a stream of free-text values cannot grow it without limit. Entries are never removed, so
+ * codes stay valid for the life of the dictionary.
+ */
+public final class StringDictionary {
+
+    /** Code of a value the dictionary has no room for */
+    public static final int NO_CODE = -1;
+
+    /** Capacity of the {@link #shared()} dictionary */
+    public static final int SHARED_CAPACITY = 4096;
+
+    private static final StringDictionary SHARED = new StringDictionary(SHARED_CAPACITY);
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String> values;
+    private final AtomicInteger size = new AtomicInteger();
+
+    public StringDictionary(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.values = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Dictionary shared by the decoders of all events and stores in the process
+     */
+    public static StringDictionary shared() {
+        return SHARED;
+    }
+
+    /**
+     * Canonical instance equal to the value, or the value itself if the dictionary is full
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        Entry entry = lookup(value);
+        return entry != null ? entry.value : value;
+    }
+
+    /**
+     * Code of the value, assigned on first use
+     *
+     * @return the code, or {@link #NO_CODE} if the dictionary is full
+     */
+    public int code(String value) {
+        Entry entry = lookup(value);
+        return entry != null ? entry.code : NO_CODE;
+    }
+
+    /**
+     * Value with the given code
+     *
+     * @throws IllegalArgumentException if no value has the code
+     */
+    public String value(int code) {
+        String value = code >= 0 && code < values.length() ? values.get(code) : null;
+        if (value == null) {
+            throw new IllegalArgumentException("Unknown dictionary code " + code);
+        }
+        return value;
+    }
+
+    /**
+     * Number of values in the dictionary
+     */
+    public int size() {
+        return Math.min(size.get(), values.length());
+    }
+
+    public int capacity() {
+        return values.length();
+    }
+
+    private Entry lookup(String value) {
+        Entry entry = entries.get(value);
+        if (entry != null || size.get() >= values.length()) {
+            return entry;
+        }
+        return entries.computeIfAbsent(value, key -> {
+            int code = size.getAndIncrement();
+            if (code >= values.length()) {
+                return null;
+            }
+            values.set(code, key);
+            return new Entry(key, code);
+        });
+    }
+
+    private record Entry(String value, int code) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.pizza.models.json;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+
+/**
+ * Formats and parses {@link LocalDateTime} in the ISO form written by
+ * {@link java.time.format.DateTimeFormatter#ISO_LOCAL_DATE_TIME} ({@code 2026-01-16T10:00:00},
+ * fraction digits only as far as needed) without going through the formatter, which resolves
+ * fields through several layers of objects per call. Values outside years 0-9999 and other
+ * shapes are left to the formatter.
+ */
+final class IsoLocalDateTime {
+
+    /** Longest formatted value: yyyy-MM-ddTHH:mm:ss.nnnnnnnnn */
+    static final int MAX_LENGTH = 29;
+
+    private IsoLocalDateTime() {
+    }
+
+    /**
+     * Write the value into the buffer
+     *
+     * @return number of characters written, or -1 if the year needs the formatter
+     */
+    static int format(LocalDateTime value, char[] buffer) {
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            return -1;
+        }
+        digits(buffer, 0, year, 4);
+        buffer[4] = '-';
+        digits(buffer, 5, value.getMonthValue(), 2);
+        buffer[7] = '-';
+        digits(buffer, 8, value.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        digits(buffer, 11, value.getHour(), 2);
+        buffer[13] = ':';
+        digits(buffer, 14, value.getMinute(), 2);
+        buffer[16] = ':';
+        digits(buffer, 17, value.getSecond(), 2);
+        int nano = value.getNano();
+        if (nano == 0) {
+            return 19;
+        }
+        buffer[19] = '.';
+        digits(buffer, 20, nano, 9);
+        int length = MAX_LENGTH;
+        while (buffer[length - 1] == '0') {
+            length--;
+        }
+        return length;
+    }
+
+    /**
+     * Parse {@code yyyy-MM-ddTHH:mm}, optionally followed by {@code :ss} and a fraction of 1-9 digits
+     *
+     * @return the value, or null if the text has another shape or is not a valid date-time
+     */
+    static LocalDateTime parse(String text) {
+        int length = text.length();
+        if (length < 16 || length > MAX_LENGTH || text.charAt(4) != '-' || text.charAt(7) != '-'
+                || text.charAt(10) != 'T' || text.charAt(13) != ':') {
+            return null;
+        }
+        int year = number(text, 0, 4);
+        int month = number(text, 5, 2);
+        int day = number(text, 8, 2);
+        int hour = number(text, 11, 2);
+        int minute = number(text, 14, 2);
+        int second = 0;
+        int nano = 0;
+        if (length > 16) {
+            if (length < 19 || text.charAt(16) != ':') {
+                return null;
+            }
+            second = number(text, 17, 2);
+            if (length > 19) {
+                if (length == 20 || text.charAt(19) != '.') {
+                    return null;
+                }
+                int fraction = number(text, 20, length - 20);
+                if (fraction < 0) {
+                    return null;
+                }
+                nano = fraction;
+                for (int i = length - 20; i < 9; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+        if ((year | month | day | hour | minute | second) < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static void digits(char[] buffer, int offset, int value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * Decimal value of the digits, or -1 if one of them is not a digit
+     */
+    private static int number(String text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,77 @@
+package com.pizza.models.json;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.pizza.models.DeliveryStatus;
+import com.pizza.models.OrderPlacedEvent;
+import com.pizza.models.OrderReadyEvent;
+import com.pizza.models.OrderRequest;
+import com.pizza.models.OrderResponse;
+import com.pizza.models.PaymentRequest;
+import com.pizza.models.PaymentResponse;
+import com.pizza.models.immutable.JsonCodecModule;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.List;
+
+/**
+ * Tunes the ObjectMapper Spring Boot builds for every service that depends on pizza-models, so
+ * the REST layer and the AMQP converters (which take the same mapper) share one configuration
+ * and one set of serializer caches.
+ *
+ * Boot registers every {@link Module} bean after its well-known modules:
+ * <ul>
+ *   <li>{@link BlackbirdModule} replaces reflective getter and setter calls on the Lombok models
+ *       with generated lambdas</li>
+ *   <li>{@link PizzaTimeModule} writes and reads LocalDateTime without a DateTimeFormatter</li>
+ *   <li>{@link JsonCodecModule} adds the generated codecs of the immutable records in
+ *       {@code com.pizza.models.immutable}, which need no introspection at all</li>
+ * </ul>
+ * Once the context is up, serializers and deserializers of the {@link #MODEL_TYPES} are built,
+ * so the first message or request of each type does not pay for introspection.
+ */
+@AutoConfiguration(before = JacksonAutoConfiguration.class)
+@ConditionalOnClass(ObjectMapper.class)
+public class PizzaJacksonAutoConfiguration {
+
+    /** Types exchanged between the services */
+    public static final List<Class<?>> MODEL_TYPES = List.of(
+            OrderRequest.class, OrderResponse.class, OrderPlacedEvent.class, OrderReadyEvent.class,
+            PaymentRequest.class, PaymentResponse.class, DeliveryStatus.class);
+
+    @Bean
+    public Module pizzaBlackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public Module pizzaTimeModule() {
+        return new PizzaTimeModule();
+    }
+
+    @Bean
+    public Module pizzaRecordCodecModule() {
+        return new JsonCodecModule();
+    }
+
+    @Bean
+    public SmartInitializingSingleton pizzaModelWarmUp(ObjectProvider<ObjectMapper> objectMapper) {
+        return () -> objectMapper.ifAvailable(PizzaJacksonAutoConfiguration::warmUp);
+    }
+
+    /**
+     * Build and cache the root serializers and deserializers of the model types
+     */
+    public static void warmUp(ObjectMapper objectMapper) {
+        for (Class<?> type : MODEL_TYPES) {
+            objectMapper.writerFor(type);
+            objectMapper.readerFor(type);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.pizza.models.json;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * {@link LocalDateTime} handling for the models that writes and reads the same ISO strings as the
+ * JavaTimeModule, through {@link IsoLocalDateTime} instead of a {@link DateTimeFormatter}. Register
+ * it after the JavaTimeModule, which it falls back to for timestamps
+ * ({@link SerializationFeature#WRITE_DATES_AS_TIMESTAMPS}), arrays, unusual strings and
+ * properties with a {@code @JsonFormat}.
+ */
+public class PizzaTimeModule extends SimpleModule {
+
+    public PizzaTimeModule() {
+        super(PizzaTimeModule.class.getSimpleName());
+        addSerializer(LocalDateTime.class, new Serializer());
+        addDeserializer(LocalDateTime.class, new Deserializer());
+    }
+
+    static final class Serializer extends StdScalarSerializer<LocalDateTime> implements ContextualSerializer {
+
+        Serializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+                LocalDateTimeSerializer.INSTANCE.serialize(value, generator, provider);
+                return;
+            }
+            char[] buffer = new char[IsoLocalDateTime.MAX_LENGTH];
+            int length = IsoLocalDateTime.format(value, buffer);
+            if (length < 0) {
+                generator.writeString(value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            } else {
+                generator.writeString(buffer, 0, length);
+            }
+        }
+
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+                throws JsonMappingException {
+            if (!JsonFormat.Value.empty().equals(findFormatOverrides(provider, property, handledType()))) {
+                return LocalDateTimeSerializer.INSTANCE.createContextual(provider, property);
+            }
+            return this;
+        }
+    }
+
+    static final class Deserializer extends StdScalarDeserializer<LocalDateTime>
+            implements ContextualDeserializer {
+
+        Deserializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.hasToken(JsonToken.VALUE_STRING)) {
+                LocalDateTime value = IsoLocalDateTime.parse(parser.getText());
+                if (value != null) {
+                    return value;
+                }
+            }
+            return LocalDateTimeDeserializer.INSTANCE.deserialize(parser, context);
+        }
+
+        @Override
+        public JsonDeserializer<?> createContextual(DeserializationContext context, BeanProperty property)
+                throws JsonMappingException {
+            if (!JsonFormat.Value.empty().equals(findFormatOverrides(context, property, handledType()))) {
+                return LocalDateTimeDeserializer.INSTANCE.createContextual(context, property);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.pizza.models.routing;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits ready orders into a fixed number of order.ready partitions.
+ *
+ * The kitchen publishes each ready order to {@link #EXCHANGE} with the routing key of its
+ * partition, and every delivery instance consumes the queues of the partitions it owns. Both
+ * sides therefore have to agree on the hash and on the partition count, which is why the mapping
+ * lives here and not in either service.
+ */
+public final class OrderPartitioner {
+
+    /** Direct exchange routing ready orders to their partition queue */
+    public static final String EXCHANGE = "order.ready.partitioned";
+
+    private static final String QUEUE_PREFIX = "order.ready.";
+
+    private OrderPartitioner() {
+    }
+
+    /**
+     * Partition of an order, between 0 and {@code partitions - 1}
+     */
+    public static int partition(String orderId, int partitions) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions must be positive: " + partitions);
+        }
+        return (int) Long.remainderUnsigned(hash(orderId), partitions);
+    }
+
+    /**
+     * Routing key binding a partition queue to {@link #EXCHANGE}
+     */
+    public static String routingKey(int partition) {
+        return Integer.toString(partition);
+    }
+
+    /**
+     * Name of the durable queue holding the ready orders of a partition
+     */
+    public static String queueName(int partition) {
+        return QUEUE_PREFIX + partition;
+    }
+
+    /**
+     * 64-bit hash of a key that is the same in every JVM: FNV-1a over the UTF-8 bytes followed by
+     * the SplitMix64 finalizer, so keys differing in one character land far apart
+     */
+    public static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
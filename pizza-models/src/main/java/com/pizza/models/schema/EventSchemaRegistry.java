@@ -0,0 +1,196 @@
+package com.pizza.models.schema;
+
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pizza.models.OrderPlacedEvent;
+import com.pizza.models.OrderReadyEvent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current schema version of each event type and the upcasters bringing older payloads up to it.
+ * Thread-safe; {@link #register} returns a new registry.
+ *
+ * Producers send the version of their payload in the {@link #VERSION_HEADER}, and a consumer
+ * reading an older version runs the upcasters in order while decoding. When all of them only
+ * rename fields, the old names become aliases of the current fields in a reader made once per
+ * mapper, type and version, and the payload is bound as directly as a current one; otherwise it
+ * is read into a tree once, edited by every upcaster and then bound. Payloads of the current
+ * version or of a newer producer are bound directly, relying on the events ignoring unknown
+ * fields, so order, kitchen and delivery can be deployed one after the other.
+ */
+public final class EventSchemaRegistry {
+
+    /** Message header carrying the schema version of the payload */
+    public static final String VERSION_HEADER = "x-schema-version";
+
+    /** Version assumed for payloads without a version, which were sent before versioning */
+    public static final int INITIAL_VERSION = 1;
+
+    private final Map<Class<?>, Schema> schemas;
+    private final Map<ReaderKey, ObjectReader> renamingReaders = new ConcurrentHashMap<>();
+
+    private EventSchemaRegistry(Map<Class<?>, Schema> schemas) {
+        this.schemas = schemas;
+    }
+
+    /**
+     * Registry without event types
+     */
+    public static EventSchemaRegistry empty() {
+        return new EventSchemaRegistry(Map.of());
+    }
+
+    /**
+     * Registry of the events exchanged over the broker, with their upcasters
+     */
+    public static EventSchemaRegistry standard() {
+        return empty()
+                .register(OrderPlacedEvent.class, OrderPlacedEvent.SCHEMA_VERSION)
+                .register(OrderReadyEvent.class, OrderReadyEvent.SCHEMA_VERSION);
+    }
+
+    /**
+     * Registry that also knows the type, replacing an earlier registration of it
+     *
+     * @param upcasters one for every version from {@link #INITIAL_VERSION} below the current version
+     * @throws IllegalArgumentException if an upcaster is missing, duplicated or beyond the current version
+     */
+    public EventSchemaRegistry register(Class<?> type, int currentVersion, Upcaster... upcasters) {
+        if (currentVersion < INITIAL_VERSION) {
+            throw new IllegalArgumentException("Schema versions start at " + INITIAL_VERSION + ": " + currentVersion);
+        }
+        List<Upcaster> chain = new ArrayList<>(Arrays.asList(upcasters));
+        chain.sort(Comparator.comparingInt(Upcaster::getFromVersion));
+        boolean complete = chain.size() == currentVersion - INITIAL_VERSION;
+        for (int i = 0; i < chain.size(); i++) {
+            complete &= chain.get(i).getFromVersion() == INITIAL_VERSION + i;
+        }
+        if (!complete) {
+            throw new IllegalArgumentException("Upcasters of " + type.getName() + " must cover versions "
+                    + INITIAL_VERSION + " to " + (currentVersion - 1) + " once each");
+        }
+        Map<Class<?>, Schema> copy = new HashMap<>(schemas);
+        copy.put(type, new Schema(currentVersion, chain));
+        return new EventSchemaRegistry(Map.copyOf(copy));
+    }
+
+    public boolean isRegistered(Class<?> type) {
+        return schemas.containsKey(type);
+    }
+
+    /**
+     * Current schema version of the type
+     *
+     * @throws IllegalArgumentException if the type is not registered
+     */
+    public int currentVersion(Class<?> type) {
+        Schema schema = schemas.get(type);
+        if (schema == null) {
+            throw new IllegalArgumentException("No event schema for " + type.getName());
+        }
+        return schema.currentVersion;
+    }
+
+    /**
+     * Registered type with the given class name, or null
+     */
+    public Class<?> typeNamed(String className) {
+        for (Class<?> type : schemas.keySet()) {
+            if (type.getName().equals(className)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Bind a JSON payload of the given schema version to the current shape of the type
+     */
+    public <T> T read(ObjectMapper objectMapper, byte[] json, Class<T> type, int version) throws IOException {
+        Schema schema = schemas.get(type);
+        if (schema == null || version >= schema.currentVersion) {
+            return objectMapper.readValue(json, type);
+        }
+        if (version < INITIAL_VERSION) {
+            throw new IllegalArgumentException("Unknown schema version " + version + " of " + type.getName());
+        }
+        Map<String, String> renamedFields = schema.mergedRenames[version - INITIAL_VERSION];
+        if (renamedFields != null) {
+            return renamingReaders.computeIfAbsent(new ReaderKey(objectMapper, type, version),
+                    key -> renamingReader(objectMapper, type, renamedFields)).readValue(json);
+        }
+        JsonNode tree = objectMapper.readTree(json);
+        if (tree instanceof ObjectNode event) {
+            for (Upcaster upcaster : schema.upcasters.subList(version - INITIAL_VERSION, schema.upcasters.size())) {
+                upcaster.apply(event);
+            }
+        }
+        return objectMapper.treeToValue(tree, type);
+    }
+
+    private static ObjectReader renamingReader(ObjectMapper objectMapper, Class<?> type,
+                                               Map<String, String> renamedFields) {
+        AnnotationIntrospector introspector = AnnotationIntrospector.pair(
+                new RenamedFieldsIntrospector(type, renamedFields),
+                objectMapper.getDeserializationConfig().getAnnotationIntrospector());
+        return objectMapper.copy().setAnnotationIntrospector(introspector).readerFor(type);
+    }
+
+    // Mappers compare by identity
+    private record ReaderKey(ObjectMapper objectMapper, Class<?> type, int version) {
+    }
+
+    private static final class Schema {
+        private final int currentVersion;
+        private final List<Upcaster> upcasters;
+        // Renames merged from each version to the current one, null where a step needs the tree
+        private final Map<String, String>[] mergedRenames;
+
+        @SuppressWarnings("unchecked")
+        private Schema(int currentVersion, List<Upcaster> upcasters) {
+            this.currentVersion = currentVersion;
+            this.upcasters = List.copyOf(upcasters);
+            this.mergedRenames = new Map[upcasters.size()];
+            for (int from = 0; from < upcasters.size(); from++) {
+                mergedRenames[from] = mergeRenames(this.upcasters.subList(from, upcasters.size()));
+            }
+        }
+
+        /**
+         * Final name of every field an upcaster chain renames, by the name in the oldest payload,
+         * or null if a step is not a rename
+         */
+        private static Map<String, String> mergeRenames(List<Upcaster> chain) {
+            Map<String, String> merged = new LinkedHashMap<>();
+            for (Upcaster upcaster : chain) {
+                if (!upcaster.isRename()) {
+                    return null;
+                }
+                Map<String, String> step = upcaster.getRenamedFields();
+                Set<String> renamedBefore = new HashSet<>(merged.values());
+                merged.replaceAll((original, current) -> step.getOrDefault(current, current));
+                for (Map.Entry<String, String> rename : step.entrySet()) {
+                    // Fields renamed before were handled above; a field renamed away is not in the payload
+                    if (!renamedBefore.contains(rename.getKey()) && !merged.containsKey(rename.getKey())) {
+                        merged.put(rename.getKey(), rename.getValue());
+                    }
+                }
+            }
+            return Map.copyOf(merged);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.pizza.models.schema;
+
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedField;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMethod;
+import com.fasterxml.jackson.databind.introspect.AnnotatedParameter;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives the properties of one event type their old names as aliases, as {@code @JsonAlias} would,
+ * so the regular bean deserializer binds an old payload directly. Jackson asks the member it
+ * deserializes through, so fields, setters and record constructor parameters are all answered.
+ * Pair it with the mapper's own introspector.
+ */
+final class RenamedFieldsIntrospector extends NopAnnotationIntrospector {
+
+    private final Class<?> type;
+    private final Map<String, List<PropertyName>> aliases = new HashMap<>();
+
+    /**
+     * @param renamedFields current field name by name in the old payload
+     */
+    RenamedFieldsIntrospector(Class<?> type, Map<String, String> renamedFields) {
+        this.type = type;
+        renamedFields.forEach((oldName, newName) ->
+                aliases.computeIfAbsent(newName, name -> new ArrayList<>()).add(PropertyName.construct(oldName)));
+    }
+
+    @Override
+    public List<PropertyName> findPropertyAliases(Annotated annotated) {
+        if (!(annotated instanceof AnnotatedMember member) || member.getDeclaringClass() != type) {
+            return null;
+        }
+        String name = propertyName(member);
+        return name == null ? null : aliases.get(name);
+    }
+
+    private String propertyName(AnnotatedMember member) {
+        if (member instanceof AnnotatedField) {
+            return member.getName();
+        }
+        if (member instanceof AnnotatedMethod method && method.getParameterCount() == 1
+                && method.getName().startsWith("set") && method.getName().length() > 3) {
+            return decapitalize(method.getName().substring(3));
+        }
+        if (member instanceof AnnotatedParameter parameter && type.isRecord()
+                && parameter.getOwner().getParameterCount() == type.getRecordComponents().length) {
+            return type.getRecordComponents()[parameter.getIndex()].getName();
+        }
+        return null;
+    }
+
+    /**
+     * Property name of a setter suffix the way Jackson derives it, lower-casing the leading capitals
+     */
+    private static String decapitalize(String name) {
+        StringBuilder result = new StringBuilder(name);
+        for (int i = 0; i < result.length() && Character.isUpperCase(result.charAt(i)); i++) {
+            result.setCharAt(i, Character.toLowerCase(result.charAt(i)));
+        }
+        return result.toString();
+    }
+}
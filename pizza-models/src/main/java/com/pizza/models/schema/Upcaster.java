@@ -0,0 +1,75 @@
+package com.pizza.models.schema;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Step that turns an event payload of one schema version into the next version.
+ *
+ * Renaming top-level fields is applied while the payload is parsed, without building a tree;
+ * any other change gets the payload as an {@link ObjectNode} to edit in place. Removed fields need
+ * no upcaster, the events ignore unknown fields.
+ */
+public final class Upcaster {
+
+    private final int fromVersion;
+    private final Map<String, String> renamedFields;
+    private final Consumer<ObjectNode> transformation;
+
+    private Upcaster(int fromVersion, Map<String, String> renamedFields, Consumer<ObjectNode> transformation) {
+        if (fromVersion < 1) {
+            throw new IllegalArgumentException("Schema versions start at 1: " + fromVersion);
+        }
+        this.fromVersion = fromVersion;
+        this.renamedFields = renamedFields;
+        this.transformation = transformation;
+    }
+
+    /**
+     * Upcaster renaming top-level fields, by old name
+     */
+    public static Upcaster renameFields(int fromVersion, Map<String, String> renamedFields) {
+        return new Upcaster(fromVersion, Map.copyOf(renamedFields), null);
+    }
+
+    /**
+     * Upcaster editing the payload tree in place
+     */
+    public static Upcaster transform(int fromVersion, Consumer<ObjectNode> transformation) {
+        return new Upcaster(fromVersion, Map.of(), transformation);
+    }
+
+    /**
+     * Version of the payloads this upcaster takes; it produces version {@code fromVersion + 1}
+     */
+    public int getFromVersion() {
+        return fromVersion;
+    }
+
+    Map<String, String> getRenamedFields() {
+        return renamedFields;
+    }
+
+    /**
+     * Whether the upcaster only renames fields, so it can be applied while parsing
+     */
+    boolean isRename() {
+        return transformation == null;
+    }
+
+    void apply(ObjectNode event) {
+        if (transformation != null) {
+            transformation.accept(event);
+            return;
+        }
+        for (Map.Entry<String, String> rename : renamedFields.entrySet()) {
+            JsonNode value = event.remove(rename.getKey());
+            if (value != null) {
+                event.set(rename.getValue(), value);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.pizza.models.time;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulated time that runs {@code speed} times as fast as the wall clock.
+ *
+ * Simulated time is {@code epoch + (wall - epoch) * speed}, so services configured with the same
+ * speed and epoch agree on the time without talking to each other. Sleeps and schedules are
+ * shortened by the same factor, which keeps every delay in proportion and thus the order of
+ * events the same as at normal speed. At speed 1 this is the plain wall clock.
+ */
+public class ScaledClock implements SimulationClock {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScaledClock.class);
+
+    static final ScaledClock SYSTEM = new ScaledClock(1.0, null, Clock.systemDefaultZone());
+
+    private final double speed;
+    private final Instant epoch;
+    private final Clock wallClock;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param speed simulated seconds per wall-clock second
+     * @param epoch instant at which simulated and wall-clock time coincide, null for now
+     */
+    public ScaledClock(double speed, Instant epoch, Clock wallClock) {
+        if (!(speed > 0) || Double.isInfinite(speed)) {
+            throw new IllegalArgumentException("Simulation speed must be positive, got " + speed);
+        }
+        this.speed = speed;
+        this.wallClock = wallClock;
+        this.epoch = epoch != null ? epoch : wallClock.instant();
+    }
+
+    /**
+     * Clock for the {@code simulation.speed} and {@code simulation.epoch} settings. A blank epoch
+     * is only allowed at speed 1: any other speed needs an epoch all services share, or each
+     * would run its own simulated time from its own start.
+     */
+    public static ScaledClock of(double speed, String epoch) {
+        if (epoch == null || epoch.isBlank()) {
+            if (speed != 1.0) {
+                throw new IllegalArgumentException("simulation.epoch must be set when simulation.speed is "
+                        + speed + ", so that all services agree on the simulated time");
+            }
+            return new ScaledClock(speed, null, Clock.systemDefaultZone());
+        }
+        return new ScaledClock(speed, Instant.parse(epoch.trim()), Clock.systemDefaultZone());
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    @Override
+    public LocalDateTime now() {
+        Instant wall = wallClock.instant();
+        if (speed == 1.0) {
+            return LocalDateTime.ofInstant(wall, wallClock.getZone());
+        }
+        long elapsed = Duration.between(epoch, wall).toNanos();
+        return LocalDateTime.ofInstant(epoch.plusNanos(Math.round(elapsed * speed)), wallClock.getZone());
+    }
+
+    @Override
+    public void sleep(Duration duration) throws InterruptedException {
+        long nanos = toWallNanos(duration);
+        if (nanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        }
+    }
+
+    @Override
+    public Task scheduleAtFixedRate(Runnable task, Duration period) {
+        // Keep at least a microsecond between runs, however fast the simulation
+        long nanos = Math.max(toWallNanos(period), TimeUnit.MICROSECONDS.toNanos(1));
+        ScheduledFuture<?> future = scheduler().scheduleAtFixedRate(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // An exception would cancel all later runs
+                logger.error("Scheduled task failed: {}", e.getMessage(), e);
+            }
+        }, nanos, nanos, TimeUnit.NANOSECONDS);
+        return () -> future.cancel(false);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private long toWallNanos(Duration duration) {
+        return Math.round(duration.toNanos() / speed);
+    }
+
+    private synchronized ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "simulation-clock");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scheduler;
+    }
+}
@@ -0,0 +1,55 @@
+package com.pizza.models.time;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Source of time for everything the services simulate: preparation, payment and delivery
+ * delays, timestamps on events and periodic work.
+ *
+ * {@link ScaledClock} runs simulated time in step with the wall clock, optionally N times
+ * faster. {@link VirtualClock} only moves when it is advanced and runs its events in time
+ * order as fast as possible, for in-process simulations and tests.
+ */
+public interface SimulationClock extends AutoCloseable {
+
+    /**
+     * Current simulated time
+     */
+    LocalDateTime now();
+
+    /**
+     * Block the calling thread for the given amount of simulated time
+     */
+    void sleep(Duration duration) throws InterruptedException;
+
+    /**
+     * Run a task every {@code period} of simulated time, the first run one period from now.
+     * A task that throws is logged and keeps its schedule.
+     */
+    Task scheduleAtFixedRate(Runnable task, Duration period);
+
+    /**
+     * Stop running scheduled tasks
+     */
+    @Override
+    void close();
+
+    /**
+     * Shared clock running at wall-clock speed
+     */
+    static SimulationClock system() {
+        return ScaledClock.SYSTEM;
+    }
+
+    /**
+     * Handle of a scheduled task
+     */
+    interface Task {
+
+        /**
+         * Skip all future runs; a run in progress completes
+         */
+        void cancel();
+    }
+}
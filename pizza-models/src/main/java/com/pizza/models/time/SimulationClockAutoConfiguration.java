@@ -0,0 +1,23 @@
+package com.pizza.models.time;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Clock for simulated delays and timestamps in every service that depends on pizza-models.
+ * Give every service the same {@code simulation.speed} and {@code simulation.epoch} so they
+ * agree on the simulated time; a service or test that declares its own {@link SimulationClock}
+ * keeps it.
+ */
+@AutoConfiguration
+public class SimulationClockAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SimulationClock simulationClock(@Value("${simulation.speed:1}") double speed,
+            @Value("${simulation.epoch:}") String epoch) {
+        return ScaledClock.of(speed, epoch);
+    }
+}
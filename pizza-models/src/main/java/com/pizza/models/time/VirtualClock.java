@@ -0,0 +1,174 @@
+package com.pizza.models.time;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Discrete-event clock: simulated time stands still until {@link #advanceTo} moves it, jumping
+ * straight from one event to the next, so a day of simulated traffic runs as fast as the tasks
+ * themselves.
+ *
+ * Scheduled tasks run on the advancing thread in time order; tasks due at the same time run in
+ * the order they were scheduled, so a simulation replays identically. Threads blocked in
+ * {@link #sleep} are released once time reaches their wake-up time, but the advancing thread
+ * does not wait for them to finish what they do next.
+ */
+public class VirtualClock implements SimulationClock {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualClock.class);
+
+    private final PriorityQueue<Event> events = new PriorityQueue<>(
+            Comparator.comparing((Event event) -> event.time).thenComparingLong(event -> event.sequence));
+    private LocalDateTime now;
+    private long sequence;
+
+    public VirtualClock(LocalDateTime start) {
+        this.now = start;
+    }
+
+    @Override
+    public synchronized LocalDateTime now() {
+        return now;
+    }
+
+    @Override
+    public void sleep(Duration duration) throws InterruptedException {
+        if (duration.isNegative() || duration.isZero()) {
+            return;
+        }
+        CountDownLatch wakeUp = new CountDownLatch(1);
+        Event event;
+        synchronized (this) {
+            event = enqueue(now.plus(duration), wakeUp::countDown, null, new ScheduledTask(true));
+        }
+        try {
+            wakeUp.await();
+        } catch (InterruptedException e) {
+            synchronized (this) {
+                events.remove(event);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Run a task once after {@code delay} of simulated time
+     */
+    public synchronized Task schedule(Runnable task, Duration delay) {
+        ScheduledTask handle = new ScheduledTask(false);
+        enqueue(now.plus(delay), task, null, handle);
+        return handle;
+    }
+
+    @Override
+    public synchronized Task scheduleAtFixedRate(Runnable task, Duration period) {
+        if (period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Period must be positive, got " + period);
+        }
+        ScheduledTask handle = new ScheduledTask(false);
+        enqueue(now.plus(period), task, period, handle);
+        return handle;
+    }
+
+    /**
+     * Number of scheduled task runs and sleeping threads waiting for their time
+     */
+    public synchronized int getPendingEvents() {
+        return events.size();
+    }
+
+    /**
+     * Move time forward by {@code duration}, running every event due on the way
+     *
+     * @return number of events run
+     */
+    public int advance(Duration duration) {
+        return advanceTo(now().plus(duration));
+    }
+
+    /**
+     * Move time forward to {@code target}, running every event due up to and including it in
+     * time order. Time never moves backwards.
+     *
+     * @return number of events run
+     */
+    public int advanceTo(LocalDateTime target) {
+        int count = 0;
+        while (true) {
+            Event event;
+            synchronized (this) {
+                event = events.peek();
+                if (event == null || event.time.isAfter(target)) {
+                    if (target.isAfter(now)) {
+                        now = target;
+                    }
+                    return count;
+                }
+                events.poll();
+                now = event.time;
+                if (event.handle.cancelled) {
+                    continue;
+                }
+                if (event.period != null) {
+                    enqueue(event.time.plus(event.period), event.action, event.period, event.handle);
+                }
+            }
+            try {
+                event.action.run();
+            } catch (RuntimeException e) {
+                logger.error("Scheduled task failed at {}: {}", event.time, e.getMessage(), e);
+            }
+            count++;
+        }
+    }
+
+    /**
+     * Cancel all scheduled tasks; sleeping threads still wake up as time advances
+     */
+    @Override
+    public synchronized void close() {
+        events.removeIf(event -> !event.handle.sleeper);
+    }
+
+    private Event enqueue(LocalDateTime time, Runnable action, Duration period, ScheduledTask handle) {
+        Event event = new Event(time, sequence++, action, period, handle);
+        events.add(event);
+        return event;
+    }
+
+    private static final class ScheduledTask implements Task {
+        private final boolean sleeper;
+        private volatile boolean cancelled;
+
+        private ScheduledTask(boolean sleeper) {
+            this.sleeper = sleeper;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private static final class Event {
+        private final LocalDateTime time;
+        private final long sequence;
+        private final Runnable action;
+        private final Duration period;
+        private final ScheduledTask handle;
+
+        private Event(LocalDateTime time, long sequence, Runnable action, Duration period, ScheduledTask handle) {
+            this.time = time;
+            this.sequence = sequence;
+            this.action = action;
+            this.period = period;
+            this.handle = handle;
+        }
+    }
+}
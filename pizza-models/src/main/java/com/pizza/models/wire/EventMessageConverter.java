@@ -0,0 +1,210 @@
+package com.pizza.models.wire;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizza.models.schema.EventSchemaRegistry;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Message converter choosing the wire format by content type.
+ *
+ * Incoming messages with content type {@link BinaryEventCodec#CONTENT_TYPE} are decoded by the
+ * {@link BinaryEventCodec}, all others are handed to the JSON converter, so a consumer accepts
+ * both while its producers switch over. Outgoing events of the configured binary types are
+ * encoded, everything else goes out as JSON. Since each queue carries one event type, choosing
+ * the types chooses the queues that use the binary format.
+ *
+ * With an {@link EventSchemaRegistry}, JSON events of registered types carry their schema version
+ * in the {@link EventSchemaRegistry#VERSION_HEADER}, and JSON payloads of an older version are
+ * upcast while decoding; current and newer versions take the direct path.
+ *
+ * {@link #withCompression} gzips outgoing bodies from a size on. Like the Spring AMQP
+ * compressing post processors, the content encoding then reads {@code gzip:} followed by the
+ * previous encoding, which is restored before the body is decoded. Compressed messages are
+ * always accepted, so consumers need no setting of their own.
+ */
+public class EventMessageConverter implements MessageConverter {
+
+    // Type header written by Jackson2JsonMessageConverter
+    private static final String TYPE_ID_HEADER = "__TypeId__";
+    private static final int NO_COMPRESSION = Integer.MAX_VALUE;
+
+    private final MessageConverter json;
+    private final Set<Class<?>> binaryTypes;
+    private final ObjectMapper objectMapper;
+    private final EventSchemaRegistry schemas;
+    private final int compressionThreshold;
+
+    /**
+     * @param json        converter for JSON messages, usually a {@code Jackson2JsonMessageConverter}
+     * @param binaryTypes event types sent in the binary format
+     * @throws IllegalArgumentException if a type has no binary schema
+     */
+    public EventMessageConverter(MessageConverter json, Collection<Class<?>> binaryTypes) {
+        this(json, binaryTypes, null, EventSchemaRegistry.empty(), NO_COMPRESSION);
+    }
+
+    /**
+     * Converter writing JSON with the ObjectMapper, versioning and upcasting the registered events
+     *
+     * @param binaryTypes event types sent in the binary format
+     * @throws IllegalArgumentException if a type has no binary schema
+     */
+    public EventMessageConverter(ObjectMapper objectMapper, Collection<Class<?>> binaryTypes,
+                                 EventSchemaRegistry schemas) {
+        this(new Jackson2JsonMessageConverter(objectMapper), binaryTypes, objectMapper, schemas, NO_COMPRESSION);
+    }
+
+    private EventMessageConverter(MessageConverter json, Collection<Class<?>> binaryTypes,
+                                  ObjectMapper objectMapper, EventSchemaRegistry schemas, int compressionThreshold) {
+        for (Class<?> type : binaryTypes) {
+            if (!BinaryEventCodec.supports(type)) {
+                throw new IllegalArgumentException("No binary schema for " + type.getName());
+            }
+        }
+        this.json = json;
+        this.binaryTypes = Set.copyOf(binaryTypes);
+        this.objectMapper = objectMapper;
+        this.schemas = schemas;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    /**
+     * Converter that also gzips bodies of at least the given size, when that makes them smaller
+     *
+     * @param thresholdBytes smallest body to compress, negative to send everything uncompressed
+     */
+    public EventMessageConverter withCompression(int thresholdBytes) {
+        return new EventMessageConverter(json, binaryTypes, objectMapper, schemas,
+                thresholdBytes < 0 ? NO_COMPRESSION : thresholdBytes);
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) throws MessageConversionException {
+        return compress(encode(object, messageProperties));
+    }
+
+    private Message encode(Object object, MessageProperties messageProperties) {
+        if (!binaryTypes.contains(object.getClass())) {
+            Message message = json.toMessage(object, messageProperties);
+            if (schemas.isRegistered(object.getClass())) {
+                message.getMessageProperties().setHeader(EventSchemaRegistry.VERSION_HEADER,
+                        schemas.currentVersion(object.getClass()));
+            }
+            return message;
+        }
+        byte[] body = BinaryEventCodec.encode(object);
+        messageProperties.setContentType(BinaryEventCodec.CONTENT_TYPE);
+        messageProperties.setContentLength(body.length);
+        return new Message(body, messageProperties);
+    }
+
+    private Message compress(Message message) {
+        byte[] body = message.getBody();
+        if (body.length < compressionThreshold) {
+            return message;
+        }
+        byte[] compressed = PayloadCompression.compress(body);
+        if (compressed.length >= body.length) {
+            return message;
+        }
+        MessageProperties properties = message.getMessageProperties();
+        String encoding = properties.getContentEncoding();
+        properties.setContentEncoding(encoding == null ? PayloadCompression.GZIP
+                : PayloadCompression.GZIP + ':' + encoding);
+        properties.setContentLength(compressed.length);
+        return new Message(compressed, properties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) throws MessageConversionException {
+        message = decompress(message);
+        String contentType = message.getMessageProperties().getContentType();
+        if (contentType == null || !contentType.startsWith(BinaryEventCodec.CONTENT_TYPE)) {
+            return fromJson(message);
+        }
+        try {
+            return BinaryEventCodec.decode(message.getBody());
+        } catch (IllegalArgumentException e) {
+            throw new MessageConversionException("Failed to decode binary event", e);
+        }
+    }
+
+    private static Message decompress(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        String encoding = properties.getContentEncoding();
+        if (!isCompressed(encoding)) {
+            return message;
+        }
+        byte[] body;
+        try {
+            body = PayloadCompression.decompress(message.getBody());
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to decompress message body", e);
+        }
+        properties.setContentEncoding(encoding.length() > PayloadCompression.GZIP.length()
+                ? encoding.substring(PayloadCompression.GZIP.length() + 1) : null);
+        properties.setContentLength(body.length);
+        return new Message(body, properties);
+    }
+
+    /**
+     * Whether the content encoding is {@code gzip} or {@code gzip:} followed by the original one
+     */
+    private static boolean isCompressed(String encoding) {
+        int length = PayloadCompression.GZIP.length();
+        return encoding != null && encoding.startsWith(PayloadCompression.GZIP)
+                && (encoding.length() == length || encoding.charAt(length) == ':');
+    }
+
+    private Object fromJson(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        Class<?> type = objectMapper == null ? null : eventType(properties);
+        if (type == null) {
+            return json.fromMessage(message);
+        }
+        int version = version(properties);
+        if (version >= schemas.currentVersion(type)) {
+            return json.fromMessage(message);
+        }
+        try {
+            return schemas.read(objectMapper, message.getBody(), type, version);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new MessageConversionException("Failed to upcast " + type.getSimpleName()
+                    + " of schema version " + version, e);
+        }
+    }
+
+    /**
+     * Registered event type the listener expects or the producer sent, or null
+     */
+    private Class<?> eventType(MessageProperties properties) {
+        if (properties.getInferredArgumentType() instanceof Class<?> type && schemas.isRegistered(type)) {
+            return type;
+        }
+        Object typeId = properties.getHeader(TYPE_ID_HEADER);
+        return typeId instanceof String className ? schemas.typeNamed(className) : null;
+    }
+
+    private static int version(MessageProperties properties) {
+        Object version = properties.getHeader(EventSchemaRegistry.VERSION_HEADER);
+        if (version == null) {
+            return EventSchemaRegistry.INITIAL_VERSION;
+        }
+        if (version instanceof Number number) {
+            return number.intValue();
+        }
+        try {
+            return Integer.parseInt(version.toString());
+        } catch (NumberFormatException e) {
+            throw new MessageConversionException("Invalid schema version header " + version, e);
+        }
+    }
+}
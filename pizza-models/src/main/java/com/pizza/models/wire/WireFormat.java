@@ -0,0 +1,18 @@
+package com.pizza.models.wire;
+
+/**
+ * Format a producer sends an event queue in, see {@link EventMessageConverter}
+ */
+public enum WireFormat {
+
+    /**
+     * JSON with a {@code __TypeId__} header, readable by every consumer
+     */
+    JSON,
+
+    /**
+     * {@link BinaryEventCodec}; switch a queue only once all its consumers use an
+     * {@link EventMessageConverter}
+     */
+    BINARY
+}
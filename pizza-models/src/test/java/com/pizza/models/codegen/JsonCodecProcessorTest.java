@@ -0,0 +1,79 @@
+package com.pizza.models.codegen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JsonCodecProcessor Unit Tests")
+class JsonCodecProcessorTest {
+
+    @TempDir
+    Path output;
+
+    @Test
+    @DisplayName("Should generate a codec per record and a module per package")
+    void process_shouldGenerateCodecAndModule() throws Exception {
+        // Given
+        String source = "package sample; @com.pizza.models.codegen.JsonCodec "
+                + "public record Sample(String name, int count, Long total, java.time.LocalDate day) {}";
+
+        // When
+        DiagnosticCollector<JavaFileObject> diagnostics = compile("sample.Sample", source);
+
+        // Then
+        assertTrue(diagnostics.getDiagnostics().stream().noneMatch(d -> d.getKind() == Diagnostic.Kind.ERROR),
+                diagnostics.getDiagnostics().toString());
+        String codec = Files.readString(output.resolve("sample/SampleJsonCodec.java"));
+        assertTrue(codec.contains("case \"total\" -> _total = parser.hasToken(JsonToken.VALUE_NULL) ? null"), codec);
+        assertTrue(codec.contains("return new Sample(_name, _count, _total, _day);"), codec);
+        assertTrue(Files.readString(output.resolve("sample/JsonCodecModule.java"))
+                .contains("SampleJsonCodec.register(this);"));
+    }
+
+    @Test
+    @DisplayName("Should reject classes and generic components")
+    void process_shouldRejectUnsupportedTypes() throws Exception {
+        // When
+        DiagnosticCollector<JavaFileObject> notRecord = compile("sample.Plain",
+                "package sample; @com.pizza.models.codegen.JsonCodec public class Plain {}");
+        DiagnosticCollector<JavaFileObject> generic = compile("sample.Listed",
+                "package sample; @com.pizza.models.codegen.JsonCodec "
+                        + "public record Listed(java.util.List<String> names) {}");
+
+        // Then
+        assertTrue(notRecord.getDiagnostics().toString().contains("top-level records only"));
+        assertTrue(generic.getDiagnostics().toString().contains("Unsupported @JsonCodec component type"));
+    }
+
+    private DiagnosticCollector<JavaFileObject> compile(String className, String source) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        JavaFileObject file = new SimpleJavaFileObject(
+                URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        // Only the processor is run; the generated sources are checked, not compiled against Jackson
+        List<String> options = List.of("-proc:only", "-d", output.toString(), "-s", output.toString(),
+                "-classpath", System.getProperty("java.class.path"));
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null, List.of(file));
+        task.setProcessors(List.of(new JsonCodecProcessor()));
+        task.call();
+        return diagnostics;
+    }
+}
@@ -0,0 +1,25 @@
+package com.pizza.models.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IdGeneratorAutoConfiguration Unit Tests")
+class IdGeneratorAutoConfigurationTest {
+
+    private final IdGeneratorAutoConfiguration configuration = new IdGeneratorAutoConfiguration();
+
+    @Test
+    @DisplayName("Should use the configured node and pick a random one otherwise")
+    void idGenerator_shouldApplyNodeSetting() {
+        // When
+        TimeOrderedIdGenerator configured = configuration.idGenerator("7");
+        TimeOrderedIdGenerator random = configuration.idGenerator("");
+
+        // Then
+        assertEquals(7, configured.getNode());
+        assertTrue(random.getNode() >= 0 && random.getNode() <= TimeOrderedIdGenerator.MAX_NODE);
+        assertNotEquals(configured.next(), configured.next());
+    }
+}
@@ -0,0 +1,122 @@
+package com.pizza.models.id;
+
+import com.pizza.models.OrderReadyEvent;
+import com.pizza.models.wire.BinaryEventCodec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TimeOrderedIdGenerator Unit Tests")
+class TimeOrderedIdGeneratorTest {
+
+    private static final long NOW = 1_768_557_600_000L;
+
+    @Test
+    @DisplayName("Should generate canonical version 7 UUIDs carrying time and node")
+    void next_shouldLayOutVersion7Uuid() {
+        // Given
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(12345, () -> NOW);
+
+        // When
+        String id = generator.next();
+        UUID uuid = UUID.fromString(id);
+
+        // Then
+        assertEquals(uuid.toString(), id);
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(NOW, uuid.getMostSignificantBits() >>> 16);
+        assertEquals(12345, (uuid.getLeastSignificantBits() >>> 32) & TimeOrderedIdGenerator.MAX_NODE);
+    }
+
+    @Test
+    @DisplayName("Should keep increasing when the clock stands still, steps back or a millisecond overflows")
+    void next_shouldBeMonotonic() {
+        // Given
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1, clock::get);
+        List<String> ids = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 5000; i++) {
+            ids.add(generator.next());
+        }
+        clock.set(NOW - 1000);
+        ids.add(generator.next());
+        clock.set(NOW + 1000);
+        ids.add(generator.next());
+
+        // Then
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, ids.get(i - 1) + " < " + ids.get(i));
+        }
+        assertEquals(NOW + 1000, UUID.fromString(ids.get(ids.size() - 1)).getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    @DisplayName("Should not repeat IDs across threads")
+    void next_shouldBeUniqueAcrossThreads() throws Exception {
+        // Given
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(7, () -> NOW);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Boolean>> increasing = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 4; t++) {
+            increasing.add(executor.submit(() -> {
+                String previous = "";
+                boolean ordered = true;
+                for (int i = 0; i < 10_000; i++) {
+                    String id = generator.next();
+                    ordered &= previous.compareTo(id) < 0;
+                    ids.add(id);
+                    previous = id;
+                }
+                return ordered;
+            }));
+        }
+        executor.shutdown();
+
+        // Then
+        for (Future<Boolean> result : increasing) {
+            assertTrue(result.get());
+        }
+        assertEquals(40_000, ids.size());
+    }
+
+    @Test
+    @DisplayName("Should configure the node and send IDs in the compact binary form")
+    void of_shouldParseNode() {
+        // Given
+        String id = TimeOrderedIdGenerator.of(" 42 ").next();
+        OrderReadyEvent event = new OrderReadyEvent(id, "Margherita", 1, "Address", "Customer",
+                LocalDateTime.of(2026, 1, 16, 10, 0));
+        OrderReadyEvent randomId = new OrderReadyEvent(UUID.randomUUID().toString(), "Margherita", 1, "Address",
+                "Customer", LocalDateTime.of(2026, 1, 16, 10, 0));
+
+        // When
+        byte[] encoded = BinaryEventCodec.encode(event);
+
+        // Then
+        assertEquals(42, TimeOrderedIdGenerator.of("42").getNode());
+        assertTrue(TimeOrderedIdGenerator.of("").getNode() >= 0);
+        assertEquals(event, BinaryEventCodec.decode(encoded));
+        assertEquals(BinaryEventCodec.encode(randomId).length, encoded.length);
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new TimeOrderedIdGenerator(TimeOrderedIdGenerator.MAX_NODE + 1));
+    }
+}
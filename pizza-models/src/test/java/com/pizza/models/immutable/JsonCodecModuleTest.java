@@ -0,0 +1,109 @@
+package com.pizza.models.immutable;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pizza.models.DeliveryStatus;
+import com.pizza.models.OrderPlacedEvent;
+import com.pizza.models.OrderReadyEvent;
+import com.pizza.models.PaymentRequest;
+import com.pizza.models.PaymentResponse;
+import com.pizza.models.json.PizzaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Generated JsonCodecModule Unit Tests")
+class JsonCodecModuleTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2026, 1, 16, 10, 0, 5, 120_000_000);
+
+    // Configured as Spring Boot does, plus the pizza-models modules
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .registerModule(new PizzaTimeModule())
+            .registerModule(new JsonCodecModule());
+
+    @Test
+    @DisplayName("Should write the same JSON as the Lombok models and read it back")
+    void records_shouldMatchLombokJson() throws Exception {
+        // Given models with every field set and with nulls
+        List<Object> models = List.of(
+                new OrderPlacedEvent("order-1", "Margherita", 2, "Address", "Customer", TIME),
+                new OrderPlacedEvent("order-2", null, null, null, null, null),
+                new OrderReadyEvent("order-1", "Salami", 1, "Address", "Customer", TIME),
+                new OrderPlacedEvent("order-3", "Margherita", 1, "Address", "Customer", TIME, TIME.plusSeconds(1),
+                        TIME.plusSeconds(2)),
+                new OrderReadyEvent("order-3", "Margherita", 1, "Address", "Customer", TIME.plusSeconds(9), TIME,
+                        TIME.plusSeconds(1), TIME.plusSeconds(2), TIME.plusSeconds(3), TIME.plusSeconds(10)),
+                new PaymentRequest("order-1", "Customer", 12.5),
+                new PaymentResponse("tx-1", true, "Payment successful"),
+                new DeliveryStatus("order-1", "IN_TRANSIT", "Anna Schmidt", "Address", TIME, TIME.plusMinutes(30),
+                        null, TIME.plusSeconds(12), TIME.plusSeconds(12), TIME.plusMinutes(30)));
+
+        for (Object model : models) {
+            Object record = toRecord(model);
+
+            // When
+            String expected = mapper.writeValueAsString(model);
+            String actual = mapper.writeValueAsString(record);
+
+            // Then
+            assertEquals(expected, actual);
+            assertEquals(record, mapper.readValue(expected, record.getClass()));
+            assertEquals(model, mapper.readValue(actual, model.getClass()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should accept missing, unknown and coerced fields like the Lombok models")
+    void deserialize_shouldBeLenientLikeLombokModels() throws Exception {
+        // Given
+        String json = "{\"extra\":{\"nested\":[1,2]},\"orderId\":\"order-1\",\"quantity\":\"3\","
+                + "\"preparedAt\":\"2026-01-16T10:00:05.12\"}";
+
+        // When
+        OrderReadyEventRecord record = mapper.readValue(json, OrderReadyEventRecord.class);
+
+        // Then
+        assertEquals(OrderReadyEventRecord.from(mapper.readValue(json, OrderReadyEvent.class)), record);
+        assertEquals(new OrderReadyEventRecord("order-1", null, 3, null, null, TIME), record);
+        assertEquals(new PaymentResponseRecord(null, false, null), mapper.readValue("{}", PaymentResponseRecord.class));
+    }
+
+    @Test
+    @DisplayName("Should convert between records and Lombok models without losing fields")
+    void conversions_shouldRoundTrip() {
+        // Given
+        DeliveryStatus delivery = new DeliveryStatus("order-1", "DELIVERED", "Driver", "Address", TIME,
+                TIME.plusMinutes(30), TIME.plusMinutes(25), TIME.plusMinutes(5), TIME.plusMinutes(5),
+                TIME.plusMinutes(25));
+        PaymentRequest request = new PaymentRequest("order-1", "Customer", 12.5);
+
+        // When & Then
+        assertEquals(delivery, DeliveryStatusRecord.from(delivery).toModel());
+        assertEquals(request, PaymentRequestRecord.from(request).toModel());
+    }
+
+    private static Object toRecord(Object model) {
+        if (model instanceof OrderPlacedEvent event) {
+            return OrderPlacedEventRecord.from(event);
+        }
+        if (model instanceof OrderReadyEvent event) {
+            return OrderReadyEventRecord.from(event);
+        }
+        if (model instanceof PaymentRequest request) {
+            return PaymentRequestRecord.from(request);
+        }
+        if (model instanceof PaymentResponse response) {
+            return PaymentResponseRecord.from(response);
+        }
+        return DeliveryStatusRecord.from((DeliveryStatus) model);
+    }
+}
@@ -0,0 +1,50 @@
+package com.pizza.models.intern;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizza.models.DeliveryStatus;
+import com.pizza.models.OrderReadyEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("InternedStringDeserializer Unit Tests")
+class InternedStringDeserializerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should share the pizza of decoded events")
+    void deserialize_shouldInternPizza() throws Exception {
+        // Given
+        String json = "{\"orderId\":\"%s\",\"pizza\":\"Quattro Stagioni\",\"address\":\"Address %<s\"}";
+
+        // When
+        OrderReadyEvent first = mapper.readValue(json.formatted("order-1"), OrderReadyEvent.class);
+        OrderReadyEvent second = mapper.readValue(json.formatted("order-2"), OrderReadyEvent.class);
+
+        // Then
+        assertSame(first.getPizza(), second.getPizza());
+        assertNotSame(first.getAddress(), second.getAddress());
+        assertSame(StringDictionary.shared().intern("Quattro Stagioni"), first.getPizza());
+    }
+
+    @Test
+    @DisplayName("Should share status and driver name of decoded deliveries, coercing scalars")
+    void deserialize_shouldInternDeliveryFields() throws Exception {
+        // Given
+        String json = "{\"orderId\":\"order-1\",\"status\":\"IN_TRANSIT\",\"driverName\":%s}";
+
+        // When
+        DeliveryStatus first = mapper.readValue(json.formatted("\"Lisa Weber\""), DeliveryStatus.class);
+        DeliveryStatus second = mapper.readValue(json.formatted("\"Lisa Weber\""), DeliveryStatus.class);
+        DeliveryStatus numeric = mapper.readValue(json.formatted("42"), DeliveryStatus.class);
+        DeliveryStatus missing = mapper.readValue(json.formatted("null"), DeliveryStatus.class);
+
+        // Then
+        assertSame(first.getStatus(), second.getStatus());
+        assertSame(first.getDriverName(), second.getDriverName());
+        assertEquals("42", numeric.getDriverName());
+        assertNull(missing.getDriverName());
+    }
+}
@@ -0,0 +1,95 @@
+package com.pizza.models.intern;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StringDictionary Unit Tests")
+class StringDictionaryTest {
+
+    @Test
+    @DisplayName("Should return one instance and one code per distinct value")
+    void intern_shouldShareEqualValues() {
+        // Given
+        StringDictionary dictionary = new StringDictionary(16);
+        String first = new String("Margherita");
+        String second = new String("Margherita");
+
+        // When
+        String interned = dictionary.intern(first);
+
+        // Then
+        assertSame(first, interned);
+        assertSame(first, dictionary.intern(second));
+        assertEquals(0, dictionary.code(second));
+        assertEquals(1, dictionary.code("Calzone"));
+        assertSame(first, dictionary.value(0));
+        assertEquals("Calzone", dictionary.value(1));
+        assertEquals(2, dictionary.size());
+        assertNull(dictionary.intern(null));
+    }
+
+    @Test
+    @DisplayName("Should pass new values through once full")
+    void intern_shouldStopGrowingAtCapacity() {
+        // Given
+        StringDictionary dictionary = new StringDictionary(2);
+        dictionary.intern("ASSIGNED");
+        dictionary.intern("IN_TRANSIT");
+        String overflow = new String("DELIVERED");
+
+        // When & Then
+        assertSame(overflow, dictionary.intern(overflow));
+        assertNotSame(overflow, dictionary.intern(new String("DELIVERED")));
+        assertEquals(StringDictionary.NO_CODE, dictionary.code("DELIVERED"));
+        assertEquals(1, dictionary.code("IN_TRANSIT"));
+        assertEquals(2, dictionary.size());
+        assertThrows(IllegalArgumentException.class, () -> dictionary.value(2));
+        assertThrows(IllegalArgumentException.class, () -> dictionary.value(-1));
+        assertThrows(IllegalArgumentException.class, () -> new StringDictionary(0));
+    }
+
+    @Test
+    @DisplayName("Should assign dense unique codes under concurrent use")
+    void code_shouldBeConsistentAcrossThreads() throws Exception {
+        // Given
+        StringDictionary dictionary = new StringDictionary(100);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<int[]>> results = new ArrayList<>();
+
+        // When every thread looks up the same values in a different order
+        for (int t = 0; t < 4; t++) {
+            int offset = t * 13;
+            results.add(executor.submit(() -> {
+                int[] codes = new int[50];
+                for (int i = 0; i < 50; i++) {
+                    int value = (i + offset) % 50;
+                    codes[value] = dictionary.code("driver-" + value);
+                }
+                return codes;
+            }));
+        }
+        executor.shutdown();
+
+        // Then
+        int[] expected = results.get(0).get();
+        for (Future<int[]> result : results) {
+            assertArrayEquals(expected, result.get());
+        }
+        Set<Integer> distinct = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            assertTrue(distinct.add(expected[i]));
+            assertEquals("driver-" + i, dictionary.value(expected[i]));
+        }
+        assertEquals(50, dictionary.size());
+    }
+}
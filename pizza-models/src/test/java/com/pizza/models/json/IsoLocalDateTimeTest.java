@@ -0,0 +1,68 @@
+package com.pizza.models.json;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IsoLocalDateTime Unit Tests")
+class IsoLocalDateTimeTest {
+
+    private static String format(LocalDateTime value) {
+        char[] buffer = new char[IsoLocalDateTime.MAX_LENGTH];
+        int length = IsoLocalDateTime.format(value, buffer);
+        return length < 0 ? null : new String(buffer, 0, length);
+    }
+
+    @Test
+    @DisplayName("Should format exactly like ISO_LOCAL_DATE_TIME")
+    void format_shouldMatchFormatter() {
+        // Given random date-times with all fraction lengths
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            int nano = switch (i % 4) {
+                case 0 -> 0;
+                case 1 -> random.nextInt(1000) * 1_000_000;
+                case 2 -> random.nextInt(1_000_000) * 1000;
+                default -> random.nextInt(1_000_000_000);
+            };
+            LocalDateTime value = LocalDateTime.of(random.nextInt(10_000), 1 + random.nextInt(12),
+                    1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60), nano);
+
+            // When & Then
+            assertEquals(value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME), format(value));
+        }
+    }
+
+    @Test
+    @DisplayName("Should leave years outside 0-9999 to the formatter")
+    void format_shouldRejectWideYears() {
+        assertNull(format(LocalDateTime.of(10_000, 1, 1, 0, 0)));
+        assertNull(format(LocalDateTime.of(-1, 1, 1, 0, 0)));
+    }
+
+    @Test
+    @DisplayName("Should parse the ISO shapes with and without seconds and fractions")
+    void parse_shouldReadIsoShapes() {
+        assertEquals(LocalDateTime.of(2026, 1, 16, 10, 0), IsoLocalDateTime.parse("2026-01-16T10:00"));
+        assertEquals(LocalDateTime.of(2026, 1, 16, 10, 0, 12), IsoLocalDateTime.parse("2026-01-16T10:00:12"));
+        assertEquals(LocalDateTime.of(2026, 1, 16, 10, 0, 12, 300_000_000),
+                IsoLocalDateTime.parse("2026-01-16T10:00:12.3"));
+        assertEquals(LocalDateTime.of(2026, 1, 16, 10, 0, 12, 123_456_789),
+                IsoLocalDateTime.parse("2026-01-16T10:00:12.123456789"));
+    }
+
+    @Test
+    @DisplayName("Should return null for other shapes and invalid values")
+    void parse_shouldRejectOtherText() {
+        for (String text : new String[]{"", "2026-01-16", "2026-01-16T10:00:1", "2026-01-16T10:00:12.",
+                "2026-01-16T10:00:12Z", "2026-01-16 10:00:12", "2026-13-16T10:00:12", "2026-02-30T10:00",
+                "2026-01-16T24:00", "+2026-01-16T10:00", "2026-01-16T10:0a", "2026-01-16T10:00:12.1234567890"}) {
+            assertNull(IsoLocalDateTime.parse(text), text);
+        }
+    }
+}
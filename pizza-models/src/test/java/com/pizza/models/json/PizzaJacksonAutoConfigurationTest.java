@@ -0,0 +1,42 @@
+package com.pizza.models.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pizza.models.OrderPlacedEvent;
+import com.pizza.models.immutable.OrderPlacedEventRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PizzaJacksonAutoConfiguration Unit Tests")
+class PizzaJacksonAutoConfigurationTest {
+
+    private final PizzaJacksonAutoConfiguration configuration = new PizzaJacksonAutoConfiguration();
+
+    @Test
+    @DisplayName("Should provide modules that round-trip the models and warm up every model type")
+    void modules_shouldRoundTripModels() throws Exception {
+        // Given a mapper configured as Spring Boot does, plus the module beans
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .registerModule(configuration.pizzaBlackbirdModule())
+                .registerModule(configuration.pizzaTimeModule())
+                .registerModule(configuration.pizzaRecordCodecModule());
+        OrderPlacedEvent event = new OrderPlacedEvent("order-1", "Margherita", 2, "Address", "Customer",
+                LocalDateTime.of(2026, 1, 16, 10, 0, 5));
+
+        // When
+        PizzaJacksonAutoConfiguration.warmUp(mapper);
+        String json = mapper.writeValueAsString(event);
+
+        // Then
+        assertTrue(json.contains("\"timestamp\":\"2026-01-16T10:00:05\""), json);
+        assertEquals(event, mapper.readValue(json, OrderPlacedEvent.class));
+        assertEquals(OrderPlacedEventRecord.from(event), mapper.readValue(json, OrderPlacedEventRecord.class));
+        assertTrue(mapper.getRegisteredModuleIds().contains(configuration.pizzaTimeModule().getTypeId()));
+    }
+}
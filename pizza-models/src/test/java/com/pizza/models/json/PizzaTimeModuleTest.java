@@ -0,0 +1,59 @@
+package com.pizza.models.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pizza.models.DeliveryStatus;
+import com.pizza.models.OrderReadyEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PizzaTimeModule Unit Tests")
+class PizzaTimeModuleTest {
+
+    private static ObjectMapper mapper(boolean withPizzaTimeModule) {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return withPizzaTimeModule ? mapper.registerModule(new PizzaTimeModule()) : mapper;
+    }
+
+    private static DeliveryStatus delivery() {
+        LocalDateTime assigned = LocalDateTime.of(2026, 1, 16, 10, 0);
+        return new DeliveryStatus("order-1", "IN_TRANSIT", "Anna Schmidt", "Address", assigned,
+                assigned.plusMinutes(30), null, assigned.plusSeconds(12).plusNanos(345_000_000),
+                assigned.plusSeconds(12), LocalDateTime.of(12_026, 1, 1, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Should write the same JSON as the JavaTimeModule alone")
+    void serialize_shouldMatchJavaTimeModule() throws Exception {
+        // When
+        String expected = mapper(false).writeValueAsString(delivery());
+        String actual = mapper(true).writeValueAsString(delivery());
+
+        // Then
+        assertEquals(expected, actual);
+        assertTrue(actual.contains("\"assignedAt\":\"2026-01-16T10:00:00\""), actual);
+    }
+
+    @Test
+    @DisplayName("Should read what it writes, and timestamps and other shapes through the JavaTimeModule")
+    void deserialize_shouldReadAllShapes() throws Exception {
+        // Given
+        ObjectMapper mapper = mapper(true);
+        String timestamps = mapper.copy().enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writeValueAsString(delivery());
+
+        // When & Then
+        assertEquals(delivery(), mapper.readValue(mapper.writeValueAsString(delivery()), DeliveryStatus.class));
+        assertEquals(delivery(), mapper.readValue(timestamps, DeliveryStatus.class));
+        assertTrue(timestamps.contains("\"assignedAt\":[2026,1,16,10,0]"), timestamps);
+        assertEquals(LocalDateTime.of(2026, 1, 16, 10, 0),
+                mapper.readValue("{\"preparedAt\":\" 2026-01-16T10:00:00 \"}", OrderReadyEvent.class)
+                        .getPreparedAt());
+    }
+}
@@ -0,0 +1,55 @@
+package com.pizza.models.routing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OrderPartitioner Unit Tests")
+class OrderPartitionerTest {
+
+    @Test
+    @DisplayName("Should map an order to the same partition every time")
+    void partition_shouldBeStable() {
+        // Given
+        String orderId = "123e4567-e89b-12d3-a456-426614174000";
+
+        // When
+        int partition = OrderPartitioner.partition(orderId, 64);
+
+        // Then
+        assertEquals(partition, OrderPartitioner.partition(orderId, 64));
+        assertEquals(OrderPartitioner.hash(orderId), OrderPartitioner.hash(new String(orderId.toCharArray())));
+        assertTrue(partition >= 0 && partition < 64);
+    }
+
+    @Test
+    @DisplayName("Should spread random order IDs evenly over the partitions")
+    void partition_shouldSpreadOrders() {
+        // Given
+        int partitions = 16;
+        int orders = 160_000;
+        int[] counts = new int[partitions];
+
+        // When
+        for (int i = 0; i < orders; i++) {
+            counts[OrderPartitioner.partition(UUID.randomUUID().toString(), partitions)]++;
+        }
+
+        // Then within 5% of an even split
+        for (int count : counts) {
+            assertEquals(orders / partitions, count, orders / partitions * 0.05);
+        }
+    }
+
+    @Test
+    @DisplayName("Should name partition queues and routing keys after the partition")
+    void shouldNamePartitions() {
+        // Then
+        assertEquals("order.ready.7", OrderPartitioner.queueName(7));
+        assertEquals("7", OrderPartitioner.routingKey(7));
+        assertThrows(IllegalArgumentException.class, () -> OrderPartitioner.partition("order-1", 0));
+    }
+}
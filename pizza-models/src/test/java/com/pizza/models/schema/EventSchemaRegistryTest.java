@@ -0,0 +1,109 @@
+package com.pizza.models.schema;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pizza.models.OrderReadyEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EventSchemaRegistry Unit Tests")
+class EventSchemaRegistryTest {
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private static final OrderReadyEvent EVENT = new OrderReadyEvent("order-1", "Margherita", 2, "Address",
+            "Customer", LocalDateTime.of(2026, 1, 16, 10, 0));
+
+    // Version 1 called the fields readyAt and customer, version 2 renamed readyAt to preparedAt
+    private static final String V1 = "{\"orderId\":\"order-1\",\"pizza\":\"Margherita\",\"quantity\":2,"
+            + "\"address\":\"Address\",\"customer\":\"Customer\",\"readyAt\":\"2026-01-16T10:00:00\"}";
+    private static final String V2 = "{\"orderId\":\"order-1\",\"pizza\":\"Margherita\",\"quantity\":2,"
+            + "\"address\":\"Address\",\"customer\":\"Customer\",\"preparedAt\":\"2026-01-16T10:00:00\"}";
+
+    private static EventSchemaRegistry renamingRegistry() {
+        return EventSchemaRegistry.empty().register(OrderReadyEvent.class, 3,
+                Upcaster.renameFields(2, Map.of("customer", "customerName")),
+                Upcaster.renameFields(1, Map.of("readyAt", "preparedAt")));
+    }
+
+    @Test
+    @DisplayName("Should upcast renamed fields of every older version without a tree")
+    void read_shouldApplyMergedRenames() throws Exception {
+        // Given
+        EventSchemaRegistry registry = renamingRegistry();
+
+        // When & Then
+        assertEquals(3, registry.currentVersion(OrderReadyEvent.class));
+        assertEquals(EVENT, registry.read(mapper, bytes(V1), OrderReadyEvent.class, 1));
+        assertEquals(EVENT, registry.read(mapper, bytes(V2), OrderReadyEvent.class, 2));
+        assertEquals(EVENT, registry.read(mapper, mapper.writeValueAsBytes(EVENT), OrderReadyEvent.class, 3));
+    }
+
+    @Test
+    @DisplayName("Should run tree upcasters in order when a step is more than a rename")
+    void read_shouldApplyTreeUpcasters() throws Exception {
+        // Given a version 1 that sent the quantity as text and the customer under another name
+        EventSchemaRegistry registry = EventSchemaRegistry.empty().register(OrderReadyEvent.class, 3,
+                Upcaster.transform(1, event -> event.put("quantity", Integer.parseInt(event.remove("count").asText()))),
+                Upcaster.renameFields(2, Map.of("customer", "customerName")));
+        String v1 = "{\"orderId\":\"order-1\",\"pizza\":\"Margherita\",\"count\":\"2\",\"address\":\"Address\","
+                + "\"customer\":\"Customer\",\"preparedAt\":\"2026-01-16T10:00:00\"}";
+
+        // When & Then
+        assertEquals(EVENT, registry.read(mapper, bytes(v1), OrderReadyEvent.class, 1));
+    }
+
+    @Test
+    @DisplayName("Should read current and newer versions directly, ignoring unknown fields")
+    void read_shouldTolerateNewerVersions() throws Exception {
+        // Given a payload from a producer a version ahead, with an added field
+        String newer = mapper.writeValueAsString(EVENT).replace("{", "{\"priority\":{\"level\":1},");
+
+        // When & Then
+        assertEquals(EVENT, EventSchemaRegistry.standard().read(mapper, bytes(newer), OrderReadyEvent.class, 2));
+        assertEquals(EVENT, mapper.readValue(newer, OrderReadyEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should require exactly one upcaster per older version")
+    void register_shouldValidateUpcasterChain() {
+        // Given
+        EventSchemaRegistry registry = EventSchemaRegistry.empty();
+        Upcaster fromOne = Upcaster.renameFields(1, Map.of("a", "b"));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> registry.register(OrderReadyEvent.class, 3, fromOne));
+        assertThrows(IllegalArgumentException.class,
+                () -> registry.register(OrderReadyEvent.class, 2, fromOne, fromOne));
+        assertThrows(IllegalArgumentException.class, () -> registry.register(OrderReadyEvent.class, 1, fromOne));
+        assertThrows(IllegalArgumentException.class, () -> registry.currentVersion(OrderReadyEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should rename fields of the event only, not of nested objects")
+    void read_shouldLeaveNestedFieldsAlone() throws Exception {
+        // Given a version 1 that called customerName customer
+        EventSchemaRegistry registry = EventSchemaRegistry.empty().register(OrderReadyEvent.class, 2,
+                Upcaster.renameFields(1, Map.of("customer", "customerName")));
+        String v1 = "{\"orderId\":\"order-1\",\"extra\":{\"customer\":\"Other\"},\"customer\":\"Customer\"}";
+
+        // When
+        OrderReadyEvent event = registry.read(mapper, bytes(v1), OrderReadyEvent.class, 1);
+
+        // Then
+        assertEquals(new OrderReadyEvent("order-1", null, null, null, "Customer", null), event);
+        assertNull(mapper.readValue(v1, OrderReadyEvent.class).getCustomerName());
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,111 @@
+package com.pizza.models.time;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ScaledClock Unit Tests")
+class ScaledClockTest {
+
+    private static final Instant EPOCH = Instant.parse("2026-01-16T10:00:00Z");
+
+    @Test
+    @DisplayName("Should run simulated time N times as fast as the wall clock from the epoch")
+    void now_shouldScaleElapsedTime() {
+        // Given a wall clock one minute past the epoch
+        Clock wall = Clock.fixed(EPOCH.plusSeconds(60), ZoneOffset.UTC);
+
+        // When
+        ScaledClock clock = new ScaledClock(60, EPOCH, wall);
+
+        // Then one wall-clock minute is one simulated hour
+        assertEquals(LocalDateTime.of(2026, 1, 16, 11, 0), clock.now());
+    }
+
+    @Test
+    @DisplayName("Should match the wall clock at normal speed")
+    void now_shouldFollowWallClockAtSpeedOne() {
+        // Given
+        Clock wall = Clock.fixed(EPOCH.plusSeconds(90), ZoneOffset.UTC);
+
+        // When
+        ScaledClock clock = new ScaledClock(1, EPOCH, wall);
+
+        // Then
+        assertEquals(LocalDateTime.ofInstant(wall.instant(), ZoneOffset.UTC), clock.now());
+    }
+
+    @Test
+    @DisplayName("Should shorten sleeps by the simulation speed")
+    void sleep_shouldScaleDuration() throws InterruptedException {
+        // Given
+        ScaledClock clock = new ScaledClock(1000, null, Clock.systemUTC());
+
+        // When
+        long start = System.nanoTime();
+        clock.sleep(Duration.ofSeconds(2));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertTrue(elapsedMs < 1000, "Slept " + elapsedMs + " ms");
+    }
+
+    @Test
+    @DisplayName("Should keep running a scheduled task after it failed")
+    void scheduleAtFixedRate_shouldSurviveFailingTask() throws InterruptedException {
+        // Given
+        ScaledClock clock = new ScaledClock(1000, null, Clock.systemUTC());
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(3);
+
+        // When
+        SimulationClock.Task task = clock.scheduleAtFixedRate(() -> {
+            runs.incrementAndGet();
+            done.countDown();
+            throw new IllegalStateException("boom");
+        }, Duration.ofSeconds(5));
+
+        // Then
+        try {
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            task.cancel();
+            clock.close();
+        }
+        assertTrue(runs.get() >= 3);
+    }
+
+    @Test
+    @DisplayName("Should parse the epoch setting and reject a non-positive speed")
+    void of_shouldParseSettings() {
+        // When
+        ScaledClock clock = ScaledClock.of(10, "2026-01-16T10:00:00Z");
+
+        // Then
+        assertEquals(10, clock.getSpeed());
+        assertEquals(1, ScaledClock.of(1, " ").getSpeed());
+        assertThrows(IllegalArgumentException.class, () -> ScaledClock.of(0, "2026-01-16T10:00:00Z"));
+        assertThrows(IllegalArgumentException.class, () -> ScaledClock.of(-2, "2026-01-16T10:00:00Z"));
+    }
+
+    @Test
+    @DisplayName("Should require an epoch when the simulation runs faster than the wall clock")
+    void of_shouldRequireEpochAtOtherSpeeds() {
+        // When
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> ScaledClock.of(60, ""));
+
+        // Then
+        assertTrue(e.getMessage().contains("simulation.epoch"), e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> ScaledClock.of(0.5, null));
+    }
+}
@@ -0,0 +1,46 @@
+package com.pizza.models.time;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SimulationClockAutoConfiguration Unit Tests")
+class SimulationClockAutoConfigurationTest {
+
+    private final SimulationClockAutoConfiguration configuration = new SimulationClockAutoConfiguration();
+
+    @Test
+    @DisplayName("Should create a wall-clock speed clock by default")
+    void simulationClock_shouldRunAtWallClockSpeedByDefault() {
+        // When
+        SimulationClock clock = configuration.simulationClock(1, "");
+
+        // Then
+        ScaledClock scaled = assertInstanceOf(ScaledClock.class, clock);
+        assertEquals(1, scaled.getSpeed());
+        LocalDateTime now = LocalDateTime.now();
+        assertFalse(clock.now().isBefore(now.minusSeconds(1)));
+        assertFalse(clock.now().isAfter(now.plusSeconds(1)));
+    }
+
+    @Test
+    @DisplayName("Should start the simulation at the configured epoch")
+    void simulationClock_shouldUseConfiguredSpeedAndEpoch() {
+        // When
+        SimulationClock clock = configuration.simulationClock(60, "2020-01-01T00:00:00Z");
+
+        // Then the simulated time is far ahead of the wall clock after six years
+        assertEquals(60, ((ScaledClock) clock).getSpeed());
+        assertTrue(clock.now().isAfter(LocalDateTime.now().plusYears(100)));
+    }
+
+    @Test
+    @DisplayName("Should refuse a faster simulation without a shared epoch")
+    void simulationClock_shouldRequireEpochAtOtherSpeeds() {
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> configuration.simulationClock(60, ""));
+    }
+}
@@ -0,0 +1,133 @@
+package com.pizza.models.time;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("VirtualClock Unit Tests")
+class VirtualClockTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 16, 10, 0);
+
+    @Test
+    @DisplayName("Should stand still until advanced")
+    void now_shouldOnlyMoveWhenAdvanced() {
+        // Given
+        VirtualClock clock = new VirtualClock(START);
+
+        // When
+        LocalDateTime before = clock.now();
+        clock.advance(Duration.ofHours(3));
+
+        // Then
+        assertEquals(START, before);
+        assertEquals(START.plusHours(3), clock.now());
+    }
+
+    @Test
+    @DisplayName("Should run events in time order and same-time events in scheduling order")
+    void advanceTo_shouldRunEventsInOrder() {
+        // Given
+        VirtualClock clock = new VirtualClock(START);
+        List<String> log = new ArrayList<>();
+        clock.schedule(() -> log.add("b@" + clock.now().getMinute()), Duration.ofMinutes(2));
+        clock.schedule(() -> log.add("a@" + clock.now().getMinute()), Duration.ofMinutes(1));
+        clock.schedule(() -> log.add("c@" + clock.now().getMinute()), Duration.ofMinutes(2));
+        clock.schedule(() -> log.add("late"), Duration.ofMinutes(10));
+
+        // When
+        int run = clock.advance(Duration.ofMinutes(5));
+
+        // Then
+        assertEquals(3, run);
+        assertEquals(List.of("a@1", "b@2", "c@2"), log);
+    }
+
+    @Test
+    @DisplayName("Should repeat periodic tasks until cancelled")
+    void scheduleAtFixedRate_shouldRepeatUntilCancelled() {
+        // Given
+        VirtualClock clock = new VirtualClock(START);
+        List<LocalDateTime> runs = new ArrayList<>();
+        SimulationClock.Task task = clock.scheduleAtFixedRate(() -> runs.add(clock.now()), Duration.ofSeconds(5));
+
+        // When
+        clock.advance(Duration.ofSeconds(16));
+        task.cancel();
+        clock.advance(Duration.ofMinutes(1));
+
+        // Then
+        assertEquals(List.of(START.plusSeconds(5), START.plusSeconds(10), START.plusSeconds(15)), runs);
+    }
+
+    @Test
+    @DisplayName("Should keep running events after a task failed")
+    void advanceTo_shouldSurviveFailingTask() {
+        // Given
+        VirtualClock clock = new VirtualClock(START);
+        List<String> log = new ArrayList<>();
+        clock.schedule(() -> {
+            throw new IllegalStateException("boom");
+        }, Duration.ofSeconds(1));
+        clock.schedule(() -> log.add("after"), Duration.ofSeconds(2));
+
+        // When
+        clock.advance(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(List.of("after"), log);
+    }
+
+    @Test
+    @DisplayName("Should release a sleeping thread once time reaches its wake-up time")
+    void sleep_shouldWakeUpWhenTimeAdvances() throws Exception {
+        // Given
+        VirtualClock clock = new VirtualClock(START);
+        CompletableFuture<LocalDateTime> woken = CompletableFuture.supplyAsync(() -> {
+            try {
+                clock.sleep(Duration.ofMinutes(10));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return clock.now();
+        });
+        // Wait until the sleeper is queued
+        while (clock.getPendingEvents() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // When
+        clock.advance(Duration.ofMinutes(5));
+        boolean earlyWakeUp = woken.isDone();
+        clock.advance(Duration.ofMinutes(5));
+
+        // Then
+        assertFalse(earlyWakeUp);
+        assertEquals(START.plusMinutes(10), woken.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should drop scheduled tasks when closed")
+    void close_shouldCancelTasks() {
+        // Given
+        VirtualClock clock = new VirtualClock(START);
+        List<String> log = new ArrayList<>();
+        clock.scheduleAtFixedRate(() -> log.add("tick"), Duration.ofSeconds(1));
+
+        // When
+        clock.close();
+        int run = clock.advance(Duration.ofMinutes(1));
+
+        // Then
+        assertEquals(0, run);
+        assertTrue(log.isEmpty());
+    }
+}
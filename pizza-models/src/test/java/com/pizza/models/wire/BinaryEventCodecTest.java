@@ -0,0 +1,147 @@
+package com.pizza.models.wire;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pizza.models.OrderPlacedEvent;
+import com.pizza.models.OrderReadyEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BinaryEventCodec Unit Tests")
+class BinaryEventCodecTest {
+
+    private static final String ORDER_ID = "123e4567-e89b-12d3-a456-426614174000";
+
+    private static OrderReadyEvent readyEvent() {
+        return new OrderReadyEvent(ORDER_ID, "Margherita", 2, "Musterstrasse 123, 8000 Zurich",
+                "Max Mustermann", LocalDateTime.of(2026, 1, 16, 10, 0, 12, 345_678_000));
+    }
+
+    @Test
+    @DisplayName("Should round-trip both event types")
+    void decode_shouldReturnEncodedEvents() {
+        // Given
+        OrderReadyEvent ready = readyEvent();
+        OrderPlacedEvent placed = new OrderPlacedEvent(ORDER_ID, "Quattro Formaggi", 1, "Bahnhofstrasse 1",
+                "Anna Schmidt", LocalDateTime.of(1969, 12, 31, 23, 59, 59));
+
+        // When & Then
+        assertEquals(ready, BinaryEventCodec.decode(BinaryEventCodec.encode(ready)));
+        assertEquals(placed, BinaryEventCodec.decode(BinaryEventCodec.encode(placed)));
+    }
+
+    @Test
+    @DisplayName("Should round-trip null fields, non-UUID IDs and non-ASCII text")
+    void decode_shouldKeepUnusualValues() {
+        // Given
+        OrderReadyEvent sparse = new OrderReadyEvent("order-1", null, null, null, null, null);
+        OrderReadyEvent upperCase = new OrderReadyEvent(ORDER_ID.toUpperCase(), "Calzone", -3, "",
+                "J\u00fcrg M\u00fcller \ud83c\udf55", LocalDateTime.MIN);
+        OrderReadyEvent empty = new OrderReadyEvent();
+
+        // When & Then
+        assertEquals(sparse, BinaryEventCodec.decode(BinaryEventCodec.encode(sparse)));
+        assertEquals(upperCase, BinaryEventCodec.decode(BinaryEventCodec.encode(upperCase)));
+        assertEquals(empty, BinaryEventCodec.decode(BinaryEventCodec.encode(empty)));
+    }
+
+    @Test
+    @DisplayName("Should round-trip the timestamps of every hop")
+    void decode_shouldKeepTimeline() {
+        // Given
+        LocalDateTime placedAt = LocalDateTime.of(2026, 1, 16, 9, 59, 50, 123_000_000);
+        OrderPlacedEvent placed = new OrderPlacedEvent(ORDER_ID, "Margherita", 2, "Musterstrasse 123, 8000 Zurich",
+                "Max Mustermann", placedAt, placedAt.plusNanos(850_000_000), placedAt.plusSeconds(1));
+        OrderReadyEvent ready = new OrderReadyEvent(ORDER_ID, "Margherita", 2, "Musterstrasse 123, 8000 Zurich",
+                "Max Mustermann", placedAt.plusSeconds(9), placedAt, placedAt.plusNanos(850_000_000),
+                placedAt.plusSeconds(1), placedAt.plusSeconds(2), placedAt.plusSeconds(10));
+
+        // When & Then
+        assertEquals(placed, BinaryEventCodec.decode(BinaryEventCodec.encode(placed)));
+        assertEquals(ready, BinaryEventCodec.decode(BinaryEventCodec.encode(ready)));
+    }
+
+    @Test
+    @DisplayName("Should read events of version 1 without the timeline")
+    void decode_shouldReadVersionOne() {
+        // Given the six fields of version 1, whose presence byte is also its varint
+        OrderReadyEvent event = readyEvent();
+        byte[] encoded = BinaryEventCodec.encode(event);
+        encoded[0] = 1;
+
+        // When
+        Object decoded = BinaryEventCodec.decode(encoded);
+
+        // Then
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    @DisplayName("Should share the pizza of decoded events")
+    void decode_shouldInternPizza() {
+        // Given
+        byte[] encoded = BinaryEventCodec.encode(readyEvent());
+
+        // When
+        OrderReadyEvent first = (OrderReadyEvent) BinaryEventCodec.decode(encoded);
+        OrderReadyEvent second = (OrderReadyEvent) BinaryEventCodec.decode(encoded);
+
+        // Then
+        assertSame(first.getPizza(), second.getPizza());
+        assertNotSame(first.getCustomerName(), second.getCustomerName());
+    }
+
+    @Test
+    @DisplayName("Should take less than half the size of the JSON encoding")
+    void encode_shouldBeSmallerThanJson() throws Exception {
+        // Given the JSON the services send, with ISO date-times
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        OrderReadyEvent event = readyEvent();
+
+        // When
+        int json = mapper.writeValueAsBytes(event).length;
+        int binary = BinaryEventCodec.encode(event).length;
+
+        // Then
+        assertTrue(binary * 2 < json, binary + " binary vs " + json + " JSON bytes");
+    }
+
+    @Test
+    @DisplayName("Should reject unknown types, versions and truncated events")
+    void decode_shouldRejectMalformedBytes() {
+        byte[] encoded = BinaryEventCodec.encode(readyEvent());
+        byte[] unknownVersion = encoded.clone();
+        unknownVersion[0] = 9;
+        byte[] unknownType = encoded.clone();
+        unknownType[1] = 9;
+        // Presence of field 11, one past the last field of OrderReadyEvent
+        byte[] unknownField = {BinaryEventCodec.VERSION, 2, (byte) 0x80, 0x10};
+
+        assertThrows(IllegalArgumentException.class, () -> BinaryEventCodec.decode(unknownVersion));
+        assertThrows(IllegalArgumentException.class, () -> BinaryEventCodec.decode(unknownType));
+        assertThrows(IllegalArgumentException.class, () -> BinaryEventCodec.decode(unknownField));
+        for (int length = 0; length < encoded.length; length++) {
+            byte[] truncated = Arrays.copyOf(encoded, length);
+            assertThrows(IllegalArgumentException.class, () -> BinaryEventCodec.decode(truncated),
+                    "truncated to " + length);
+        }
+        byte[] trailing = Arrays.copyOf(encoded, encoded.length + 1);
+        assertThrows(IllegalArgumentException.class, () -> BinaryEventCodec.decode(trailing));
+    }
+
+    @Test
+    @DisplayName("Should only support the event types with a schema")
+    void supports_shouldKnowEventTypes() {
+        assertTrue(BinaryEventCodec.supports(OrderPlacedEvent.class));
+        assertTrue(BinaryEventCodec.supports(OrderReadyEvent.class));
+        assertFalse(BinaryEventCodec.supports(String.class));
+        assertThrows(IllegalArgumentException.class, () -> BinaryEventCodec.encode("text"));
+    }
+}
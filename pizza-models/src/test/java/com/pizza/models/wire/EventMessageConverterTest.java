@@ -0,0 +1,159 @@
+package com.pizza.models.wire;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pizza.models.OrderPlacedEvent;
+import com.pizza.models.OrderReadyEvent;
+import com.pizza.models.schema.EventSchemaRegistry;
+import com.pizza.models.schema.Upcaster;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EventMessageConverter Unit Tests")
+class EventMessageConverterTest {
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final Jackson2JsonMessageConverter json = new Jackson2JsonMessageConverter(mapper);
+
+    private static OrderReadyEvent readyEvent() {
+        return new OrderReadyEvent("123e4567-e89b-12d3-a456-426614174000", "Margherita", 2,
+                "Musterstrasse 123, 8000 Zurich", "Max Mustermann", LocalDateTime.of(2026, 1, 16, 10, 0));
+    }
+
+    @Test
+    @DisplayName("Should send the configured event types in the binary format")
+    void toMessage_shouldEncodeBinaryTypes() {
+        // Given
+        EventMessageConverter converter = new EventMessageConverter(json, Set.of(OrderReadyEvent.class));
+
+        // When
+        Message message = converter.toMessage(readyEvent(), new MessageProperties());
+
+        // Then
+        assertEquals(BinaryEventCodec.CONTENT_TYPE, message.getMessageProperties().getContentType());
+        assertEquals(message.getBody().length, message.getMessageProperties().getContentLength());
+        assertEquals(readyEvent(), BinaryEventCodec.decode(message.getBody()));
+    }
+
+    @Test
+    @DisplayName("Should send other types as JSON")
+    void toMessage_shouldFallBackToJson() {
+        // Given
+        EventMessageConverter converter = new EventMessageConverter(json, Set.of(OrderReadyEvent.class));
+        OrderPlacedEvent placed = new OrderPlacedEvent("order-1", "Calzone", 1, "Address", "Customer",
+                LocalDateTime.of(2026, 1, 16, 10, 0));
+
+        // When
+        Message message = converter.toMessage(placed, new MessageProperties());
+
+        // Then
+        assertEquals(MessageProperties.CONTENT_TYPE_JSON, message.getMessageProperties().getContentType());
+        assertEquals(placed, converter.fromMessage(message));
+    }
+
+    @Test
+    @DisplayName("Should accept JSON and binary messages on the same queue")
+    void fromMessage_shouldNegotiateByContentType() {
+        // Given a JSON producer and a binary producer of the same event
+        EventMessageConverter consumer = new EventMessageConverter(json, List.of());
+        Message fromJson = new EventMessageConverter(json, List.of())
+                .toMessage(readyEvent(), new MessageProperties());
+        Message fromBinary = new EventMessageConverter(json, List.of(OrderReadyEvent.class))
+                .toMessage(readyEvent(), new MessageProperties());
+
+        // When & Then
+        assertEquals(readyEvent(), consumer.fromMessage(fromJson));
+        assertEquals(readyEvent(), consumer.fromMessage(fromBinary));
+    }
+
+    @Test
+    @DisplayName("Should report undecodable binary messages as conversion errors")
+    void fromMessage_shouldRejectMalformedBinary() {
+        // Given
+        EventMessageConverter converter = new EventMessageConverter(json, List.of());
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(BinaryEventCodec.CONTENT_TYPE);
+
+        // When & Then
+        assertThrows(MessageConversionException.class,
+                () -> converter.fromMessage(new Message(new byte[]{1, 2}, properties)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new EventMessageConverter(json, List.of(String.class)));
+    }
+
+    @Test
+    @DisplayName("Should send the schema version and upcast JSON events of older versions")
+    void fromMessage_shouldUpcastOlderSchemaVersions() {
+        // Given a producer on version 1 and a consumer on a version 2 that renamed preparedAt
+        Message fromV1 = new EventMessageConverter(mapper, List.of(), EventSchemaRegistry.standard())
+                .toMessage(readyEvent(), new MessageProperties());
+        String v1Json = new String(fromV1.getBody()).replace("\"preparedAt\"", "\"readyAt\"");
+        Message renamed = new Message(v1Json.getBytes(), fromV1.getMessageProperties());
+        EventMessageConverter consumer = new EventMessageConverter(mapper, List.of(), EventSchemaRegistry.empty()
+                .register(OrderReadyEvent.class, 2, Upcaster.renameFields(1, Map.of("readyAt", "preparedAt"))));
+
+        // When & Then
+        assertEquals(Integer.valueOf(1), fromV1.getMessageProperties().getHeader(EventSchemaRegistry.VERSION_HEADER));
+        assertEquals(readyEvent(), consumer.fromMessage(renamed));
+        assertNull(((OrderReadyEvent) json.fromMessage(renamed)).getPreparedAt());
+    }
+
+    @Test
+    @DisplayName("Should gzip bodies from the threshold on and restore the original encoding")
+    void toMessage_shouldCompressLargeBodies() throws Exception {
+        // Given
+        EventMessageConverter converter = new EventMessageConverter(mapper, List.of(), EventSchemaRegistry.standard())
+                .withCompression(512);
+        OrderReadyEvent large = readyEvent();
+        large.setAddress("Musterstrasse 123, 8000 Zurich, ".repeat(40));
+
+        // When
+        Message small = converter.toMessage(readyEvent(), new MessageProperties());
+        Message compressed = converter.toMessage(large, new MessageProperties());
+
+        // Then
+        assertEquals("UTF-8", small.getMessageProperties().getContentEncoding());
+        assertEquals("gzip:UTF-8", compressed.getMessageProperties().getContentEncoding());
+        int raw = mapper.writeValueAsBytes(large).length;
+        assertTrue(compressed.getBody().length * 4 < raw, "compressed " + raw + " to " + compressed.getBody().length);
+        assertEquals(compressed.getBody().length, compressed.getMessageProperties().getContentLength());
+        assertEquals(large, new EventMessageConverter(json, List.of()).fromMessage(compressed));
+        assertEquals(readyEvent(), converter.fromMessage(small));
+    }
+
+    @Test
+    @DisplayName("Should accept compressed binary events and reject corrupt compressed bodies")
+    void fromMessage_shouldDecompressBinary() {
+        // Given
+        Message binary = new EventMessageConverter(json, List.of(OrderReadyEvent.class)).withCompression(0)
+                .toMessage(readyEvent(), new MessageProperties());
+        String sentEncoding = binary.getMessageProperties().getContentEncoding();
+        byte[] body = PayloadCompression.compress(binary.getBody());
+        MessageProperties properties = binary.getMessageProperties();
+        properties.setContentEncoding(PayloadCompression.GZIP);
+        MessageProperties corrupt = new MessageProperties();
+        corrupt.setContentEncoding("gzip:UTF-8");
+
+        // When & Then
+        EventMessageConverter consumer = new EventMessageConverter(json, List.of());
+        assertNull(sentEncoding, "gzip would not make the binary event smaller");
+        assertEquals(readyEvent(), consumer.fromMessage(new Message(body, properties)));
+        assertThrows(MessageConversionException.class,
+                () -> consumer.fromMessage(new Message(new byte[]{1}, corrupt)));
+    }
+}
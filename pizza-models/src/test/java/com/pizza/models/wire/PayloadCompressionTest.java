@@ -0,0 +1,49 @@
+package com.pizza.models.wire;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PayloadCompression Unit Tests")
+class PayloadCompressionTest {
+
+    private static byte[] listing(int deliveries) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < deliveries; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"orderId\":\"order-").append(i)
+                    .append("\",\"status\":\"IN_TRANSIT\",\"driverName\":\"Max Mustermann\",")
+                    .append("\"address\":\"Musterstrasse ").append(i).append(", 8000 Zurich\"}");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Should round-trip and shrink repetitive JSON")
+    void compress_shouldRoundTrip() throws Exception {
+        // Given
+        byte[] json = listing(100);
+
+        // When
+        byte[] compressed = PayloadCompression.compress(json);
+
+        // Then
+        assertTrue(compressed.length * 5 < json.length, compressed.length + " of " + json.length);
+        assertArrayEquals(json, PayloadCompression.decompress(compressed));
+        assertArrayEquals(new byte[0], PayloadCompression.decompress(PayloadCompression.compress(new byte[0])));
+    }
+
+    @Test
+    @DisplayName("Should reject bodies that are not gzip or inflate beyond the limit")
+    void decompress_shouldRejectInvalidBodies() {
+        // Given
+        byte[] bomb = PayloadCompression.compress(new byte[PayloadCompression.MAX_DECOMPRESSED_BYTES + 1]);
+
+        // When & Then
+        assertThrows(IOException.class, () -> PayloadCompression.decompress(new byte[]{1, 2, 3}));
+        assertThrows(IOException.class, () -> PayloadCompression.decompress(bomb));
+    }
+}